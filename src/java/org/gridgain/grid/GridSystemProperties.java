@@ -332,6 +332,29 @@ public final class GridSystemProperties {
      */
     public static final String GG_SLOW_TX_WARN_TIMEOUT = "GRIDGAIN_SLOW_TX_WARN_TIMEOUT";
 
+    /**
+     * Time window in milliseconds during which responses of jobs received in batch
+     * requests are coalesced into a single message per task. Default value is {@code 10}.
+     * {@code 0} disables coalescing, so every job response is sent immediately.
+     */
+    public static final String GG_JOB_RESPONSE_BATCH_WINDOW = "GRIDGAIN_JOB_RESPONSE_BATCH_WINDOW";
+
+    /**
+     * If this system property is set to {@code true}, jobs activated by collision SPI are executed
+     * by work-stealing executor with one thread per available processor, instead of executor service
+     * provided by {@link GridConfiguration#getExecutorService()}. Job priorities defined for
+     * {@link org.gridgain.grid.spi.collision.priorityqueue.GridPriorityQueueCollisionSpi} are
+     * respected by this executor. It should only be enabled for short jobs that do not block.
+     */
+    public static final String GG_JOB_WORK_STEALING_EXECUTOR = "GRIDGAIN_JOB_WORK_STEALING_EXECUTOR";
+
+    /**
+     * Number of removed keys of ATOMIC cache partition for which removal version is kept, so
+     * that delayed updates older than removal are not applied on backup nodes. Default value
+     * is {@code 1000} per partition.
+     */
+    public static final String GG_ATOMIC_RMV_HISTORY_SIZE = "GRIDGAIN_ATOMIC_REMOVE_HISTORY_SIZE";
+
     /**
      * Enforces singleton.
      */
@@ -0,0 +1,45 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid;
+
+import java.util.*;
+
+/**
+ * Optional interface for {@link GridTask} implementations that reduce job results incrementally.
+ * By default all job results are kept in memory until all jobs finish and then are passed into
+ * {@link GridTask#reduce(List) GridTask.reduce(List&lt;GridJobResult&gt;)} method at once, which
+ * may require a lot of memory on the task node for tasks whose jobs return large partial aggregates.
+ * <p>
+ * When task implements this interface, every job result that is not failed over is passed into
+ * {@link #collect(GridJobResult)} method as soon as it is received, right after
+ * {@link GridTask#result(GridJobResult, List) GridTask.result(GridJobResult, List&lt;GridJobResult&gt;)}
+ * method, and is discarded right after that, i.e. {@link GridJobResult#getData()} will return
+ * {@code null} for all results passed into {@link GridTask#reduce(List)} method. Task should
+ * accumulate results in its own state and return final aggregate from
+ * {@link GridTask#reduce(List)} method.
+ * <p>
+ * Results are collected one at a time in the order they are received, so {@link #collect(GridJobResult)}
+ * method does not need to be thread-safe.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public interface GridTaskIncrementalReducer {
+    /**
+     * Accumulates given job result.
+     *
+     * @param res Received job result.
+     * @return {@code True} to continue collecting results, {@code false} to stop waiting
+     *      for remaining results and proceed to {@link GridTask#reduce(List)} method.
+     * @throws GridException If result could not be collected. In this case the whole task
+     *      will fail with this exception.
+     */
+    public boolean collect(GridJobResult res) throws GridException;
+}
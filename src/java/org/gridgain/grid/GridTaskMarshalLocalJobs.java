@@ -0,0 +1,35 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid;
+
+import java.lang.annotation.*;
+import java.util.*;
+
+/**
+ * This annotation disables passing of jobs by reference to local node when attached to
+ * {@link GridTask} class being executed. By default jobs that are mapped to local node are
+ * not marshalled: job instance returned from {@link GridTask#map(List, Object)}, session and
+ * job attributes, and job result are passed between task and job processing by reference.
+ * When this annotation is attached to a task class, local jobs are marshalled and sent through
+ * communication SPI the same way as jobs mapped to remote nodes.
+ * <p>
+ * Use this annotation when task relies on copy semantics, for example if jobs modify their own
+ * state during execution and task reuses job instances after they have been executed, or if job
+ * results are modified by task while jobs still hold references to them.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface GridTaskMarshalLocalJobs {
+    // No-op.
+}
@@ -0,0 +1,75 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import java.util.*;
+
+/**
+ * Single benchmark executed by {@link GridBenchmarkRunner}. Runner invokes {@link #setUp()}
+ * once, then calls {@link #op(Random)} from several threads concurrently for warmup and
+ * measurement periods, and finally calls {@link #tearDown()}.
+ * <p>
+ * Implementations must make {@link #op(Random)} thread-safe.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public abstract class GridBenchmark {
+    /** Benchmark name. */
+    private final String name;
+
+    /**
+     * @param name Benchmark name, should be stable across releases so that results
+     *      could be compared.
+     */
+    protected GridBenchmark(String name) {
+        assert name != null;
+
+        this.name = name;
+    }
+
+    /**
+     * @return Benchmark name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Prepares benchmark before warmup.
+     *
+     * @throws Exception If failed.
+     */
+    public void setUp() throws Exception {
+        // No-op.
+    }
+
+    /**
+     * Performs single benchmarked operation.
+     *
+     * @param rnd Random owned by calling thread.
+     * @throws Exception If failed.
+     */
+    public abstract void op(Random rnd) throws Exception;
+
+    /**
+     * Releases resources after measurement.
+     *
+     * @throws Exception If failed.
+     */
+    public void tearDown() throws Exception {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,108 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import java.util.*;
+
+/**
+ * Result of a single benchmark run.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridBenchmarkResult {
+    /** Benchmark name. */
+    private final String name;
+
+    /** Number of threads. */
+    private final int threads;
+
+    /** Number of operations performed. */
+    private final long ops;
+
+    /** Measurement duration in nanoseconds. */
+    private final long durNanos;
+
+    /**
+     * @param name Benchmark name.
+     * @param threads Number of threads.
+     * @param ops Number of operations performed.
+     * @param durNanos Measurement duration in nanoseconds.
+     */
+    public GridBenchmarkResult(String name, int threads, long ops, long durNanos) {
+        assert name != null;
+        assert durNanos > 0;
+
+        this.name = name;
+        this.threads = threads;
+        this.ops = ops;
+        this.durNanos = durNanos;
+    }
+
+    /**
+     * @return Benchmark name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Number of threads.
+     */
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * @return Number of operations performed.
+     */
+    public long operations() {
+        return ops;
+    }
+
+    /**
+     * @return Measurement duration in nanoseconds.
+     */
+    public long durationNanos() {
+        return durNanos;
+    }
+
+    /**
+     * @return Throughput in operations per second.
+     */
+    public double throughput() {
+        return ops * 1e9d / durNanos;
+    }
+
+    /**
+     * @return Average operation latency in nanoseconds as observed by single thread.
+     */
+    public double averageLatency() {
+        return ops == 0 ? 0 : (double)durNanos * threads / ops;
+    }
+
+    /**
+     * Gets JSON representation of this result. Field order and number formatting
+     * are fixed, so results of different runs could be compared textually.
+     *
+     * @return JSON object.
+     */
+    public String toJson() {
+        return "{\"benchmark\":\"" + name + "\",\"threads\":" + threads + ",\"ops\":" + ops +
+            ",\"durationNanos\":" + durNanos + ",\"opsPerSec\":" + String.format(Locale.US, "%.1f", throughput()) +
+            ",\"avgLatencyNanos\":" + String.format(Locale.US, "%.1f", averageLatency()) + '}';
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return name + " [threads=" + threads + ", ops/sec=" + (long)throughput() +
+            ", avgLatencyNanos=" + (long)averageLatency() + ']';
+    }
+}
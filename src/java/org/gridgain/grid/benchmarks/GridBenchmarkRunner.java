@@ -0,0 +1,309 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Runner for {@link GridBenchmark}s. Every benchmark is executed by fixed number of threads,
+ * first for warmup period and then for measurement period, and only operations performed
+ * during measurement period are reported.
+ * <p>
+ * When started from command line, runner executes all benchmarks shipped with GridGain
+ * (cache, marshaller, concurrent map and NIO benchmarks) or only those whose names start
+ * with one of the prefixes given as arguments, for example:
+ * <pre class="snippet">
+ * java -Dgridgain.benchmark.out=results.json org.gridgain.grid.benchmarks.GridBenchmarkRunner cache. marshaller.
+ * </pre>
+ * The following system properties are supported:
+ * <ul>
+ * <li>{@code gridgain.benchmark.threads} - number of threads (default is number of CPUs).</li>
+ * <li>{@code gridgain.benchmark.warmup} - warmup period in seconds (default is {@code 5}).</li>
+ * <li>{@code gridgain.benchmark.duration} - measurement period in seconds (default is {@code 10}).</li>
+ * <li>{@code gridgain.benchmark.out} - file results are written to in JSON format.</li>
+ * </ul>
+ * JSON results are sorted by benchmark name and have fixed format (see
+ * {@link GridBenchmarkResult#toJson()}), so results of two runs, e.g. before and after
+ * upgrade, could be compared with any diff tool.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridBenchmarkRunner {
+    /** Default warmup period in seconds. */
+    public static final int DFLT_WARMUP = 5;
+
+    /** Default measurement period in seconds. */
+    public static final int DFLT_DURATION = 10;
+
+    /** Number of threads. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Warmup period in milliseconds. */
+    private long warmup = DFLT_WARMUP * 1000L;
+
+    /** Measurement period in milliseconds. */
+    private long dur = DFLT_DURATION * 1000L;
+
+    /**
+     * @param threads Number of threads.
+     */
+    public void setThreads(int threads) {
+        A.ensure(threads > 0, "threads > 0");
+
+        this.threads = threads;
+    }
+
+    /**
+     * @param warmup Warmup period in milliseconds.
+     */
+    public void setWarmup(long warmup) {
+        A.ensure(warmup >= 0, "warmup >= 0");
+
+        this.warmup = warmup;
+    }
+
+    /**
+     * @param dur Measurement period in milliseconds.
+     */
+    public void setDuration(long dur) {
+        A.ensure(dur > 0, "dur > 0");
+
+        this.dur = dur;
+    }
+
+    /**
+     * Runs given benchmarks one by one.
+     *
+     * @param benchmarks Benchmarks.
+     * @return Results sorted by benchmark name.
+     * @throws GridException If any of benchmarks failed.
+     */
+    public List<GridBenchmarkResult> run(Collection<? extends GridBenchmark> benchmarks) throws GridException {
+        List<GridBenchmarkResult> res = new ArrayList<GridBenchmarkResult>(benchmarks.size());
+
+        for (GridBenchmark b : benchmarks) {
+            GridBenchmarkResult r = run(b);
+
+            X.println(">>> " + r);
+
+            res.add(r);
+        }
+
+        Collections.sort(res, new Comparator<GridBenchmarkResult>() {
+            @Override public int compare(GridBenchmarkResult r1, GridBenchmarkResult r2) {
+                return r1.name().compareTo(r2.name());
+            }
+        });
+
+        return res;
+    }
+
+    /**
+     * Runs single benchmark.
+     *
+     * @param b Benchmark.
+     * @return Result.
+     * @throws GridException If benchmark failed.
+     */
+    public GridBenchmarkResult run(GridBenchmark b) throws GridException {
+        try {
+            b.setUp();
+
+            try {
+                if (warmup > 0)
+                    execute(b, warmup);
+
+                long[] res = execute(b, dur);
+
+                return new GridBenchmarkResult(b.name(), threads, res[0], res[1]);
+            }
+            finally {
+                b.tearDown();
+            }
+        }
+        catch (GridException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new GridException("Benchmark failed: " + b.name(), e);
+        }
+    }
+
+    /**
+     * @param b Benchmark.
+     * @param period Period in milliseconds.
+     * @return Number of operations and actual period in nanoseconds.
+     * @throws GridException If benchmark failed.
+     */
+    private long[] execute(final GridBenchmark b, long period) throws GridException {
+        final AtomicBoolean stop = new AtomicBoolean();
+
+        final AtomicLong ops = new AtomicLong();
+
+        final AtomicReference<Throwable> err = new AtomicReference<Throwable>();
+
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        Collection<Thread> workers = new ArrayList<Thread>(threads);
+
+        for (int i = 0; i < threads; i++) {
+            final long seed = i;
+
+            Thread t = new Thread(new Runnable() {
+                @Override public void run() {
+                    Random rnd = new Random(seed);
+
+                    long cnt = 0;
+
+                    try {
+                        startLatch.await();
+
+                        while (!stop.get()) {
+                            b.op(rnd);
+
+                            cnt++;
+                        }
+                    }
+                    catch (Throwable e) {
+                        err.compareAndSet(null, e);
+
+                        stop.set(true);
+                    }
+                    finally {
+                        ops.addAndGet(cnt);
+                    }
+                }
+            }, "benchmark-" + b.name() + '-' + i);
+
+            t.start();
+
+            workers.add(t);
+        }
+
+        long start = System.nanoTime();
+
+        startLatch.countDown();
+
+        try {
+            long end = start + TimeUnit.MILLISECONDS.toNanos(period);
+
+            for (long now = start; now < end && !stop.get(); now = System.nanoTime())
+                Thread.sleep(Math.min(100, TimeUnit.NANOSECONDS.toMillis(end - now) + 1));
+
+            stop.set(true);
+
+            for (Thread t : workers)
+                t.join();
+        }
+        catch (InterruptedException e) {
+            stop.set(true);
+
+            throw new GridException("Benchmark was interrupted: " + b.name(), e);
+        }
+
+        long time = System.nanoTime() - start;
+
+        if (err.get() != null)
+            throw new GridException("Benchmark failed: " + b.name(), err.get());
+
+        return new long[] {ops.get(), time};
+    }
+
+    /**
+     * Gets results in JSON format.
+     *
+     * @param res Results.
+     * @return JSON document.
+     */
+    public static String toJson(Collection<GridBenchmarkResult> res) {
+        SB sb = new SB("{\"results\":[\n");
+
+        for (Iterator<GridBenchmarkResult> it = res.iterator(); it.hasNext();) {
+            sb.a("  ").a(it.next().toJson());
+
+            if (it.hasNext())
+                sb.a(',');
+
+            sb.a('\n');
+        }
+
+        return sb.a("]}\n").toString();
+    }
+
+    /**
+     * @param name Property name.
+     * @param dflt Default value.
+     * @return Property value.
+     */
+    private static int intProperty(String name, int dflt) {
+        String val = System.getProperty(name);
+
+        return F.isEmpty(val) ? dflt : Integer.parseInt(val);
+    }
+
+    /**
+     * @param args Optional benchmark name prefixes.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        GridBenchmarkRunner runner = new GridBenchmarkRunner();
+
+        runner.setThreads(intProperty("gridgain.benchmark.threads", Runtime.getRuntime().availableProcessors()));
+        runner.setWarmup(intProperty("gridgain.benchmark.warmup", DFLT_WARMUP) * 1000L);
+        runner.setDuration(intProperty("gridgain.benchmark.duration", DFLT_DURATION) * 1000L);
+
+        Collection<GridBenchmark> all = new ArrayList<GridBenchmark>();
+
+        all.addAll(GridMarshallerBenchmark.benchmarks());
+        all.addAll(GridConcurrentMapBenchmark.benchmarks());
+        all.addAll(GridNioBenchmark.benchmarks());
+        all.addAll(GridCacheBenchmark.benchmarks());
+        all.addAll(GridCacheHotReadBenchmark.benchmarks());
+
+        Collection<GridBenchmark> selected = new ArrayList<GridBenchmark>();
+
+        for (GridBenchmark b : all) {
+            boolean match = args.length == 0;
+
+            for (String prefix : args)
+                match |= b.name().startsWith(prefix);
+
+            if (match)
+                selected.add(b);
+        }
+
+        String json = toJson(runner.run(selected));
+
+        String out = System.getProperty("gridgain.benchmark.out");
+
+        if (F.isEmpty(out))
+            X.println(json);
+        else {
+            Writer w = new OutputStreamWriter(new FileOutputStream(out), "UTF-8");
+
+            try {
+                w.write(json);
+            }
+            finally {
+                U.close(w, null);
+            }
+
+            X.println(">>> Benchmark results written to: " + out);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.spi.communication.tcp.*;
+import org.gridgain.grid.spi.discovery.tcp.*;
+import org.gridgain.grid.spi.discovery.tcp.ipfinder.vm.*;
+import org.gridgain.grid.typedef.*;
+
+import java.util.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+import static org.gridgain.grid.cache.GridCacheTxConcurrency.*;
+import static org.gridgain.grid.cache.GridCacheTxIsolation.*;
+
+/**
+ * Cache benchmarks for {@code get}, {@code put} and transactional {@code put} operations in
+ * {@link GridCacheMode#LOCAL}, {@link GridCacheMode#REPLICATED} and {@link GridCacheMode#PARTITIONED}
+ * modes. Benchmark starts {@link #NODES} nodes in the same VM for distributed modes (only one
+ * node for local mode) and performs operations from the first node. Benchmarks are named as
+ * {@code cache.<mode>.<operation>}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheBenchmark extends GridBenchmark {
+    /** Number of nodes started for distributed cache modes. */
+    public static final int NODES = 3;
+
+    /** Number of keys. */
+    public static final int KEYS = 10000;
+
+    /** Shared IP finder for all benchmark nodes. */
+    private static final GridTcpDiscoveryVmIpFinder IP_FINDER = new GridTcpDiscoveryVmIpFinder(true);
+
+    /**
+     * Benchmarked operation.
+     */
+    private enum Operation {
+        /** Get. */
+        GET,
+
+        /** Put. */
+        PUT,
+
+        /** Put within pessimistic repeatable read transaction. */
+        TX_PUT
+    }
+
+    /** Cache mode. */
+    private final GridCacheMode mode;
+
+    /** Operation. */
+    private final Operation op;
+
+    /** Cache used by benchmark. */
+    private GridCache<Integer, Integer> cache;
+
+    /**
+     * @param mode Cache mode.
+     * @param op Operation.
+     */
+    private GridCacheBenchmark(GridCacheMode mode, Operation op) {
+        super("cache." + mode + '.' + op.name().toLowerCase());
+
+        this.mode = mode;
+        this.op = op;
+    }
+
+    /**
+     * Creates configuration of benchmark node.
+     *
+     * @param gridName Grid name.
+     * @param cacheCfg Cache configurations.
+     * @return Grid configuration.
+     */
+    static GridConfiguration configuration(String gridName, GridCacheConfiguration... cacheCfg) {
+        GridConfigurationAdapter cfg = new GridConfigurationAdapter();
+
+        cfg.setGridName(gridName);
+        cfg.setRestEnabled(false);
+
+        GridTcpDiscoverySpi discoSpi = new GridTcpDiscoverySpi();
+
+        discoSpi.setLocalAddress("127.0.0.1");
+        discoSpi.setIpFinder(IP_FINDER);
+
+        cfg.setDiscoverySpi(discoSpi);
+
+        GridTcpCommunicationSpi commSpi = new GridTcpCommunicationSpi();
+
+        commSpi.setLocalAddress("127.0.0.1");
+
+        cfg.setCommunicationSpi(commSpi);
+
+        cfg.setCacheConfiguration(cacheCfg);
+
+        return cfg;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        int nodes = mode == LOCAL ? 1 : NODES;
+
+        Grid grid = null;
+
+        for (int i = 0; i < nodes; i++) {
+            GridCacheConfigurationAdapter cacheCfg = new GridCacheConfigurationAdapter();
+
+            cacheCfg.setCacheMode(mode);
+
+            Grid g = G.start(configuration(name() + '-' + i, cacheCfg));
+
+            if (grid == null)
+                grid = g;
+        }
+
+        assert grid != null;
+
+        cache = grid.cache();
+
+        Map<Integer, Integer> vals = new HashMap<Integer, Integer>();
+
+        for (int i = 0; i < KEYS; i++) {
+            vals.put(i, i);
+
+            if (vals.size() == 500 || i == KEYS - 1) {
+                cache.putAll(vals);
+
+                vals.clear();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void op(Random rnd) throws Exception {
+        int key = rnd.nextInt(KEYS);
+
+        switch (op) {
+            case GET:
+                cache.get(key);
+
+                break;
+
+            case PUT:
+                cache.putx(key, key);
+
+                break;
+
+            case TX_PUT: {
+                GridCacheTx tx = cache.txStart(PESSIMISTIC, REPEATABLE_READ);
+
+                try {
+                    cache.putx(key, key);
+
+                    tx.commit();
+                }
+                finally {
+                    tx.end();
+                }
+
+                break;
+            }
+
+            default:
+                assert false : "Unknown operation: " + op;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        cache = null;
+
+        int nodes = mode == LOCAL ? 1 : NODES;
+
+        for (int i = nodes - 1; i >= 0; i--)
+            G.stop(name() + '-' + i, true);
+    }
+
+    /**
+     * @return Benchmarks for all cache modes and operations.
+     */
+    public static Collection<GridBenchmark> benchmarks() {
+        Collection<GridBenchmark> res = new ArrayList<GridBenchmark>();
+
+        for (GridCacheMode mode : new GridCacheMode[] {LOCAL, REPLICATED, PARTITIONED})
+            for (Operation op : Operation.values())
+                res.add(new GridCacheBenchmark(mode, op));
+
+        return res;
+    }
+
+    /**
+     * @param args Command line arguments (ignored).
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        X.println(GridBenchmarkRunner.toJson(new GridBenchmarkRunner().run(benchmarks())));
+    }
+}
@@ -0,0 +1,123 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.typedef.*;
+
+import java.util.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+
+/**
+ * Benchmark for concurrent reads of a small set of hot keys in {@link GridCacheMode#REPLICATED}
+ * cache, where all reads are served locally and contention is on cache entries themselves.
+ * Benchmarks are named as {@code cache.REPLICATED.hot-<operation>}.
+ * <p>
+ * When started from command line, benchmark is executed with number of threads doubled
+ * from {@code 1} up to {@link #MAX_THREADS} (or number given as the only argument) to
+ * show how reads scale with number of threads.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheHotReadBenchmark extends GridBenchmark {
+    /** Number of nodes. */
+    public static final int NODES = 2;
+
+    /** Number of hot keys. */
+    public static final int KEYS = 16;
+
+    /** Default maximum number of threads for scaling run. */
+    public static final int MAX_THREADS = 64;
+
+    /** Peek flag, if {@code false} then {@code get} is benchmarked. */
+    private final boolean peek;
+
+    /** Cache used by benchmark. */
+    private GridCache<Integer, Integer> cache;
+
+    /**
+     * @param peek Peek flag, if {@code false} then {@code get} is benchmarked.
+     */
+    private GridCacheHotReadBenchmark(boolean peek) {
+        super("cache." + REPLICATED + ".hot-" + (peek ? "peek" : "get"));
+
+        this.peek = peek;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        Grid grid = null;
+
+        for (int i = 0; i < NODES; i++) {
+            GridCacheConfigurationAdapter cacheCfg = new GridCacheConfigurationAdapter();
+
+            cacheCfg.setCacheMode(REPLICATED);
+
+            Grid g = G.start(GridCacheBenchmark.configuration(name() + '-' + i, cacheCfg));
+
+            if (grid == null)
+                grid = g;
+        }
+
+        assert grid != null;
+
+        cache = grid.cache();
+
+        for (int i = 0; i < KEYS; i++)
+            cache.putx(i, i);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void op(Random rnd) throws Exception {
+        int key = rnd.nextInt(KEYS);
+
+        Integer val = peek ? cache.peek(key) : cache.get(key);
+
+        assert val != null && val == key;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        cache = null;
+
+        for (int i = NODES - 1; i >= 0; i--)
+            G.stop(name() + '-' + i, true);
+    }
+
+    /**
+     * @return Hot read benchmarks.
+     */
+    public static Collection<GridBenchmark> benchmarks() {
+        return Arrays.<GridBenchmark>asList(new GridCacheHotReadBenchmark(false), new GridCacheHotReadBenchmark(true));
+    }
+
+    /**
+     * @param args Command line arguments, optional maximum number of threads.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : MAX_THREADS;
+
+        GridBenchmarkRunner runner = new GridBenchmarkRunner();
+
+        Collection<GridBenchmarkResult> res = new ArrayList<GridBenchmarkResult>();
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            runner.setThreads(threads);
+
+            res.addAll(runner.run(benchmarks()));
+        }
+
+        X.println(GridBenchmarkRunner.toJson(res));
+    }
+}
@@ -0,0 +1,181 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.*;
+
+import java.util.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+
+/**
+ * Benchmarks for concurrent maps on the cache hot path: {@link GridConcurrentLinkedHashMap}
+ * and {@link GridCacheConcurrentMap}. The latter is accessed through entry methods of
+ * local cache started on a single node ({@link GridCacheAdapter#peekEx(Object)} and
+ * {@link GridCacheAdapter#entryEx(Object)}), which do nothing else but map lookups.
+ * Benchmarks are named as {@code map.<map>.<operation>}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridConcurrentMapBenchmark extends GridBenchmark {
+    /** Number of keys. */
+    public static final int KEYS = 100000;
+
+    /** Grid name for cache map benchmarks. */
+    private static final String GRID_NAME = "map-benchmark";
+
+    /**
+     * Benchmarked operation.
+     */
+    private enum Operation {
+        /** Lookup of existing key. */
+        GET,
+
+        /** Put of existing key (for cache map - lookup or creation of entry). */
+        PUT,
+
+        /** 80% lookups, 10% puts and 10% removes (for cache map - removals of obsolete entries). */
+        MIXED
+    }
+
+    /** Operation. */
+    private final Operation op;
+
+    /** {@code True} for cache map benchmark. */
+    private final boolean cacheMap;
+
+    /** Map for linked hash map benchmark. */
+    private GridConcurrentLinkedHashMap<Integer, Integer> map;
+
+    /** Cache for cache map benchmark. */
+    private GridCacheAdapter<Integer, Integer> cache;
+
+    /**
+     * @param cacheMap {@code True} for cache map benchmark.
+     * @param op Operation.
+     */
+    private GridConcurrentMapBenchmark(boolean cacheMap, Operation op) {
+        super("map." + (cacheMap ? "cache" : "linked") + '.' + op.name().toLowerCase());
+
+        this.cacheMap = cacheMap;
+        this.op = op;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        if (cacheMap) {
+            GridCacheConfigurationAdapter cacheCfg = new GridCacheConfigurationAdapter();
+
+            cacheCfg.setCacheMode(LOCAL);
+
+            Grid g = G.start(GridCacheBenchmark.configuration(GRID_NAME, cacheCfg));
+
+            cache = ((GridKernal)g).context().cache().internalCache();
+
+            GridCache<Integer, Integer> c = g.cache();
+
+            for (int i = 0; i < KEYS; i++)
+                c.putx(i, i);
+        }
+        else {
+            map = new GridConcurrentLinkedHashMap<Integer, Integer>(KEYS);
+
+            for (int i = 0; i < KEYS; i++)
+                map.put(i, i);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void op(Random rnd) throws Exception {
+        int key = rnd.nextInt(KEYS);
+
+        Operation op = this.op;
+
+        if (op == Operation.MIXED) {
+            int p = rnd.nextInt(10);
+
+            if (p > 1)
+                op = Operation.GET;
+            else if (p == 1)
+                op = Operation.PUT;
+        }
+
+        if (cacheMap) {
+            switch (op) {
+                case GET:
+                    cache.peekEx(key);
+
+                    break;
+
+                case PUT:
+                    cache.entryEx(key);
+
+                    break;
+
+                default:
+                    cache.removeIfObsolete(key);
+            }
+        }
+        else {
+            switch (op) {
+                case GET:
+                    map.get(key);
+
+                    break;
+
+                case PUT:
+                    map.put(key, key);
+
+                    break;
+
+                default:
+                    map.remove(key);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (cacheMap) {
+            cache = null;
+
+            G.stop(GRID_NAME, true);
+        }
+        else
+            map = null;
+    }
+
+    /**
+     * @return Benchmarks for both maps and all operations.
+     */
+    public static Collection<GridBenchmark> benchmarks() {
+        Collection<GridBenchmark> res = new ArrayList<GridBenchmark>();
+
+        for (boolean cacheMap : new boolean[] {false, true})
+            for (Operation op : Operation.values())
+                res.add(new GridConcurrentMapBenchmark(cacheMap, op));
+
+        return res;
+    }
+
+    /**
+     * @param args Command line arguments (ignored).
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        X.println(GridBenchmarkRunner.toJson(new GridBenchmarkRunner().run(benchmarks())));
+    }
+}
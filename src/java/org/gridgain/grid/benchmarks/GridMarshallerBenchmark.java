@@ -0,0 +1,248 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.marshaller.*;
+import org.gridgain.grid.marshaller.jboss.*;
+import org.gridgain.grid.marshaller.jdk.*;
+import org.gridgain.grid.marshaller.optimized.*;
+import org.gridgain.grid.marshaller.xstream.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Benchmark comparing throughput of all {@link GridMarshaller} implementations, including
+ * {@link GridOptimizedMarshaller} with compiled field layouts enabled, on typical cache
+ * value objects. Every operation marshals and unmarshals one value.
+ * <p>
+ * Run it from command line with optional number of iterations as the only argument,
+ * or as part of {@link GridBenchmarkRunner} suite.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridMarshallerBenchmark extends GridBenchmark {
+    /** Default number of iterations. */
+    private static final int DFLT_ITERS = 200000;
+
+    /** Number of warmup iterations. */
+    private static final int WARMUP_ITERS = 50000;
+
+    /** Marshaller. */
+    private final GridMarshaller marsh;
+
+    /** Value to marshal. */
+    private final Object val;
+
+    /** Per-thread output stream. */
+    private final ThreadLocal<GridByteArrayOutputStream> out = new ThreadLocal<GridByteArrayOutputStream>() {
+        @Override protected GridByteArrayOutputStream initialValue() {
+            return new GridByteArrayOutputStream(1024);
+        }
+    };
+
+    /**
+     * @param name Benchmark name.
+     * @param marsh Marshaller.
+     * @param val Value to marshal.
+     */
+    private GridMarshallerBenchmark(String name, GridMarshaller marsh, Object val) {
+        super(name);
+
+        this.marsh = marsh;
+        this.val = val;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void op(Random rnd) throws Exception {
+        GridByteArrayOutputStream out = this.out.get();
+
+        out.reset();
+
+        marsh.marshal(val, out);
+
+        Object res = marsh.unmarshal(new ByteArrayInputStream(out.getInternalArray(), 0, out.size()),
+            GridMarshallerBenchmark.class.getClassLoader());
+
+        assert res != null;
+    }
+
+    /**
+     * @return Marshallers to compare.
+     */
+    private static Map<String, GridMarshaller> marshallers() {
+        GridOptimizedMarshaller fieldMarsh = new GridOptimizedMarshaller();
+
+        fieldMarsh.setCompiledFieldLayouts(true);
+
+        Map<String, GridMarshaller> marshs = new LinkedHashMap<String, GridMarshaller>();
+
+        marshs.put("jdk", new GridJdkMarshaller());
+        marshs.put("jboss", new GridJBossMarshaller());
+        marshs.put("xstream", new GridXstreamMarshaller());
+        marshs.put("optimized", new GridOptimizedMarshaller());
+        marshs.put("optimized-fields", fieldMarsh);
+
+        return marshs;
+    }
+
+    /**
+     * @return Values to marshal.
+     */
+    private static Object[] values() {
+        return new Object[] {
+            new Person(1, "John", "Smith", 1000.0d, new Address("Main St", "New York", 10001)),
+            new ArrayList<Person>(Arrays.asList(new Person(2, "Jane", "Doe", 2000.0d, null),
+                new Person(3, "Ivan", "Petrov", 500.0d,
+                    new Address("Nevsky", "St. Petersburg", 191186)))),
+        };
+    }
+
+    /**
+     * Gets benchmarks for every marshaller and value, named as
+     * {@code marshaller.<marshaller>.<value class>}.
+     *
+     * @return Benchmarks.
+     */
+    public static Collection<GridBenchmark> benchmarks() {
+        Collection<GridBenchmark> res = new ArrayList<GridBenchmark>();
+
+        for (Object val : values())
+            for (Map.Entry<String, GridMarshaller> e : marshallers().entrySet())
+                res.add(new GridMarshallerBenchmark("marshaller." + e.getKey() + '.' + val.getClass().getSimpleName(),
+                    e.getValue(), val));
+
+        return res;
+    }
+
+    /**
+     * @param args Command line arguments, optional number of iterations.
+     * @throws GridException If failed.
+     */
+    public static void main(String[] args) throws GridException {
+        int iters = args.length > 0 ? Integer.parseInt(args[0]) : DFLT_ITERS;
+
+        Map<String, GridMarshaller> marshs = marshallers();
+
+        for (Object val : values()) {
+            X.println(">>> Value: " + val.getClass().getSimpleName());
+
+            for (Map.Entry<String, GridMarshaller> e : marshs.entrySet()) {
+                run(e.getValue(), val, WARMUP_ITERS);
+
+                long start = System.nanoTime();
+
+                int size = run(e.getValue(), val, iters);
+
+                long dur = System.nanoTime() - start;
+
+                X.println(">>>     " + e.getKey() + " [ops/sec=" + (long)(iters * 1e9 / dur) + ", size=" + size + ']');
+            }
+        }
+    }
+
+    /**
+     * @param marsh Marshaller.
+     * @param val Value to marshal.
+     * @param iters Number of marshal/unmarshal iterations.
+     * @return Size of marshalled value.
+     * @throws GridException If failed.
+     */
+    private static int run(GridMarshaller marsh, Object val, int iters) throws GridException {
+        GridByteArrayOutputStream out = new GridByteArrayOutputStream(1024);
+
+        ClassLoader ldr = GridMarshallerBenchmark.class.getClassLoader();
+
+        for (int i = 0; i < iters; i++) {
+            out.reset();
+
+            marsh.marshal(val, out);
+
+            Object res = marsh.unmarshal(new ByteArrayInputStream(out.getInternalArray(), 0, out.size()), ldr);
+
+            assert res != null;
+        }
+
+        return out.size();
+    }
+
+    /**
+     * Typical cache value.
+     */
+    private static class Person implements Serializable {
+        /** */
+        private long id;
+
+        /** */
+        private String firstName;
+
+        /** */
+        private String lastName;
+
+        /** */
+        private double salary;
+
+        /** */
+        private Date birthday = new Date();
+
+        /** */
+        private UUID orgId = UUID.randomUUID();
+
+        /** */
+        private Address addr;
+
+        /** */
+        private List<String> phones = new ArrayList<String>(Arrays.asList("555-1234", "555-4321"));
+
+        /**
+         * @param id ID.
+         * @param firstName First name.
+         * @param lastName Last name.
+         * @param salary Salary.
+         * @param addr Address.
+         */
+        private Person(long id, String firstName, String lastName, double salary, Address addr) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.salary = salary;
+            this.addr = addr;
+        }
+    }
+
+    /**
+     * Nested value.
+     */
+    private static class Address implements Serializable {
+        /** */
+        private String street;
+
+        /** */
+        private String city;
+
+        /** */
+        private int zip;
+
+        /**
+         * @param street Street.
+         * @param city City.
+         * @param zip Zip code.
+         */
+        private Address(String street, String city, int zip) {
+            this.street = street;
+            this.city = city;
+            this.zip = zip;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.logger.java.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.nio.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Loopback throughput benchmark for {@link GridNioServer}. All benchmark threads send
+ * messages of fixed size through one {@link GridNioClient} connected to the server started
+ * in the same VM. Client outbound queue is bounded, so sending throughput can not exceed
+ * server receiving throughput for long. Benchmarks are named as {@code nio.<message size>}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridNioBenchmark extends GridBenchmark {
+    /** Message sizes. */
+    private static final int[] MSG_SIZES = {64, 1024, 16 * 1024};
+
+    /** Client outbound queue limit. */
+    private static final int QUEUE_LIMIT = 1024;
+
+    /** Message size. */
+    private final int msgSize;
+
+    /** Message body. */
+    private final byte[] msg;
+
+    /** Number of messages sent. */
+    private final AtomicLong sent = new AtomicLong();
+
+    /** Number of messages received. */
+    private final AtomicLong rcvd = new AtomicLong();
+
+    /** Logger. */
+    private final GridLogger log = new GridJavaLogger();
+
+    /** Executor. */
+    private ExecutorService exec;
+
+    /** Server. */
+    private GridNioServer srv;
+
+    /** Writer. */
+    private GridNioWriter writer;
+
+    /** Client. */
+    private GridNioClient client;
+
+    /**
+     * @param msgSize Message size.
+     */
+    private GridNioBenchmark(int msgSize) {
+        super("nio." + msgSize);
+
+        this.msgSize = msgSize;
+
+        msg = new byte[msgSize];
+
+        new Random(msgSize).nextBytes(msg);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        InetAddress addr = InetAddress.getByName("127.0.0.1");
+
+        exec = Executors.newCachedThreadPool();
+
+        int port = freePort(addr);
+
+        srv = new GridNioServer(addr, port, new GridNioServerListener() {
+            @Override public void onMessage(ByteBuffer data, boolean compressed) {
+                assert data.remaining() == msgSize;
+
+                rcvd.incrementAndGet();
+            }
+        }, log, exec, 1, null, false, true, new GridNioBufferPool(false));
+
+        srv.start();
+
+        writer = new GridNioWriter(log, 1, GridNioWriter.DFLT_MAX_GATHER_CNT, null);
+
+        writer.start();
+
+        client = new GridNioClient(addr, port, addr, 5000, writer, QUEUE_LIMIT);
+    }
+
+    /**
+     * @param addr Address.
+     * @return Port that is free at the moment.
+     * @throws IOException If failed.
+     */
+    private static int freePort(InetAddress addr) throws IOException {
+        ServerSocket sock = new ServerSocket(0, 1, addr);
+
+        try {
+            return sock.getLocalPort();
+        }
+        finally {
+            U.close(sock, null);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void op(Random rnd) throws Exception {
+        client.sendMessage(msg, msgSize);
+
+        sent.incrementAndGet();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        // Give server a chance to read messages remaining in flight.
+        for (long end = System.currentTimeMillis() + 10000;
+            rcvd.get() < sent.get() && System.currentTimeMillis() < end;)
+            U.sleep(10);
+
+        if (rcvd.get() < sent.get())
+            X.println(">>> Not all messages were received [sent=" + sent.get() + ", rcvd=" + rcvd.get() + ']');
+
+        if (client != null)
+            client.forceClose();
+
+        if (writer != null)
+            writer.stop();
+
+        if (srv != null)
+            srv.stop();
+
+        if (exec != null)
+            exec.shutdownNow();
+    }
+
+    /**
+     * @return Benchmarks for all message sizes.
+     */
+    public static Collection<GridBenchmark> benchmarks() {
+        Collection<GridBenchmark> res = new ArrayList<GridBenchmark>();
+
+        for (int size : MSG_SIZES)
+            res.add(new GridNioBenchmark(size));
+
+        return res;
+    }
+
+    /**
+     * @param args Command line arguments (ignored).
+     * @throws GridException If failed.
+     */
+    public static void main(String[] args) throws GridException {
+        X.println(GridBenchmarkRunner.toJson(new GridBenchmarkRunner().run(benchmarks())));
+    }
+}
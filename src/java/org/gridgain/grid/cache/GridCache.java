@@ -194,6 +194,18 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      */
     @Nullable public GridCacheEntry<K, V> randomEntry();
 
+    /**
+     * Creates new data loader for this cache. Data loader buffers entries per affinity
+     * node and sends them to those nodes in large batches, bypassing transactions and
+     * locking, which makes it the fastest way to populate cache with large amounts of data.
+     * <p>
+     * Data loader must be closed once loading is finished.
+     *
+     * @return New data loader.
+     * @see GridCacheDataLoader
+     */
+    public GridCacheDataLoader<K, V> dataLoader();
+
     /**
      * Will get a sequence from cache or create one with initial value of
      * {@code 0} if it has not been created yet. This method is analogous to
@@ -0,0 +1,63 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+*  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+*  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+*  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+*  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+*/
+
+package org.gridgain.grid.cache;
+
+import org.jetbrains.annotations.*;
+
+/**
+ * Cache atomicity mode controls whether cache updates are performed within transactions.
+ * This enumeration is used to configure atomicity via {@link GridCacheConfiguration#getAtomicityMode()}
+ * configuration property. If not configured explicitly, then {@link GridCacheConfiguration#DFLT_ATOMICITY_MODE}
+ * is used.
+ * <p>
+ * Note that {@link #ATOMIC} mode is currently supported only for {@link GridCacheMode#PARTITIONED}
+ * caches with near cache disabled.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public enum GridCacheAtomicityMode {
+    /**
+     * Transactional mode. Every cache update is performed within implicit or explicit
+     * transaction and acquires locks on all participating nodes.
+     */
+    TRANSACTIONAL,
+
+    /**
+     * Atomic mode. Single-key updates, such as
+     * {@link GridCacheProjection#put(Object, Object, org.gridgain.grid.lang.GridPredicate[])},
+     * {@link GridCacheProjection#putIfAbsent(Object, Object)} or
+     * {@link GridCacheProjection#remove(Object, org.gridgain.grid.lang.GridPredicate[])},
+     * do not create implicit transactions and do not acquire locks. Instead, update is sent
+     * to primary node for the key, applied there under entry synchronization with a newly generated
+     * version and then forwarded to backup nodes with a single message. Backup nodes apply
+     * updates only if update version is greater than current entry version.
+     * <p>
+     * Explicit transactions and JTA integration are not supported in this mode, since atomic
+     * updates do not respect transaction locks. Multi-key updates still use transactional
+     * protocol, however they are not isolated from concurrent atomic updates of the same keys.
+     * Single-key atomic updates may be retried on topology changes, so they should
+     * be idempotent.
+     */
+    ATOMIC;
+
+    /** Enumerated values. */
+    private static final GridCacheAtomicityMode[] VALS = values();
+
+    /**
+     * Efficiently gets enumerated value from its ordinal.
+     *
+     * @param ord Ordinal value.
+     * @return Enumerated value or {@code null} if ordinal out of range.
+     */
+    @Nullable public static GridCacheAtomicityMode fromOrdinal(byte ord) {
+        return ord >= 0 && ord < VALS.length ? VALS[ord] : null;
+    }
+}
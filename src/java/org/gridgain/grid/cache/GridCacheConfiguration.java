@@ -59,6 +59,9 @@ public interface GridCacheConfiguration {
     /** Default caching mode. */
     public static final GridCacheMode DFLT_CACHE_MODE = GridCacheMode.REPLICATED;
 
+    /** Default atomicity mode. */
+    public static final GridCacheAtomicityMode DFLT_ATOMICITY_MODE = GridCacheAtomicityMode.TRANSACTIONAL;
+
     /** Default transaction timeout. */
     public static final long DFLT_TRANSACTION_TIMEOUT = 0;
 
@@ -92,6 +95,9 @@ public interface GridCacheConfiguration {
     /** Default value for 'nearEvictionEnabled' flag. */
     public static final boolean DFLT_NEAR_EVICTION_ENABLED = true;
 
+    /** Default maximum number of keys in a single remote get request. */
+    public static final int DFLT_GET_BATCH_SIZE = 512;
+
     /** Default value for 'evictionEnabled' flag. */
     public static final boolean DFLT_EVICTION_ENABLED = true;
 
@@ -113,6 +119,15 @@ public interface GridCacheConfiguration {
     /** Default preload batch size in bytes. */
     public static final int DFLT_PRELOAD_BATCH_SIZE = 512 * 1024; // 512K
 
+    /** Default number of preload batches sent to demanding node without acknowledgement. */
+    public static final int DFLT_PRELOAD_BATCHES_PREFETCH_COUNT = 4;
+
+    /** Default maximum preload throughput in bytes per second ({@code 0} means unlimited). */
+    public static final long DFLT_PRELOAD_MAX_THROUGHPUT = 0;
+
+    /** Default number of updates remembered by every partition for delta preloading. */
+    public static final int DFLT_PRELOAD_PARTITION_HISTORY_SIZE = 1024;
+
     /** Default value for 'idxFixedTyping' flag. */
     public static final boolean DFLT_IDX_FIXED_TYPING = true;
 
@@ -179,6 +194,9 @@ public interface GridCacheConfiguration {
     /** Default value for 'swapEnabled' flag. */
     public static final boolean DFLT_SWAP_ENABLED = false;
 
+    /** Default maximum amount of off-heap memory for swapped values (off-heap storage is disabled). */
+    public static final long DFLT_OFFHEAP_MAX_MEMORY = 0;
+
     /** Default value for 'storeEnabled' flag. */
     public static final boolean DFLT_STORE_ENABLED = true;
 
@@ -218,6 +236,15 @@ public interface GridCacheConfiguration {
      */
     public GridCacheMode getCacheMode();
 
+    /**
+     * Gets cache atomicity mode. In {@link GridCacheAtomicityMode#ATOMIC} mode single-key
+     * updates outside of explicit transactions bypass transactions and locking. If not
+     * provided, {@link #DFLT_ATOMICITY_MODE} is used.
+     *
+     * @return Cache atomicity mode.
+     */
+    public GridCacheAtomicityMode getAtomicityMode();
+
     /**
      * Gets time to live for all objects in cache. This value can be overridden for individual objects.
      * If not set, then value is {@code 0} which means that objects never expire.
@@ -392,6 +419,17 @@ public interface GridCacheConfiguration {
      */
     public boolean isNearEnabled();
 
+    /**
+     * Gets maximum number of keys sent to remote node in a single get request. Keys of
+     * large {@code getAll(..)} operations that map to the same node are split into several
+     * requests of this size, which are sent at once and processed by remote node in
+     * parallel, and results of every request are loaded as soon as they arrive. Default
+     * value is defined by {@link #DFLT_GET_BATCH_SIZE}.
+     *
+     * @return Maximum number of keys in a single remote get request.
+     */
+    public int getGetBatchSize();
+
     /**
      * Gets underlying persistent storage for read-through and write-through operations.
      * If not provided, cache will not exhibit read-through or write-through behavior.
@@ -507,6 +545,39 @@ public interface GridCacheConfiguration {
      */
     public int getPreloadBatchSize();
 
+    /**
+     * Gets number of preload batches supplying node sends to demanding node before it
+     * has to wait for acknowledgement. Demanding node acknowledges batches as soon as
+     * they are received, so larger values keep more batches in flight and allow to
+     * fully utilize network on links with high latency at the cost of memory used for
+     * received but not yet preloaded batches. Default value is defined by
+     * {@link #DFLT_PRELOAD_BATCHES_PREFETCH_COUNT}.
+     *
+     * @return Number of preload batches in flight per demanding thread.
+     */
+    public int getPreloadBatchesPrefetchCount();
+
+    /**
+     * Gets maximum number of bytes per second supplying node sends to other nodes
+     * when preloading this cache. Use this property to make sure that preloading
+     * does not starve user traffic. Default value is {@link #DFLT_PRELOAD_MAX_THROUGHPUT},
+     * which means that preloading is not throttled.
+     *
+     * @return Maximum preload throughput in bytes per second, {@code 0} for unlimited.
+     */
+    public long getPreloadMaxThroughput();
+
+    /**
+     * Gets number of latest updates every partition remembers. When partition returns
+     * to a node that still keeps its data, only entries updated on the supplying node
+     * since the last partition map exchange are preloaded, as long as all these updates
+     * are still remembered. Otherwise the whole partition is preloaded. Default value is
+     * {@link #DFLT_PRELOAD_PARTITION_HISTORY_SIZE}, {@code 0} disables delta preloading.
+     *
+     * @return Number of updates remembered by every partition.
+     */
+    public int getPreloadPartitionHistorySize();
+
     /**
      * Gets size of preloading thread pool. Note that size serves as a hint and implementation
      * may create more threads for preloading than specified here (but never less threads).
@@ -715,6 +786,20 @@ public interface GridCacheConfiguration {
      */
     public boolean isSwapEnabled();
 
+    /**
+     * Gets maximum amount of memory, in bytes, allocated outside of Java heap for values
+     * evicted from cache. If positive, evicted entries are stored serialized in off-heap
+     * memory first, and least recently used of them are moved to swap storage once this
+     * limit is reached (or discarded if {@link #isSwapEnabled()} is {@code false}). Reads
+     * of evicted entries check off-heap memory before swap storage.
+     * <p>
+     * Default value is defined by {@link #DFLT_OFFHEAP_MAX_MEMORY} constant, which disables
+     * off-heap storage.
+     *
+     * @return Maximum amount of off-heap memory in bytes, or {@code 0} if off-heap storage is disabled.
+     */
+    public long getOffHeapMaxMemory();
+
     /**
      * Flag indicating whether GridGain should activate read-through/write-through behaviour
      * by default.
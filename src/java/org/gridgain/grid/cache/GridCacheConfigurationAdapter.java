@@ -101,6 +101,9 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Near cache flag. */
     private boolean nearEnabled = DFLT_NEAR_ENABLED;
 
+    /** Maximum number of keys in a single remote get request. */
+    private int getBatchSize = DFLT_GET_BATCH_SIZE;
+
     /** Eviction flag. */
     private boolean evictEnabled = DFLT_EVICTION_ENABLED;
 
@@ -116,6 +119,9 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Cache mode. */
     private GridCacheMode cacheMode;
 
+    /** Cache atomicity mode. */
+    private GridCacheAtomicityMode atomicityMode = DFLT_ATOMICITY_MODE;
+
     /** Flag to enable transactional batch update. */
     private boolean txBatchUpdate = DFLT_TX_BATCH_UPDATE;
 
@@ -137,6 +143,15 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Preload batch size. */
     private int preloadBatchSize = DFLT_PRELOAD_BATCH_SIZE;
 
+    /** Number of preload batches in flight. */
+    private int preloadBatchesPrefetchCnt = DFLT_PRELOAD_BATCHES_PREFETCH_COUNT;
+
+    /** Maximum preload throughput. */
+    private long preloadMaxThroughput = DFLT_PRELOAD_MAX_THROUGHPUT;
+
+    /** Partition update history size. */
+    private int preloadPartHistSize = DFLT_PRELOAD_PARTITION_HISTORY_SIZE;
+
     /** */
     private Collection<GridCacheQueryType> autoIndexTypes;
 
@@ -182,6 +197,9 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** */
     private boolean swapEnabled = DFLT_SWAP_ENABLED;
 
+    /** Maximum amount of off-heap memory for evicted values. */
+    private long offHeapMaxMem = DFLT_OFFHEAP_MAX_MEMORY;
+
     /** */
     private boolean storeEnabled = DFLT_STORE_ENABLED;
 
@@ -234,6 +252,7 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
          */
         aff = cc.getAffinity();
         affMapper = cc.getAffinityMapper();
+        atomicityMode = cc.getAtomicityMode();
         autoIndexTypes = cc.getAutoIndexQueryTypes();
         cacheMode = cc.getCacheMode();
         cloner = cc.getCloner();
@@ -271,11 +290,15 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         name = cc.getName();
         nearStartSize = cc.getNearStartSize();
         nearEnabled = cc.isNearEnabled();
+        getBatchSize = cc.getGetBatchSize();
         nearEvictEnabled = cc.isNearEvictionEnabled();
         nearEvictPolicy = cc.getNearEvictionPolicy();
         evictMaxOverflowRatio = cc.getEvictMaxOverflowRatio();
         preloadMode = cc.getPreloadMode();
         preloadBatchSize = cc.getPreloadBatchSize();
+        preloadBatchesPrefetchCnt = cc.getPreloadBatchesPrefetchCount();
+        preloadMaxThroughput = cc.getPreloadMaxThroughput();
+        preloadPartHistSize = cc.getPreloadPartitionHistorySize();
         preloadPoolSize = cc.getPreloadThreadPoolSize();
         refreshAheadRatio = cc.getRefreshAheadRatio();
         seqReserveSize = cc.getAtomicSequenceReserveSize();
@@ -283,6 +306,7 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         store = cc.getStore();
         storeEnabled = cc.isStoreEnabled();
         swapEnabled = cc.isSwapEnabled();
+        offHeapMaxMem = cc.getOffHeapMaxMemory();
         syncCommit = cc.isSynchronousCommit();
         syncRollback = cc.isSynchronousRollback();
         tmLookup = cc.getTransactionManagerLookup();
@@ -571,6 +595,20 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.nearEnabled = nearEnabled;
     }
 
+    /** {@inheritDoc} */
+    @Override public int getGetBatchSize() {
+        return getBatchSize;
+    }
+
+    /**
+     * Sets maximum number of keys sent to remote node in a single get request.
+     *
+     * @param getBatchSize Maximum number of keys in a single remote get request.
+     */
+    public void setGetBatchSize(int getBatchSize) {
+        this.getBatchSize = getBatchSize;
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings({"unchecked"})
     @Override public <K, V> GridCacheStore<K, V> getStore() {
@@ -615,6 +653,20 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.cacheMode = cacheMode;
     }
 
+    /** {@inheritDoc} */
+    @Override public GridCacheAtomicityMode getAtomicityMode() {
+        return atomicityMode;
+    }
+
+    /**
+     * Sets cache atomicity mode.
+     *
+     * @param atomicityMode Cache atomicity mode.
+     */
+    public void setAtomicityMode(GridCacheAtomicityMode atomicityMode) {
+        this.atomicityMode = atomicityMode;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isBatchUpdateOnCommit() {
         return txBatchUpdate;
@@ -766,6 +818,48 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.preloadBatchSize = preloadBatchSize;
     }
 
+    /** {@inheritDoc} */
+    @Override public int getPreloadBatchesPrefetchCount() {
+        return preloadBatchesPrefetchCnt;
+    }
+
+    /**
+     * Sets number of preload batches in flight per demanding thread.
+     *
+     * @param preloadBatchesPrefetchCnt Number of preload batches in flight.
+     */
+    public void setPreloadBatchesPrefetchCount(int preloadBatchesPrefetchCnt) {
+        this.preloadBatchesPrefetchCnt = preloadBatchesPrefetchCnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getPreloadMaxThroughput() {
+        return preloadMaxThroughput;
+    }
+
+    /**
+     * Sets maximum preload throughput in bytes per second, {@code 0} for unlimited.
+     *
+     * @param preloadMaxThroughput Maximum preload throughput.
+     */
+    public void setPreloadMaxThroughput(long preloadMaxThroughput) {
+        this.preloadMaxThroughput = preloadMaxThroughput;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getPreloadPartitionHistorySize() {
+        return preloadPartHistSize;
+    }
+
+    /**
+     * Sets number of latest updates every partition remembers for delta preloading.
+     *
+     * @param preloadPartHistSize Partition update history size, {@code 0} to disable delta preloading.
+     */
+    public void setPreloadPartitionHistorySize(int preloadPartHistSize) {
+        this.preloadPartHistSize = preloadPartHistSize;
+    }
+
     /** {@inheritDoc} */
     @Override public String getIndexPath() {
         return idxPath;
@@ -1037,6 +1131,20 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.swapEnabled = swapEnabled;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getOffHeapMaxMemory() {
+        return offHeapMaxMem;
+    }
+
+    /**
+     * Sets maximum amount of off-heap memory for values evicted from cache.
+     *
+     * @param offHeapMaxMem Maximum amount of off-heap memory in bytes, {@code 0} to disable off-heap storage.
+     */
+    public void setOffHeapMaxMemory(long offHeapMaxMem) {
+        this.offHeapMaxMem = offHeapMaxMem;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isStoreEnabled() {
         return storeEnabled;
@@ -0,0 +1,148 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.cache;
+
+import org.gridgain.grid.*;
+
+import java.util.*;
+
+/**
+ * Data loader is responsible for loading large amounts of data into cache. Data loader
+ * is obtained via {@link GridCache#dataLoader()} method.
+ * <p>
+ * Entries added to data loader are buffered per affinity node (primary and backup nodes
+ * for every key, as defined by {@link GridCacheConfiguration#getAffinity()}) and are sent to
+ * those nodes in large batches once per-node buffer reaches {@link #perNodeBufferSize()}
+ * entries. Receiving nodes store entries directly into cache, bypassing transactions,
+ * locking, cache store and cache events, which makes data loader considerably faster than
+ * {@link GridCacheProjection#putAll(Map, org.gridgain.grid.lang.GridPredicate[])}.
+ * <p>
+ * Note that entries loaded by data loader are not guaranteed to be consistent with
+ * concurrent transactional updates of the same keys, so data loader is mostly useful for
+ * initial population of the cache, or for read-only data. By default data loader does not
+ * overwrite entries that already exist in cache (see {@link #overwrite(boolean)}).
+ * <p>
+ * Data loader is thread-safe and can be used by multiple threads concurrently. Data loader
+ * must be closed once loading is finished to make sure all buffered entries are sent.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public interface GridCacheDataLoader<K, V> {
+    /** Default per-node buffer size (value is {@code 1024}). */
+    public static final int DFLT_PER_NODE_BUFFER_SIZE = 1024;
+
+    /** Default maximum number of parallel batches per node (value is {@code 16}). */
+    public static final int DFLT_PER_NODE_PARALLEL_OPS = 16;
+
+    /**
+     * Gets name of the cache this data loader loads data into.
+     *
+     * @return Cache name.
+     */
+    public String cacheName();
+
+    /**
+     * Sets number of entries buffered for each node before they are sent to that node.
+     *
+     * @param bufSize Per-node buffer size.
+     */
+    public void perNodeBufferSize(int bufSize);
+
+    /**
+     * Gets number of entries buffered for each node before they are sent to that node.
+     * Default is {@link #DFLT_PER_NODE_BUFFER_SIZE}.
+     *
+     * @return Per-node buffer size.
+     */
+    public int perNodeBufferSize();
+
+    /**
+     * Sets maximum number of batches that can be sent to one node and not yet
+     * acknowledged. Once this number is reached, adding more data will block
+     * until some of the batches are acknowledged.
+     *
+     * @param parallelOps Maximum number of parallel batches per node.
+     */
+    public void perNodeParallelOperations(int parallelOps);
+
+    /**
+     * Gets maximum number of batches that can be sent to one node and not yet acknowledged.
+     * Default is {@link #DFLT_PER_NODE_PARALLEL_OPS}.
+     *
+     * @return Maximum number of parallel batches per node.
+     */
+    public int perNodeParallelOperations();
+
+    /**
+     * Sets flag indicating whether entries that already exist in cache should be overwritten.
+     *
+     * @param overwrite {@code True} to overwrite existing entries.
+     */
+    public void overwrite(boolean overwrite);
+
+    /**
+     * Gets flag indicating whether entries that already exist in cache should be overwritten.
+     * Default is {@code false}.
+     *
+     * @return {@code True} if existing entries are overwritten.
+     */
+    public boolean overwrite();
+
+    /**
+     * Adds entry to data loader. If per-node buffer for any of the key affinity nodes
+     * gets full, buffer is sent to that node. This method will block if maximum number
+     * of parallel batches has been reached for that node.
+     *
+     * @param key Key.
+     * @param val Value.
+     * @throws GridException If batch could not be sent.
+     * @throws IllegalStateException If data loader has been closed.
+     */
+    public void addData(K key, V val) throws GridException, IllegalStateException;
+
+    /**
+     * Adds entries to data loader.
+     *
+     * @param entries Entries to add.
+     * @throws GridException If batch could not be sent.
+     * @throws IllegalStateException If data loader has been closed.
+     * @see #addData(Object, Object)
+     */
+    public void addData(Map<K, V> entries) throws GridException, IllegalStateException;
+
+    /**
+     * Sends all buffered entries to remote nodes. Returned future completes when all
+     * batches sent so far are acknowledged by receiving nodes.
+     *
+     * @return Flush future.
+     * @throws GridException If batch could not be sent.
+     * @throws IllegalStateException If data loader has been closed.
+     */
+    public GridFuture<?> flush() throws GridException, IllegalStateException;
+
+    /**
+     * Closes data loader. If {@code cancel} is {@code false}, all buffered entries
+     * are sent to remote nodes and this method waits for all batches to be acknowledged.
+     * Otherwise, buffered entries are discarded.
+     *
+     * @param cancel {@code True} to discard buffered entries.
+     * @throws GridException If any of the batches failed.
+     */
+    public void close(boolean cancel) throws GridException;
+
+    /**
+     * Gets future that completes when data loader is closed and all batches are
+     * acknowledged. Future completes with error if any of the batches failed.
+     *
+     * @return Future for this data loader.
+     */
+    public GridFuture<?> future();
+}
@@ -269,6 +269,16 @@ public interface GridCacheEntry<K, V> extends Map.Entry<K, V>, GridMetadataAware
      */
     public GridCacheMetrics metrics();
 
+    /**
+     * Gets estimated memory size of this entry in bytes, including key, value and entry
+     * overhead. Size is calculated from marshalled key and value if they are available,
+     * and estimated otherwise. It is recalculated by eviction manager right before entry
+     * is passed to eviction policy, so it is {@code 0} if no eviction policy is configured.
+     *
+     * @return Estimated memory size in bytes.
+     */
+    public int memorySize();
+
     /**
      * Gets the flag indicating current node's primary ownership for this entry.
      * <p>
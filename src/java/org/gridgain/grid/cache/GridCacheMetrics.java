@@ -81,4 +81,48 @@ public interface GridCacheMetrics {
      * @return Number of transaction rollbacks.
      */
     public int txRollbacks();
+
+    /**
+     * Gets number of transaction commits that were completed in one phase, i.e.
+     * all transaction keys were mapped to a single remote primary node and prepare
+     * and commit were combined into a single request. This number is included
+     * into {@link #txCommits()}.
+     *
+     * @return Number of one-phase transaction commits.
+     */
+    public int txOnePhaseCommits();
+
+    /**
+     * Gets estimated memory size in bytes of all entries of the owning cache (keys, values and
+     * entry overhead). Entry sizes are accounted by cache eviction manager whenever entries are
+     * passed to eviction policy, so this value is only maintained if eviction policy is configured.
+     * For entry metrics this value is always {@code 0}, use {@link GridCacheEntry#memorySize()} instead.
+     *
+     * @return Estimated memory size in bytes.
+     */
+    public long memorySize();
+
+    /**
+     * Gets peak value of {@link #memorySize()} since cache start.
+     *
+     * @return Peak estimated memory size in bytes.
+     */
+    public long peakMemorySize();
+
+    /**
+     * Gets total number of entries removed from the owning cache by background TTL
+     * expiration since cache start. Entries that expire while being accessed are not
+     * counted. For entry metrics this value is always {@code 0}.
+     *
+     * @return Number of expired entries.
+     */
+    public long expirations();
+
+    /**
+     * Gets number of entries expired by background TTL expiration per second, measured
+     * over the last second. For entry metrics this value is always {@code 0}.
+     *
+     * @return Number of entries expired per second.
+     */
+    public float expiredPerSecond();
 }
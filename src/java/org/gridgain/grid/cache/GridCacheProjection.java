@@ -2224,6 +2224,8 @@ public interface GridCacheProjection<K, V> extends Iterable<GridCacheEntry<K, V>
      *
      * @return New transaction
      * @throws IllegalStateException If transaction is already started by this thread.
+     * @throws GridRuntimeException If cache is in {@link GridCacheAtomicityMode#ATOMIC} mode, which does not
+     *      support explicit transactions.
      */
     public GridCacheTx txStart() throws IllegalStateException;
 
@@ -2234,6 +2236,8 @@ public interface GridCacheProjection<K, V> extends Iterable<GridCacheEntry<K, V>
      * @param timeout Transaction timeout.
      * @return New transaction.
      * @throws IllegalStateException If transaction is already started by this thread.
+     * @throws GridRuntimeException If cache is in {@link GridCacheAtomicityMode#ATOMIC} mode, which does not
+     *      support explicit transactions.
      */
     public GridCacheTx txStart(long timeout);
 
@@ -2244,6 +2248,8 @@ public interface GridCacheProjection<K, V> extends Iterable<GridCacheEntry<K, V>
      * @param isolation Isolation.
      * @return New transaction.
      * @throws IllegalStateException If transaction is already started by this thread.
+     * @throws GridRuntimeException If cache is in {@link GridCacheAtomicityMode#ATOMIC} mode, which does not
+     *      support explicit transactions.
      */
     public GridCacheTx txStart(GridCacheTxConcurrency concurrency, GridCacheTxIsolation isolation);
 
@@ -2256,6 +2262,8 @@ public interface GridCacheProjection<K, V> extends Iterable<GridCacheEntry<K, V>
      * @param invalidate Invalidation policy.
      * @return New transaction.
      * @throws IllegalStateException If transaction is already started by this thread.
+     * @throws GridRuntimeException If cache is in {@link GridCacheAtomicityMode#ATOMIC} mode, which does not
+     *      support explicit transactions.
      */
     public GridCacheTx txStart(GridCacheTxConcurrency concurrency,
         GridCacheTxIsolation isolation, long timeout, boolean invalidate);
@@ -69,9 +69,16 @@ public class GridCachePartitionedAffinity<K> implements GridCacheAffinity<K> {
      */
     public static final String DFLT_REPLICA_COUNT_ATTR_NAME = "gg:affinity:node:replicas";
 
+    /** Maximum number of cached assignments. */
+    private static final int MAX_ASSIGNMENTS = 8;
+
     /** Node hash. */
     private transient GridConsistentHash<UUID> nodeHash;
 
+    /** Most recent assignments, newest first. */
+    @SuppressWarnings({"TransientFieldNotInitialized"})
+    private transient AtomicReference<Assignment[]> assigns = new AtomicReference<Assignment[]>(new Assignment[0]);
+
     /** Total number of partitions. */
     private int parts = DFLT_PARTITION_COUNT;
 
@@ -351,97 +358,162 @@ public class GridCachePartitionedAffinity<K> implements GridCacheAffinity<K> {
         try {
             initialize();
 
-            addIfAbsent(nodes);
+            if (nodes.size() == 1) { // Minor optimization.
+                addIfAbsent(nodes);
 
-            if (nodes.size() == 1) // Minor optimization.
                 return nodes;
+            }
 
-            Collection<UUID> nodeIds = F.nodeIds(nodes);
+            return assignment(nodes).get(part);
+        }
+        finally {
+            watch.stop();
+        }
+    }
 
-            final Map<UUID, GridRichNode> lookup = new GridLeanMap<UUID, GridRichNode>(nodes.size());
+    /**
+     * Gets assignment for given nodes, calculating it if it has not been calculated yet.
+     * Lookup does not acquire any locks and does not go through consistent hash.
+     *
+     * @param nodes Participating nodes.
+     * @return Assignment.
+     */
+    @SuppressWarnings({"unchecked"})
+    private Assignment assignment(Collection<GridRichNode> nodes) {
+        long hash = 0;
 
-            // Store nodes in map for fast lookup.
-            for (GridRichNode n : nodes)
-                lookup.put(n.id(), n);
+        int cnt = 0;
 
-            Collection<UUID> ids;
+        for (GridRichNode n : nodes) {
+            hash += n.id().hashCode();
 
-            if (backupFilter != null) {
-                UUID primaryId = nodeHash.node(part, primaryIdFilter, F.contains(nodeIds));
+            cnt++;
+        }
 
-                Collection<UUID> backupIds = nodeHash.nodes(part, backups, backupIdFilter, F.contains(nodeIds));
+        for (Assignment a : assigns.get())
+            if (a.matches(hash, cnt, nodes))
+                return a;
 
-                if (F.isEmpty(backupIds) && primaryId != null) {
-                    GridRichNode n = lookup.get(primaryId);
+        // Nodes not yet known to local node (discovery lag) can not be added
+        // to consistent hash, so such assignment is used once and not cached.
+        boolean complete = addIfAbsent(nodes);
 
-                    assert n != null;
+        Map<UUID, GridRichNode> lookup = new HashMap<UUID, GridRichNode>(nodes.size() * 2, 0.75f);
 
-                    return Collections.singletonList(n);
-                }
+        for (GridRichNode n : nodes)
+            lookup.put(n.id(), n);
 
-                ids = primaryId != null ? F.concat(false, primaryId, backupIds) : backupIds;
-            }
-            else {
-                if (!exclNeighbors || nodes.size() == 1) {
-                    ids = nodeHash.nodes(part, backups + 1, nodeIds);
+        List<GridRichNode>[] table = new List[parts];
 
-                    if (ids.size() == 1) {
-                        UUID id = F.first(ids);
+        for (int p = 0; p < parts; p++)
+            table[p] = assign(p, nodes, lookup);
 
-                        assert id != null : "Node ID cannot be null in affinity node ID collection: " + ids;
+        Assignment a = new Assignment(hash, lookup, table);
 
-                        GridRichNode n = lookup.get(id);
+        if (!complete)
+            return a;
 
-                        assert n != null;
+        while (true) {
+            Assignment[] cur = assigns.get();
 
-                        return Collections.singletonList(n);
-                    }
-                }
-                else {
-                    ids = new ArrayList<UUID>(1 + backups);
+            // Keep only most recent assignments.
+            Assignment[] upd = new Assignment[Math.min(cur.length + 1, MAX_ASSIGNMENTS)];
 
-                    final Collection<UUID> ids0 = ids;
+            upd[0] = a;
 
-                    int size = nodes.size();
+            System.arraycopy(cur, 0, upd, 1, upd.length - 1);
 
-                    for (int i = 0; i < size; i++) {
-                        UUID id = nodeHash.node(part, F.contains(nodeIds), new P1<UUID>() {
-                            @Override public boolean apply(UUID id) {
-                                GridRichNode n = lookup.get(id);
+            if (assigns.compareAndSet(cur, upd))
+                return a;
+        }
+    }
 
-                                assert n != null;
+    /**
+     * Calculates affinity nodes for a partition by walking consistent hash.
+     *
+     * @param part Partition.
+     * @param nodes Nodes to choose from.
+     * @param lookup Node lookup by ID.
+     * @return Affinity nodes for the given partition.
+     */
+    private List<GridRichNode> assign(int part, Collection<GridRichNode> nodes,
+        final Map<UUID, GridRichNode> lookup) {
+        Collection<UUID> nodeIds = lookup.keySet();
 
-                                Collection<UUID> neighbors = F.nodeIds(n.neighbors().nodes());
+        Collection<UUID> ids;
 
-                                // Dead nodes get handled by cache logic.
-                                return !ids0.contains(n.id()) && !F.containsAny(ids0, neighbors);
-                            }
-                        });
+        if (backupFilter != null) {
+            UUID primaryId = nodeHash.node(part, primaryIdFilter, F.contains(nodeIds));
 
-                        if (id != null)
-                            ids.add(id);
+            Collection<UUID> backupIds = nodeHash.nodes(part, backups, backupIdFilter, F.contains(nodeIds));
 
-                        if (ids.size() == size)
-                            break;
-                    }
-                }
+            if (F.isEmpty(backupIds) && primaryId != null) {
+                GridRichNode n = lookup.get(primaryId);
+
+                assert n != null;
+
+                return Collections.singletonList(n);
             }
 
-            Collection<GridRichNode> ret = new ArrayList<GridRichNode>(1 + backups);
+            ids = primaryId != null ? F.concat(false, primaryId, backupIds) : backupIds;
+        }
+        else {
+            if (!exclNeighbors || nodes.size() == 1) {
+                ids = nodeHash.nodes(part, backups + 1, nodeIds);
 
-            for (UUID id : ids) {
-                GridRichNode n = lookup.get(id);
+                if (ids.size() == 1) {
+                    UUID id = F.first(ids);
 
-                assert n != null;
+                    assert id != null : "Node ID cannot be null in affinity node ID collection: " + ids;
+
+                    GridRichNode n = lookup.get(id);
 
-                ret.add(n);
+                    assert n != null;
+
+                    return Collections.singletonList(n);
+                }
             }
+            else {
+                ids = new ArrayList<UUID>(1 + backups);
+
+                final Collection<UUID> ids0 = ids;
+
+                int size = nodes.size();
+
+                for (int i = 0; i < size; i++) {
+                    UUID id = nodeHash.node(part, F.contains(nodeIds), new P1<UUID>() {
+                        @Override public boolean apply(UUID id) {
+                            GridRichNode n = lookup.get(id);
+
+                            assert n != null;
+
+                            Collection<UUID> neighbors = F.nodeIds(n.neighbors().nodes());
 
-            return ret;
+                            // Dead nodes get handled by cache logic.
+                            return !ids0.contains(n.id()) && !F.containsAny(ids0, neighbors);
+                        }
+                    });
+
+                    if (id != null)
+                        ids.add(id);
+
+                    if (ids.size() == size)
+                        break;
+                }
+            }
         }
-        finally {
-            watch.stop();
+
+        List<GridRichNode> ret = new ArrayList<GridRichNode>(1 + backups);
+
+        for (UUID id : ids) {
+            GridRichNode n = lookup.get(id);
+
+            assert n != null;
+
+            ret.add(n);
         }
+
+        return Collections.unmodifiableList(ret);
     }
 
     /** {@inheritDoc} */
@@ -469,13 +541,21 @@ public class GridCachePartitionedAffinity<K> implements GridCacheAffinity<K> {
     @Override public void reset() {
         addedNodes = new GridConcurrentHashSet<UUID>();
 
+        assigns = new AtomicReference<Assignment[]>(new Assignment[0]);
+
         initLatch = new CountDownLatch(1);
 
         init.set(false);
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Initializes consistent hash on first call.
+     */
     private void initialize() {
+        // Fast path, avoid volatile write on every call.
+        if (initLatch.getCount() == 0)
+            return;
+
         if (init.compareAndSet(false, true)) {
             nodeHash = new GridConsistentHash<UUID>(hasher);
 
@@ -515,26 +595,38 @@ public class GridCachePartitionedAffinity<K> implements GridCacheAffinity<K> {
 
     /**
      * @param nodes Nodes to add.
+     * @return {@code True} if all given nodes are in consistent hash, {@code false} if some
+     *      of them are not known to local node yet and were not added.
      */
-    private void addIfAbsent(Iterable<? extends GridNode> nodes) {
+    private boolean addIfAbsent(Iterable<? extends GridNode> nodes) {
+        boolean all = true;
+
         for (GridNode n : nodes)
-            addIfAbsent(n);
+            if (!addIfAbsent(n))
+                all = false;
+
+        return all;
     }
 
     /**
      * @param n Node to add.
+     * @return {@code True} if node is in consistent hash.
      */
-    private void addIfAbsent(GridNode n) {
-        if (n != null && !addedNodes.contains(n.id()))
-            add(n);
+    private boolean addIfAbsent(GridNode n) {
+        return n != null && (addedNodes.contains(n.id()) || add(n));
     }
 
     /**
      * @param n Node to add.
+     * @return {@code True} if node was added, {@code false} if it is not known to local node.
      */
-    private void add(GridNode n) {
-        if (grid.node(n.id()) != null)
-            add(n.id(), replicas(n));
+    private boolean add(GridNode n) {
+        if (grid.node(n.id()) == null)
+            return false;
+
+        add(n.id(), replicas(n));
+
+        return true;
     }
 
     /**
@@ -563,7 +655,80 @@ public class GridCachePartitionedAffinity<K> implements GridCacheAffinity<K> {
                 it.remove();
 
                 nodeHash.removeNode(id);
+
+                removeAssignments(id);
             }
         }
     }
+
+    /**
+     * Removes cached assignments which include given node.
+     *
+     * @param id Removed node ID.
+     */
+    private void removeAssignments(UUID id) {
+        while (true) {
+            Assignment[] cur = assigns.get();
+
+            Collection<Assignment> upd = new ArrayList<Assignment>(cur.length);
+
+            for (Assignment a : cur)
+                if (!a.lookup.containsKey(id))
+                    upd.add(a);
+
+            if (upd.size() == cur.length ||
+                assigns.compareAndSet(cur, upd.toArray(new Assignment[upd.size()])))
+                break;
+        }
+    }
+
+    /**
+     * Immutable partition-to-nodes assignment calculated for a set of participating nodes.
+     */
+    private static class Assignment {
+        /** Sum of node ID hash codes. */
+        private final long hash;
+
+        /** Participating nodes by ID. */
+        private final Map<UUID, GridRichNode> lookup;
+
+        /** Affinity nodes by partition, primary node first. */
+        private final List<GridRichNode>[] table;
+
+        /**
+         * @param hash Sum of node ID hash codes.
+         * @param lookup Participating nodes by ID.
+         * @param table Affinity nodes by partition.
+         */
+        private Assignment(long hash, Map<UUID, GridRichNode> lookup, List<GridRichNode>[] table) {
+            this.hash = hash;
+            this.lookup = lookup;
+            this.table = table;
+        }
+
+        /**
+         * @param hash Sum of node ID hash codes.
+         * @param cnt Number of nodes.
+         * @param nodes Participating nodes.
+         * @return {@code True} if this assignment was calculated for given nodes.
+         */
+        private boolean matches(long hash, int cnt, Iterable<GridRichNode> nodes) {
+            if (this.hash != hash || lookup.size() != cnt)
+                return false;
+
+            for (GridRichNode n : nodes)
+                if (!lookup.containsKey(n.id()))
+                    return false;
+
+            return true;
+        }
+
+        /**
+         * @param part Partition.
+         * @return Affinity nodes for partition.
+         */
+        private List<GridRichNode> get(int part) {
+            return table[part];
+        }
+    }
 }
@@ -17,6 +17,7 @@ import org.gridgain.grid.lang.utils.GridQueue.*;
 import org.gridgain.grid.typedef.internal.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 import static org.gridgain.grid.cache.GridCachePeekMode.*;
 
@@ -37,6 +38,15 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
     /** Maximum size. */
     private volatile int max = -1;
 
+    /** Maximum memory size in bytes, {@code 0} if memory size is not limited. */
+    private volatile long maxMemSize;
+
+    /** Estimated memory size of queued entries. */
+    private final AtomicLong memSize = new AtomicLong();
+
+    /** Tag for entry memory size accounted by this policy. */
+    private final String sizeMeta = UUID.randomUUID().toString();
+
     /** Flag indicating whether empty entries are allowed. */
     private volatile boolean allowEmptyEntries = true;
 
@@ -93,6 +103,32 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
         this.max = max;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getMaxMemorySize() {
+        return maxMemSize;
+    }
+
+    /**
+     * Sets maximum allowed estimated memory size of cache entries in bytes (see
+     * {@link GridCacheEntry#memorySize()}). Once it is exceeded, entries will be evicted
+     * in the same order as when maximum size is exceeded. If {@code 0}, memory size is
+     * not limited and not tracked.
+     * <p>
+     * Note that entries that have not been accessed since memory limit was set are not accounted.
+     *
+     * @param maxMemSize Maximum allowed memory size in bytes.
+     */
+    @Override public void setMaxMemorySize(long maxMemSize) {
+        A.ensure(maxMemSize >= 0, "maxMemSize >= 0");
+
+        this.maxMemSize = maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getCurrentMemorySize() {
+        return memSize.get();
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isAllowEmptyEntries() {
         return allowEmptyEntries;
@@ -131,6 +167,8 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
                 if (node != null)
                     queue.unlink(node);
 
+                removeSize(entry);
+
                 if (!entry.evict())
                     touch(entry);
             }
@@ -142,6 +180,8 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
             if (node != null)
                 queue.unlink(node);
+
+            removeSize(entry);
         }
 
         shrink();
@@ -159,6 +199,9 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
             assert old == null : "Node was enqueued by another thread: " + old;
         }
+
+        // Size of existing entries may change on update.
+        addSize(entry);
     }
 
     /**
@@ -180,6 +223,44 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
         }
     }
 
+    /**
+     * Accounts current memory size of queued entry.
+     *
+     * @param entry Entry.
+     */
+    private void addSize(GridCacheEntry<K, V> entry) {
+        if (maxMemSize > 0) {
+            int size = entry.memorySize();
+
+            Integer old = entry.addMeta(sizeMeta, size);
+
+            memSize.addAndGet(old == null ? size : size - old);
+        }
+    }
+
+    /**
+     * Removes memory size of dequeued entry from accounted total.
+     *
+     * @param entry Entry.
+     */
+    private void removeSize(GridCacheEntry<K, V> entry) {
+        if (memSize.get() != 0) {
+            Integer old = entry.removeMeta(sizeMeta);
+
+            if (old != null)
+                memSize.addAndGet(-old);
+        }
+    }
+
+    /**
+     * @return {@code True} if memory size limit is set and exceeded.
+     */
+    private boolean memoryExceeded() {
+        long maxMemSize = this.maxMemSize;
+
+        return maxMemSize > 0 && memSize.get() > maxMemSize;
+    }
+
     /**
      * Shrinks FIFO queue to maximum allowed size.
      */
@@ -188,7 +269,7 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
         int startSize = queue.size();
 
-        for (int i = 0; i < startSize && queue.size() > max; i++) {
+        for (int i = 0; i < startSize && (queue.size() > max || memoryExceeded()); i++) {
             GridCacheEntry<K, V> entry = queue.poll();
 
             assert entry != null;
@@ -197,6 +278,8 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
             assert old != null;
 
+            removeSize(entry);
+
             if (!entry.evict())
                 touch(entry);
         }
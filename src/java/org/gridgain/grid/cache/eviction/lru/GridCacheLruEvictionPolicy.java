@@ -17,6 +17,7 @@ import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.lang.utils.GridQueue.Node;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 import static org.gridgain.grid.cache.GridCachePeekMode.*;
 
@@ -37,6 +38,15 @@ public class GridCacheLruEvictionPolicy<K, V> implements GridCacheEvictionPolicy
     /** Maximum size. */
     private volatile int max = -1;
 
+    /** Maximum memory size in bytes, {@code 0} if memory size is not limited. */
+    private volatile long maxMemSize;
+
+    /** Estimated memory size of queued entries. */
+    private final AtomicLong memSize = new AtomicLong();
+
+    /** Tag for entry memory size accounted by this policy. */
+    private final String sizeMeta = UUID.randomUUID().toString();
+
     /** Allow empty entries flag. */
     private volatile boolean allowEmptyEntries = true;
 
@@ -94,6 +104,32 @@ public class GridCacheLruEvictionPolicy<K, V> implements GridCacheEvictionPolicy
         this.max = max;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getMaxMemorySize() {
+        return maxMemSize;
+    }
+
+    /**
+     * Sets maximum allowed estimated memory size of cache entries in bytes (see
+     * {@link GridCacheEntry#memorySize()}). Once it is exceeded, entries will be evicted
+     * in the same order as when maximum size is exceeded. If {@code 0}, memory size is
+     * not limited and not tracked.
+     * <p>
+     * Note that entries that have not been accessed since memory limit was set are not accounted.
+     *
+     * @param maxMemSize Maximum allowed memory size in bytes.
+     */
+    @Override public void setMaxMemorySize(long maxMemSize) {
+        A.ensure(maxMemSize >= 0, "maxMemSize >= 0");
+
+        this.maxMemSize = maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getCurrentMemorySize() {
+        return memSize.get();
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isAllowEmptyEntries() {
         return allowEmptyEntries;
@@ -132,6 +168,8 @@ public class GridCacheLruEvictionPolicy<K, V> implements GridCacheEvictionPolicy
                 if (node != null)
                     queue.unlink(node);
 
+                removeSize(entry);
+
                 if (!entry.evict())
                     touch(entry);
             }
@@ -143,6 +181,8 @@ public class GridCacheLruEvictionPolicy<K, V> implements GridCacheEvictionPolicy
 
             if (node != null)
                 queue.unlink(node);
+
+            removeSize(entry);
         }
 
         shrink();
@@ -185,6 +225,46 @@ public class GridCacheLruEvictionPolicy<K, V> implements GridCacheEvictionPolicy
 
             assert old == node : "Node was unlinked by another thread [node=" + node + ", old=" + old + ']';
         }
+
+        addSize(entry);
+    }
+
+    /**
+     * Accounts current memory size of queued entry.
+     *
+     * @param entry Entry.
+     */
+    private void addSize(GridCacheEntry<K, V> entry) {
+        if (maxMemSize > 0) {
+            int size = entry.memorySize();
+
+            Integer old = entry.addMeta(sizeMeta, size);
+
+            memSize.addAndGet(old == null ? size : size - old);
+        }
+    }
+
+    /**
+     * Removes memory size of dequeued entry from accounted total.
+     *
+     * @param entry Entry.
+     */
+    private void removeSize(GridCacheEntry<K, V> entry) {
+        if (memSize.get() != 0) {
+            Integer old = entry.removeMeta(sizeMeta);
+
+            if (old != null)
+                memSize.addAndGet(-old);
+        }
+    }
+
+    /**
+     * @return {@code True} if memory size limit is set and exceeded.
+     */
+    private boolean memoryExceeded() {
+        long maxMemSize = this.maxMemSize;
+
+        return maxMemSize > 0 && memSize.get() > maxMemSize;
     }
 
     /**
@@ -195,7 +275,7 @@ public class GridCacheLruEvictionPolicy<K, V> implements GridCacheEvictionPolicy
 
         int startSize = queue.size();
 
-        for (int i = 0; i < startSize && queue.size() > max; i++) {
+        for (int i = 0; i < startSize && (queue.size() > max || memoryExceeded()); i++) {
             GridCacheEntry<K, V> entry = queue.poll();
 
             assert entry != null;
@@ -204,6 +284,8 @@ public class GridCacheLruEvictionPolicy<K, V> implements GridCacheEvictionPolicy
 
             assert old != null : "Entry does not have metadata: " + entry;
 
+            removeSize(entry);
+
             if (!entry.evict())
                 touch(entry);
         }
@@ -43,6 +43,30 @@ public interface GridCacheLruEvictionPolicyMBean {
     @GridMBeanDescription("Sets maximum allowed cache size.")
     public void setMaxSize(int max);
 
+    /**
+     * Gets maximum allowed estimated memory size of cache entries in bytes.
+     *
+     * @return Maximum allowed memory size, {@code 0} if memory size is not limited.
+     */
+    @GridMBeanDescription("Maximum allowed estimated memory size of cache entries in bytes.")
+    public long getMaxMemorySize();
+
+    /**
+     * Sets maximum allowed estimated memory size of cache entries in bytes.
+     *
+     * @param maxMemSize Maximum allowed memory size, {@code 0} if memory size is not limited.
+     */
+    @GridMBeanDescription("Sets maximum allowed estimated memory size of cache entries in bytes.")
+    public void setMaxMemorySize(long maxMemSize);
+
+    /**
+     * Gets estimated memory size of entries tracked by eviction policy in bytes.
+     *
+     * @return Current estimated memory size.
+     */
+    @GridMBeanDescription("Current estimated memory size of entries in bytes.")
+    public long getCurrentMemorySize();
+
     /**
      * Gets flag indicating whether empty entries (entries with {@code null} values)
      * are allowed.
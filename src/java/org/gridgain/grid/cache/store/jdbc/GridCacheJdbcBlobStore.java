@@ -12,6 +12,7 @@ package org.gridgain.grid.cache.store.jdbc;
 import org.gridgain.grid.*;
 import org.gridgain.grid.cache.*;
 import org.gridgain.grid.cache.store.*;
+import org.gridgain.grid.lang.*;
 import org.gridgain.grid.logger.*;
 import org.gridgain.grid.marshaller.*;
 import org.gridgain.grid.resources.*;
@@ -21,7 +22,9 @@ import org.gridgain.grid.util.tostring.*;
 import org.jetbrains.annotations.*;
 
 import java.io.*;
+import java.nio.*;
 import java.sql.*;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
@@ -51,10 +54,23 @@ import java.util.concurrent.atomic.*;
  *     <li>Password (see {@link #setPassword(String)})</li>
  *     <li>Create table query (see {@link #setConnectionUrl(String)})</li>
  *     <li>Load entry query (see {@link #setLoadQuery(String)})</li>
+ *     <li>Load multiple entries query (see {@link #setLoadAllQuery(String)})</li>
  *     <li>Update entry query (see {@link #setUpdateQuery(String)})</li>
  *     <li>Insert entry query (see {@link #setInsertQuery(String)})</li>
  *     <li>Delete entry query (see {@link #setDeleteQuery(String)})</li>
+ *     <li>Batch size (see {@link #setBatchSize(int)})</li>
+ *     <li>Maximum number of pooled connections (see {@link #setMaxPoolSize(int)})</li>
  * </ul>
+ * <h2>Batching</h2>
+ * Multi-key operations {@link #loadAll(String, GridCacheTx, Collection, GridInClosure2) loadAll(..)},
+ * {@link #putAll(String, GridCacheTx, Map) putAll(..)} and {@link #removeAll(String, GridCacheTx, Collection)
+ * removeAll(..)} are executed as JDBC batches, or as {@code IN (...)} queries for loads, of up to
+ * {@link #setBatchSize(int)} keys each, instead of one statement per key.
+ * <h2>Connection pooling</h2>
+ * Connections used outside of transactions are returned to an internal pool and reused
+ * by subsequent operations. Up to {@link #setMaxPoolSize(int)} idle connections are kept.
+ * Connections on which database error occurred are closed instead of being pooled, and
+ * pooled connections are closed once caches are stopped (see {@link #stop()}).
  * <h2>Java Example</h2>
  * <pre name="code" class="java">
  *     ...
@@ -88,7 +104,13 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     /** Default load entry query (value is <tt>select * from ENTRIES where key=?</tt>). */
     public static final String DFLT_LOAD_QRY = "select * from ENTRIES where key=?";
 
-    /** Default update entry query (value is <tt>select * from ENTRIES where key=?</tt>). */
+    /**
+     * Default load multiple entries query (value is <tt>select * from ENTRIES where key in (?)</tt>).
+     * The only parameter of this query is expanded into as many parameters as there are keys in a batch.
+     */
+    public static final String DFLT_LOAD_ALL_QRY = "select * from ENTRIES where key in (?)";
+
+    /** Default update entry query (value is <tt>update ENTRIES set val=? where key=?</tt>). */
     public static final String DFLT_UPDATE_QRY = "update ENTRIES set val=? where key=?";
 
     /** Default insert entry query (value is <tt>insert into ENTRIES (key, val) values (?, ?)</tt>). */
@@ -97,6 +119,12 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     /** Default delete entry query (value is <tt>delete from ENTRIES where key=?</tt>). */
     public static final String DFLT_DEL_QRY = "delete from ENTRIES where key=?";
 
+    /** Default batch size (value is <tt>512</tt>). */
+    public static final int DFLT_BATCH_SIZE = 512;
+
+    /** Default maximum number of pooled connections (value is <tt>8</tt>). */
+    public static final int DFLT_MAX_POOL_SIZE = 8;
+
     /** Connection attribute name. */
     private static final String ATTR_CONN = "JDBC_STORE_CONNECTION";
 
@@ -109,6 +137,9 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     /** Query to load entry. */
     private String loadQry = DFLT_LOAD_QRY;
 
+    /** Query to load multiple entries. */
+    private String loadAllQry = DFLT_LOAD_ALL_QRY;
+
     /** Query to update entry. */
     private String updateQry = DFLT_UPDATE_QRY;
 
@@ -118,6 +149,16 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     /** Query to delete entries. */
     private String delQry = DFLT_DEL_QRY;
 
+    /** Batch size. */
+    private int batchSize = DFLT_BATCH_SIZE;
+
+    /** Maximum number of pooled connections. */
+    private int maxPoolSize = DFLT_MAX_POOL_SIZE;
+
+    /** Pool of idle connections in autocommit mode. */
+    @GridToStringExclude
+    private volatile BlockingQueue<Connection> pool;
+
     /** User name for database access. */
     private String user;
 
@@ -144,6 +185,9 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     /** Successful initialization flag. */
     private boolean initOk;
 
+    /** Stopped flag. */
+    private volatile boolean stopped;
+
     /** {@inheritDoc} */
     @Override public void txEnd(@Nullable String cacheName, GridCacheTx tx, boolean commit) throws GridException {
         init();
@@ -195,6 +239,8 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
                 return marsh.<V>unmarshal(new ByteArrayInputStream(rs.getBytes(2)), getClass().getClassLoader());
         }
         catch (SQLException e) {
+            conn = closeBroken(tx, conn);
+
             throw new GridException("Failed to load object: " + key, e);
         }
         finally {
@@ -235,6 +281,8 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
             }
         }
         catch (SQLException e) {
+            conn = closeBroken(tx, conn);
+
             throw new GridException("Failed to put object [key=" + key + ", val=" + val + ']', e);
         }
         finally {
@@ -244,6 +292,8 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
 
     /** {@inheritDoc} */
     @Override public void remove(@Nullable String cacheName, @Nullable GridCacheTx tx, K key) throws GridException {
+        init();
+
         if (log.isDebugEnabled())
             log.debug("Store remove [key=" + key + ", tx=" + tx + ']');
 
@@ -261,6 +311,8 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
             stmt.executeUpdate();
         }
         catch (SQLException e) {
+            conn = closeBroken(tx, conn);
+
             throw new GridException("Failed to remove object: " + key, e);
         }
         finally {
@@ -268,6 +320,281 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
         }
     }
 
+    /** {@inheritDoc} */
+    @SuppressWarnings({"RedundantTypeArguments"})
+    @Override public void loadAll(@Nullable String cacheName, @Nullable GridCacheTx tx, Collection<? extends K> keys,
+        GridInClosure2<K, V> c) throws GridException {
+        assert keys != null;
+
+        init();
+
+        if (log.isDebugEnabled())
+            log.debug("Store load all [keys=" + keys + ", tx=" + tx + ']');
+
+        if (keys.isEmpty())
+            return;
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        try {
+            conn = connection(tx);
+
+            // Marshalled key to key.
+            Map<ByteBuffer, K> batch = new HashMap<ByteBuffer, K>(Math.min(keys.size(), batchSize) * 2);
+
+            Iterator<? extends K> it = keys.iterator();
+
+            while (it.hasNext()) {
+                batch.clear();
+
+                while (it.hasNext() && batch.size() < batchSize) {
+                    K key = it.next();
+
+                    batch.put(ByteBuffer.wrap(toByteArray(key)), key);
+                }
+
+                if (stmt == null || batch.size() != batchSize) {
+                    U.closeQuiet(stmt);
+
+                    stmt = conn.prepareStatement(loadAllQuery(batch.size()));
+                }
+
+                int idx = 1;
+
+                for (ByteBuffer keyBytes : batch.keySet())
+                    stmt.setObject(idx++, keyBytes.array());
+
+                ResultSet rs = stmt.executeQuery();
+
+                try {
+                    while (rs.next()) {
+                        K key = batch.remove(ByteBuffer.wrap(rs.getBytes(1)));
+
+                        if (key != null)
+                            c.apply(key, marsh.<V>unmarshal(new ByteArrayInputStream(rs.getBytes(2)),
+                                getClass().getClassLoader()));
+                    }
+                }
+                finally {
+                    U.closeQuiet(rs);
+                }
+
+                // Keys that were not found.
+                for (K key : batch.values())
+                    c.apply(key, null);
+            }
+        }
+        catch (SQLException e) {
+            conn = closeBroken(tx, conn);
+
+            throw new GridException("Failed to load objects: " + keys, e);
+        }
+        finally {
+            end(tx, conn, stmt);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void putAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        Map<? extends K, ? extends V> map) throws GridException {
+        assert map != null;
+
+        init();
+
+        if (log.isDebugEnabled())
+            log.debug("Store put all [map=" + map + ", tx=" + tx + ']');
+
+        if (map.isEmpty())
+            return;
+
+        Connection conn = null;
+
+        PreparedStatement updStmt = null;
+
+        PreparedStatement insStmt = null;
+
+        PreparedStatement selStmt = null;
+
+        try {
+            conn = connection(tx);
+
+            updStmt = conn.prepareStatement(updateQry);
+
+            List<byte[][]> batch = new ArrayList<byte[][]>(Math.min(map.size(), batchSize));
+
+            // Entries for which driver did not report whether they were updated, marshalled key to value.
+            Map<ByteBuffer, byte[]> unknown = new HashMap<ByteBuffer, byte[]>();
+
+            Iterator<? extends Map.Entry<? extends K, ? extends V>> it = map.entrySet().iterator();
+
+            while (it.hasNext()) {
+                batch.clear();
+
+                while (it.hasNext() && batch.size() < batchSize) {
+                    Map.Entry<? extends K, ? extends V> e = it.next();
+
+                    byte[] keyBytes = toByteArray(e.getKey());
+                    byte[] valBytes = toByteArray(e.getValue());
+
+                    updStmt.setObject(1, valBytes);
+                    updStmt.setObject(2, keyBytes);
+
+                    updStmt.addBatch();
+
+                    batch.add(new byte[][] {keyBytes, valBytes});
+                }
+
+                int[] cnts = updStmt.executeBatch();
+
+                List<byte[][]> missing = new ArrayList<byte[][]>();
+
+                unknown.clear();
+
+                for (int i = 0; i < cnts.length; i++) {
+                    byte[][] e = batch.get(i);
+
+                    int cnt = cnts[i];
+
+                    if (cnt == Statement.SUCCESS_NO_INFO)
+                        unknown.put(ByteBuffer.wrap(e[0]), e[1]);
+                    else if (cnt == Statement.EXECUTE_FAILED)
+                        throw new SQLException("Failed to execute batch update for entry at position: " + i);
+                    else if (cnt == 0)
+                        missing.add(e);
+                }
+
+                // Some drivers (e.g. Oracle) never report update counts in batch mode,
+                // so find out which of these entries exist with one select.
+                if (!unknown.isEmpty()) {
+                    if (selStmt == null || unknown.size() != batchSize) {
+                        U.closeQuiet(selStmt);
+
+                        selStmt = conn.prepareStatement(loadAllQuery(unknown.size()));
+                    }
+
+                    int idx = 1;
+
+                    for (ByteBuffer keyBytes : unknown.keySet())
+                        selStmt.setObject(idx++, keyBytes.array());
+
+                    ResultSet rs = selStmt.executeQuery();
+
+                    try {
+                        while (rs.next())
+                            unknown.remove(ByteBuffer.wrap(rs.getBytes(1)));
+                    }
+                    finally {
+                        U.closeQuiet(rs);
+                    }
+
+                    for (Map.Entry<ByteBuffer, byte[]> e : unknown.entrySet())
+                        missing.add(new byte[][] {e.getKey().array(), e.getValue()});
+                }
+
+                // Insert entries which did not exist.
+                if (!missing.isEmpty()) {
+                    if (insStmt == null)
+                        insStmt = conn.prepareStatement(insertQry);
+
+                    for (byte[][] e : missing) {
+                        insStmt.setObject(1, e[0]);
+                        insStmt.setObject(2, e[1]);
+
+                        insStmt.addBatch();
+                    }
+
+                    insStmt.executeBatch();
+                }
+            }
+        }
+        catch (SQLException e) {
+            conn = closeBroken(tx, conn);
+
+            throw new GridException("Failed to put objects: " + map, e);
+        }
+        finally {
+            U.closeQuiet(insStmt);
+            U.closeQuiet(selStmt);
+
+            end(tx, conn, updStmt);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void removeAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        Collection<? extends K> keys) throws GridException {
+        assert keys != null;
+
+        init();
+
+        if (log.isDebugEnabled())
+            log.debug("Store remove all [keys=" + keys + ", tx=" + tx + ']');
+
+        if (keys.isEmpty())
+            return;
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        try {
+            conn = connection(tx);
+
+            stmt = conn.prepareStatement(delQry);
+
+            int cnt = 0;
+
+            for (K key : keys) {
+                stmt.setObject(1, toByteArray(key));
+
+                stmt.addBatch();
+
+                if (++cnt % batchSize == 0)
+                    stmt.executeBatch();
+            }
+
+            if (cnt % batchSize != 0)
+                stmt.executeBatch();
+        }
+        catch (SQLException e) {
+            conn = closeBroken(tx, conn);
+
+            throw new GridException("Failed to remove objects: " + keys, e);
+        }
+        finally {
+            end(tx, conn, stmt);
+        }
+    }
+
+    /**
+     * Expands the only parameter of load all query into given number of parameters.
+     *
+     * @param cnt Number of keys.
+     * @return Query.
+     */
+    private String loadAllQuery(int cnt) {
+        int idx = loadAllQry.indexOf('?');
+
+        assert idx >= 0 : "Load all query does not have parameters: " + loadAllQry;
+
+        SB sb = new SB(loadAllQry.length() + cnt * 2);
+
+        sb.a(loadAllQry.substring(0, idx));
+
+        for (int i = 0; i < cnt; i++) {
+            if (i > 0)
+                sb.a(',');
+
+            sb.a('?');
+        }
+
+        sb.a(loadAllQry.substring(idx + 1));
+
+        return sb.toString();
+    }
+
     /**
      * @param obj Object to convert to byte array.
      * @return Byte array.
@@ -301,8 +628,11 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
             return conn;
         }
         // Transaction can be null in case of simple load operation.
-        else
-            return openConnection(true);
+        else {
+            Connection conn = pool.poll();
+
+            return conn != null ? conn : openConnection(true);
+        }
     }
 
     /**
@@ -315,8 +645,70 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     private void end(@Nullable GridCacheTx tx, Connection conn, Statement st) {
         U.closeQuiet(st);
 
-        if (tx == null)
-            // Close connection right away if there is no transaction.
+        if (tx == null && conn != null)
+            // Return connection to the pool right away if there is no transaction.
+            release(conn);
+    }
+
+    /**
+     * Closes connection used outside of transaction after database error, since it may
+     * be broken and should not be returned to the pool. Connection used in transaction is
+     * closed when transaction ends.
+     *
+     * @param tx Active transaction, if any.
+     * @param conn Allocated connection.
+     * @return {@code null} if connection was closed, so that it is not released again,
+     *      or given connection otherwise.
+     */
+    @Nullable private Connection closeBroken(@Nullable GridCacheTx tx, @Nullable Connection conn) {
+        if (tx == null && conn != null) {
+            U.closeQuiet(conn);
+
+            return null;
+        }
+
+        return conn;
+    }
+
+    /**
+     * Returns connection used outside of transaction to the pool, or closes it
+     * if pool is full, store has been stopped or connection is no longer valid.
+     *
+     * @param conn Connection.
+     */
+    private void release(Connection conn) {
+        boolean pooled = false;
+
+        try {
+            pooled = !stopped && !conn.isClosed() && conn.getAutoCommit() && pool.offer(conn);
+        }
+        catch (SQLException e) {
+            U.warn(log, "Failed to check pooled connection state (connection will be closed): " + e.getMessage());
+        }
+
+        if (!pooled)
+            U.closeQuiet(conn);
+        // Store could have been stopped concurrently.
+        else if (stopped)
+            closePool();
+    }
+
+    /**
+     * Closes all pooled connections. Called by cache processor when caches are stopped.
+     * Connections released afterwards are closed instead of being pooled.
+     */
+    public void stop() {
+        stopped = true;
+
+        if (pool != null)
+            closePool();
+    }
+
+    /**
+     * Closes idle connections in the pool.
+     */
+    private void closePool() {
+        for (Connection conn = pool.poll(); conn != null; conn = pool.poll())
             U.closeQuiet(conn);
     }
 
@@ -351,6 +743,16 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
             if (F.isEmpty(createTblQry))
                 throw new GridException("Failed to initialize cache store (create table query is not provided).");
 
+            if (batchSize <= 0)
+                throw new GridException("Failed to initialize cache store (batch size must be positive): " +
+                    batchSize);
+
+            if (F.isEmpty(loadAllQry) || loadAllQry.indexOf('?') < 0)
+                throw new GridException("Failed to initialize cache store (load all query must have " +
+                    "one parameter): " + loadAllQry);
+
+            pool = new ArrayBlockingQueue<Connection>(Math.max(maxPoolSize, 1));
+
             Connection conn = null;
 
             Statement stmt = null;
@@ -416,6 +818,18 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
         this.loadQry = loadQry;
     }
 
+    /**
+     * Sets query to load multiple entries. Query must have exactly one parameter for keys,
+     * e.g. {@code select * from ENTRIES where key in (?)}, which will be expanded into as
+     * many parameters as there are keys in a batch. Query should select key and value
+     * columns in this order.
+     *
+     * @param loadAllQry Load multiple entries query.
+     */
+    public void setLoadAllQuery(String loadAllQry) {
+        this.loadAllQry = loadAllQry;
+    }
+
     /**
      * Sets update entry query.
      *
@@ -443,6 +857,26 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
         this.delQry = delQry;
     }
 
+    /**
+     * Sets maximum number of keys in one JDBC batch or multi-key load query.
+     * Default value is {@link #DFLT_BATCH_SIZE}.
+     *
+     * @param batchSize Batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets maximum number of idle connections kept for operations outside of transactions.
+     * Default value is {@link #DFLT_MAX_POOL_SIZE}.
+     *
+     * @param maxPoolSize Maximum number of pooled connections.
+     */
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
     /**
      * Sets user name for database access.
      *
@@ -0,0 +1,109 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal;
+
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Execution request for several jobs of the same task mapped to the same node. Task data
+ * (session attributes, siblings, deployment information, etc.) is shared by all jobs and
+ * is sent only once, followed by job ID, serialized job and job attributes for every job.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridJobExecuteBatchRequest implements GridTaskMessage, Externalizable {
+    /** Job execution requests. */
+    @GridToStringInclude
+    private List<GridJobExecuteRequest> reqs;
+
+    /**
+     * No-op constructor to support {@link Externalizable} interface.
+     */
+    public GridJobExecuteBatchRequest() {
+        // No-op.
+    }
+
+    /**
+     * @param reqs Job execution requests of the same task sharing the same task data.
+     */
+    public GridJobExecuteBatchRequest(List<GridJobExecuteRequest> reqs) {
+        assert !F.isEmpty(reqs);
+
+        this.reqs = reqs;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridUuid getSessionId() {
+        return reqs.get(0).getSessionId();
+    }
+
+    /**
+     * @return Job execution requests.
+     */
+    public List<GridJobExecuteRequest> requests() {
+        return reqs;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        GridJobExecuteRequest first = reqs.get(0);
+
+        out.writeObject(first);
+
+        out.writeInt(reqs.size() - 1);
+
+        for (GridJobExecuteRequest req : reqs.subList(1, reqs.size())) {
+            assert req.getSessionId().equals(first.getSessionId());
+
+            U.writeGridUuid(out, req.getJobId());
+
+            out.writeObject(req.getJobBytes());
+            out.writeObject(req.getJobAttributes());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        GridJobExecuteRequest first = (GridJobExecuteRequest)in.readObject();
+
+        first.batched();
+
+        int size = in.readInt();
+
+        reqs = new ArrayList<GridJobExecuteRequest>(size + 1);
+
+        reqs.add(first);
+
+        for (int i = 0; i < size; i++) {
+            GridUuid jobId = U.readGridUuid(in);
+
+            GridByteArrayList jobBytes = (GridByteArrayList)in.readObject();
+            GridByteArrayList jobAttrs = (GridByteArrayList)in.readObject();
+
+            GridJobExecuteRequest req = new GridJobExecuteRequest(first, jobId, jobBytes, jobAttrs);
+
+            req.batched();
+
+            reqs.add(req);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridJobExecuteBatchRequest.class, this);
+    }
+}
@@ -0,0 +1,82 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal;
+
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Execution responses of several jobs of the same task, coalesced by the node
+ * that executed them.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridJobExecuteBatchResponse implements GridTaskMessage, Externalizable {
+    /** Task session ID. */
+    private GridUuid sesId;
+
+    /** Job execution responses. */
+    @GridToStringInclude
+    private Collection<GridJobExecuteResponse> resps;
+
+    /**
+     * No-op constructor to support {@link Externalizable} interface.
+     */
+    public GridJobExecuteBatchResponse() {
+        // No-op.
+    }
+
+    /**
+     * @param sesId Task session ID.
+     * @param resps Job execution responses.
+     */
+    public GridJobExecuteBatchResponse(GridUuid sesId, Collection<GridJobExecuteResponse> resps) {
+        assert sesId != null;
+        assert !F.isEmpty(resps);
+
+        this.sesId = sesId;
+        this.resps = resps;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridUuid getSessionId() {
+        return sesId;
+    }
+
+    /**
+     * @return Job execution responses.
+     */
+    public Collection<GridJobExecuteResponse> responses() {
+        return resps;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeGridUuid(out, sesId);
+        U.writeCollection(out, resps);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        sesId = U.readGridUuid(in);
+        resps = U.readCollection(in);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridJobExecuteBatchResponse.class, this);
+    }
+}
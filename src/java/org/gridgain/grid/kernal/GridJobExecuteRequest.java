@@ -85,6 +85,21 @@ public class GridJobExecuteRequest implements GridTaskMessage, Externalizable {
     /** */
     private boolean dynamicSiblings;
 
+    /** Job passed by reference to local node. */
+    @GridToStringExclude
+    private transient GridJob locJob;
+
+    /** Session attributes passed by reference to local node. */
+    @GridToStringExclude
+    private transient Map<Object, Object> locSesAttrs;
+
+    /** Job attributes passed by reference to local node. */
+    @GridToStringExclude
+    private transient Map<?, ?> locJobAttrs;
+
+    /** Flag indicating that request was received in a batch. */
+    private transient boolean batched;
+
     /**
      * No-op constructor to support {@link Externalizable} interface.
      */
@@ -99,13 +114,13 @@ public class GridJobExecuteRequest implements GridTaskMessage, Externalizable {
      * @param userVer Code version.
      * @param seqNum Internal task version for the task originating node.
      * @param taskClsName Fully qualified task name.
-     * @param jobBytes Job serialized body.
+     * @param jobBytes Job serialized body, {@code null} for job passed by reference.
      * @param startTaskTime Task execution start time.
      * @param timeout Task execution timeout.
      * @param taskNodeId Original task execution node ID.
      * @param siblings Collection of split siblings.
-     * @param sesAttrs Map of session attributes.
-     * @param jobAttrs Job context attributes.
+     * @param sesAttrs Map of session attributes, {@code null} for job passed by reference.
+     * @param jobAttrs Job context attributes, {@code null} for job passed by reference.
      * @param cpSpi Collision SPI.
      * @param clsLdrId Task local class loader id.
      * @param depMode Task deployment mode.
@@ -121,10 +136,7 @@ public class GridJobExecuteRequest implements GridTaskMessage, Externalizable {
         assert jobId != null;
         assert taskName != null;
         assert taskClsName != null;
-        assert jobBytes != null;
         assert taskNodeId != null;
-        assert sesAttrs != null;
-        assert jobAttrs != null;
         assert clsLdrId != null;
         assert userVer != null;
         assert seqNum >= -1;
@@ -151,6 +163,43 @@ public class GridJobExecuteRequest implements GridTaskMessage, Externalizable {
         this.cpSpi = cpSpi == null || cpSpi.isEmpty() ? null : cpSpi;
     }
 
+    /**
+     * Creates request for another job of the same task, sharing all task data with
+     * given request.
+     *
+     * @param req Request of another job of the same task.
+     * @param jobId Job ID.
+     * @param jobBytes Job serialized body.
+     * @param jobAttrs Job context attributes.
+     */
+    GridJobExecuteRequest(GridJobExecuteRequest req, GridUuid jobId, GridByteArrayList jobBytes,
+        GridByteArrayList jobAttrs) {
+        assert req != null;
+        assert jobId != null;
+        assert jobBytes != null;
+        assert jobAttrs != null;
+
+        this.jobId = jobId;
+        this.jobBytes = jobBytes;
+        this.jobAttrs = jobAttrs;
+
+        sesId = req.sesId;
+        taskName = req.taskName;
+        userVer = req.userVer;
+        taskClsName = req.taskClsName;
+        startTaskTime = req.startTaskTime;
+        timeout = req.timeout;
+        taskNodeId = req.taskNodeId;
+        siblings = req.siblings;
+        sesAttrs = req.sesAttrs;
+        clsLdrId = req.clsLdrId;
+        depMode = req.depMode;
+        seqNum = req.seqNum;
+        dynamicSiblings = req.dynamicSiblings;
+        ldrParticipants = req.ldrParticipants;
+        cpSpi = req.cpSpi;
+    }
+
     /** {@inheritDoc} */
     @Override public GridUuid getSessionId() {
         return sesId;
@@ -293,6 +342,67 @@ public class GridJobExecuteRequest implements GridTaskMessage, Externalizable {
         this.ldrParticipants = ldrParticipants;
     }
 
+    /**
+     * Sets job and attributes passed by reference to local node. Such requests are never
+     * marshalled and are processed by job processor instead of serialized job and attributes.
+     *
+     * @param locJob Job.
+     * @param locSesAttrs Session attributes.
+     * @param locJobAttrs Job attributes.
+     */
+    public void localJob(GridJob locJob, Map<Object, Object> locSesAttrs, Map<?, ?> locJobAttrs) {
+        assert locJob != null;
+        assert locSesAttrs != null;
+        assert locJobAttrs != null;
+
+        this.locJob = locJob;
+        this.locSesAttrs = locSesAttrs;
+        this.locJobAttrs = locJobAttrs;
+    }
+
+    /**
+     * @return {@code True} if job is passed by reference to local node.
+     */
+    public boolean isLocalJob() {
+        return locJob != null;
+    }
+
+    /**
+     * @return Job passed by reference to local node.
+     */
+    public GridJob getLocalJob() {
+        return locJob;
+    }
+
+    /**
+     * @return Session attributes passed by reference to local node.
+     */
+    public Map<Object, Object> getLocalSessionAttributes() {
+        return locSesAttrs;
+    }
+
+    /**
+     * @return Job attributes passed by reference to local node.
+     */
+    public Map<?, ?> getLocalJobAttributes() {
+        return locJobAttrs;
+    }
+
+    /**
+     * Marks request as received in a batch.
+     */
+    void batched() {
+        batched = true;
+    }
+
+    /**
+     * @return {@code True} if request was received in a batch with requests of other
+     *      jobs of the same task.
+     */
+    public boolean isBatched() {
+        return batched;
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         out.writeInt(depMode.ordinal());
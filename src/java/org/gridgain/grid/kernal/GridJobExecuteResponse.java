@@ -13,6 +13,8 @@ import org.gridgain.grid.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
 import java.io.*;
 import java.util.*;
 
@@ -41,6 +43,18 @@ public class GridJobExecuteResponse implements GridTaskMessage, Externalizable {
     /** */
     @GridToStringExclude private transient GridException fakeEx;
 
+    /** Flag indicating that result is passed by reference from local node. */
+    private transient boolean loc;
+
+    /** Job result passed by reference from local node. */
+    @GridToStringExclude private transient Object locRes;
+
+    /** Job exception passed by reference from local node. */
+    @GridToStringExclude private transient GridException locEx;
+
+    /** Job attributes passed by reference from local node. */
+    @GridToStringExclude private transient Map<Object, Object> locJobAttrs;
+
     /** */
     private boolean isCancelled;
 
@@ -143,6 +157,51 @@ public class GridJobExecuteResponse implements GridTaskMessage, Externalizable {
         this.fakeEx = fakeEx;
     }
 
+    /**
+     * Sets job result, exception and attributes passed by reference from local node.
+     * Such responses are never marshalled and serialized fields are not used.
+     *
+     * @param locRes Job result.
+     * @param locEx Job exception.
+     * @param locJobAttrs Job attributes.
+     */
+    public void setLocalResult(@Nullable Object locRes, @Nullable GridException locEx,
+        Map<Object, Object> locJobAttrs) {
+        loc = true;
+
+        this.locRes = locRes;
+        this.locEx = locEx;
+        this.locJobAttrs = locJobAttrs;
+    }
+
+    /**
+     * @return {@code True} if result is passed by reference from local node.
+     */
+    public boolean isLocalResult() {
+        return loc;
+    }
+
+    /**
+     * @return Job result passed by reference from local node.
+     */
+    @Nullable public Object getLocalJobResult() {
+        return locRes;
+    }
+
+    /**
+     * @return Job exception passed by reference from local node.
+     */
+    @Nullable public GridException getLocalException() {
+        return locEx;
+    }
+
+    /**
+     * @return Job attributes passed by reference from local node.
+     */
+    public Map<Object, Object> getLocalJobAttributes() {
+        return locJobAttrs;
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         out.writeBoolean(isCancelled);
@@ -33,6 +33,9 @@ public class GridJobSessionImpl extends GridMetadataAwareAdapter implements Grid
     /** Processor registry. */
     private final GridKernalContext ctx;
 
+    /** Flag indicating that attributes set by this job have been sent to task node. */
+    private volatile boolean attrsSent;
+
     /**
      * @param ctx Kernal context.
      * @param ses Task session.
@@ -166,10 +169,20 @@ public class GridJobSessionImpl extends GridMetadataAwareAdapter implements Grid
         ses.setAttributes(attrs);
 
         if (!isTaskNode()) {
+            attrsSent = true;
+
             ctx.job().setAttributes(this, attrs);
         }
     }
 
+    /**
+     * @return {@code True} if attributes set by this job have been sent to task node,
+     *      in which case job response must be sent in order after them.
+     */
+    public boolean attributesSent() {
+        return attrsSent;
+    }
+
 
     /** {@inheritDoc} */
     @Override public Map<?, ?> getAttributes() {
@@ -1118,10 +1118,16 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
         for (GridCacheConfiguration cacheCfg : cfg.getCacheConfiguration()) {
             GridCacheAffinity aff = cacheCfg.getAffinity();
 
+            GridCacheAtomicityMode atomicityMode = cacheCfg.getAtomicityMode() != null ?
+                cacheCfg.getAtomicityMode() : GridCacheConfiguration.DFLT_ATOMICITY_MODE;
+
             cacheAttrVals[i++] = new GridCacheAttributes(
                 cacheCfg.getName(),
                 cacheCfg.getCacheMode() != null ? cacheCfg.getCacheMode() : GridCacheConfiguration.DFLT_CACHE_MODE,
-                cacheCfg.getCacheMode() == PARTITIONED && cacheCfg.isNearEnabled(),
+                atomicityMode,
+                // Near cache is not supported in ATOMIC mode.
+                cacheCfg.getCacheMode() == PARTITIONED && cacheCfg.isNearEnabled() &&
+                    atomicityMode != GridCacheAtomicityMode.ATOMIC,
                 cacheCfg.getPreloadMode(),
                 aff != null ? aff.getClass().getCanonicalName() : null);
         }
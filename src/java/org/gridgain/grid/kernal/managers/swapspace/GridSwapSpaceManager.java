@@ -236,6 +236,24 @@ public class GridSwapSpaceManager extends GridManagerAdapter<GridSwapSpaceSpi> {
         }
     }
 
+    /**
+     * Gets iterator over raw key and value bytes of given partition.
+     *
+     * @param space Space name.
+     * @param part Partition ID.
+     * @return Iterator or {@code null} if space is unknown.
+     * @throws GridException If failed.
+     */
+    @Nullable public Iterator<Map.Entry<byte[], byte[]>> rawIterator(@Nullable String space, int part)
+        throws GridException {
+        try {
+            return getSpi().rawIterator(space, part);
+        }
+        catch (GridSpiException e) {
+            throw new GridException("Failed to get swap iterator [space=" + space + ", part=" + part + ']', e);
+        }
+    }
+
     /**
      * @param swapBytes Swap bytes to unmarshal.
      * @param ldr Class loader.
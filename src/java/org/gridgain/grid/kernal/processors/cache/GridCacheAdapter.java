@@ -2057,6 +2057,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return ctx.cloneOnFlag(updateAtomicAsync(key, val, true, filter).get().value());
+
         return ctx.cloneOnFlag(syncOp(new SyncOp<V>(true) {
             @Override public V op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.put(key, val, filter);
@@ -2075,6 +2078,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return ctx.wrapClone(new GridFutureWrapper<V, GridCacheReturn<V>>(
+                updateAtomicAsync(key, val, true, filter), CU.<V>return2value()));
+
         return ctx.wrapClone(asyncOp(new AsyncOp<V>(key) {
             @Override public GridFuture<V> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.putAsync(key, val, filter);
@@ -2093,6 +2100,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return updateAtomicAsync(key, val, false, filter).get().success();
+
         return syncOp(new SyncOp<Boolean>(true) {
             @Override public Boolean op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.putx(key, val, filter);
@@ -2111,6 +2121,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return new GridFutureWrapper<Boolean, GridCacheReturn<V>>(updateAtomicAsync(key, val, false, filter),
+                CU.<V>return2flag());
+
         return asyncOp(new AsyncOp<Boolean>(key) {
             @Override public GridFuture<Boolean> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.putxAsync(key, val, filter);
@@ -2128,6 +2142,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return ctx.cloneOnFlag(updateAtomicAsync(key, val, true, ctx.noPeekArray()).get().value());
+
         return ctx.cloneOnFlag(syncOp(new SyncOp<V>(true) {
             @Override public V op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.put(key, val, ctx.noPeekArray());
@@ -2145,6 +2162,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return ctx.wrapClone(new GridFutureWrapper<V, GridCacheReturn<V>>(
+                updateAtomicAsync(key, val, true, ctx.noPeekArray()), CU.<V>return2value()));
+
         return ctx.wrapClone(asyncOp(new AsyncOp<V>(key) {
             @Override public GridFuture<V> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.putAsync(key, val, ctx.noPeekArray());
@@ -2162,6 +2183,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return updateAtomicAsync(key, val, false, ctx.noPeekArray()).get().success();
+
         return syncOp(new SyncOp<Boolean>(true) {
             @Override public Boolean op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.putx(key, val, ctx.noPeekArray());
@@ -2179,6 +2203,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return new GridFutureWrapper<Boolean, GridCacheReturn<V>>(
+                updateAtomicAsync(key, val, false, ctx.noPeekArray()), CU.<V>return2flag());
+
         return asyncOp(new AsyncOp<Boolean>(key) {
             @Override public GridFuture<Boolean> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.putxAsync(key, val, ctx.noPeekArray());
@@ -2197,6 +2225,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return ctx.cloneOnFlag(updateAtomicAsync(key, val, true, ctx.hasPeekArray()).get().value());
+
         return ctx.cloneOnFlag(syncOp(new SyncOp<V>(true) {
             @Override public V op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.put(key, val, ctx.hasPeekArray());
@@ -2214,6 +2245,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return ctx.wrapClone(new GridFutureWrapper<V, GridCacheReturn<V>>(
+                updateAtomicAsync(key, val, true, ctx.hasPeekArray()), CU.<V>return2value()));
+
         return ctx.wrapClone(asyncOp(new AsyncOp<V>(key) {
             @Override public GridFuture<V> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.putAsync(key, val, ctx.hasPeekArray());
@@ -2231,6 +2266,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return updateAtomicAsync(key, val, false, ctx.hasPeekArray()).get().success();
+
         return syncOp(new SyncOp<Boolean>(true) {
             @Override public Boolean op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.putx(key, val, ctx.hasPeekArray());
@@ -2248,6 +2286,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return new GridFutureWrapper<Boolean, GridCacheReturn<V>>(
+                updateAtomicAsync(key, val, false, ctx.hasPeekArray()), CU.<V>return2flag());
+
         return asyncOp(new AsyncOp<Boolean>(key) {
             @Override public GridFuture<Boolean> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.putxAsync(key, val, ctx.hasPeekArray());
@@ -2265,6 +2307,13 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic()) {
+            // Register before hiding in the filter.
+            ctx.deploy().registerClass(oldVal);
+
+            return updateAtomicAsync(key, newVal, false, ctx.equalsPeekArray(oldVal)).get().success();
+        }
+
         return syncOp(new SyncOp<Boolean>(true) {
             @Override public Boolean op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 // Register before hiding in the filter.
@@ -2285,6 +2334,19 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic()) {
+            // Register before hiding in the filter.
+            try {
+                ctx.deploy().registerClass(oldVal);
+            }
+            catch (GridException e) {
+                return new GridFinishedFuture<Boolean>(ctx.kernalContext(), e);
+            }
+
+            return new GridFutureWrapper<Boolean, GridCacheReturn<V>>(updateAtomicAsync(key, newVal, false,
+                ctx.equalsPeekArray(oldVal)), CU.<V>return2flag());
+        }
+
         return asyncOp(new AsyncOp<Boolean>(key) {
             @Override public GridFuture<Boolean> op(GridCacheTxLocalAdapter<K, V> tx) {
                 // Register before hiding in the filter.
@@ -2309,6 +2371,12 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         final GridPredicate<? super GridCacheEntry<K, V>>[] filter) throws GridException {
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic()) {
+            updateAllAtomicAsync(m.keySet(), m, filter).get();
+
+            return;
+        }
+
         syncOp(new SyncInOp(m.size() == 1) {
             @Override public void inOp(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 tx.putAll(m, filter);
@@ -2325,6 +2393,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         @Nullable final GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return updateAllAtomicAsync(m.keySet(), m, filter);
+
         return asyncOp(new AsyncInOp(m.keySet()) {
             @Override public GridFuture<?> inOp(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.putAllAsync(m, false, filter);
@@ -2344,6 +2415,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         A.notNull(key, "key");
 
+        if (ctx.isAtomic())
+            return ctx.cloneOnFlag(updateAtomicAsync(key, null, true, filter).get().value());
+
         return ctx.cloneOnFlag(syncOp(new SyncOp<V>(true) {
             @Override public V op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.remove(key, filter);
@@ -2362,6 +2436,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         A.notNull(key, "key");
 
+        if (ctx.isAtomic())
+            return ctx.wrapClone(new GridFutureWrapper<V, GridCacheReturn<V>>(
+                updateAtomicAsync(key, null, true, filter), CU.<V>return2value()));
+
         return ctx.wrapClone(asyncOp(new AsyncOp<V>(key) {
             @Override public GridFuture<V> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.removeAsync(key, filter);
@@ -2381,6 +2459,12 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         if (keys.isEmpty())
             return;
 
+        if (ctx.isAtomic()) {
+            updateAllAtomicAsync(keys, null, filter).get();
+
+            return;
+        }
+
         syncOp(new SyncInOp(keys.size() == 1) {
             @Override public void inOp(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 tx.removeAll(keys, filter);
@@ -2397,6 +2481,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         final GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
         ctx.denyOnLocalRead();
 
+        if (ctx.isAtomic())
+            return updateAllAtomicAsync(keys, null, filter);
+
         return asyncOp(new AsyncInOp(keys) {
             @Override public GridFuture<?> inOp(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.removeAllAsync(keys, tx.implicit(), false, filter);
@@ -2415,6 +2502,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         A.notNull(key, "key");
 
+        if (ctx.isAtomic())
+            return updateAtomicAsync(key, null, false, filter).get().success();
+
         return syncOp(new SyncOp<Boolean>(true) {
             @Override public Boolean op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 return tx.removex(key, filter);
@@ -2433,6 +2523,10 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         A.notNull(key, "key");
 
+        if (ctx.isAtomic())
+            return new GridFutureWrapper<Boolean, GridCacheReturn<V>>(updateAtomicAsync(key, null, false, filter),
+                CU.<V>return2flag());
+
         return asyncOp(new AsyncOp<Boolean>(key) {
             @Override public GridFuture<Boolean> op(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.removexAsync(key, filter);
@@ -2450,6 +2544,13 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         A.notNull(key, "key", val, "val");
 
+        if (ctx.isAtomic()) {
+            // Register before hiding in the filter.
+            ctx.deploy().registerClass(val);
+
+            return updateAtomicAsync(key, null, false, ctx.vararg(F.<K, V>cacheContainsPeek(val))).get().success();
+        }
+
         return syncOp(new SyncOp<Boolean>(true) {
             @Override public Boolean op(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 // Register before hiding in the filter.
@@ -2470,6 +2571,19 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         A.notNull(key, "key", val, "val");
 
+        if (ctx.isAtomic()) {
+            // Register before hiding in the filter.
+            try {
+                ctx.deploy().registerClass(val);
+            }
+            catch (GridException e) {
+                return new GridFinishedFuture<Boolean>(ctx.kernalContext(), e);
+            }
+
+            return new GridFutureWrapper<Boolean, GridCacheReturn<V>>(updateAtomicAsync(key, null, false,
+                ctx.vararg(F.<K, V>cacheContainsPeek(val))), CU.<V>return2flag());
+        }
+
         return asyncOp(new AsyncOp<Boolean>(key) {
             @Override public GridFuture<Boolean> op(GridCacheTxLocalAdapter<K, V> tx) {
                 // Register before hiding in the filter.
@@ -2498,6 +2612,13 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         final GridPredicate<? super GridCacheEntry<K, V>>[] p = filter;
 
+        // Filter is checked again under entry lock by every atomic update.
+        if (ctx.isAtomic()) {
+            updateAllAtomicAsync(keySet(p), null, p).get();
+
+            return;
+        }
+
         syncOp(new SyncInOp(false) {
             @Override public void inOp(GridCacheTxLocalAdapter<K, V> tx) throws GridException {
                 tx.removeAll(keySet(p), CU.<K, V>empty());
@@ -2515,6 +2636,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         final Set<? extends K> keys = keySet(filter);
 
+        if (ctx.isAtomic())
+            return updateAllAtomicAsync(keys, null, filter);
+
         return asyncOp(new AsyncInOp(keys) {
             @Override public GridFuture<?> inOp(GridCacheTxLocalAdapter<K, V> tx) {
                 return tx.removeAllAsync(keys, tx.implicit(), false, CU.<K, V>empty());
@@ -2804,6 +2928,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         if (!ctx.isEnterprise() && concurrency == EVENTUALLY_CONSISTENT)
             throw new GridEnterpriseFeatureException("Eventually Consistent Transactions");
 
+        if (ctx.isAtomic())
+            throw new GridRuntimeException(atomicTxException());
+
         GridCacheTx tx = ctx.tm().userTx();
 
         if (tx != null)
@@ -2965,6 +3092,11 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         return e == null || e.obsolete() ? null : e.wrap(true);
     }
 
+    /** {@inheritDoc} */
+    @Override public GridCacheDataLoader<K, V> dataLoader() {
+        return new GridCacheDataLoaderImpl<K, V>(ctx);
+    }
+
     /** {@inheritDoc} */
     @Override public int keySize() {
         return map.publicSize();
@@ -3273,6 +3405,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         ctx.denyOnFlag(LOCAL);
 
+        if (ctx.isAtomic())
+            throw atomicTxException();
+
         GridCacheTx tx = txStart(concurrency, isolation, timeout, invalidate);
 
         try {
@@ -3332,6 +3467,9 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         A.ensure(timeout >= 0, "timeout cannot be negative");
         A.ensure(!F.isEmpty(closures), "closures cannot be empty");
 
+        if (ctx.isAtomic())
+            throw atomicTxException();
+
         GridCacheTx tx = txStart(concurrency, isolation, timeout, invalidate);
 
         Collection<R> res = new LinkedList<R>();
@@ -3475,6 +3613,59 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         }), true);
     }
 
+    /**
+     * @return Exception thrown on attempt to start explicit transaction in
+     *      {@link GridCacheAtomicityMode#ATOMIC} cache.
+     */
+    private GridException atomicTxException() {
+        return new GridException("Explicit transactions are not supported by ATOMIC cache, since atomic " +
+            "updates do not respect transaction locks (change cache atomicity mode to TRANSACTIONAL) " +
+            "[cacheName=" + name() + ']');
+    }
+
+    /**
+     * Performs single-key non-transactional update in {@link GridCacheAtomicityMode#ATOMIC} cache.
+     * Caches that support atomic mode override this method.
+     *
+     * @param key Key.
+     * @param val Value, {@code null} for remove.
+     * @param retval Whether previous value should be returned.
+     * @param filter Filter.
+     * @return Update future.
+     */
+    protected GridFuture<GridCacheReturn<V>> updateAtomicAsync(K key, @Nullable V val, boolean retval,
+        @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
+        return new GridFinishedFuture<GridCacheReturn<V>>(ctx.kernalContext(),
+            new GridException("Atomic updates are not supported by cache: " + name()));
+    }
+
+    /**
+     * Performs multi-key update in {@link GridCacheAtomicityMode#ATOMIC} cache as independent
+     * single-key atomic updates, so no implicit transaction is started and no locks are taken.
+     *
+     * @param keys Keys to update.
+     * @param m Values to put, or {@code null} to remove given keys.
+     * @param filter Filter, checked for every key separately.
+     * @return Future that completes when all keys are updated.
+     */
+    @SuppressWarnings({"unchecked"})
+    private GridFuture<?> updateAllAtomicAsync(Collection<? extends K> keys, @Nullable Map<? extends K, ? extends V> m,
+        @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
+        GridCompoundFuture<Object, Object> fut = new GridCompoundFuture<Object, Object>(ctx.kernalContext());
+
+        for (K key : keys) {
+            V val = m == null ? null : m.get(key);
+
+            assert m == null || val != null : "Null value for key in putAll: " + key;
+
+            fut.add((GridFuture<Object>)(GridFuture<?>)updateAtomicAsync(key, val, false, filter));
+        }
+
+        fut.markInitialized();
+
+        return fut;
+    }
+
     /**
      * @param op Cache operation.
      * @param <T> Return type.
@@ -29,6 +29,9 @@ public class GridCacheAttributes implements Externalizable {
     /** Cache mode. */
     private GridCacheMode cacheMode;
 
+    /** Cache atomicity mode. */
+    private GridCacheAtomicityMode atomicityMode;
+
     /** Near cache enabled flag. */
     private boolean nearCacheEnabled;
 
@@ -41,14 +44,16 @@ public class GridCacheAttributes implements Externalizable {
     /**
      * @param cacheName Cache name.
      * @param cacheMode Cache mode.
+     * @param atomicityMode Cache atomicity mode.
      * @param nearCacheEnabled Near cache enabled flag.
      * @param preloadMode Preload mode.
      * @param affClsName Affinity class name.
      */
-    public GridCacheAttributes(String cacheName, GridCacheMode cacheMode, boolean nearCacheEnabled,
-        GridCachePreloadMode preloadMode, String affClsName) {
+    public GridCacheAttributes(String cacheName, GridCacheMode cacheMode, GridCacheAtomicityMode atomicityMode,
+        boolean nearCacheEnabled, GridCachePreloadMode preloadMode, String affClsName) {
         this.cacheName = cacheName;
         this.cacheMode = cacheMode;
+        this.atomicityMode = atomicityMode;
         this.nearCacheEnabled = nearCacheEnabled;
         this.preloadMode = preloadMode;
         this.affClsName = affClsName;
@@ -75,6 +80,13 @@ public class GridCacheAttributes implements Externalizable {
         return cacheMode;
     }
 
+    /**
+     * @return Cache atomicity mode.
+     */
+    public GridCacheAtomicityMode cacheAtomicityMode() {
+        return atomicityMode;
+    }
+
     /**
      * @return {@code True} if near cache is enabled.
      */
@@ -100,6 +112,7 @@ public class GridCacheAttributes implements Externalizable {
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         U.writeString(out, cacheName);
         U.writeEnum(out, cacheMode);
+        U.writeEnum(out, atomicityMode);
         out.writeBoolean(nearCacheEnabled);
         U.writeEnum(out, preloadMode);
         U.writeString(out, affClsName);
@@ -109,6 +122,7 @@ public class GridCacheAttributes implements Externalizable {
     @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         cacheName = U.readString(in);
         cacheMode = U.readEnum(in, GridCacheMode.class);
+        atomicityMode = U.readEnum(in, GridCacheAtomicityMode.class);
         nearCacheEnabled = in.readBoolean();
         preloadMode = U.readEnum(in, GridCachePreloadMode.class);
         affClsName = U.readString(in);
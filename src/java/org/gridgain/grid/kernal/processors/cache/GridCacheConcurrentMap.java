@@ -357,7 +357,12 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).put(key, hash, val, topVer, ttl);
+        GridCacheMapEntry<K, V> e = segmentFor(hash).put(key, hash, val, topVer, ttl);
+
+        if (ttl > 0)
+            e.scheduleInitialExpiration();
+
+        return e;
     }
 
     /**
@@ -375,7 +380,12 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).putIfObsolete(key, hash, val, topVer, ttl, create);
+        GridTriple<GridCacheMapEntry<K, V>> t = segmentFor(hash).putIfObsolete(key, hash, val, topVer, ttl, create);
+
+        if (ttl > 0 && t.get2() != null)
+            t.get2().scheduleInitialExpiration();
+
+        return t;
     }
 
     /**
@@ -45,6 +45,7 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
+import static org.gridgain.grid.cache.GridCacheAtomicityMode.*;
 import static org.gridgain.grid.cache.GridCacheFlag.*;
 import static org.gridgain.grid.cache.GridCachePreloadMode.*;
 
@@ -108,9 +109,15 @@ public class GridCacheContext<K, V> implements Externalizable {
     /** Evictions manager. */
     private GridCacheEvictionManager<K, V> evictMgr;
 
+    /** TTL manager. */
+    private GridCacheTtlManager<K, V> ttlMgr;
+
     /** Data structures manager. */
     private GridCacheDataStructuresManager<K, V> dataStructuresMgr;
 
+    /** Data load manager. */
+    private GridCacheDataLoadManager<K, V> dataLoadMgr;
+
     /** Managers. */
     private List<GridCacheManager<K, V>> mgrs = new LinkedList<GridCacheManager<K, V>>();
 
@@ -173,11 +180,13 @@ public class GridCacheContext<K, V> implements Externalizable {
      * @param swapMgr Cache swap manager.
      * @param depMgr Cache deployment manager.
      * @param evictMgr Cache eviction manager.
+     * @param ttlMgr Cache TTL manager.
      * @param ioMgr Cache communication manager.
      * @param qryMgr Cache query manager.
      * @param dgcMgr Distributed garbage collector manager.
      * @param txMgr Cache transaction manager.
      * @param dataStructuresMgr Cache dataStructures manager.
+     * @param dataLoadMgr Cache data load manager.
      */
     @SuppressWarnings({"unchecked"})
     public GridCacheContext(
@@ -196,11 +205,13 @@ public class GridCacheContext<K, V> implements Externalizable {
         GridCacheSwapManager<K, V> swapMgr,
         GridCacheDeploymentManager<K, V> depMgr,
         GridCacheEvictionManager<K, V> evictMgr,
+        GridCacheTtlManager<K, V> ttlMgr,
         GridCacheIoManager<K, V> ioMgr,
         GridCacheQueryManager<K, V> qryMgr,
         GridCacheDgcManager<K, V> dgcMgr,
         GridCacheTxManager<K, V> txMgr,
-        GridCacheDataStructuresManager<K, V> dataStructuresMgr) {
+        GridCacheDataStructuresManager<K, V> dataStructuresMgr,
+        GridCacheDataLoadManager<K, V> dataLoadMgr) {
         assert ctx != null;
         assert cacheCfg != null;
 
@@ -210,10 +221,12 @@ public class GridCacheContext<K, V> implements Externalizable {
         assert swapMgr != null;
         assert depMgr != null;
         assert evictMgr != null;
+        assert ttlMgr != null;
         assert ioMgr != null;
         assert dgcMgr != null;
         assert txMgr != null;
         assert dataStructuresMgr != null;
+        assert dataLoadMgr != null;
 
         this.ctx = ctx;
         this.cacheCfg = cacheCfg;
@@ -229,11 +242,13 @@ public class GridCacheContext<K, V> implements Externalizable {
         this.swapMgr = add(swapMgr);
         this.depMgr = add(depMgr);
         this.evictMgr = add(evictMgr);
+        this.ttlMgr = add(ttlMgr);
         this.ioMgr = add(ioMgr);
         this.qryMgr = add(qryMgr);
         this.dgcMgr = add(dgcMgr);
         this.txMgr = add(txMgr);
         this.dataStructuresMgr = add(dataStructuresMgr);
+        this.dataLoadMgr = add(dataLoadMgr);
 
         log = ctx.log(getClass());
 
@@ -306,6 +321,13 @@ public class GridCacheContext<K, V> implements Externalizable {
         return cache instanceof GridReplicatedCache;
     }
 
+    /**
+     * @return {@code True} if cache is in {@link GridCacheAtomicityMode#ATOMIC} mode.
+     */
+    public boolean isAtomic() {
+        return cacheCfg.getAtomicityMode() == ATOMIC;
+    }
+
     /**
      * @return DHT cache.
      */
@@ -758,6 +780,13 @@ public class GridCacheContext<K, V> implements Externalizable {
         return evictMgr;
     }
 
+    /**
+     * @return TTL manager.
+     */
+    public GridCacheTtlManager<K, V> ttl() {
+        return ttlMgr;
+    }
+
     /**
      * @return Sequence manager.
      */
@@ -765,6 +794,13 @@ public class GridCacheContext<K, V> implements Externalizable {
         return dataStructuresMgr;
     }
 
+    /**
+     * @return Data load manager.
+     */
+    public GridCacheDataLoadManager<K, V> dataLoad() {
+        return dataLoadMgr;
+    }
+
     /**
      * @return No get-value filter.
      */
@@ -1393,10 +1429,11 @@ public class GridCacheContext<K, V> implements Externalizable {
     }
 
     /**
-     * @return {@code true} if swap storage is enabled.
+     * @return {@code true} if swap storage or off-heap storage for evicted entries is enabled.
      */
     public boolean isSwapEnabled() {
-        return cacheCfg.isSwapEnabled() && !hasFlag(SKIP_SWAP) && swapMgr.enabled();
+        return (cacheCfg.isSwapEnabled() || cacheCfg.getOffHeapMaxMemory() > 0) && !hasFlag(SKIP_SWAP) &&
+            swapMgr.enabled();
     }
 
     /**
@@ -0,0 +1,311 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.events.*;
+import org.gridgain.grid.kernal.processors.cache.distributed.dht.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.*;
+import org.gridgain.grid.util.future.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.GridEventType.*;
+
+/**
+ * Cache data load manager. Sends batches created by {@link GridCacheDataLoaderImpl} to remote
+ * nodes and stores received batches directly into cache, bypassing transactions and locking.
+ * For partitioned caches entries are stored into DHT cache.
+ * <p>
+ * All entries are stored with version generated once by the loader, so primary and backup
+ * copies of a key get the same version, and receiving nodes move their version counters
+ * past it. Keys which receiving node does not own anymore are reported back to the loader,
+ * which remaps them to current affinity nodes.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheDataLoadManager<K, V> extends GridCacheManager<K, V> {
+    /** Pending batch futures. */
+    private final ConcurrentMap<Long, LoadFuture> futs = new ConcurrentHashMap<Long, LoadFuture>();
+
+    /** Request ID generator. */
+    private final AtomicLong idGen = new AtomicLong();
+
+    /** Busy lock. */
+    private final GridBusyLock busyLock = new GridBusyLock();
+
+    /** Discovery listener. */
+    private final GridLocalEventListener discoLsnr = new GridLocalEventListener() {
+        @Override public void onEvent(GridEvent evt) {
+            assert evt.type() == EVT_NODE_FAILED || evt.type() == EVT_NODE_LEFT;
+
+            UUID nodeId = ((GridDiscoveryEvent)evt).eventNodeId();
+
+            for (LoadFuture fut : futs.values())
+                if (fut.nodeId.equals(nodeId))
+                    fut.onDone(new GridTopologyException("Node has left grid while loading data: " + nodeId));
+        }
+    };
+
+    /** {@inheritDoc} */
+    @Override public void start0() throws GridException {
+        cctx.io().addHandler(GridCacheDataLoadRequest.class, new CI2<UUID, GridCacheDataLoadRequest<K, V>>() {
+            @Override public void apply(UUID nodeId, GridCacheDataLoadRequest<K, V> req) {
+                processLoadRequest(nodeId, req);
+            }
+        });
+
+        cctx.io().addHandler(GridCacheDataLoadResponse.class, new CI2<UUID, GridCacheDataLoadResponse<K, V>>() {
+            @Override public void apply(UUID nodeId, GridCacheDataLoadResponse<K, V> res) {
+                processLoadResponse(res);
+            }
+        });
+
+        cctx.events().addListener(discoLsnr, EVT_NODE_FAILED, EVT_NODE_LEFT);
+
+        if (log.isDebugEnabled())
+            log.debug("Data load manager started on node: " + cctx.nodeId());
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void stop0(boolean cancel, boolean wait) {
+        busyLock.block();
+
+        cctx.events().removeListener(discoLsnr);
+
+        for (LoadFuture fut : futs.values())
+            fut.onDone(new GridException("Cache is stopping: " + cctx.namex()));
+
+        if (log.isDebugEnabled())
+            log.debug("Data load manager stopped on node: " + cctx.nodeId());
+    }
+
+    /**
+     * Sends batch to given node. If node is local, batch is stored in system pool
+     * without marshalling.
+     *
+     * @param node Node.
+     * @param entries Entries to load.
+     * @param overwrite {@code True} if existing entries should be overwritten.
+     * @param ver Loader version to store entries with.
+     * @return Future that completes when batch is stored on given node. Result of
+     *      the future is keys that were not stored since given node does not own them.
+     */
+    GridFuture<Collection<K>> load(GridNode node, final Map<K, V> entries, final boolean overwrite,
+        final GridCacheVersion ver) {
+        if (!busyLock.enterBusy())
+            return new GridFinishedFuture<Collection<K>>(cctx.kernalContext(),
+                new GridException("Cache is stopping: " + cctx.namex()));
+
+        try {
+            if (node.id().equals(cctx.nodeId())) {
+                return cctx.closures().callLocalSafe(new COX<Collection<K>>() {
+                    @Override public Collection<K> applyx() throws GridException {
+                        return store(entries, overwrite, ver);
+                    }
+                }, true);
+            }
+
+            LoadFuture fut = new LoadFuture(idGen.incrementAndGet(), node.id());
+
+            futs.put(fut.reqId, fut);
+
+            // Node may have left before future was registered.
+            if (cctx.discovery().node(node.id()) == null)
+                fut.onDone(new GridTopologyException("Node has left grid: " + node.id()));
+            else {
+                try {
+                    cctx.io().send(node, new GridCacheDataLoadRequest<K, V>(fut.reqId, entries, overwrite, ver));
+                }
+                catch (GridException e) {
+                    fut.onDone(e);
+                }
+            }
+
+            return fut;
+        }
+        finally {
+            busyLock.leaveBusy();
+        }
+    }
+
+    /**
+     * @param nodeId Sender node ID.
+     * @param req Load request.
+     */
+    private void processLoadRequest(UUID nodeId, GridCacheDataLoadRequest<K, V> req) {
+        if (!busyLock.enterBusy())
+            return;
+
+        try {
+            Throwable err = req.classError();
+
+            Collection<K> skipped = null;
+
+            if (err == null) {
+                try {
+                    skipped = store(req.entries(), req.overwrite(), req.version());
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to store loaded entries [nodeId=" + nodeId + ", req=" + req + ']', e);
+
+                    err = e;
+                }
+            }
+
+            try {
+                cctx.io().send(nodeId, new GridCacheDataLoadResponse<K, V>(req.requestId(), skipped, err));
+            }
+            catch (GridTopologyException ignored) {
+                if (log.isDebugEnabled())
+                    log.debug("Failed to send data load response, node left: " + nodeId);
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to send data load response to node: " + nodeId, e);
+            }
+        }
+        finally {
+            busyLock.leaveBusy();
+        }
+    }
+
+    /**
+     * @param res Load response.
+     */
+    private void processLoadResponse(GridCacheDataLoadResponse<K, V> res) {
+        LoadFuture fut = futs.get(res.requestId());
+
+        if (fut == null) {
+            if (log.isDebugEnabled())
+                log.debug("Received data load response for unknown request (will ignore): " + res);
+
+            return;
+        }
+
+        Throwable err = res.error();
+
+        if (err == null)
+            err = res.classError();
+
+        if (err != null)
+            fut.onDone(err);
+        else
+            fut.onDone(res.skipped());
+    }
+
+    /**
+     * Stores entries directly into cache map.
+     *
+     * @param entries Entries to store.
+     * @param overwrite {@code True} if existing entries should be overwritten.
+     * @param ver Loader version.
+     * @return Keys which were not stored since local node does not own their partitions,
+     *      or {@code null} if all keys were stored.
+     * @throws GridException If failed.
+     */
+    @Nullable private Collection<K> store(Map<K, V> entries, boolean overwrite, GridCacheVersion ver)
+        throws GridException {
+        GridCacheAdapter<K, V> cache = cctx.isNear() ? cctx.near().dht() : cctx.cache();
+
+        GridCacheContext<K, V> ctx = cache.context();
+
+        Collection<K> skipped = null;
+
+        for (Map.Entry<K, V> e : entries.entrySet()) {
+            K key = e.getKey();
+            V val = e.getValue();
+
+            while (true) {
+                GridCacheEntryEx<K, V> entry = null;
+
+                try {
+                    entry = cache.entryEx(key);
+
+                    boolean set = overwrite ? entry.versionedValue(val, null, ver) :
+                        entry.initialValue(val, null, ver, 0, 0, null);
+
+                    if (set)
+                        ctx.evicts().touch(entry);
+
+                    break;
+                }
+                catch (GridCacheEntryRemovedException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Got removed entry while loading data (will retry): " + entry);
+                }
+                catch (GridDhtInvalidPartitionException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Partition became invalid while loading data (will return key to loader) " +
+                            "[key=" + key + ", part=" + ctx.partition(key) + ']');
+
+                    if (skipped == null)
+                        skipped = new ArrayList<K>();
+
+                    skipped.add(key);
+
+                    break;
+                }
+            }
+        }
+
+        return skipped;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void printMemoryStats() {
+        X.println(">>> ");
+        X.println(">>> Data load manager memory stats [grid=" + cctx.gridName() + ", cache=" + cctx.name() + ']');
+        X.println(">>>   futsSize: " + futs.size());
+    }
+
+    /**
+     * Future for batch sent to remote node.
+     */
+    private class LoadFuture extends GridFutureAdapter<Collection<K>> {
+        /** Request ID. */
+        private final long reqId;
+
+        /** Node ID. */
+        private final UUID nodeId;
+
+        /**
+         * @param reqId Request ID.
+         * @param nodeId Node ID.
+         */
+        LoadFuture(long reqId, UUID nodeId) {
+            super(cctx.kernalContext());
+
+            this.reqId = reqId;
+            this.nodeId = nodeId;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean onDone(Collection<K> res, Throwable err) {
+            if (super.onDone(res, err)) {
+                futs.remove(reqId, this);
+
+                return true;
+            }
+
+            return false;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(LoadFuture.class, this, super.toString());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Data loader batch request.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheDataLoadRequest<K, V> extends GridCacheMessage<K, V> implements GridCacheDeployable,
+    GridCacheVersionable {
+    /** Request ID. */
+    private long reqId;
+
+    /** Entries to load. */
+    @GridToStringExclude
+    private Map<K, V> entries;
+
+    /** Serialized entries. */
+    @GridToStringExclude
+    private byte[] entriesBytes;
+
+    /** Overwrite flag. */
+    private boolean overwrite;
+
+    /** Loader version, same for primary and backup copies of every entry. */
+    private GridCacheVersion ver;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheDataLoadRequest() {
+        // No-op.
+    }
+
+    /**
+     * @param reqId Request ID.
+     * @param entries Entries to load.
+     * @param overwrite Overwrite flag.
+     * @param ver Loader version.
+     */
+    GridCacheDataLoadRequest(long reqId, Map<K, V> entries, boolean overwrite, GridCacheVersion ver) {
+        assert reqId > 0;
+        assert entries != null;
+        assert ver != null;
+
+        this.reqId = reqId;
+        this.entries = entries;
+        this.overwrite = overwrite;
+        this.ver = ver;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        if (entries != null) {
+            Class<?> keyCls = null;
+            Class<?> valCls = null;
+
+            // Batches usually contain objects of the same classes, so only
+            // prepare the first object of every class for deployment.
+            for (Map.Entry<K, V> e : entries.entrySet()) {
+                K key = e.getKey();
+                V val = e.getValue();
+
+                if (key.getClass() != keyCls) {
+                    prepareObject(key, ctx);
+
+                    keyCls = key.getClass();
+                }
+
+                if (val != null && val.getClass() != valCls) {
+                    prepareObject(val, ctx);
+
+                    valCls = val.getClass();
+                }
+            }
+
+            entriesBytes = U.marshal(ctx.marshaller(), entries).getEntireArray();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        if (entriesBytes != null)
+            entries = U.unmarshal(ctx.marshaller(), new GridByteArrayList(entriesBytes), ldr);
+    }
+
+    /**
+     * @return Request ID.
+     */
+    long requestId() {
+        return reqId;
+    }
+
+    /**
+     * @return Entries to load.
+     */
+    Map<K, V> entries() {
+        return entries;
+    }
+
+    /**
+     * @return {@code True} if existing entries should be overwritten.
+     */
+    boolean overwrite() {
+        return overwrite;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheVersion version() {
+        return ver;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean ignoreClassErrors() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        out.writeLong(reqId);
+
+        U.writeByteArray(out, entriesBytes);
+
+        out.writeBoolean(overwrite);
+
+        CU.writeVersion(out, ver);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        reqId = in.readLong();
+
+        entriesBytes = U.readByteArray(in);
+
+        overwrite = in.readBoolean();
+
+        ver = CU.readVersion(in);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheDataLoadRequest.class, this, "size", entries == null ? 0 : entries.size());
+    }
+}
@@ -0,0 +1,128 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Data loader batch response.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheDataLoadResponse<K, V> extends GridCacheMessage<K, V> {
+    /** Request ID. */
+    private long reqId;
+
+    /** Keys which were not stored since responding node does not own them. */
+    @GridToStringInclude
+    private Collection<K> skipped;
+
+    /** Serialized skipped keys. */
+    @GridToStringExclude
+    private byte[] skippedBytes;
+
+    /** Error. */
+    private Throwable err;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheDataLoadResponse() {
+        // No-op.
+    }
+
+    /**
+     * @param reqId Request ID.
+     * @param skipped Keys which were not stored since responding node does not own them.
+     * @param err Error, if request processing failed.
+     */
+    GridCacheDataLoadResponse(long reqId, @Nullable Collection<K> skipped, @Nullable Throwable err) {
+        this.reqId = reqId;
+        this.skipped = skipped;
+        this.err = err;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        if (skipped != null)
+            skippedBytes = U.marshal(ctx.marshaller(), skipped).getEntireArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        if (skippedBytes != null)
+            skipped = U.unmarshal(ctx.marshaller(), new GridByteArrayList(skippedBytes), ldr);
+    }
+
+    /**
+     * @return Request ID.
+     */
+    long requestId() {
+        return reqId;
+    }
+
+    /**
+     * @return Keys which were not stored since responding node does not own them.
+     */
+    @Nullable Collection<K> skipped() {
+        return skipped;
+    }
+
+    /**
+     * @return Error, if request processing failed.
+     */
+    Throwable error() {
+        return err;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean ignoreClassErrors() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        out.writeLong(reqId);
+
+        U.writeByteArray(out, skippedBytes);
+
+        out.writeObject(err);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        reqId = in.readLong();
+
+        skippedBytes = U.readByteArray(in);
+
+        err = (Throwable)in.readObject();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheDataLoadResponse.class, this);
+    }
+}
@@ -0,0 +1,592 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.kernal.processors.timeout.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.*;
+import org.gridgain.grid.util.future.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Data loader implementation.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheDataLoaderImpl<K, V> implements GridCacheDataLoader<K, V> {
+    /** Maximum number of times keys rejected by a node are remapped before loader fails. */
+    private static final int MAX_REMAP_CNT = 16;
+
+    /** Base delay before remap if topology has not changed since batch was sent. */
+    private static final long REMAP_DELAY = 50;
+
+    /** Cache context. */
+    private final GridCacheContext<K, V> cctx;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Per-node buffers. */
+    @GridToStringExclude
+    private final ConcurrentMap<UUID, Buffer> bufs = new ConcurrentHashMap<UUID, Buffer>();
+
+    /** Per-node buffer size. */
+    private volatile int bufSize = DFLT_PER_NODE_BUFFER_SIZE;
+
+    /** Maximum number of parallel batches per node. */
+    private volatile int parallelOps = DFLT_PER_NODE_PARALLEL_OPS;
+
+    /** Overwrite flag. */
+    private volatile boolean overwrite;
+
+    /** Cache nodes snapshot, updated on topology change. */
+    @GridToStringExclude
+    private volatile GridTuple2<Long, Collection<GridRichNode>> top;
+
+    /** Busy lock. */
+    private final GridBusyLock busyLock = new GridBusyLock();
+
+    /** Closed flag. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** First batch error. */
+    private final AtomicReference<Throwable> err = new AtomicReference<Throwable>();
+
+    /** Loader future. */
+    private final GridFutureAdapter<Object> fut;
+
+    /** Version all entries are loaded with, so primary and backup copies have the same version. */
+    private final GridCacheVersion ver;
+
+    /**
+     * @param cctx Cache context.
+     */
+    public GridCacheDataLoaderImpl(GridCacheContext<K, V> cctx) {
+        assert cctx != null;
+
+        this.cctx = cctx;
+
+        log = cctx.logger(GridCacheDataLoaderImpl.class);
+
+        fut = new GridFutureAdapter<Object>(cctx.kernalContext());
+
+        ver = cctx.versions().next();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String cacheName() {
+        return cctx.name();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void perNodeBufferSize(int bufSize) {
+        A.ensure(bufSize > 0, "bufSize > 0");
+
+        this.bufSize = bufSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int perNodeBufferSize() {
+        return bufSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void perNodeParallelOperations(int parallelOps) {
+        A.ensure(parallelOps > 0, "parallelOps > 0");
+
+        this.parallelOps = parallelOps;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int perNodeParallelOperations() {
+        return parallelOps;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void overwrite(boolean overwrite) {
+        this.overwrite = overwrite;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean overwrite() {
+        return overwrite;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addData(K key, V val) throws GridException {
+        A.notNull(key, "key");
+
+        enterBusy();
+
+        try {
+            checkError();
+
+            for (GridRichNode node : nodes(key))
+                buffer(node).add(key, val);
+        }
+        finally {
+            busyLock.leaveBusy();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addData(Map<K, V> entries) throws GridException {
+        A.notNull(entries, "entries");
+
+        enterBusy();
+
+        try {
+            checkError();
+
+            for (Map.Entry<K, V> e : entries.entrySet()) {
+                K key = e.getKey();
+
+                A.notNull(key, "key");
+
+                for (GridRichNode node : nodes(key))
+                    buffer(node).add(key, e.getValue());
+            }
+        }
+        finally {
+            busyLock.leaveBusy();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<?> flush() throws GridException {
+        enterBusy();
+
+        try {
+            return flush0();
+        }
+        finally {
+            busyLock.leaveBusy();
+        }
+    }
+
+    /**
+     * @return Future that completes when all batches sent so far are acknowledged.
+     * @throws GridException If failed.
+     */
+    private GridFuture<?> flush0() throws GridException {
+        GridCompoundFuture<Object, Object> res = new GridCompoundFuture<Object, Object>(cctx.kernalContext());
+
+        for (Buffer buf : bufs.values())
+            buf.flush(res);
+
+        res.markInitialized();
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close(boolean cancel) throws GridException {
+        if (!closed.compareAndSet(false, true)) {
+            fut.get();
+
+            return;
+        }
+
+        // Wait for concurrent operations to finish.
+        busyLock.block();
+
+        if (log.isDebugEnabled())
+            log.debug("Closing data loader [cancel=" + cancel + ", loader=" + this + ']');
+
+        try {
+            GridFuture<?> f;
+
+            if (cancel) {
+                GridCompoundFuture<Object, Object> res =
+                    new GridCompoundFuture<Object, Object>(cctx.kernalContext());
+
+                for (Buffer buf : bufs.values())
+                    buf.cancel(res);
+
+                res.markInitialized();
+
+                f = res;
+            }
+            else
+                f = flush0();
+
+            f.get();
+
+            checkError();
+
+            fut.onDone();
+        }
+        catch (GridException e) {
+            fut.onDone(e);
+
+            throw e;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<?> future() {
+        return fut;
+    }
+
+    /**
+     * @throws IllegalStateException If loader has been closed.
+     */
+    private void enterBusy() {
+        if (closed.get() || !busyLock.enterBusy())
+            throw new IllegalStateException("Data loader has been closed: " + this);
+    }
+
+    /**
+     * @throws GridException If any of previous batches failed.
+     */
+    private void checkError() throws GridException {
+        Throwable e = err.get();
+
+        if (e != null)
+            throw new GridException("Failed to load data into cache (at least one batch failed): " +
+                cctx.namex(), e);
+    }
+
+    /**
+     * @param key Key.
+     * @return Nodes entry should be sent to.
+     */
+    private Collection<GridRichNode> nodes(K key) {
+        if (cctx.isLocal())
+            return Collections.singletonList(cctx.localNode());
+
+        long topVer = cctx.discovery().topologyVersion();
+
+        GridTuple2<Long, Collection<GridRichNode>> t = top;
+
+        if (t == null || t.get1() != topVer)
+            top = t = F.<Long, Collection<GridRichNode>>t(topVer,
+                new ArrayList<GridRichNode>(CU.allNodes(cctx)));
+
+        return cctx.affinity(key, t.get2());
+    }
+
+    /**
+     * Sends batch to given node and completes given future once batch and all keys
+     * remapped from it are stored.
+     *
+     * @param node Node.
+     * @param batch Batch.
+     * @param remaps Number of times keys of this batch have already been remapped.
+     * @param batchFut Future to complete.
+     */
+    private void load(final GridNode node, final Map<K, V> batch, final int remaps,
+        final GridFutureAdapter<Object> batchFut) {
+        final long topVer = cctx.discovery().topologyVersion();
+
+        cctx.dataLoad().load(node, batch, overwrite, ver).listenAsync(new CI1<GridFuture<Collection<K>>>() {
+            @Override public void apply(GridFuture<Collection<K>> f) {
+                try {
+                    Collection<K> skipped = f.get();
+
+                    if (F.isEmpty(skipped))
+                        batchFut.onDone();
+                    else
+                        deferRemap(node, batch, skipped, remaps, topVer, batchFut);
+                }
+                catch (GridException e) {
+                    batchFut.onDone(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remaps keys rejected by a node. If topology has not changed since batch was sent,
+     * remap is delayed to let local node see the new topology.
+     *
+     * @param node Node that rejected keys.
+     * @param batch Batch sent to node.
+     * @param skipped Keys rejected by node.
+     * @param remaps Number of times keys of batch have already been remapped.
+     * @param topVer Topology version at the time batch was sent.
+     * @param batchFut Batch future.
+     */
+    private void deferRemap(final GridNode node, final Map<K, V> batch, final Collection<K> skipped,
+        final int remaps, long topVer, final GridFutureAdapter<Object> batchFut) {
+        if (remaps >= MAX_REMAP_CNT) {
+            batchFut.onDone(new GridTopologyException("Failed to load keys since node kept rejecting them " +
+                "(partitions do not belong to node) [nodeId=" + node.id() + ", keysCnt=" + skipped.size() +
+                ", remapCnt=" + MAX_REMAP_CNT + ']'));
+
+            return;
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Remapping keys rejected by node [nodeId=" + node.id() + ", keysCnt=" + skipped.size() +
+                ", remaps=" + remaps + ']');
+
+        if (cctx.discovery().topologyVersion() != topVer) {
+            remap(batch, skipped, remaps, batchFut);
+
+            return;
+        }
+
+        final long endTime = System.currentTimeMillis() + REMAP_DELAY * (remaps + 1);
+
+        cctx.time().addTimeoutObject(new GridTimeoutObject() {
+            /** Timeout ID. */
+            private final GridUuid id = GridUuid.randomUuid();
+
+            /** {@inheritDoc} */
+            @Override public GridUuid timeoutId() {
+                return id;
+            }
+
+            /** {@inheritDoc} */
+            @Override public long endTime() {
+                return endTime;
+            }
+
+            /** {@inheritDoc} */
+            @Override public void onTimeout() {
+                remap(batch, skipped, remaps, batchFut);
+            }
+        });
+    }
+
+    /**
+     * Sends keys rejected by a node to their current affinity nodes. Remapped batches
+     * bypass per-node buffers, so listener threads never block on batch semaphores.
+     *
+     * @param batch Batch sent to node.
+     * @param skipped Keys rejected by node.
+     * @param remaps Number of times keys of batch have already been remapped.
+     * @param batchFut Batch future, completed once all remapped batches are stored.
+     */
+    private void remap(Map<K, V> batch, Collection<K> skipped, int remaps,
+        final GridFutureAdapter<Object> batchFut) {
+        Map<UUID, GridTuple2<GridNode, Map<K, V>>> mappings =
+            new HashMap<UUID, GridTuple2<GridNode, Map<K, V>>>();
+
+        for (K key : skipped) {
+            for (GridRichNode n : nodes(key)) {
+                GridTuple2<GridNode, Map<K, V>> t = mappings.get(n.id());
+
+                if (t == null)
+                    mappings.put(n.id(), t = F.<GridNode, Map<K, V>>t(n, new HashMap<K, V>()));
+
+                t.get2().put(key, batch.get(key));
+            }
+        }
+
+        GridCompoundFuture<Object, Object> res = new GridCompoundFuture<Object, Object>(cctx.kernalContext());
+
+        for (GridTuple2<GridNode, Map<K, V>> t : mappings.values()) {
+            GridFutureAdapter<Object> remapFut = new GridFutureAdapter<Object>(cctx.kernalContext());
+
+            load(t.get1(), t.get2(), remaps + 1, remapFut);
+
+            res.add(remapFut);
+        }
+
+        res.markInitialized();
+
+        res.listenAsync(new CI1<GridFuture<Object>>() {
+            @Override public void apply(GridFuture<Object> f) {
+                try {
+                    f.get();
+
+                    batchFut.onDone();
+                }
+                catch (GridException e) {
+                    batchFut.onDone(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param node Node.
+     * @return Buffer for given node.
+     */
+    private Buffer buffer(GridNode node) {
+        Buffer buf = bufs.get(node.id());
+
+        if (buf == null) {
+            Buffer old = bufs.putIfAbsent(node.id(), buf = new Buffer(node));
+
+            if (old != null)
+                buf = old;
+        }
+
+        return buf;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheDataLoaderImpl.class, this, "cacheName", cctx.name());
+    }
+
+    /**
+     * Per-node buffer.
+     */
+    private class Buffer {
+        /** Node. */
+        private final GridNode node;
+
+        /** Buffered entries. */
+        private Map<K, V> entries;
+
+        /** Semaphore limiting number of batches in flight. */
+        private final Semaphore sem;
+
+        /** Batches in flight. */
+        private final Collection<GridFuture<?>> active = new GridConcurrentHashSet<GridFuture<?>>();
+
+        /** Release listener. */
+        private final GridInClosure<GridFuture<?>> lsnr = new CI1<GridFuture<?>>() {
+            @Override public void apply(GridFuture<?> f) {
+                active.remove(f);
+
+                sem.release();
+
+                try {
+                    f.get();
+                }
+                catch (GridException e) {
+                    if (err.compareAndSet(null, e))
+                        U.error(log, "Failed to load data batch to node (data loader will fail) [node=" +
+                            node.id() + ", cacheName=" + cctx.namex() + ']', e);
+                }
+            }
+        };
+
+        /**
+         * @param node Node.
+         */
+        Buffer(GridNode node) {
+            this.node = node;
+
+            sem = new Semaphore(parallelOps);
+
+            entries = newBatch();
+        }
+
+        /**
+         * @return New batch map.
+         */
+        private Map<K, V> newBatch() {
+            return new HashMap<K, V>(bufSize * 4 / 3 + 1);
+        }
+
+        /**
+         * @param key Key.
+         * @param val Value.
+         * @throws GridException If batch could not be submitted.
+         */
+        void add(K key, V val) throws GridException {
+            Map<K, V> batch = null;
+
+            synchronized (this) {
+                entries.put(key, val);
+
+                if (entries.size() >= bufSize) {
+                    batch = entries;
+
+                    entries = newBatch();
+                }
+            }
+
+            if (batch != null)
+                submit(batch);
+        }
+
+        /**
+         * Submits buffered entries and adds futures for all batches in flight to given future.
+         *
+         * @param res Compound future.
+         * @throws GridException If batch could not be submitted.
+         */
+        void flush(GridCompoundFuture<Object, Object> res) throws GridException {
+            Map<K, V> batch = null;
+
+            synchronized (this) {
+                if (!entries.isEmpty()) {
+                    batch = entries;
+
+                    entries = newBatch();
+                }
+            }
+
+            if (batch != null)
+                submit(batch);
+
+            addActive(res);
+        }
+
+        /**
+         * Discards buffered entries and adds futures for all batches in flight to given future.
+         *
+         * @param res Compound future.
+         */
+        void cancel(GridCompoundFuture<Object, Object> res) {
+            synchronized (this) {
+                entries = newBatch();
+            }
+
+            addActive(res);
+        }
+
+        /**
+         * @param res Compound future.
+         */
+        @SuppressWarnings({"unchecked"})
+        private void addActive(GridCompoundFuture<Object, Object> res) {
+            for (GridFuture<?> f : active)
+                res.add((GridFuture<Object>)f);
+        }
+
+        /**
+         * @param batch Batch to send.
+         * @throws GridException If interrupted while waiting for batches in flight.
+         */
+        private void submit(Map<K, V> batch) throws GridException {
+            try {
+                sem.acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new GridInterruptedException("Interrupted while waiting for data load batches " +
+                    "to be acknowledged by node: " + node.id(), e);
+            }
+
+            GridFutureAdapter<Object> f = new GridFutureAdapter<Object>(cctx.kernalContext());
+
+            active.add(f);
+
+            f.listenAsync(lsnr);
+
+            load(node, batch, 0, f);
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Buffer.class, this, "nodeId", node.id(), "active", active.size());
+        }
+    }
+}
@@ -142,6 +142,19 @@ public interface GridCacheEntryEx<K, V> extends GridMetadataAware {
     public boolean compact(@Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter)
         throws GridCacheEntryRemovedException, GridException;
 
+    /**
+     * Callback from {@link GridCacheTtlManager} invoked when time entry was scheduled for
+     * has come. If entry has expired and is not used, it is marked obsolete, its value is
+     * cleared and {@link org.gridgain.grid.GridEventType#EVT_CACHE_OBJECT_EXPIRED} event is
+     * recorded. Otherwise, entry is rescheduled if it still has expiration time.
+     *
+     * @param schedTime Time entry was scheduled for.
+     * @param obsoleteVer Version to mark entry obsolete with.
+     * @return {@code True} if entry has expired and should be removed from cache.
+     * @throws GridException In case of error.
+     */
+    public boolean onTtlExpired(long schedTime, GridCacheVersion obsoleteVer) throws GridException;
+
     /**
      * @param swap Swap flag.
      * @param obsoleteVer Version for eviction.
@@ -251,6 +264,30 @@ public interface GridCacheEntryEx<K, V> extends GridMetadataAware {
         boolean writeThrough, boolean evt, GridPredicate<? super GridCacheEntry<K, V>>[] filter) throws GridException,
         GridCacheEntryRemovedException;
 
+    /**
+     * Updates entry outside of transaction for caches in {@link GridCacheAtomicityMode#ATOMIC}
+     * mode. Filter check and update are performed under entry lock. If update version is not
+     * provided (primary node), new version is generated, otherwise update is applied only if
+     * given version is greater than current entry version (backup node).
+     *
+     * @param newVer Update version or {@code null} to generate new version.
+     * @param evtNodeId ID of node responsible for this change.
+     * @param affNodeId Partitioned node iD.
+     * @param val Value to set or {@code null} to remove entry.
+     * @param valBytes Value bytes.
+     * @param writeThrough If {@code true}, persist to the storage.
+     * @param evt Flag to signal event notification.
+     * @param filter Filter.
+     * @return Tuple containing success flag, old value (current value if filter did not pass)
+     *      and update version ({@code null} if entry was not updated).
+     * @throws GridException If update failed.
+     * @throws GridCacheEntryRemovedException If entry has been removed.
+     */
+    public T3<Boolean, V, GridCacheVersion> innerUpdate(@Nullable GridCacheVersion newVer, UUID evtNodeId,
+        UUID affNodeId, @Nullable V val, @Nullable byte[] valBytes, boolean writeThrough, boolean evt,
+        @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) throws GridException,
+        GridCacheEntryRemovedException;
+
     /**
      * Marks entry as obsolete and, if possible or required, removes it
      * from swap storage.
@@ -402,6 +439,27 @@ public interface GridCacheEntryEx<K, V> extends GridMetadataAware {
     public boolean initialValue(V val, byte[] valBytes, GridCacheVersion ver, long ttl, long expireTime,
         GridCacheMetricsAdapter metrics) throws GridException, GridCacheEntryRemovedException;
 
+    /**
+     * Sets preloaded value if entry is new, or if passed in version is greater than
+     * the current one and entry is not locked. Unlike {@link #initialValue(Object, byte[],
+     * GridCacheVersion, long, long, GridCacheMetricsAdapter)}, this method overwrites
+     * stale values kept by partition which has been taken back by local node.
+     * {@code Null} value means that entry has been removed on supplying node, in which
+     * case entry is marked obsolete and should be removed from cache by caller.
+     *
+     * @param val Preloaded value, {@code null} for removed entry.
+     * @param valBytes Value bytes.
+     * @param ver Version of preloaded value.
+     * @param ttl Time to live.
+     * @param expireTime Expiration time.
+     * @param metrics Metrics.
+     * @return {@code True} if value was set.
+     * @throws GridException In case of error.
+     * @throws GridCacheEntryRemovedException If entry was removed.
+     */
+    public boolean preloadValue(@Nullable V val, @Nullable byte[] valBytes, GridCacheVersion ver, long ttl,
+        long expireTime, GridCacheMetricsAdapter metrics) throws GridException, GridCacheEntryRemovedException;
+
     /**
      * Sets new value if current version is <tt>0</tt> using swap entry data.
      * Note that this method does not update cache index.
@@ -593,6 +651,19 @@ public interface GridCacheEntryEx<K, V> extends GridMetadataAware {
      */
     public GridCacheMetrics metrics() throws GridCacheEntryRemovedException;
 
+    /**
+     * @return Estimated memory size of this entry in bytes as of last call
+     *      to {@link #accountMemorySize()}.
+     */
+    public int memorySize();
+
+    /**
+     * Recalculates estimated memory size of this entry. Size of obsolete entry is {@code 0}.
+     *
+     * @return Difference between new size and previously accounted size.
+     */
+    public int accountMemorySize();
+
     /**
      * @param keyBytes Key bytes.
      * @throws GridCacheEntryRemovedException If entry was removed.
@@ -185,6 +185,13 @@ public class GridCacheEntryImpl<K, V> implements GridCacheEntry<K, V>, Externali
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public int memorySize() {
+        GridCacheEntryEx<K, V> cached = unwrap(false);
+
+        return cached == null ? 0 : cached.memorySize();
+    }
+
     /** {@inheritDoc} */
     @Override public boolean primary() {
         return ctx.config().getCacheMode() != PARTITIONED ||
@@ -148,6 +148,11 @@ public class GridCacheEntryWrapper<K, V> implements GridCacheEntry<K, V> {
         return e.metrics();
     }
 
+    /** {@inheritDoc} */
+    @Override public int memorySize() {
+        return e.memorySize();
+    }
+
     /** {@inheritDoc} */
     @Override public boolean primary() {
         return e.primary();
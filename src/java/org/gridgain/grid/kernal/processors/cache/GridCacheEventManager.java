@@ -43,6 +43,14 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
         cctx.gridEvents().addLocalEventListener(lsnr, evts);
     }
 
+    /**
+     * @param type Event type.
+     * @return {@code True} if event of given type is recordable.
+     */
+    public boolean isRecordable(int type) {
+        return cctx.gridEvents().isRecordable(type);
+    }
+
     /**
      * Removes local event listener.
      *
@@ -107,6 +107,11 @@ public class GridCacheEvictionEntry<K, V> implements GridCacheEntry<K, V>, Exter
         return GridCacheMetricsAdapter.copyOf(cached.metrics0());
     }
 
+    /** {@inheritDoc} */
+    @Override public int memorySize() {
+        return cached.memorySize();
+    }
+
     /** {@inheritDoc} */
     @Override public boolean primary() {
         GridCacheContext<K, V> ctx = cached.context();
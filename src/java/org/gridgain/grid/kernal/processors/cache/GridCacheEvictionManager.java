@@ -701,6 +701,9 @@ public class GridCacheEvictionManager<K, V> extends GridCacheManager<K, V> {
         if (evicted) {
             cache.removeEntry(entry);
 
+            if (policyEnabled())
+                accountMemorySize(entry);
+
             cctx.events().addEvent(entry.partition(), entry.key(), cctx.nodeId(), (GridUuid)null, null,
                 EVT_CACHE_ENTRY_EVICTED, null, null);
 
@@ -1351,6 +1354,10 @@ public class GridCacheEvictionManager<K, V> extends GridCacheManager<K, V> {
      */
     @SuppressWarnings({"IfMayBeConditional", "RedundantIfStatement"})
     private void notifyPolicy(GridCacheEntryEx<K, V> e) {
+        // Account size before policy sees the entry, so memory bounded policies use fresh size.
+        if (!(e.key() instanceof GridCacheInternal))
+            accountMemorySize(e);
+
         boolean notify;
 
         if (e.key() instanceof GridCacheInternal)
@@ -1368,6 +1375,26 @@ public class GridCacheEvictionManager<K, V> extends GridCacheManager<K, V> {
             policy.onEntryAccessed(e.obsolete(), e.evictWrap());
     }
 
+    /**
+     * Updates running total of estimated memory size of cache entries with
+     * the change of given entry size since it was last accounted.
+     *
+     * @param e Entry.
+     */
+    private void accountMemorySize(GridCacheEntryEx<K, V> e) {
+        int delta = e.accountMemorySize();
+
+        if (delta != 0)
+            cctx.cache().metrics0().onMemorySizeChanged(delta);
+    }
+
+    /**
+     * @return Estimated memory size of cache entries in bytes.
+     */
+    public long memorySize() {
+        return cctx.cache().metrics0().memorySize();
+    }
+
     /**
      *
      */
@@ -1412,6 +1439,7 @@ public class GridCacheEvictionManager<K, V> extends GridCacheManager<K, V> {
         X.println(">>>   buffEvictQ size: " + bufEvictQ.sizex());
         X.println(">>>   txsSize: " + txs.size());
         X.println(">>>   entriesSize: " + entries.size());
+        X.println(">>>   memorySize: " + memorySize());
         X.println(">>>   futsSize: " + futs.size());
         X.println(">>>   futsCreated: " + idGen.get());
     }
@@ -41,6 +41,12 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
     /** Static logger to avoid re-creation. */
     private static final AtomicReference<GridLogger> logRef = new AtomicReference<GridLogger>();
 
+    /** Estimated memory overhead of entry itself (entry fields, metrics, MVCC and map links). */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    /** Estimated memory overhead of array or object header. */
+    private static final int OBJ_OVERHEAD = 16;
+
     /** Cache registry. */
     @GridToStringExclude
     protected final GridCacheContext<K, V> cctx;
@@ -55,7 +61,7 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
 
     /** Value. */
     @GridToStringInclude
-    protected V val;
+    protected volatile V val;
 
     /** Start version. */
     @GridToStringInclude
@@ -63,7 +69,7 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
 
     /** Version. */
     @GridToStringInclude
-    protected GridCacheVersion ver;
+    protected volatile GridCacheVersion ver;
 
     /** Next entry in the linked list. */
     @GridToStringExclude
@@ -83,15 +89,15 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
 
     /** Time to live. */
     @GridToStringInclude
-    protected long ttl;
+    protected volatile long ttl;
 
     /** Expiration time. */
     @GridToStringInclude
-    protected long expireTime;
+    protected volatile long expireTime;
 
     /** Removed flag. */
     @GridToStringInclude
-    protected GridCacheVersion obsoleteVer;
+    protected volatile GridCacheVersion obsoleteVer;
 
     /** Metrics. */
     @SuppressWarnings( {"FieldAccessedSynchronizedAndUnsynchronized"})
@@ -109,6 +115,25 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
     @GridToStringExclude
     protected volatile GridCacheEntryImpl<K, V> wrapper;
 
+    /** Estimated memory size as of last accounting. */
+    @GridToStringInclude
+    private int memSize;
+
+    /** Entry version as of last memory size accounting. */
+    @GridToStringExclude
+    private GridCacheVersion memSizeVer;
+
+    /** Current schedule in TTL manager, {@code null} if not scheduled. */
+    @GridToStringExclude
+    private GridCacheTtlManager.Record<K> ttlRec;
+
+    /**
+     * Modification stamp for optimistic reads. Stamp is incremented whenever entry lock is
+     * acquired or released (not counting reentrant acquires), so it is odd while lock is held.
+     */
+    @GridToStringExclude
+    private volatile int stamp;
+
     /**
      * @param cctx Cache context.
      * @param key Cache key.
@@ -434,6 +459,20 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
             if (!cctx.isAll(this, filter))
                 return CU.<V>failed(failFast);
 
+            // Try to read value without locking if nothing is to be updated or recorded on read.
+            if (!readThrough && F.isEmpty(filter) && !(evt && cctx.events().isRecordable(EVT_CACHE_OBJECT_READ))) {
+                V v = optimisticValue();
+
+                if (v != null && valid()) {
+                    if (updateMetrics)
+                        metrics.onRead(true);
+
+                    old = ret = v;
+
+                    return ret;
+                }
+            }
+
             boolean asyncRefresh = false;
 
             GridCacheVersion startVer;
@@ -854,6 +893,116 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public final T3<Boolean, V, GridCacheVersion> innerUpdate(@Nullable GridCacheVersion newVer,
+        UUID evtNodeId, UUID affNodeId, @Nullable V val, @Nullable byte[] valBytes, boolean writeThrough, boolean evt,
+        @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) throws GridException,
+        GridCacheEntryRemovedException {
+        assert cctx.isAtomic();
+
+        boolean rmv = val == null;
+
+        V old;
+
+        lock();
+
+        try {
+            checkObsolete();
+
+            // Load from swap, so filter and return value see actual value.
+            if (isNew())
+                unswap();
+
+            // New entry has no version of its own to compare with, but its
+            // key may have been removed recently by a more recent update.
+            GridCacheVersion curVer = isNew() ? atomicRemoveVersion() : ver;
+
+            // Update from primary node was reordered with a more recent one.
+            if (newVer != null && curVer != null && newVer.compareTo(curVer) <= 0) {
+                if (log.isDebugEnabled())
+                    log.debug("Ignoring outdated atomic update [newVer=" + newVer + ", entry=" + this + ']');
+
+                return new T3<Boolean, V, GridCacheVersion>(false, null, null);
+            }
+
+            if (!cctx.isAll(this, filter))
+                return new T3<Boolean, V, GridCacheVersion>(false, this.val, null);
+
+            old = this.val;
+
+            if (newVer == null)
+                newVer = cctx.versions().next();
+
+            // Clear indexes inside of synchronization since indexes
+            // can be updated without actually holding entry lock.
+            if (rmv)
+                clearIndex();
+
+            update(val, valBytes, toExpireTime(ttl), ttl, newVer, metrics);
+
+            recordNodeId(affNodeId);
+
+            metrics.onWrite();
+
+            if (rmv)
+                // Entry may become obsolete, so keep removal version for delayed updates.
+                onAtomicRemoved(newVer);
+            else
+                updateIndex(val);
+        }
+        finally {
+            unlock();
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Updated cache entry atomically [val=" + val + ", old=" + old + ", entry=" + this + ']');
+
+        // Persist outside of synchronization, concurrent updates
+        // of the same key may be persisted in different order.
+        if (writeThrough) {
+            if (rmv)
+                CU.removeFromStore(cctx, log, null, key);
+            else
+                CU.putToStore(cctx, log, null, key, val);
+        }
+
+        if (rmv) {
+            lock();
+
+            try {
+                // If entry is still removed.
+                if (newVer == ver && markObsolete(newVer))
+                    cctx.mvcc().addRemoved(newVer);
+            }
+            finally {
+                unlock();
+            }
+        }
+
+        if (evt)
+            cctx.events().addEvent(partition(), key, evtNodeId, null, newVer.id(),
+                rmv ? EVT_CACHE_OBJECT_REMOVED : EVT_CACHE_OBJECT_PUT, val, old);
+
+        return new T3<Boolean, V, GridCacheVersion>(true, old, newVer);
+    }
+
+    /**
+     * @return Version of the latest removal of this entry's key from ATOMIC cache, or
+     *      {@code null} if it is not known. It makes sense only for dht entry.
+     */
+    @Nullable protected GridCacheVersion atomicRemoveVersion() {
+        return null;
+    }
+
+    /**
+     * Called when value of this entry is removed by ATOMIC update.
+     *
+     * @param ver Removal version.
+     */
+    protected void onAtomicRemoved(GridCacheVersion ver) {
+        // No-op.
+    }
+
     /**
      * @return {@code true} if entry has readers. It makes sense only for dht entry.
      * @throws GridCacheEntryRemovedException If removed.
@@ -986,6 +1135,13 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
                 if (mvcc.isEmpty(ver)) {
                     obsoleteVer = ver;
 
+                    // Obsolete entry never expires, so don't keep its key in TTL manager.
+                    if (ttlRec != null) {
+                        cctx.ttl().deschedule(ttlRec);
+
+                        ttlRec = null;
+                    }
+
                     if (clear) {
                         val = null;
                         valBytes = null;
@@ -1181,12 +1337,46 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
 
             if (metrics != null)
                 this.metrics = metrics;
+
+            scheduleExpiration(expireTime);
         }
         finally {
             unlock();
         }
     }
 
+    /**
+     * Schedules expiration for TTL this entry was created with. Called by cache map
+     * once entry is published, so that entry is never handed out from constructor.
+     */
+    void scheduleInitialExpiration() {
+        lock();
+
+        try {
+            if (obsoleteVer == null)
+                scheduleExpiration(expireTime);
+        }
+        finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Schedules this entry with TTL manager, unless it is already scheduled for
+     * earlier time. Previous schedule, if any, is cancelled. Must be called under
+     * entry lock.
+     *
+     * @param time Time to check entry expiration at, {@code 0} for no expiration.
+     */
+    protected void scheduleExpiration(long time) {
+        if (time > 0 && (ttlRec == null || time < ttlRec.time())) {
+            if (ttlRec != null)
+                cctx.ttl().deschedule(ttlRec);
+
+            ttlRec = cctx.ttl().schedule(key, time);
+        }
+    }
+
     /**
      * @return {@code true} If value bytes should be stored.
      */
@@ -1223,8 +1413,76 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         return key;
     }
 
+    /** {@inheritDoc} */
+    @Override public void lock() {
+        super.lock();
+
+        if (getHoldCount() == 1)
+            stamp++; // Only lock owner changes stamp.
+    }
+
+    /** {@inheritDoc} */
+    @Override public void unlock() {
+        if (getHoldCount() == 1)
+            stamp++;
+
+        super.unlock();
+    }
+
+    /**
+     * Reads value without acquiring entry lock. Value, expiration time and obsolete version
+     * are read between two reads of modification stamp, so snapshot is only accepted if no
+     * other thread has held entry lock meanwhile.
+     *
+     * @return Value or {@code null} if value can not be read optimistically (entry is locked or
+     *      concurrently changed, has no value, is obsolete, expired or due for refresh-ahead),
+     *      in which case value should be read under entry lock.
+     */
+    @Nullable protected V optimisticValue() {
+        int s = stamp;
+
+        // Entry lock is held by another thread.
+        if ((s & 1) != 0)
+            return null;
+
+        V val = this.val;
+
+        long expireTime = this.expireTime;
+        long ttl = this.ttl;
+
+        boolean obsolete = obsoleteVer != null;
+
+        if (stamp != s || val == null || obsolete)
+            return null;
+
+        if (expireTime > 0) {
+            double delta = expireTime - System.currentTimeMillis();
+
+            // Let locked path handle expiration and refresh-ahead.
+            if (delta <= 0 || (cctx.isStoreEnabled() && 1 - delta / ttl >= cctx.config().getRefreshAheadRatio()))
+                return null;
+        }
+
+        return val;
+    }
+
     /** {@inheritDoc} */
     @Override public GridCacheVersion version() throws GridCacheEntryRemovedException {
+        int s = stamp;
+
+        if ((s & 1) == 0) {
+            GridCacheVersion ver = this.ver;
+
+            boolean obsolete = obsoleteVer != null;
+
+            if (stamp == s) {
+                if (obsolete)
+                    throw new GridCacheEntryRemovedException();
+
+                return ver;
+            }
+        }
+
         lock();
 
         try {
@@ -1419,6 +1677,13 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         if (!valid())
             return null;
 
+        if (F.isEmpty(filter)) {
+            V v = optimisticValue();
+
+            if (v != null)
+                return v;
+        }
+
         while (true) {
             GridCacheVersion ver;
             V val;
@@ -1593,6 +1858,46 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         }
     }
 
+    /** {@inheritDoc} */
+    @SuppressWarnings({"RedundantTypeArguments"})
+    @Override public boolean preloadValue(@Nullable V val, @Nullable byte[] valBytes, GridCacheVersion ver, long ttl,
+        long expireTime, GridCacheMetricsAdapter metrics) throws GridException, GridCacheEntryRemovedException {
+        assert ver != null;
+
+        if (valBytes != null && val == null)
+            val = U.<V>unmarshal(cctx.marshaller(), new GridByteArrayList(valBytes), cctx.deploy().globalLoader());
+
+        lock();
+
+        try {
+            checkObsolete();
+
+            if (!isNew() && (!ver.isGreater(this.ver) || !mvcc.isEmpty()))
+                return false;
+
+            if (val == null) {
+                // Entry has been removed on supplying node.
+                releaseSwap();
+
+                clearIndex();
+
+                update(null, null, 0, 0, ver, metrics);
+
+                markObsolete(cctx.versions().next());
+            }
+            else {
+                update(val, valBytes, expireTime, ttl, ver, metrics);
+
+                updateIndex(val);
+            }
+
+            return true;
+        }
+        finally {
+            unlock();
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public boolean initialValue(K key, GridCacheSwapEntry<V> unswapped) throws GridException,
         GridCacheEntryRemovedException {
@@ -1998,6 +2303,122 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public int memorySize() {
+        lock();
+
+        try {
+            return memSize;
+        }
+        finally {
+            unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public int accountMemorySize() {
+        V val;
+        byte[] valBytes;
+        GridCacheVersion ver;
+
+        lock();
+
+        try {
+            if (obsoleteVer != null)
+                return resetMemorySize();
+
+            // Nothing changed since last accounting.
+            if (this.ver.equals(memSizeVer))
+                return 0;
+
+            val = this.val;
+            valBytes = this.valBytes;
+            ver = this.ver;
+        }
+        finally {
+            unlock();
+        }
+
+        // Estimate outside of lock as it may require marshalling.
+        int size = ENTRY_OVERHEAD + sizeOf(key, keyBytes) + sizeOf(val, valBytes);
+
+        lock();
+
+        try {
+            if (obsoleteVer != null)
+                return resetMemorySize();
+
+            int delta = size - memSize;
+
+            memSize = size;
+
+            // If entry was updated concurrently, it will be accounted again on next call.
+            memSizeVer = ver;
+
+            return delta;
+        }
+        finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Resets memory size of obsolete entry. Must be called under entry lock.
+     *
+     * @return Negated previously accounted size.
+     */
+    private int resetMemorySize() {
+        int delta = -memSize;
+
+        memSize = 0;
+        memSizeVer = null;
+
+        return delta;
+    }
+
+    /**
+     * Estimates memory size of key or value. Marshalled bytes are used if available, otherwise
+     * size is estimated for common types and calculated by marshalling for all others.
+     *
+     * @param obj Object.
+     * @param bytes Marshalled object, possibly {@code null}.
+     * @return Estimated size in bytes.
+     */
+    private int sizeOf(@Nullable Object obj, @Nullable byte[] bytes) {
+        if (bytes != null)
+            return OBJ_OVERHEAD + bytes.length;
+
+        if (obj == null)
+            return 0;
+
+        if (obj instanceof byte[])
+            return OBJ_OVERHEAD + ((byte[])obj).length;
+
+        if (obj instanceof String)
+            return 2 * OBJ_OVERHEAD + 2 * ((CharSequence)obj).length();
+
+        if (obj instanceof Number || obj instanceof Boolean || obj instanceof Character)
+            return OBJ_OVERHEAD;
+
+        if (obj instanceof char[])
+            return OBJ_OVERHEAD + 2 * ((char[])obj).length;
+
+        if (obj instanceof int[])
+            return OBJ_OVERHEAD + 4 * ((int[])obj).length;
+
+        if (obj instanceof long[])
+            return OBJ_OVERHEAD + 8 * ((long[])obj).length;
+
+        try {
+            return OBJ_OVERHEAD + CU.marshal(cctx, obj).getSize();
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to marshal object for memory size estimation (will ignore): " + obj, e);
+
+            return OBJ_OVERHEAD;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public void keyBytes(byte[] keyBytes) throws GridCacheEntryRemovedException {
         lock();
@@ -2165,6 +2586,67 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         return new GridCacheEvictionEntry<K, V>(this);
     }
 
+    /** {@inheritDoc} */
+    @Override public boolean onTtlExpired(long schedTime, GridCacheVersion obsoleteVer) throws GridException {
+        assert obsoleteVer != null;
+
+        V expiredVal;
+
+        lock();
+
+        try {
+            // Entry has been rescheduled to earlier time, so this schedule is stale.
+            if (ttlRec == null || schedTime != ttlRec.time())
+                return false;
+
+            ttlRec = null;
+
+            if (this.obsoleteVer != null || expireTime == 0)
+                return false;
+
+            long now = System.currentTimeMillis();
+
+            if (expireTime > now) {
+                // TTL has been prolonged since entry was scheduled.
+                scheduleExpiration(expireTime);
+
+                return false;
+            }
+
+            if (hasReaders() || !markObsolete(obsoleteVer)) {
+                if (log.isDebugEnabled())
+                    log.debug("Expired entry is still used, will check it again later: " + this);
+
+                scheduleExpiration(now + GridCacheTtlManager.RETRY_DELAY);
+
+                return false;
+            }
+
+            expiredVal = val;
+
+            releaseSwap();
+
+            clearIndex();
+
+            val = null;
+            valBytes = null;
+        }
+        catch (GridCacheEntryRemovedException ignore) {
+            return false;
+        }
+        finally {
+            unlock();
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Entry has expired: " + this);
+
+        cctx.events().addEvent(partition(), key, cctx.nodeId(), (GridUuid)null, null, EVT_CACHE_OBJECT_EXPIRED,
+            null, expiredVal);
+
+        return true;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean evictInternal(boolean swap, GridCacheVersion obsoleteVer,
         @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) throws GridException {
@@ -2302,6 +2784,8 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
 
             this.ttl = ttl;
 
+            scheduleExpiration(expireTime);
+
             if (log.isDebugEnabled())
                 log.debug("Set ttl [ttl=" + this.ttl + ", expireTime=" + expireTime + ", timeLeft=" +
                     (expireTime - System.currentTimeMillis()) + ']');
@@ -50,6 +50,21 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
     /** Number of transaction rollbacks. */
     private final AtomicInteger txRollbacks = new AtomicInteger();
 
+    /** Number of one-phase transaction commits. */
+    private final AtomicInteger txOnePhaseCommits = new AtomicInteger();
+
+    /** Estimated memory size. */
+    private final AtomicLong memSize = new AtomicLong();
+
+    /** Peak estimated memory size. */
+    private final AtomicLong peakMemSize = new AtomicLong();
+
+    /** Number of entries expired by TTL manager. */
+    private final AtomicLong expirations = new AtomicLong();
+
+    /** Number of entries expired by TTL manager per second. */
+    private volatile float expiredPerSec;
+
     /** Cache metrics. */
     @GridToStringExclude
     private GridCacheMetricsAdapter delegate;
@@ -146,6 +161,31 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
         return txRollbacks.get();
     }
 
+    /** {@inheritDoc} */
+    @Override public int txOnePhaseCommits() {
+        return txOnePhaseCommits.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long memorySize() {
+        return memSize.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long peakMemorySize() {
+        return peakMemSize.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long expirations() {
+        return expirations.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public float expiredPerSecond() {
+        return expiredPerSec;
+    }
+
     /**
      * Cache read callback.
      * @param isHit Hit or miss flag.
@@ -196,6 +236,92 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
             delegate.onTxRollback();
     }
 
+    /**
+     * One-phase transaction commit callback.
+     */
+    public void onTxOnePhaseCommit() {
+        txOnePhaseCommits.incrementAndGet();
+
+        if (delegate != null)
+            delegate.onTxOnePhaseCommit();
+    }
+
+    /**
+     * Memory size change callback.
+     *
+     * @param delta Change of estimated memory size in bytes.
+     */
+    public void onMemorySizeChanged(long delta) {
+        long size = memSize.addAndGet(delta);
+
+        if (delta > 0) {
+            for (long peak = peakMemSize.get(); size > peak; peak = peakMemSize.get())
+                if (peakMemSize.compareAndSet(peak, size))
+                    break;
+        }
+
+        if (delta != 0 && delegate != null)
+            delegate.onMemorySizeChanged(delta);
+    }
+
+    /**
+     * Expiration callback.
+     *
+     * @param cnt Number of entries expired by TTL manager.
+     */
+    public void onExpired(int cnt) {
+        expirations.addAndGet(cnt);
+
+        if (delegate != null)
+            delegate.onExpired(cnt);
+    }
+
+    /**
+     * Expiration rate callback.
+     *
+     * @param expiredPerSec Number of entries expired by TTL manager per second.
+     */
+    public void onExpirationRate(float expiredPerSec) {
+        this.expiredPerSec = expiredPerSec;
+
+        if (delegate != null)
+            delegate.onExpirationRate(expiredPerSec);
+    }
+
+    /**
+     * @param memSize Estimated memory size.
+     * @param peakMemSize Peak estimated memory size.
+     * @return This metrics for chaining.
+     */
+    private GridCacheMetricsAdapter memorySize(long memSize, long peakMemSize) {
+        this.memSize.set(memSize);
+        this.peakMemSize.set(peakMemSize);
+
+        return this;
+    }
+
+    /**
+     * @param expirations Number of expired entries.
+     * @param expiredPerSec Number of entries expired per second.
+     * @return This metrics for chaining.
+     */
+    private GridCacheMetricsAdapter expirations(long expirations, float expiredPerSec) {
+        this.expirations.set(expirations);
+        this.expiredPerSec = expiredPerSec;
+
+        return this;
+    }
+
+    /**
+     * @param txOnePhaseCommits Number of one-phase transaction commits.
+     * @return This metrics for chaining.
+     */
+    private GridCacheMetricsAdapter onePhaseCommits(int txOnePhaseCommits) {
+        this.txOnePhaseCommits.set(txOnePhaseCommits);
+
+        return this;
+    }
+
     /**
      * Create a copy of given metrics object.
      *
@@ -215,7 +341,8 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
             m.misses(),
             m.txCommits(),
             m.txRollbacks()
-        );
+        ).memorySize(m.memorySize(), m.peakMemorySize()).expirations(m.expirations(), m.expiredPerSecond())
+            .onePhaseCommits(m.txOnePhaseCommits());
     }
 
     /**
@@ -237,7 +364,9 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
             m1.misses() + m2.misses(),
             m1.txCommits() + m2.txCommits(),
             m1.txRollbacks() + m2.txRollbacks()
-        );
+        ).memorySize(m1.memorySize() + m2.memorySize(), m1.peakMemorySize() + m2.peakMemorySize())
+            .expirations(m1.expirations() + m2.expirations(), m1.expiredPerSecond() + m2.expiredPerSecond())
+            .onePhaseCommits(m1.txOnePhaseCommits() + m2.txOnePhaseCommits());
     }
 
     /**
@@ -255,6 +384,13 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
         misses.set(0);
         txCommits.set(0);
         txRollbacks.set(0);
+        txOnePhaseCommits.set(0);
+
+        // Memory size is a gauge maintained by eviction manager, so only peak is reset.
+        peakMemSize.set(memSize.get());
+
+        expirations.set(0);
+        expiredPerSec = 0;
     }
 
     /** {@inheritDoc} */
@@ -269,6 +405,14 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
         out.writeInt(misses.get());
         out.writeInt(txCommits.get());
         out.writeInt(txRollbacks.get());
+
+        out.writeLong(memSize.get());
+        out.writeLong(peakMemSize.get());
+
+        out.writeLong(expirations.get());
+        out.writeFloat(expiredPerSec);
+
+        out.writeInt(txOnePhaseCommits.get());
     }
 
     /** {@inheritDoc} */
@@ -283,6 +427,14 @@ public class GridCacheMetricsAdapter implements GridCacheMetrics, Externalizable
         misses.set(in.readInt());
         txCommits.set(in.readInt());
         txRollbacks.set(in.readInt());
+
+        memSize.set(in.readLong());
+        peakMemSize.set(in.readLong());
+
+        expirations.set(in.readLong());
+        expiredPerSec = in.readFloat();
+
+        txOnePhaseCommits.set(in.readInt());
     }
 
     /** {@inheritDoc} */
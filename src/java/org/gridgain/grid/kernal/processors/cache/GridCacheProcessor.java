@@ -18,6 +18,7 @@ import org.gridgain.grid.cache.eviction.*;
 import org.gridgain.grid.cache.eviction.always.*;
 import org.gridgain.grid.cache.eviction.lru.*;
 import org.gridgain.grid.cache.store.*;
+import org.gridgain.grid.cache.store.jdbc.*;
 import org.gridgain.grid.kernal.*;
 import org.gridgain.grid.kernal.processors.*;
 import org.gridgain.grid.kernal.processors.cache.datastructures.*;
@@ -35,6 +36,7 @@ import java.util.*;
 import java.util.concurrent.*;
 
 import static org.gridgain.grid.GridDeploymentMode.*;
+import static org.gridgain.grid.cache.GridCacheAtomicityMode.*;
 import static org.gridgain.grid.cache.GridCacheConfiguration.*;
 import static org.gridgain.grid.cache.GridCacheMode.*;
 import static org.gridgain.grid.cache.GridCachePreloadMode.*;
@@ -131,6 +133,16 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         if (cfg.getPreloadMode() == null)
             cfg.setPreloadMode(ASYNC);
 
+        if (cfg.getAtomicityMode() == null)
+            cfg.setAtomicityMode(DFLT_ATOMICITY_MODE);
+
+        if (cfg.getAtomicityMode() == ATOMIC && cfg.isNearEnabled()) {
+            U.warn(log, "Near cache is not supported in ATOMIC mode and will be disabled [cacheName=" +
+                cfg.getName() + ']');
+
+            cfg.setNearEnabled(false);
+        }
+
         if (cfg.getCacheMode() == PARTITIONED) {
             if (!cfg.isNearEnabled()) {
                 if (cfg.getNearEvictionPolicy() != null)
@@ -164,9 +176,23 @@ public class GridCacheProcessor extends GridProcessorAdapter {
             U.warn(log, "GridCacheAffinity configuration parameter will be ignored for local cache [cacheName=" +
                 cfg.getName() + ']');
 
+        if (cfg.getAtomicityMode() == ATOMIC && cfg.getCacheMode() != PARTITIONED)
+            throw new GridException("ATOMIC atomicity mode is supported only for PARTITIONED caches " +
+                "[cacheName=" + cfg.getName() + ", cacheMode=" + cfg.getCacheMode() + ']');
+
+        if (cfg.getAtomicityMode() == ATOMIC && cfg.getTransactionManagerLookup() != null)
+            throw new GridException("JTA integration is not supported for ATOMIC caches (remove transaction " +
+                "manager lookup or change atomicity mode to TRANSACTIONAL) [cacheName=" + cfg.getName() + ']');
+
+        assertParameter(cfg.getGetBatchSize() > 0, "getBatchSize > 0");
+        assertParameter(cfg.getOffHeapMaxMemory() >= 0, "offHeapMaxMemory >= 0");
+
         if (cfg.getPreloadMode() != NONE) {
             assertParameter(cfg.getPreloadThreadPoolSize() > 0, "preloadThreadPoolSize > 0");
             assertParameter(cfg.getPreloadBatchSize() > 0, "preloadBatchSize > 0");
+            assertParameter(cfg.getPreloadBatchesPrefetchCount() > 0, "preloadBatchesPrefetchCount > 0");
+            assertParameter(cfg.getPreloadMaxThroughput() >= 0, "preloadMaxThroughput >= 0");
+            assertParameter(cfg.getPreloadPartitionHistorySize() >= 0, "preloadPartitionHistorySize >= 0");
         }
 
         if (!cfg.isTxSerializableEnabled() && cfg.getDefaultTxIsolation() == SERIALIZABLE)
@@ -200,8 +226,8 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         GridCacheQueryManager qryMgr = ctx.queries();
 
         return qryMgr != null ?
-            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts(), qryMgr) :
-            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts());
+            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts(), ctx.ttl(), qryMgr) :
+            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts(), ctx.ttl());
     }
 
     /**
@@ -305,9 +331,11 @@ public class GridCacheProcessor extends GridProcessorAdapter {
             GridCacheDgcManager dgcMgr = new GridCacheDgcManager();
             GridCacheDeploymentManager depMgr = new GridCacheDeploymentManager();
             GridCacheEvictionManager evictMgr = new GridCacheEvictionManager();
+            GridCacheTtlManager ttlMgr = new GridCacheTtlManager();
             GridCacheQueryManager qryMgr = queryManager(cfg);
             GridCacheIoManager ioMgr = new GridCacheIoManager();
             GridCacheDataStructuresManager dataStructuresMgr = dataStructuresManager();
+            GridCacheDataLoadManager dataLoadMgr = new GridCacheDataLoadManager();
 
             GridCacheStore store = cacheStore(ctx.gridName(), cfg);
 
@@ -326,11 +354,13 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                 swapMgr,
                 depMgr,
                 evictMgr,
+                ttlMgr,
                 ioMgr,
                 qryMgr,
                 dgcMgr,
                 tm,
-                dataStructuresMgr);
+                dataStructuresMgr,
+                dataLoadMgr);
 
             GridCacheAdapter cache = null;
 
@@ -388,12 +418,14 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                  * 3. GridCacheDeploymentManager
                  * 4. GridCacheQueryManager (note, that we start it for DHT cache though).
                  * 5. GridCacheDgcManager
+                 * 6. GridCacheDataLoadManager
                  * ===============================================
                  */
                 mvccMgr = new GridCacheMvccManager();
                 tm = new GridCacheTxManager();
                 swapMgr = new GridCacheSwapManager(true);
                 evictMgr = new GridCacheEvictionManager();
+                ttlMgr = new GridCacheTtlManager();
                 evtMgr = new GridCacheEventManager();
 
                 cacheCtx = new GridCacheContext(
@@ -411,11 +443,13 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                     swapMgr,
                     depMgr,
                     evictMgr,
+                    ttlMgr,
                     ioMgr,
                     qryMgr,
                     dgcMgr,
                     tm,
-                    dataStructuresMgr);
+                    dataStructuresMgr,
+                    dataLoadMgr);
 
                 assert cache instanceof GridNearCache;
 
@@ -472,6 +506,14 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                             a1.cacheName() + ", localCacheMode=" + a2.cacheMode() +
                             ", remoteCacheMode=" + a1.cacheMode() + ", rmtNodeId=" + rmt.id() + ']');
 
+                    if (a1.cacheAtomicityMode() != a2.cacheAtomicityMode())
+                        throw new GridException("Cache atomicity mode mismatch (fix cache atomicity mode in " +
+                            "configuration or specify empty cache configuration list if default cache should " +
+                            "not be started) [cacheName=" + a1.cacheName() +
+                            ", localCacheAtomicityMode=" + a2.cacheAtomicityMode() +
+                            ", remoteCacheAtomicityMode=" + a1.cacheAtomicityMode() +
+                            ", rmtNodeId=" + rmt.id() + ']');
+
                     if (a1.cachePreloadMode() != a2.cachePreloadMode() && a1.cacheMode() != LOCAL)
                         throw new GridException("Cache preload mode mismatch (fix cache preload mode in " +
                             "configuration or specify empty cache configuration list if default cache should " +
@@ -618,6 +660,10 @@ public class GridCacheProcessor extends GridProcessorAdapter {
             if (store instanceof GridCacheWriteFromBehindStore)
                 ((GridCacheWriteFromBehindStore)store).stop();
 
+            // Close connections pooled by JDBC store.
+            if (ctx.config().getStore() instanceof GridCacheJdbcBlobStore)
+                ((GridCacheJdbcBlobStore)ctx.config().getStore()).stop();
+
             if (ctx.config().getCacheMode() == PARTITIONED) {
                 GridDhtCache dht = ctx.near().dht();
 
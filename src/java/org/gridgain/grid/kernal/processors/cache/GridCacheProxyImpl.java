@@ -264,6 +264,18 @@ public class GridCacheProxyImpl<K, V> implements GridCacheProxy<K, V>, Externali
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public GridCacheDataLoader<K, V> dataLoader() {
+        GridCacheProjectionImpl<K, V> prev = gate.enter(prj);
+
+        try {
+            return cache.dataLoader();
+        }
+        finally {
+            gate.leave(prev);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public ConcurrentMap<K, V> toMap() {
         GridCacheProjectionImpl<K, V> prev = gate.enter(prj);
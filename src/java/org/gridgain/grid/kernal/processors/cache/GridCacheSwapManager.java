@@ -16,12 +16,19 @@ import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.spi.swapspace.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.offheap.*;
 import org.jetbrains.annotations.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
 
 /**
- * Handles all swap operations.
+ * Handles all swap operations. If {@link GridCacheConfiguration#getOffHeapMaxMemory()} is
+ * positive, swapped entries are stored serialized in off-heap memory first, and least
+ * recently used of them are moved to swap space once off-heap memory is full. Off-heap
+ * index is kept by partition, and every partition has its own lock and its own access
+ * order, so off-heap operations on different partitions do not contend.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
@@ -36,6 +43,15 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
     /** Flag to indicate if swap is enabled. */
     private final boolean enabled;
 
+    /** Flag to indicate if swap space SPI is used. */
+    private boolean spiEnabled;
+
+    /** Off-heap memory allocator, {@code null} if off-heap storage is disabled. */
+    private GridOffHeapSlabAllocator offHeap;
+
+    /** Off-heap index by partition, created lazily. */
+    private AtomicReferenceArray<OffHeapPartition> offHeapParts;
+
     /**
      * @param enabled Flag to indicate if swap is enabled.
      */
@@ -48,6 +64,53 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
         spaceName = CU.swapSpaceName(cctx);
 
         swapMgr = cctx.gridSwap();
+
+        spiEnabled = cctx.config().isSwapEnabled();
+
+        long offHeapMaxMem = cctx.config().getOffHeapMaxMemory();
+
+        if (enabled && offHeapMaxMem > 0) {
+            // Keep at least 64 slabs so that every size class can get some memory.
+            int slabSize = (int)Math.min(GridOffHeapSlabAllocator.DFLT_SLAB_SIZE,
+                Math.max(GridOffHeapSlabAllocator.MIN_CHUNK_SIZE, Long.highestOneBit(offHeapMaxMem / 64)));
+
+            offHeap = new GridOffHeapSlabAllocator(offHeapMaxMem, slabSize);
+
+            offHeapParts = new AtomicReferenceArray<OffHeapPartition>(cctx.partitions());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void stop0(boolean cancel, boolean wait) {
+        if (offHeap != null) {
+            // Close every partition so that nobody touches off-heap memory once it is destroyed.
+            for (int i = 0; i < offHeapParts.length(); i++) {
+                OffHeapPartition p = offHeapPartition(i);
+
+                synchronized (p) {
+                    p.closed = true;
+
+                    p.entries.clear();
+
+                    p.spills.clear();
+
+                    p.notifyAll();
+                }
+            }
+
+            offHeap.destroy();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void printMemoryStats() {
+        if (offHeap != null) {
+            X.println(">>> ");
+            X.println(">>> Swap manager memory stats [grid=" + cctx.gridName() + ", cache=" + cctx.name() + ']');
+            X.println(">>>   offHeapEntriesSize: " + offHeapSize());
+            X.println(">>>   offHeapReserved: " + offHeap.reservedSize());
+            X.println(">>>   offHeapUsed: " + offHeap.usedSize());
+        }
     }
 
     /**
@@ -63,7 +126,47 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
      * @throws GridException If failed.
      */
     long swapSize() throws GridException {
-        return enabled ? swapMgr.swapSize(spaceName) : -1;
+        if (!enabled)
+            return -1;
+
+        long size = spiEnabled ? swapMgr.swapSize(spaceName) : 0;
+
+        return offHeap != null ? size + offHeap.usedSize() : size;
+    }
+
+    /**
+     * @return Number of entries stored in off-heap memory.
+     */
+    int offHeapSize() {
+        if (offHeap == null)
+            return 0;
+
+        int size = 0;
+
+        for (int i = 0; i < offHeapParts.length(); i++) {
+            OffHeapPartition p = offHeapParts.get(i);
+
+            if (p != null) {
+                synchronized (p) {
+                    size += p.entries.size();
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * @param part Partition.
+     * @return Off-heap index of given partition, created if it does not exist.
+     */
+    private OffHeapPartition offHeapPartition(int part) {
+        OffHeapPartition p = offHeapParts.get(part);
+
+        if (p == null && !offHeapParts.compareAndSet(part, null, p = new OffHeapPartition()))
+            p = offHeapParts.get(part);
+
+        return p;
     }
 
     /**
@@ -102,8 +205,11 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
 
         assert key != null;
 
-        byte[] valBytes = swapMgr.read(spaceName, new GridSwapKey(key, cctx.partition(key), keyBytes),
-            cctx.deploy().localLoader());
+        byte[] valBytes = offHeap != null ? offHeapRead(key, false) : null;
+
+        if (valBytes == null && spiEnabled)
+            valBytes = swapMgr.read(spaceName, new GridSwapKey(key, cctx.partition(key), keyBytes),
+                cctx.deploy().localLoader());
 
         if (valBytes == null)
             return null;
@@ -125,11 +231,15 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
 
         final GridTuple<byte[]> t = F.t1();
 
-        swapMgr.remove(spaceName, new GridSwapKey(key, cctx.partition(key), keyBytes), new CI1<byte[]>() {
-            @Override public void apply(byte[] removed) {
-                t.set(removed);
-            }
-        }, cctx.deploy().localLoader());
+        if (offHeap != null)
+            t.set(offHeapRead(key, true));
+
+        if (t.get() == null && spiEnabled)
+            swapMgr.remove(spaceName, new GridSwapKey(key, cctx.partition(key), keyBytes), new CI1<byte[]>() {
+                @Override public void apply(byte[] removed) {
+                    t.set(removed);
+                }
+            }, cctx.deploy().localLoader());
 
         if (t.get() == null)
             return null;
@@ -155,7 +265,7 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
      * @return Read value.
      * @throws GridException If read failed.
      */
-    @Nullable GridCacheSwapEntry<V> read(K key) throws GridException {
+    @Nullable public GridCacheSwapEntry<V> read(K key) throws GridException {
         if (!enabled)
             return null;
 
@@ -195,13 +305,17 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
         if (!enabled)
             return;
 
-        swapMgr.remove(spaceName, new GridSwapKey(key, cctx.partition(key), keyBytes), null,
-            cctx.deploy().localLoader());
+        if (offHeap != null)
+            offHeapRead(key, true);
+
+        if (spiEnabled)
+            swapMgr.remove(spaceName, new GridSwapKey(key, cctx.partition(key), keyBytes), null,
+                cctx.deploy().localLoader());
     }
 
     /**
-     * Writes a versioned value to swap.
-     *
+     * Writes a versioned value to swap. Value is written to off-heap memory if it is
+     * enabled and has enough space, and to swap space otherwise.
      *
      * @param key Key.
      * @param keyBytes Key bytes.
@@ -220,8 +334,273 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
 
         GridCacheSwapEntry<V> entry = new GridCacheSwapEntry<V>(val, ver, ttl, expireTime, metrics, clsLdrId);
 
-        swapMgr.write(spaceName, new GridSwapKey(key, cctx.partition(key), keyBytes),
-            marshal(entry), cctx.deploy().localLoader());
+        int part = cctx.partition(key);
+
+        byte[] entryBytes = marshal(entry);
+
+        if (offHeap != null && offHeapWrite(key, part, keyBytes, entryBytes))
+            return;
+
+        if (spiEnabled)
+            swapMgr.write(spaceName, new GridSwapKey(key, part, keyBytes), entryBytes, cctx.deploy().localLoader());
+    }
+
+    /**
+     * Stores marshalled swap entry in off-heap memory. If memory limit has been reached,
+     * least recently used entries of entry partition are evicted first, and least recently
+     * used entries of other partitions are evicted after that, locking one partition at a
+     * time. Evicted entries of any size class are removed until there is enough memory:
+     * chunks freed in the same size class are reused right away, and slabs which become
+     * empty are returned to common pool. Evicted entries are moved to swap space (or
+     * discarded if swap space is not used) before entry is added to off-heap index.
+     *
+     * @param key Key.
+     * @param part Partition.
+     * @param keyBytes Key bytes.
+     * @param entryBytes Marshalled swap entry.
+     * @return {@code True} if entry was stored in off-heap memory.
+     * @throws GridException If failed to move evicted entries to swap space.
+     */
+    private boolean offHeapWrite(K key, int part, byte[] keyBytes, byte[] entryBytes) throws GridException {
+        int size = 4 + keyBytes.length + entryBytes.length;
+
+        OffHeapPartition p = offHeapPartition(part);
+
+        Collection<Spill> victims = new ArrayList<Spill>();
+
+        long addr;
+
+        synchronized (p) {
+            if (!awaitSpill(p, key))
+                return false;
+
+            OffHeapEntry old = p.entries.remove(key);
+
+            if (old != null)
+                offHeap.free(old.addr, old.size);
+
+            if (offHeap.sizeClass(size) < 0)
+                return false;
+
+            addr = offHeap.allocate(size);
+
+            if (addr == 0)
+                addr = evict(p, size, victims);
+        }
+
+        for (int i = 1, cnt = offHeapParts.length(); addr == 0 && i < cnt; i++) {
+            OffHeapPartition victimPart = offHeapParts.get((part + i) % cnt);
+
+            if (victimPart != null) {
+                synchronized (victimPart) {
+                    if (!victimPart.closed)
+                        addr = evict(victimPart, size, victims);
+                }
+            }
+        }
+
+        boolean stored = false;
+
+        try {
+            // Spill evicted entries before waiting for other spills, so that writers never wait for each other.
+            if (!victims.isEmpty())
+                spill(victims);
+
+            if (addr != 0) {
+                synchronized (p) {
+                    if (!awaitSpill(p, key))
+                        return false;
+
+                    // Entry might have been written by concurrent update.
+                    OffHeapEntry old = p.entries.remove(key);
+
+                    if (old != null)
+                        offHeap.free(old.addr, old.size);
+
+                    GridOffHeapSlabAllocator.writeInt(addr, keyBytes.length);
+                    GridOffHeapSlabAllocator.write(addr + 4, keyBytes, 0, keyBytes.length);
+                    GridOffHeapSlabAllocator.write(addr + 4 + keyBytes.length, entryBytes, 0, entryBytes.length);
+
+                    p.entries.put(key, new OffHeapEntry(addr, size, part));
+
+                    stored = true;
+                }
+            }
+        }
+        finally {
+            if (addr != 0 && !stored) {
+                synchronized (p) {
+                    if (!p.closed)
+                        offHeap.free(addr, size);
+                }
+            }
+        }
+
+        return stored;
+    }
+
+    /**
+     * Evicts least recently used entries of given partition until chunk of given size
+     * can be allocated. Must be called while holding partition lock.
+     *
+     * @param p Off-heap partition.
+     * @param size Chunk size.
+     * @param victims Collection to add evicted entries to if they have to be moved to swap space.
+     * @return Allocated chunk address or {@code 0} if partition has no more entries to evict.
+     */
+    private long evict(OffHeapPartition p, int size, Collection<Spill> victims) {
+        assert Thread.holdsLock(p);
+
+        long addr = 0;
+
+        for (Iterator<Map.Entry<K, OffHeapEntry>> it = p.entries.entrySet().iterator(); addr == 0 && it.hasNext();) {
+            Map.Entry<K, OffHeapEntry> victim = it.next();
+
+            OffHeapEntry e = victim.getValue();
+
+            it.remove();
+
+            if (spiEnabled) {
+                int keyLen = GridOffHeapSlabAllocator.readInt(e.addr);
+
+                Spill spill = new Spill(victim.getKey(), e.part,
+                    GridOffHeapSlabAllocator.read(e.addr + 4, keyLen),
+                    GridOffHeapSlabAllocator.read(e.addr + 4 + keyLen, e.size - 4 - keyLen));
+
+                // Concurrent reads will find entry here until it is written to swap space.
+                p.spills.put(victim.getKey(), spill);
+
+                victims.add(spill);
+            }
+
+            offHeap.free(e.addr, e.size);
+
+            addr = offHeap.allocate(size);
+        }
+
+        return addr;
+    }
+
+    /**
+     * Writes entries evicted from off-heap memory to swap space. Must be called without
+     * holding any off-heap partition lock.
+     *
+     * @param victims Evicted entries.
+     * @throws GridException If write failed.
+     */
+    private void spill(Collection<Spill> victims) throws GridException {
+        try {
+            for (Spill spill : victims)
+                swapMgr.write(spaceName, new GridSwapKey(spill.key, spill.part, spill.keyBytes), spill.entryBytes,
+                    cctx.deploy().localLoader());
+        }
+        finally {
+            for (Spill spill : victims) {
+                OffHeapPartition p = offHeapParts.get(spill.part);
+
+                assert p != null;
+                assert !Thread.holdsLock(p);
+
+                synchronized (p) {
+                    p.spills.remove(spill.key);
+
+                    p.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until entry with given key is written to swap space if it is being moved
+     * there, so that updates and removals of the key are not overwritten by the move.
+     * Must be called while holding partition lock.
+     *
+     * @param p Off-heap partition.
+     * @param key Key.
+     * @return {@code False} if off-heap memory has been destroyed.
+     * @throws GridInterruptedException If interrupted.
+     */
+    private boolean awaitSpill(OffHeapPartition p, K key) throws GridInterruptedException {
+        while (!p.closed && p.spills.containsKey(key))
+            U.wait(p);
+
+        return !p.closed;
+    }
+
+    /**
+     * Reads marshalled swap entry from off-heap memory.
+     *
+     * @param key Key.
+     * @param rmv If {@code true}, entry is removed from off-heap memory.
+     * @return Marshalled swap entry or {@code null} if there is no entry for given key.
+     * @throws GridInterruptedException If interrupted while waiting for entry to be moved to swap space.
+     */
+    @Nullable private byte[] offHeapRead(K key, boolean rmv) throws GridInterruptedException {
+        OffHeapPartition p = offHeapParts.get(cctx.partition(key));
+
+        if (p == null)
+            return null;
+
+        synchronized (p) {
+            if (rmv) {
+                if (!awaitSpill(p, key))
+                    return null;
+            }
+            else {
+                if (p.closed)
+                    return null;
+
+                Spill spill = p.spills.get(key);
+
+                if (spill != null)
+                    return spill.entryBytes;
+            }
+
+            OffHeapEntry e = rmv ? p.entries.remove(key) : p.entries.get(key);
+
+            if (e == null)
+                return null;
+
+            int keyLen = GridOffHeapSlabAllocator.readInt(e.addr);
+
+            byte[] bytes = GridOffHeapSlabAllocator.read(e.addr + 4 + keyLen, e.size - 4 - keyLen);
+
+            if (rmv)
+                offHeap.free(e.addr, e.size);
+
+            return bytes;
+        }
+    }
+
+    /**
+     * Gets iterator over entries of given partition stored in swap. Entries are read
+     * from swap lazily one at a time, so partition does not have to fit into heap.
+     * Expired entries and entries that can not be unmarshalled are skipped.
+     *
+     * @param part Partition ID.
+     * @return Iterator over swapped entries.
+     * @throws GridException If failed.
+     */
+    public Iterator<GridCacheEntryInfo<K, V>> iterator(int part) throws GridException {
+        Iterator<Map.Entry<byte[], byte[]>> it = enabled && spiEnabled ? swapMgr.rawIterator(spaceName, part) : null;
+
+        OffHeapPartition p = offHeap != null ? offHeapParts.get(part) : null;
+
+        if (p != null) {
+            List<K> keys;
+
+            synchronized (p) {
+                keys = new ArrayList<K>(p.entries.keySet());
+            }
+
+            if (!keys.isEmpty())
+                it = new OffHeapIterator(p, keys, it);
+        }
+
+        if (it == null)
+            return Collections.<GridCacheEntryInfo<K, V>>emptyList().iterator();
+
+        return new SwapIterator(it);
     }
 
     /**
@@ -244,4 +623,242 @@ public class GridCacheSwapManager<K, V> extends GridCacheManager<K, V> {
     private byte[] marshal(Object obj) throws GridException {
         return CU.marshal(cctx, obj).getEntireArray();
     }
+
+    /**
+     * Off-heap index of one partition, guarded by itself.
+     */
+    private class OffHeapPartition {
+        /** Off-heap entries in access order. */
+        private final LinkedHashMap<K, OffHeapEntry> entries = new LinkedHashMap<K, OffHeapEntry>(16, 0.75f, true);
+
+        /** Entries being moved from off-heap memory to swap space. */
+        private final Map<K, Spill> spills = new HashMap<K, Spill>();
+
+        /** Flag indicating that off-heap memory has been or is about to be destroyed. */
+        private boolean closed;
+    }
+
+    /**
+     * Location of entry stored in off-heap memory. Off-heap chunk contains key length,
+     * key bytes and marshalled swap entry.
+     */
+    private static class OffHeapEntry {
+        /** Chunk address. */
+        private final long addr;
+
+        /** Number of bytes in chunk. */
+        private final int size;
+
+        /** Partition. */
+        private final int part;
+
+        /**
+         * @param addr Chunk address.
+         * @param size Number of bytes in chunk.
+         * @param part Partition.
+         */
+        private OffHeapEntry(long addr, int size, int part) {
+            this.addr = addr;
+            this.size = size;
+            this.part = part;
+        }
+    }
+
+    /**
+     * Entry evicted from off-heap memory which is being written to swap space.
+     */
+    private class Spill {
+        /** Key. */
+        private final K key;
+
+        /** Partition. */
+        private final int part;
+
+        /** Key bytes. */
+        private final byte[] keyBytes;
+
+        /** Marshalled swap entry. */
+        private final byte[] entryBytes;
+
+        /**
+         * @param key Key.
+         * @param part Partition.
+         * @param keyBytes Key bytes.
+         * @param entryBytes Marshalled swap entry.
+         */
+        private Spill(K key, int part, byte[] keyBytes, byte[] entryBytes) {
+            this.key = key;
+            this.part = part;
+            this.keyBytes = keyBytes;
+            this.entryBytes = entryBytes;
+        }
+    }
+
+    /**
+     * Iterator over raw entries of given keys stored in off-heap memory, followed by
+     * raw entries from swap space. Entries are copied from off-heap memory one at a
+     * time, and entries removed from off-heap memory after iterator creation are skipped.
+     */
+    private class OffHeapIterator implements Iterator<Map.Entry<byte[], byte[]>> {
+        /** Off-heap partition. */
+        private final OffHeapPartition p;
+
+        /** Keys of off-heap entries. */
+        private final Iterator<K> keys;
+
+        /** Raw swap space iterator. */
+        private final Iterator<Map.Entry<byte[], byte[]>> swapIt;
+
+        /** Next entry. */
+        private Map.Entry<byte[], byte[]> next;
+
+        /**
+         * @param p Off-heap partition.
+         * @param keys Keys of off-heap entries.
+         * @param swapIt Raw swap space iterator.
+         */
+        private OffHeapIterator(OffHeapPartition p, Collection<K> keys,
+            @Nullable Iterator<Map.Entry<byte[], byte[]>> swapIt) {
+            this.p = p;
+            this.keys = keys.iterator();
+            this.swapIt = swapIt != null ? swapIt : Collections.<Map.Entry<byte[], byte[]>>emptyList().iterator();
+
+            advance();
+        }
+
+        /**
+         * Moves to next off-heap entry.
+         */
+        private void advance() {
+            next = null;
+
+            while (next == null && keys.hasNext()) {
+                synchronized (p) {
+                    K key = keys.next();
+
+                    if (p.closed)
+                        continue;
+
+                    OffHeapEntry e = p.entries.get(key);
+
+                    if (e != null) {
+                        int keyLen = GridOffHeapSlabAllocator.readInt(e.addr);
+
+                        next = F.t(GridOffHeapSlabAllocator.read(e.addr + 4, keyLen),
+                            GridOffHeapSlabAllocator.read(e.addr + 4 + keyLen, e.size - 4 - keyLen));
+                    }
+                    else {
+                        Spill spill = p.spills.get(key);
+
+                        // Entry may not have reached swap space iterator yet.
+                        if (spill != null)
+                            next = F.t(spill.keyBytes, spill.entryBytes);
+                    }
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean hasNext() {
+            return next != null || swapIt.hasNext();
+        }
+
+        /** {@inheritDoc} */
+        @Override public Map.Entry<byte[], byte[]> next() {
+            if (next == null)
+                return swapIt.next();
+
+            Map.Entry<byte[], byte[]> e = next;
+
+            advance();
+
+            return e;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Iterator converting raw swap entries into entry infos.
+     */
+    private class SwapIterator implements Iterator<GridCacheEntryInfo<K, V>> {
+        /** Raw swap iterator. */
+        private final Iterator<Map.Entry<byte[], byte[]>> it;
+
+        /** Next entry. */
+        private GridCacheEntryInfo<K, V> next;
+
+        /**
+         * @param it Raw swap iterator.
+         */
+        private SwapIterator(Iterator<Map.Entry<byte[], byte[]>> it) {
+            this.it = it;
+
+            advance();
+        }
+
+        /**
+         * Moves to next entry.
+         */
+        @SuppressWarnings({"unchecked"})
+        private void advance() {
+            next = null;
+
+            long now = System.currentTimeMillis();
+
+            while (next == null && it.hasNext()) {
+                Map.Entry<byte[], byte[]> raw = it.next();
+
+                try {
+                    ClassLoader ldr = cctx.deploy().localLoader();
+
+                    GridCacheSwapEntry<V> e = recreateEntry((GridCacheSwapEntry<V>)unmarshal(raw.getValue(), ldr));
+
+                    if (e == null || e.value() == null || (e.expireTime() > 0 && e.expireTime() <= now))
+                        continue;
+
+                    GridCacheEntryInfo<K, V> info = new GridCacheEntryInfo<K, V>();
+
+                    info.key((K)unmarshal(raw.getKey(), ldr));
+                    info.keyBytes(raw.getKey());
+                    info.value(e.value());
+                    info.valueBytes(e.valueBytes());
+                    info.version(e.version());
+                    info.ttl(e.ttl());
+                    info.expireTime(e.expireTime());
+                    info.metrics(e.metrics());
+
+                    next = info;
+                }
+                catch (GridException ex) {
+                    U.warn(log, "Failed to unmarshal swapped entry (will skip): " + ex.getMessage());
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean hasNext() {
+            return next != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public GridCacheEntryInfo<K, V> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+
+            GridCacheEntryInfo<K, V> e = next;
+
+            advance();
+
+            return e;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -0,0 +1,462 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.thread.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.gridgain.grid.util.worker.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Cache manager that proactively removes expired entries. Entries with expiration time
+ * are scheduled with this manager whenever their expiration time is set (see
+ * {@link GridCacheMapEntry#scheduleExpiration(long)}). Schedules reference entry keys
+ * only, so the wheel never retains removed or evicted entries, and are cancelled as
+ * soon as entry becomes obsolete. Schedules are indexed by expiration time in
+ * hierarchical timer wheel with {@link #LEVELS} levels of {@link #SLOTS} slots each.
+ * Slot of the lowest level covers one {@link #TICK} and every slot of upper level covers
+ * whole lower level, so scheduling is a constant time operation regardless of
+ * number of tracked entries or their TTL.
+ * <p>
+ * Background sweeper thread is started once first entry is scheduled. It advances the wheel
+ * every tick, cascading entries from upper levels down as their time approaches, and expires
+ * entries in due slots in batches of {@link #BATCH_SIZE}. Every entry is expired under its own lock and removed from cache
+ * map individually, so no map segment lock is held for longer than one removal. Expired
+ * entries fire {@link GridEventType#EVT_CACHE_OBJECT_EXPIRED} events, same as entries that
+ * expire on access, and are counted in {@link GridCacheMetricsAdapter#expirations()} and
+ * {@link GridCacheMetricsAdapter#expiredPerSecond()}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheTtlManager<K, V> extends GridCacheManager<K, V> {
+    /** Wheel tick in milliseconds. */
+    static final long TICK = 100;
+
+    /** Delay in milliseconds before expired entry that is still in use is checked again. */
+    static final long RETRY_DELAY = 1000;
+
+    /** Number of bits in slot index. */
+    private static final int SLOT_BITS = 6;
+
+    /** Number of slots per level. */
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    /** Slot index mask. */
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * Number of levels. Wheel spans {@code 64^4} ticks (about 19 days), entries
+     * expiring later are kept in top level and cascaded again on every rotation.
+     */
+    private static final int LEVELS = 4;
+
+    /** Number of ticks spanned by wheel. */
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /** Number of entries expired between metrics updates and cancellation checks. */
+    private static final int BATCH_SIZE = 512;
+
+    /** Interval in milliseconds for expiration rate calculation. */
+    private static final long RATE_INTERVAL = 1000;
+
+    /** Wheel slots. */
+    @GridToStringExclude
+    private final Queue<Record<K>>[][] wheel;
+
+    /** Wheel lock, write lock is acquired only by sweeper to advance the wheel. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Current tick, guarded by {@link #lock}. */
+    private long curTick;
+
+    /** Number of scheduled records. */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Mutex guarding sweeper start and stop. */
+    private final Object mux = new Object();
+
+    /** Kernal started flag, guarded by {@link #mux}. */
+    private boolean started;
+
+    /** Stopped flag, guarded by {@link #mux}. */
+    private boolean stopped;
+
+    /** Sweeper, {@code null} until first entry is scheduled. */
+    private volatile Sweeper sweeper;
+
+    /** Sweeper thread. */
+    private GridThread sweeperThread;
+
+    /**
+     *
+     */
+    @SuppressWarnings({"unchecked"})
+    public GridCacheTtlManager() {
+        wheel = new Queue[LEVELS][SLOTS];
+
+        for (int l = 0; l < LEVELS; l++)
+            for (int i = 0; i < SLOTS; i++)
+                wheel[l][i] = new ConcurrentLinkedQueue<Record<K>>();
+
+        curTick = System.currentTimeMillis() / TICK;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void onKernalStart0() throws GridException {
+        super.onKernalStart0();
+
+        synchronized (mux) {
+            started = true;
+        }
+
+        // Entries could have been scheduled before kernal start (e.g. by cache loader).
+        if (size.get() > 0)
+            startSweeper();
+    }
+
+    /**
+     * Starts sweeper thread if it is not started yet.
+     */
+    private void startSweeper() {
+        synchronized (mux) {
+            if (!started || stopped || sweeper != null)
+                return;
+
+            sweeper = new Sweeper();
+
+            sweeperThread = new GridThread(sweeper);
+
+            sweeperThread.start();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void stop0(boolean cancel, boolean wait) {
+        super.stop0(cancel, wait);
+
+        Sweeper sweeper;
+
+        synchronized (mux) {
+            stopped = true;
+
+            sweeper = this.sweeper;
+        }
+
+        if (sweeper != null) {
+            sweeper.cancel();
+
+            U.join(sweeperThread, log);
+        }
+
+        for (Queue<Record<K>>[] level : wheel)
+            for (Queue<Record<K>> slot : level)
+                slot.clear();
+
+        size.set(0);
+    }
+
+    /**
+     * Schedules entry with given key to be checked for expiration at given time. It is up to
+     * entry to ignore stale schedules (see {@link GridCacheEntryEx#onTtlExpired(long, GridCacheVersion)}).
+     *
+     * @param key Entry key.
+     * @param time Time to check entry at.
+     * @return Schedule record which may be cancelled with {@link #deschedule(Record)}.
+     */
+    public Record<K> schedule(K key, long time) {
+        assert key != null;
+        assert time > 0;
+
+        Record<K> rec = new Record<K>(key, time);
+
+        size.incrementAndGet();
+
+        reschedule(rec);
+
+        if (sweeper == null)
+            startSweeper();
+
+        return rec;
+    }
+
+    /**
+     * Cancels schedule, so that entry key is released right away and entry is not checked
+     * when schedule time comes.
+     *
+     * @param rec Schedule record.
+     */
+    public void deschedule(Record<K> rec) {
+        assert rec != null;
+
+        if (rec.take() != null)
+            size.decrementAndGet();
+    }
+
+    /**
+     * @param rec Record to add to wheel.
+     */
+    private void reschedule(Record<K> rec) {
+        lock.readLock().lock();
+
+        try {
+            add(rec);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of scheduled entries, including stale schedules.
+     */
+    public int scheduledSize() {
+        return size.get();
+    }
+
+    /**
+     * Adds record to the slot matching its time. Must be called under wheel lock.
+     *
+     * @param rec Record.
+     */
+    private void add(Record<K> rec) {
+        long cur = curTick;
+
+        // Already due entries go to next tick, far entries go to the end of wheel.
+        long tick = Math.min(Math.max(rec.time / TICK, cur + 1), cur + SPAN - 1);
+
+        long delta = tick - cur;
+
+        int l = 0;
+
+        while (delta >= 1L << (SLOT_BITS * (l + 1)))
+            l++;
+
+        wheel[l][(int)((tick >>> (SLOT_BITS * l)) & SLOT_MASK)].add(rec);
+    }
+
+    /**
+     * Advances wheel by one tick, cascading upper levels if needed.
+     *
+     * @param due Collection to add due records to.
+     */
+    private void advance(Collection<Record<K>> due) {
+        lock.writeLock().lock();
+
+        try {
+            long tick = ++curTick;
+
+            for (int l = 1; l < LEVELS && (tick & ((1L << (SLOT_BITS * l)) - 1)) == 0; l++) {
+                Queue<Record<K>> slot = wheel[l][(int)((tick >>> (SLOT_BITS * l)) & SLOT_MASK)];
+
+                for (Record<K> rec = slot.poll(); rec != null; rec = slot.poll())
+                    add(rec);
+            }
+
+            Queue<Record<K>> slot = wheel[0][(int)(tick & SLOT_MASK)];
+
+            for (Record<K> rec = slot.poll(); rec != null; rec = slot.poll())
+                due.add(rec);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Expires due records.
+     *
+     * @param due Due records.
+     * @return Number of expired entries.
+     * @throws GridInterruptedException If sweeper was cancelled.
+     */
+    private int expire(Collection<Record<K>> due) throws GridInterruptedException {
+        int expired = 0;
+        int batch = 0;
+
+        GridCacheVersion obsoleteVer = null;
+
+        for (Record<K> rec : due) {
+            if (rec.time > System.currentTimeMillis()) {
+                // Slot covers whole tick, so record may still be early.
+                if (!rec.cancelled())
+                    reschedule(rec);
+
+                continue;
+            }
+
+            K key = rec.take();
+
+            // Schedule has been cancelled.
+            if (key == null)
+                continue;
+
+            size.decrementAndGet();
+
+            GridCacheEntryEx<K, V> entry = cctx.cache().peekEx(key);
+
+            // Entry has already been removed or evicted.
+            if (entry == null)
+                continue;
+
+            if (obsoleteVer == null)
+                obsoleteVer = cctx.versions().next();
+
+            try {
+                if (entry.onTtlExpired(rec.time, obsoleteVer)) {
+                    cctx.cache().removeEntry(entry);
+
+                    // Let eviction policy know that entry is gone.
+                    cctx.evicts().touch(entry);
+
+                    expired++;
+
+                    if (++batch == BATCH_SIZE) {
+                        cctx.cache().metrics0().onExpired(batch);
+
+                        batch = 0;
+
+                        obsoleteVer = null;
+
+                        if (sweeper.isCancelled())
+                            throw new GridInterruptedException("Sweeper has been cancelled.");
+                    }
+                }
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to expire cache entry: " + entry, e);
+            }
+        }
+
+        if (batch > 0)
+            cctx.cache().metrics0().onExpired(batch);
+
+        return expired;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void printMemoryStats() {
+        X.println(">>> ");
+        X.println(">>> TTL manager memory stats [grid=" + cctx.gridName() + ", cache=" + cctx.name() + ']');
+        X.println(">>>   scheduledSize: " + scheduledSize());
+    }
+
+    /**
+     * Scheduled entry.
+     */
+    static final class Record<K> {
+        /** Entry key, {@code null} once schedule is processed or cancelled. */
+        private K key;
+
+        /** Time entry is scheduled for. */
+        private final long time;
+
+        /**
+         * @param key Entry key.
+         * @param time Time entry is scheduled for.
+         */
+        private Record(K key, long time) {
+            this.key = key;
+            this.time = time;
+        }
+
+        /**
+         * @return Time entry is scheduled for.
+         */
+        long time() {
+            return time;
+        }
+
+        /**
+         * Takes key out of this record, so that record is processed only once.
+         *
+         * @return Entry key or {@code null} if record has already been processed or cancelled.
+         */
+        synchronized K take() {
+            K key = this.key;
+
+            this.key = null;
+
+            return key;
+        }
+
+        /**
+         * @return {@code True} if record has been processed or cancelled.
+         */
+        synchronized boolean cancelled() {
+            return key == null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Record.class, this);
+        }
+    }
+
+    /**
+     * Sweeper advancing the wheel and expiring due entries.
+     */
+    private class Sweeper extends GridWorker {
+        /**
+         *
+         */
+        private Sweeper() {
+            super(cctx.gridName(), "cache-ttl-sweeper", log);
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void body() throws InterruptedException, GridInterruptedException {
+            Collection<Record<K>> due = new ArrayList<Record<K>>();
+
+            long rateStart = System.currentTimeMillis();
+
+            int rateCnt = 0;
+
+            while (!isCancelled()) {
+                long now = System.currentTimeMillis();
+
+                // Catch up with current time if previous ticks took long.
+                while (curTick < now / TICK && !isCancelled()) {
+                    advance(due);
+
+                    if (!due.isEmpty()) {
+                        rateCnt += expire(due);
+
+                        due.clear();
+                    }
+                }
+
+                now = System.currentTimeMillis();
+
+                if (now - rateStart >= RATE_INTERVAL) {
+                    cctx.cache().metrics0().onExpirationRate(rateCnt * 1000f / (now - rateStart));
+
+                    rateStart = now;
+
+                    rateCnt = 0;
+                }
+
+                Thread.sleep(TICK - now % TICK);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheTtlManager.class, this);
+    }
+}
@@ -41,6 +41,9 @@ public class GridDistributedTxMapping<K, V> implements Externalizable {
     /** DHT version. */
     private GridCacheVersion dhtVer;
 
+    /** Flag indicating that transaction was committed on mapped node together with prepare. */
+    private volatile boolean committed;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -85,6 +88,20 @@ public class GridDistributedTxMapping<K, V> implements Externalizable {
         explicitLock = true;
     }
 
+    /**
+     * @return {@code True} if transaction was committed on mapped node in one phase.
+     */
+    public boolean committed() {
+        return committed;
+    }
+
+    /**
+     * Sets committed flag to {@code true}.
+     */
+    public void markCommitted() {
+        committed = true;
+    }
+
     /**
      * @return DHT version.
      */
@@ -0,0 +1,173 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.dht;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.future.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Future on primary node that waits for backup nodes to acknowledge atomic update.
+ * Used only if {@link org.gridgain.grid.cache.GridCacheConfiguration#isSynchronousCommit()}
+ * is enabled, otherwise primary node does not wait for backup replies.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public final class GridDhtAtomicUpdateFuture<K, V> extends GridFutureAdapter<Object>
+    implements GridCacheFuture<Object> {
+    /** Logger reference. */
+    private static final AtomicReference<GridLogger> logRef = new AtomicReference<GridLogger>();
+
+    /** Context. */
+    private GridCacheContext<K, V> cctx;
+
+    /** Future ID. */
+    private GridUuid futId;
+
+    /** Future version. */
+    private GridCacheVersion futVer;
+
+    /** Backup nodes. */
+    @GridToStringInclude
+    private Collection<GridNode> nodes;
+
+    /** Backup nodes that have not replied yet. */
+    @GridToStringInclude
+    private Collection<UUID> pending;
+
+    /** Error. */
+    @GridToStringExclude
+    private AtomicReference<Throwable> err = new AtomicReference<Throwable>();
+
+    /** Logger. */
+    private GridLogger log;
+
+    /** Trackable flag. */
+    private boolean trackable = true;
+
+    /**
+     * Empty constructor required for {@link Externalizable}.
+     */
+    public GridDhtAtomicUpdateFuture() {
+        // No-op.
+    }
+
+    /**
+     * @param cctx Context.
+     * @param nodes Backup nodes.
+     */
+    public GridDhtAtomicUpdateFuture(GridCacheContext<K, V> cctx, Collection<GridNode> nodes) {
+        super(cctx.kernalContext());
+
+        assert !F.isEmpty(nodes);
+
+        this.cctx = cctx;
+        this.nodes = nodes;
+
+        pending = new GridConcurrentHashSet<UUID>(F.viewReadOnly(nodes, F.node2id()));
+
+        futId = GridUuid.randomUuid();
+
+        futVer = cctx.versions().next();
+
+        log = U.logger(ctx, logRef, GridDhtAtomicUpdateFuture.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridUuid futureId() {
+        return futId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheVersion version() {
+        return futVer;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<? extends GridNode> nodes() {
+        return nodes;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean trackable() {
+        return trackable;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void markNotTrackable() {
+        trackable = false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean onNodeLeft(UUID nodeId) {
+        if (log.isDebugEnabled())
+            log.debug("Backup node left grid, will not wait for its reply [nodeId=" + nodeId + ", fut=" + this + ']');
+
+        return onReply(nodeId);
+    }
+
+    /**
+     * @param nodeId Backup node ID.
+     * @param res Backup node reply.
+     */
+    void onResult(UUID nodeId, GridDhtAtomicUpdateResponse<K, V> res) {
+        Throwable e = res.error();
+
+        if (e != null) {
+            U.error(log, "Failed to apply atomic update on backup node [nodeId=" + nodeId + ", fut=" + this + ']', e);
+
+            err.compareAndSet(null, e);
+        }
+
+        onReply(nodeId);
+    }
+
+    /**
+     * @param nodeId Backup node ID.
+     * @return {@code True} if future was waiting for given node.
+     */
+    private boolean onReply(UUID nodeId) {
+        if (pending.remove(nodeId)) {
+            if (pending.isEmpty())
+                onDone(null, err.get());
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean onDone(Object res, Throwable err) {
+        if (super.onDone(res, err)) {
+            // Don't forget to clean up.
+            cctx.mvcc().removeFuture(this);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridDhtAtomicUpdateFuture.class, this, super.toString());
+    }
+}
@@ -0,0 +1,208 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.dht;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Atomic update request sent from primary node to backup nodes.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridDhtAtomicUpdateRequest<K, V> extends GridCacheMessage<K, V>
+    implements GridCacheDeployable, GridCacheVersionable {
+    /** Future ID, {@code null} if primary node does not wait for reply. */
+    private GridUuid futId;
+
+    /** Future version, {@code null} if primary node does not wait for reply. */
+    private GridCacheVersion futVer;
+
+    /** Update version. */
+    private GridCacheVersion updVer;
+
+    /** Originating node ID. */
+    private UUID nearNodeId;
+
+    /** Key. */
+    @GridToStringInclude
+    private K key;
+
+    /** Key bytes. */
+    private byte[] keyBytes;
+
+    /** Value, {@code null} for remove. */
+    @GridToStringInclude
+    private V val;
+
+    /** Value bytes. */
+    private byte[] valBytes;
+
+    /**
+     * Empty constructor required for {@link Externalizable}.
+     */
+    public GridDhtAtomicUpdateRequest() {
+        // No-op.
+    }
+
+    /**
+     * @param futId Future ID, {@code null} if no reply is required.
+     * @param futVer Future version, {@code null} if no reply is required.
+     * @param updVer Update version.
+     * @param nearNodeId Originating node ID.
+     * @param key Key.
+     * @param keyBytes Key bytes.
+     * @param val Value, {@code null} for remove.
+     * @param valBytes Value bytes.
+     */
+    public GridDhtAtomicUpdateRequest(@Nullable GridUuid futId, @Nullable GridCacheVersion futVer,
+        GridCacheVersion updVer, UUID nearNodeId, K key, @Nullable byte[] keyBytes, @Nullable V val,
+        @Nullable byte[] valBytes) {
+        assert (futId == null) == (futVer == null);
+        assert updVer != null;
+        assert nearNodeId != null;
+        assert key != null;
+
+        this.futId = futId;
+        this.futVer = futVer;
+        this.updVer = updVer;
+        this.nearNodeId = nearNodeId;
+        this.key = key;
+        this.keyBytes = keyBytes;
+        this.val = val;
+        this.valBytes = valBytes;
+    }
+
+    /**
+     * @return Future ID, {@code null} if no reply is required.
+     */
+    @Nullable public GridUuid futureId() {
+        return futId;
+    }
+
+    /**
+     * @return Future version, {@code null} if no reply is required.
+     */
+    @Nullable public GridCacheVersion futureVersion() {
+        return futVer;
+    }
+
+    /**
+     * @return Update version.
+     */
+    public GridCacheVersion updateVersion() {
+        return updVer;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheVersion version() {
+        return updVer;
+    }
+
+    /**
+     * @return Originating node ID.
+     */
+    public UUID nearNodeId() {
+        return nearNodeId;
+    }
+
+    /**
+     * @return Key.
+     */
+    public K key() {
+        return key;
+    }
+
+    /**
+     * @return Value, {@code null} for remove.
+     */
+    @Nullable public V value() {
+        return val;
+    }
+
+    /**
+     * @return Value bytes.
+     */
+    @Nullable public byte[] valueBytes() {
+        return valBytes;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        prepareObject(key, ctx);
+        prepareObject(val, ctx);
+
+        if (keyBytes == null)
+            keyBytes = CU.marshal(ctx, key).getEntireArray();
+
+        if (valBytes == null && val != null)
+            valBytes = CU.marshal(ctx, val).getEntireArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        if (key == null)
+            key = U.<K>unmarshal(ctx.marshaller(), new GridByteArrayList(keyBytes), ldr);
+
+        if (val == null && valBytes != null)
+            val = U.<V>unmarshal(ctx.marshaller(), new GridByteArrayList(valBytes), ldr);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        assert updVer != null;
+
+        U.writeGridUuid(out, futId);
+
+        CU.writeVersion(out, futVer);
+        CU.writeVersion(out, updVer);
+
+        U.writeUuid(out, nearNodeId);
+
+        U.writeByteArray(out, keyBytes);
+        U.writeByteArray(out, valBytes);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        futId = U.readGridUuid(in);
+
+        futVer = CU.readVersion(in);
+        updVer = CU.readVersion(in);
+
+        nearNodeId = U.readUuid(in);
+
+        keyBytes = U.readByteArray(in);
+        valBytes = U.readByteArray(in);
+
+        assert updVer != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridDhtAtomicUpdateRequest.class, this);
+    }
+}
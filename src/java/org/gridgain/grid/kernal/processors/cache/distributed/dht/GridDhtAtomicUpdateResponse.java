@@ -0,0 +1,107 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.dht;
+
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+
+/**
+ * Atomic update response sent from backup node to primary node.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridDhtAtomicUpdateResponse<K, V> extends GridCacheMessage<K, V> implements GridCacheVersionable {
+    /** Future ID. */
+    private GridUuid futId;
+
+    /** Future version. */
+    private GridCacheVersion futVer;
+
+    /** Error. */
+    private Throwable err;
+
+    /**
+     * Empty constructor required for {@link Externalizable}.
+     */
+    public GridDhtAtomicUpdateResponse() {
+        // No-op.
+    }
+
+    /**
+     * @param futId Future ID.
+     * @param futVer Future version.
+     * @param err Error.
+     */
+    public GridDhtAtomicUpdateResponse(GridUuid futId, GridCacheVersion futVer, @Nullable Throwable err) {
+        assert futId != null;
+        assert futVer != null;
+
+        this.futId = futId;
+        this.futVer = futVer;
+        this.err = err;
+    }
+
+    /**
+     * @return Future ID.
+     */
+    public GridUuid futureId() {
+        return futId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheVersion version() {
+        return futVer;
+    }
+
+    /**
+     * @return Error.
+     */
+    @Nullable public Throwable error() {
+        return err;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        assert futId != null;
+        assert futVer != null;
+
+        U.writeGridUuid(out, futId);
+
+        CU.writeVersion(out, futVer);
+
+        out.writeObject(err);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        futId = U.readGridUuid(in);
+
+        futVer = CU.readVersion(in);
+
+        err = (Throwable)in.readObject();
+
+        assert futId != null;
+        assert futVer != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridDhtAtomicUpdateResponse.class, this);
+    }
+}
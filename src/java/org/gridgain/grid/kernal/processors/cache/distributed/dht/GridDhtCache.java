@@ -161,6 +161,26 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                 processDhtUnlockRequest(nodeId, req);
             }
         });
+
+        if (ctx.isAtomic()) {
+            ctx.io().addHandler(GridNearAtomicUpdateRequest.class, new CI2<UUID, GridNearAtomicUpdateRequest<K, V>>() {
+                @Override public void apply(UUID nodeId, GridNearAtomicUpdateRequest<K, V> req) {
+                    processNearAtomicUpdateRequest(nodeId, req);
+                }
+            });
+
+            ctx.io().addHandler(GridDhtAtomicUpdateRequest.class, new CI2<UUID, GridDhtAtomicUpdateRequest<K, V>>() {
+                @Override public void apply(UUID nodeId, GridDhtAtomicUpdateRequest<K, V> req) {
+                    processDhtAtomicUpdateRequest(nodeId, req);
+                }
+            });
+
+            ctx.io().addHandler(GridDhtAtomicUpdateResponse.class, new CI2<UUID, GridDhtAtomicUpdateResponse<K, V>>() {
+                @Override public void apply(UUID nodeId, GridDhtAtomicUpdateResponse<K, V> res) {
+                    processDhtAtomicUpdateResponse(nodeId, res);
+                }
+            });
+        }
     }
 
     /** {@inheritDoc} */
@@ -361,6 +381,8 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                         try {
                             tx.topologyVersion(req.topologyVersion());
 
+                            tx.onePhaseCommitVersion(req.onePhaseCommitVersion());
+
                             GridCompoundFuture<Boolean, GridCacheTxEx<K, V>> txFut = null;
 
                             if (req.reads() != null)
@@ -492,6 +514,149 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
         return f == null ? new GridFinishedFuture<GridCacheTx>(ctx.kernalContext()) : f;
     }
 
+    /**
+     * Applies atomic update on primary node and sends it to backup nodes. If
+     * {@link GridCacheConfiguration#isSynchronousCommit()} is enabled, returned future
+     * completes only after all backups acknowledged the update.
+     *
+     * @param nearNodeId Originating node ID.
+     * @param req Update request.
+     * @return Future for update response.
+     */
+    public GridFuture<GridNearAtomicUpdateResponse<K, V>> updateAtomic(UUID nearNodeId,
+        GridNearAtomicUpdateRequest<K, V> req) {
+        assert ctx.isAtomic();
+
+        final GridNearAtomicUpdateResponse<K, V> res = new GridNearAtomicUpdateResponse<K, V>(req.futureId(),
+            req.version());
+
+        K key = req.key();
+
+        List<GridNode> nodes = top.nodes(ctx.partition(key), -1);
+
+        GridNode primary = F.first(nodes);
+
+        if (primary == null || !primary.id().equals(ctx.nodeId())) {
+            if (log.isDebugEnabled())
+                log.debug("Local node is not primary for atomic update (will remap) [key=" + key +
+                    ", primary=" + (primary == null ? null : primary.id()) + ']');
+
+            res.remap(true);
+
+            return new GridFinishedFuture<GridNearAtomicUpdateResponse<K, V>>(ctx.kernalContext(), res);
+        }
+
+        try {
+            T3<Boolean, V, GridCacheVersion> t;
+
+            GridDhtCacheEntry<K, V> entry;
+
+            while (true) {
+                entry = entryExx(key);
+
+                try {
+                    t = entry.innerUpdate(null, nearNodeId, nearNodeId, req.value(), req.valueBytes(),
+                        ctx.isStoreEnabled(), true, req.filter());
+
+                    break;
+                }
+                catch (GridCacheEntryRemovedException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Got removed entry during atomic update (will retry): " + entry);
+                }
+            }
+
+            if (entry.obsolete())
+                removeIfObsolete(key);
+            else
+                ctx.evicts().touch(entry);
+
+            res.success(t.get1() && (req.value() != null || t.get2() != null));
+
+            if (req.returnValue())
+                res.oldValue(t.get2());
+
+            GridCacheVersion updVer = t.get3();
+
+            if (updVer == null)
+                return new GridFinishedFuture<GridNearAtomicUpdateResponse<K, V>>(ctx.kernalContext(), res);
+
+            Collection<GridNode> backups = F.view(nodes, F.remoteNodes(ctx.nodeId()));
+
+            if (backups.isEmpty())
+                return new GridFinishedFuture<GridNearAtomicUpdateResponse<K, V>>(ctx.kernalContext(), res);
+
+            byte[] keyBytes = req.keyBytes();
+
+            if (!ctx.config().isSynchronousCommit()) {
+                // Fire and forget.
+                GridDhtAtomicUpdateRequest<K, V> dhtReq = new GridDhtAtomicUpdateRequest<K, V>(null, null, updVer,
+                    nearNodeId, key, keyBytes, req.value(), req.valueBytes());
+
+                for (GridNode n : backups) {
+                    try {
+                        ctx.io().send(n, dhtReq);
+                    }
+                    catch (GridTopologyException ignored) {
+                        if (log.isDebugEnabled())
+                            log.debug("Backup node left grid before atomic update was sent: " + n.id());
+                    }
+                    catch (GridException e) {
+                        U.error(log, "Failed to send atomic update to backup node [nodeId=" + n.id() +
+                            ", key=" + key + ']', e);
+                    }
+                }
+
+                return new GridFinishedFuture<GridNearAtomicUpdateResponse<K, V>>(ctx.kernalContext(), res);
+            }
+
+            GridDhtAtomicUpdateFuture<K, V> fut = new GridDhtAtomicUpdateFuture<K, V>(ctx,
+                new ArrayList<GridNode>(backups));
+
+            ctx.mvcc().addFuture(fut);
+
+            GridDhtAtomicUpdateRequest<K, V> dhtReq = new GridDhtAtomicUpdateRequest<K, V>(fut.futureId(),
+                fut.version(), updVer, nearNodeId, key, keyBytes, req.value(), req.valueBytes());
+
+            for (GridNode n : backups) {
+                try {
+                    ctx.io().send(n, dhtReq);
+                }
+                catch (GridTopologyException ignored) {
+                    fut.onNodeLeft(n.id());
+                }
+                catch (GridException e) {
+                    fut.onDone(e);
+
+                    break;
+                }
+            }
+
+            return new GridEmbeddedFuture<GridNearAtomicUpdateResponse<K, V>, Object>(ctx.kernalContext(), fut,
+                new C2<Object, Exception, GridNearAtomicUpdateResponse<K, V>>() {
+                    @Override public GridNearAtomicUpdateResponse<K, V> apply(Object o, Exception e) {
+                        if (e != null)
+                            res.error(e);
+
+                        return res;
+                    }
+                });
+        }
+        catch (GridDhtInvalidPartitionException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Partition became invalid during atomic update (will remap): " + key);
+
+            res.remap(true);
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to apply atomic update: " + req, e);
+
+            res.error(e);
+        }
+
+        return new GridFinishedFuture<GridNearAtomicUpdateResponse<K, V>>(ctx.kernalContext(), res);
+    }
+
     /**
      * @param nodeId Node ID.
      * @param req Request.
@@ -1026,6 +1191,44 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
         return tx;
     }
 
+    /**
+     * Removes values from entries that requesting near node already holds with the same
+     * DHT version, so that only versions are sent back for them.
+     *
+     * @param req Get request.
+     * @param infos Entries to send.
+     */
+    private void skipUnchangedValues(GridNearGetRequest<K, V> req,
+        @Nullable Collection<GridCacheEntryInfo<K, V>> infos) {
+        if (F.isEmpty(infos))
+            return;
+
+        Map<K, GridCacheVersion> nearVers = null;
+
+        int i = 0;
+
+        for (K key : req.keys().keySet()) {
+            GridCacheVersion dhtVer = req.dhtVersion(i++);
+
+            if (dhtVer != null) {
+                if (nearVers == null)
+                    nearVers = new HashMap<K, GridCacheVersion>();
+
+                nearVers.put(key, dhtVer);
+            }
+        }
+
+        if (nearVers == null)
+            return;
+
+        for (GridCacheEntryInfo<K, V> info : infos) {
+            if (info.version() != null && info.version().equals(nearVers.get(info.key()))) {
+                info.value(null);
+                info.valueBytes(null);
+            }
+        }
+    }
+
     /**
      * @param nodeId Node ID.
      * @param req Get request.
@@ -1045,6 +1248,8 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                 try {
                     Collection<GridCacheEntryInfo<K, V>> entries = fut.get();
 
+                    skipUnchangedValues(req, entries);
+
                     res.entries(entries);
                 }
                 catch (GridException e) {
@@ -1066,6 +1271,112 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
         });
     }
 
+    /**
+     * @param nodeId Near node ID.
+     * @param req Atomic update request.
+     */
+    private void processNearAtomicUpdateRequest(final UUID nodeId, final GridNearAtomicUpdateRequest<K, V> req) {
+        if (log.isDebugEnabled())
+            log.debug("Processing near atomic update request [nodeId=" + nodeId + ", req=" + req + ']');
+
+        updateAtomic(nodeId, req).listenAsync(new CI1<GridFuture<GridNearAtomicUpdateResponse<K, V>>>() {
+            @Override public void apply(GridFuture<GridNearAtomicUpdateResponse<K, V>> f) {
+                try {
+                    GridNearAtomicUpdateResponse<K, V> res = f.get();
+
+                    ctx.io().send(nodeId, res);
+                }
+                catch (GridTopologyException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Near node left grid before atomic update response was sent: " + nodeId);
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to send atomic update response to node [nodeId=" + nodeId +
+                        ", req=" + req + ']', e);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param nodeId Primary node ID.
+     * @param req Atomic update request.
+     */
+    private void processDhtAtomicUpdateRequest(UUID nodeId, GridDhtAtomicUpdateRequest<K, V> req) {
+        if (log.isDebugEnabled())
+            log.debug("Processing dht atomic update request [nodeId=" + nodeId + ", req=" + req + ']');
+
+        K key = req.key();
+
+        Throwable err = null;
+
+        try {
+            while (true) {
+                GridDhtCacheEntry<K, V> entry = entryExx(key);
+
+                try {
+                    // Stale updates are ignored by entry based on update version.
+                    entry.innerUpdate(req.updateVersion(), req.nearNodeId(), req.nearNodeId(), req.value(),
+                        req.valueBytes(), false, true, null);
+
+                    if (entry.obsolete())
+                        removeIfObsolete(key);
+                    else
+                        ctx.evicts().touch(entry);
+
+                    break;
+                }
+                catch (GridCacheEntryRemovedException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Got removed entry during atomic update (will retry): " + entry);
+                }
+            }
+        }
+        catch (GridDhtInvalidPartitionException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Ignoring atomic update for invalid partition: " + key);
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to apply atomic update on backup node: " + req, e);
+
+            err = e;
+        }
+
+        if (req.futureId() != null) {
+            GridDhtAtomicUpdateResponse<K, V> res = new GridDhtAtomicUpdateResponse<K, V>(req.futureId(),
+                req.futureVersion(), err);
+
+            try {
+                ctx.io().send(nodeId, res);
+            }
+            catch (GridTopologyException ignored) {
+                if (log.isDebugEnabled())
+                    log.debug("Primary node left grid before atomic update response was sent: " + nodeId);
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to send atomic update response to primary node: " + nodeId, e);
+            }
+        }
+    }
+
+    /**
+     * @param nodeId Backup node ID.
+     * @param res Atomic update response.
+     */
+    private void processDhtAtomicUpdateResponse(UUID nodeId, GridDhtAtomicUpdateResponse<K, V> res) {
+        GridDhtAtomicUpdateFuture<K, V> fut = (GridDhtAtomicUpdateFuture<K, V>)ctx.mvcc().
+            <Object>future(res.version().id(), res.futureId());
+
+        if (fut == null) {
+            if (log.isDebugEnabled())
+                log.debug("Received response for unknown atomic update future (will ignore): " + res);
+
+            return;
+        }
+
+        fut.onResult(nodeId, res);
+    }
+
     /**
      * @param nodeId Near node ID.
      * @param req Request.
@@ -1083,7 +1394,101 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
             return;
         }
 
-        prepareTx(nearNode, req);
+        GridFuture<GridCacheTxEx<K, V>> fut = prepareTx(nearNode, req);
+
+        if (req.onePhaseCommit())
+            fut.listenAsync(new CI1<GridFuture<GridCacheTxEx<K, V>>>() {
+                @Override public void apply(GridFuture<GridCacheTxEx<K, V>> f) {
+                    commitOnePhase(f);
+                }
+            });
+    }
+
+    /**
+     * Commits transaction right after it has been successfully prepared, if all transaction keys
+     * were mapped to this node. Prepare response is sent to near node once commit completes and
+     * tells near node that no finish request is needed.
+     *
+     * @param prepFut Prepare future.
+     */
+    private void commitOnePhase(GridFuture<GridCacheTxEx<K, V>> prepFut) {
+        GridCacheTxEx<K, V> t;
+
+        try {
+            t = prepFut.get();
+        }
+        catch (GridException e) {
+            if (log.isDebugEnabled())
+                log.debug("Will not commit transaction in one phase since prepare failed (error reply has been " +
+                    "sent to near node): " + e);
+
+            return;
+        }
+
+        if (!(t instanceof GridDhtTxLocal))
+            return;
+
+        final GridDhtTxLocal<K, V> tx = (GridDhtTxLocal<K, V>)t;
+
+        // Regular prepare response has been sent by prepare future.
+        if (!tx.onePhaseCommit())
+            return;
+
+        if (tx.isRollbackOnly() || !tx.markFinalizing()) {
+            sendOnePhaseCommitResponse(tx, new GridCacheTxRollbackException("Failed to commit transaction in one " +
+                "phase (transaction was rolled back or is handled by another thread): " + tx));
+
+            return;
+        }
+
+        boolean set = tx.commitVersion(tx.onePhaseCommitVersion());
+
+        assert set : "Failed to set commit version on transaction: " + tx;
+
+        tx.commitAsync().listenAsync(new CI1<GridFuture<GridCacheTx>>() {
+            @Override public void apply(GridFuture<GridCacheTx> f) {
+                Throwable err = null;
+
+                try {
+                    f.get();
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to commit transaction in one phase: " + tx, e);
+
+                    err = e;
+                }
+
+                sendOnePhaseCommitResponse(tx, err);
+            }
+        });
+    }
+
+    /**
+     * @param tx Transaction committed in one phase.
+     * @param err Error, {@code null} if transaction was committed.
+     */
+    private void sendOnePhaseCommitResponse(GridDhtTxLocal<K, V> tx, @Nullable Throwable err) {
+        GridNearTxPrepareResponse<K, V> res = new GridNearTxPrepareResponse<K, V>(tx.nearXidVersion(),
+            tx.nearFutureId(), tx.nearMiniId(), tx.xidVersion(), Collections.<Integer>emptySet(), err);
+
+        res.committed(err == null);
+
+        GridCacheVersion min = tx.minVersion();
+
+        res.completedVersions(ctx.tm().committedVersions(min), ctx.tm().rolledbackVersions(min));
+
+        try {
+            ctx.io().send(tx.nearNodeId(), res);
+        }
+        catch (GridTopologyException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Near node left before sending one-phase commit response (transaction was " +
+                    (err == null ? "committed" : "rolledback") + ") [node=" + tx.nearNodeId() +
+                    ", res=" + res + ']');
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to send one-phase commit response to near node: " + tx.nearNodeId(), e);
+        }
     }
 
     /**
@@ -70,6 +70,25 @@ import java.util.*;
         return locPart.valid();
     }
 
+    /** {@inheritDoc} */
+    @Override protected void update(@Nullable V val, @Nullable byte[] valBytes, long expireTime, long ttl,
+        GridCacheVersion ver, GridCacheMetricsAdapter metrics) {
+        super.update(val, valBytes, expireTime, ttl, ver, metrics);
+
+        // Record update for delta preloading.
+        locPart.onUpdated(key, ver);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override protected GridCacheVersion atomicRemoveVersion() {
+        return locPart.atomicRemoveVersion(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void onAtomicRemoved(GridCacheVersion ver) {
+        locPart.onAtomicRemoved(key, ver);
+    }
+
     /** {@inheritDoc} */
     @Override public boolean markObsolete(GridCacheVersion ver) {
         boolean rmv = super.markObsolete(ver);
@@ -12,15 +12,18 @@ package org.gridgain.grid.kernal.processors.cache.distributed.dht;
 import org.gridgain.grid.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.future.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 import java.util.concurrent.locks.*;
 
+import static org.gridgain.grid.GridSystemProperties.*;
 import static org.gridgain.grid.kernal.processors.cache.distributed.dht.GridDhtPartitionState.*;
 
 /**
@@ -33,6 +36,17 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     /** Static logger to avoid re-creation. */
     private static final AtomicReference<GridLogger> logRef = new AtomicReference<GridLogger>();
 
+    /**
+     * Number of low bits of update counter which are available for updates of one partition
+     * instance per millisecond of its lifetime. Higher bits are taken from partition create
+     * time, so partition re-created on the same node never reuses counters of its previous
+     * instance.
+     */
+    private static final int CNTR_SHIFT = 20;
+
+    /** Maximum number of removal versions kept for ATOMIC cache partition. */
+    private static final int MAX_RMV_HIST_SIZE = Integer.getInteger(GG_ATOMIC_RMV_HISTORY_SIZE, 1000);
+
     /** Partition ID. */
     private final int id;
 
@@ -64,6 +78,55 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     /** Lock. */
     private final ReentrantLock lock = new ReentrantLock();
 
+    /**
+     * Update history, {@code null} if history is disabled. Updates are added without
+     * locking, so they may be slightly out of counter order.
+     */
+    @GridToStringExclude
+    private final Queue<Update<K>> updHist;
+
+    /** Number of updates in history. */
+    @GridToStringExclude
+    private final AtomicInteger updHistSize = new AtomicInteger();
+
+    /** Counter of the latest update of this partition. */
+    private final AtomicLong updCntr = new AtomicLong(createTime << CNTR_SHIFT);
+
+    /**
+     * Versions of removed keys for ATOMIC cache, {@code null} for transactional cache. Removed
+     * entries are dropped from cache map, so these versions are the only way to recognize
+     * delayed updates that are older than removal.
+     */
+    @GridToStringExclude
+    private final ConcurrentMap<K, GridCacheVersion> rmvVers;
+
+    /** Removals in the order they happened, oldest ones are evicted from {@link #rmvVers} first. */
+    @GridToStringExclude
+    private final Queue<T2<K, GridCacheVersion>> rmvQueue;
+
+    /** Number of removals in queue. */
+    @GridToStringExclude
+    private final AtomicInteger rmvQueueSize = new AtomicInteger();
+
+    /** Update counters of other owners, recorded while local partition is owned. */
+    @GridToStringExclude
+    private final ConcurrentMap<UUID, Long> ownerCntrs = new ConcurrentHashMap<UUID, Long>();
+
+    /**
+     * Entries kept by partition taken back from renting state and their versions at
+     * that time. Entries that are not preloaded again are stale and removed once
+     * partition is fully preloaded.
+     */
+    @GridToStringExclude
+    private volatile Map<K, GridCacheVersion> retained;
+
+    /** Flag indicating that clearing of renting partition has started. */
+    @GridToStringExclude
+    private boolean cleared;
+
+    /** Lock serializing clearing of renting partition with taking it back. */
+    private final ReentrantLock clearLock = new ReentrantLock();
+
     /**
      * @param cctx Context.
      * @param id Partition ID.
@@ -77,6 +140,17 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         log = U.logger(cctx.kernalContext(), logRef, this);
 
         rent = new GridFutureAdapter<Object>(cctx.kernalContext());
+
+        updHist = cctx.config().getPreloadPartitionHistorySize() > 0 ? new ConcurrentLinkedQueue<Update<K>>() : null;
+
+        if (cctx.isAtomic()) {
+            rmvVers = new ConcurrentHashMap<K, GridCacheVersion>();
+            rmvQueue = new ConcurrentLinkedQueue<T2<K, GridCacheVersion>>();
+        }
+        else {
+            rmvVers = null;
+            rmvQueue = null;
+        }
     }
 
     /**
@@ -163,6 +237,155 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         tryEvict();
     }
 
+    /**
+     * Records update of partition entry in update history.
+     *
+     * @param key Updated key.
+     * @param ver Update version.
+     */
+    void onUpdated(K key, GridCacheVersion ver) {
+        long cntr = updCntr.incrementAndGet();
+
+        if (updHist == null)
+            return;
+
+        updHist.add(new Update<K>(cntr, key, ver));
+
+        // Trim history, oldest updates are evicted first.
+        if (updHistSize.incrementAndGet() > cctx.config().getPreloadPartitionHistorySize() && updHist.poll() != null)
+            updHistSize.decrementAndGet();
+    }
+
+    /**
+     * Records version of key removed from ATOMIC cache.
+     *
+     * @param key Removed key.
+     * @param ver Removal version.
+     */
+    public void onAtomicRemoved(K key, GridCacheVersion ver) {
+        assert rmvVers != null;
+
+        rmvVers.put(key, ver);
+
+        rmvQueue.add(new T2<K, GridCacheVersion>(key, ver));
+
+        if (rmvQueueSize.incrementAndGet() > MAX_RMV_HIST_SIZE) {
+            T2<K, GridCacheVersion> t = rmvQueue.poll();
+
+            if (t != null) {
+                rmvQueueSize.decrementAndGet();
+
+                // Key may have been removed again since.
+                rmvVers.remove(t.get1(), t.get2());
+            }
+        }
+    }
+
+    /**
+     * @param key Key.
+     * @return Version of the latest removal of given key from ATOMIC cache, or {@code null}
+     *      if key was not removed recently.
+     */
+    @Nullable public GridCacheVersion atomicRemoveVersion(K key) {
+        return rmvVers == null ? null : rmvVers.get(key);
+    }
+
+    /**
+     * @return Counter of the latest update of this partition.
+     */
+    public long updateCounter() {
+        return updCntr.get();
+    }
+
+    /**
+     * Gets keys updated after given counter together with versions of their latest updates.
+     *
+     * @param cntr Update counter.
+     * @return Updated keys, or {@code null} if some of the updates after given counter
+     *      are no longer kept in history (or are still being recorded), or if counter
+     *      does not belong to this partition.
+     */
+    @Nullable public Map<K, GridCacheVersion> updatesSince(long cntr) {
+        long last = updCntr.get();
+
+        if (cntr > last || cntr < createTime << CNTR_SHIFT)
+            return null;
+
+        if (cntr == last)
+            return Collections.emptyMap();
+
+        if (updHist == null || last - cntr > updHistSize.get())
+            return null;
+
+        Map<K, Update<K>> res = new HashMap<K, Update<K>>();
+
+        int cnt = 0;
+
+        for (Update<K> upd : updHist) {
+            if (upd.cntr <= cntr || upd.cntr > last)
+                continue;
+
+            cnt++;
+
+            Update<K> prev = res.get(upd.key);
+
+            if (prev == null || prev.cntr < upd.cntr)
+                res.put(upd.key, upd);
+        }
+
+        // Counters are dense, so every update up to the last one has to be found.
+        if (cnt != last - cntr)
+            return null;
+
+        Map<K, GridCacheVersion> vers = new HashMap<K, GridCacheVersion>(res.size() * 2);
+
+        for (Map.Entry<K, Update<K>> e : res.entrySet())
+            vers.put(e.getKey(), e.getValue().ver);
+
+        return vers;
+    }
+
+    /**
+     * Records update counter of partition on other owner. Counters are only
+     * recorded while this partition is owned, i.e. while it has the same data.
+     *
+     * @param nodeId Owner node ID.
+     * @param cntr Update counter of partition on owner node.
+     */
+    void onOwnerCounter(UUID nodeId, long cntr) {
+        if (state() == OWNING)
+            ownerCntrs.put(nodeId, cntr);
+    }
+
+    /**
+     * @param nodeId Owner node ID.
+     * @return Update counter recorded for owner, or {@code null} if partition
+     *      has to be fully preloaded from this owner.
+     */
+    @Nullable public Long ownerCounter(UUID nodeId) {
+        return retained != null ? ownerCntrs.get(nodeId) : null;
+    }
+
+    /**
+     * @return {@code True} if partition has been taken back from renting state
+     *      and still keeps entries which may be stale.
+     */
+    public boolean retained() {
+        return retained != null;
+    }
+
+    /**
+     * Marks entry as preloaded, so it is not considered stale.
+     *
+     * @param key Preloaded key.
+     */
+    public void onPreloaded(K key) {
+        Map<K, GridCacheVersion> retained0 = retained;
+
+        if (retained0 != null)
+            retained0.remove(key);
+    }
+
     /**
      * Locks partition.
      */
@@ -318,6 +541,10 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
                 if (log.isDebugEnabled())
                     log.debug("Moved partition to RENTING state: " + this);
 
+                if (s == MOVING)
+                    // Partition data is incomplete, so recorded counters are no longer valid.
+                    ownerCntrs.clear();
+
                 rent.addWatch(cctx.stopwatch("PARTITION_RENT"));
 
                 // Evict asynchronously, as the 'rent' method may be called
@@ -331,6 +558,96 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         return rent;
     }
 
+    /**
+     * Takes renting partition back if it has not started clearing its entries yet.
+     * Kept entries are then updated by delta preloading.
+     *
+     * @return {@code True} if transitioned from RENTING to MOVING state.
+     */
+    boolean moving() {
+        clearLock.lock();
+
+        try {
+            while (true) {
+                int reservations = state.getStamp();
+
+                GridDhtPartitionState s = state.getReference();
+
+                if (s != RENTING || cleared)
+                    return false;
+
+                if (state.compareAndSet(RENTING, MOVING, reservations, reservations)) {
+                    Map<K, GridCacheVersion> retained = new ConcurrentHashMap<K, GridCacheVersion>();
+
+                    for (GridDhtCacheEntry<K, V> e : map.values()) {
+                        try {
+                            retained.put(e.key(), e.version());
+                        }
+                        catch (GridCacheEntryRemovedException ignored) {
+                            // No-op.
+                        }
+                    }
+
+                    this.retained = retained;
+
+                    evictHist = new HashMap<K, GridCacheVersion>();
+
+                    if (log.isDebugEnabled())
+                        log.debug("Moved partition back from RENTING to MOVING state: " + this);
+
+                    return true;
+                }
+            }
+        }
+        finally {
+            clearLock.unlock();
+        }
+    }
+
+    /**
+     * Removes stale entries kept by partition taken back from renting state, once
+     * partition has been fully preloaded. Entries updated after partition was taken
+     * back are not removed.
+     *
+     * @param delta {@code True} if partition was preloaded with delta, in which case
+     *      entries that were not preloaded are not stale.
+     */
+    public void onPreloadFinished(boolean delta) {
+        Map<K, GridCacheVersion> retained0 = retained;
+
+        if (retained0 == null)
+            return;
+
+        retained = null;
+
+        if (delta)
+            return;
+
+        GridCacheVersion clearVer = cctx.versions().next();
+
+        for (Map.Entry<K, GridCacheVersion> e : retained0.entrySet()) {
+            GridDhtCacheEntry<K, V> cached = map.get(e.getKey());
+
+            if (cached == null)
+                continue;
+
+            try {
+                // Entry has been updated after partition was taken back.
+                if (!e.getValue().equals(cached.version()))
+                    continue;
+
+                if (cached.clear(clearVer, cctx.isSwapEnabled(), true, CU.<K, V>empty()))
+                    map.remove(cached.key(), cached);
+            }
+            catch (GridCacheEntryRemovedException ignored) {
+                // No-op.
+            }
+            catch (GridException ex) {
+                U.error(log, "Failed to clear stale cache entry for preloaded partition: " + cached, ex);
+            }
+        }
+    }
+
     /**
      * @return Future for evict attempt.
      */
@@ -355,9 +672,20 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
      * @return {@code True} if entry has been transitioned to state EVICTED.
      */
     private boolean tryEvict() {
-        // Attempt to evict partition entries from cache.
-        if (state.getReference() == RENTING && state.getStamp() == 0)
-            clearAll();
+        // Attempt to evict partition entries from cache. If lock is held, then entries
+        // are already being cleared or partition is being taken back from renting state.
+        if (state.getReference() == RENTING && state.getStamp() == 0 && clearLock.tryLock()) {
+            try {
+                if (state.getReference() == RENTING) {
+                    cleared = true;
+
+                    clearAll();
+                }
+            }
+            finally {
+                clearLock.unlock();
+            }
+        }
 
         if (map.isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
             if (log.isDebugEnabled())
@@ -429,6 +757,32 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
             "state", state(),
             "reservations", reservations(),
             "empty", map.isEmpty(),
+            "updCntr", updCntr.get(),
             "createTime", U.format(createTime));
     }
+
+    /**
+     * Update history record.
+     */
+    private static class Update<K> {
+        /** Update counter. */
+        private final long cntr;
+
+        /** Key. */
+        private final K key;
+
+        /** Update version. */
+        private final GridCacheVersion ver;
+
+        /**
+         * @param cntr Update counter.
+         * @param key Key.
+         * @param ver Update version.
+         */
+        private Update(long cntr, K key, GridCacheVersion ver) {
+            this.cntr = cntr;
+            this.key = key;
+            this.ver = ver;
+        }
+    }
 }
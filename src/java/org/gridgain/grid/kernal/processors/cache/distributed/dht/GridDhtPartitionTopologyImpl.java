@@ -128,6 +128,54 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
         return changed;
     }
 
+    /**
+     * Takes back renting partitions which belong to local node again and have not
+     * been cleared yet, so that they are preloaded with entries changed on other
+     * owners only, instead of being evicted and then fully preloaded.
+     *
+     * @param topVer Topology version.
+     */
+    private void takeBackRenting(long topVer) {
+        if (!cctx.preloadEnabled() || cctx.config().getPreloadPartitionHistorySize() == 0)
+            return;
+
+        GridRichNode loc = cctx.localNode();
+
+        lock.writeLock().lock();
+
+        try {
+            for (GridDhtLocalPartition<K, V> part : locParts.values()) {
+                if (part.state() == RENTING && cctx.belongs(part.id(), topVer, loc) && part.moving()) {
+                    if (log.isDebugEnabled())
+                        log.debug("Took back renting partition: " + part);
+                }
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records update counters of partitions owned by other node, so that
+     * local partitions could later be preloaded from that node with delta.
+     *
+     * @param parts Partition map of other node.
+     */
+    private void recordCounters(GridDhtPartitionMap parts) {
+        assert lock.isWriteLockedByCurrentThread();
+
+        if (parts.nodeId().equals(cctx.nodeId()))
+            return;
+
+        for (Map.Entry<Integer, Long> e : parts.updateCounters().entrySet()) {
+            GridDhtLocalPartition<K, V> part = locParts.get(e.getKey());
+
+            if (part != null)
+                part.onOwnerCounter(parts.nodeId(), e.getValue());
+        }
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings( {"LockAcquiredButNotSafelyReleased"})
     @Override public void readLock() {
@@ -170,6 +218,8 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
 
     /** {@inheritDoc} */
     @Override public void beforeExchange(GridDhtPartitionExchangeId exchId) throws GridException {
+        takeBackRenting(exchId.topologyVersion());
+
         waitForRent();
 
         GridRichNode loc = cctx.localNode();
@@ -518,8 +568,14 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
         lock.readLock().lock();
 
         try {
-            return new GridDhtPartitionMap(cctx.nodeId(), updateSeq.get(),
+            GridDhtPartitionMap map = new GridDhtPartitionMap(cctx.nodeId(), updateSeq.get(),
                 F.viewReadOnly(locParts, CU.<K, V>part2state()), true);
+
+            for (GridDhtLocalPartition<K, V> part : locParts.values())
+                if (part.state() == OWNING)
+                    map.updateCounter(part.id(), part.updateCounter());
+
+            return map;
         }
         finally {
             lock.readLock().unlock();
@@ -742,6 +798,9 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
 
             part2node = p2n;
 
+            for (GridDhtPartitionMap parts : partMap.values())
+                recordCounters(parts);
+
             boolean changed = checkEvictions(updateSeq);
 
             consistencyCheck();
@@ -810,6 +869,8 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
 
             node2part.put(parts.nodeId(), parts);
 
+            recordCounters(parts);
+
             part2node = new HashMap<Integer, Set<UUID>>(part2node);
 
             // Add new mappings.
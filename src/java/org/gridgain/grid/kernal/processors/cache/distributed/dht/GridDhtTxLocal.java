@@ -52,6 +52,9 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
     /** Near future ID. */
     private GridUuid nearFinMiniId;
 
+    /** Commit version if transaction should be committed right after prepare. */
+    private volatile GridCacheVersion onePhaseCommitVer;
+
     /** Near XID. */
     private GridCacheVersion nearXidVer;
 
@@ -271,6 +274,32 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
         this.nearFinMiniId = nearFinMiniId;
     }
 
+    /**
+     * @param onePhaseCommitVer Commit version to commit transaction with right after prepare.
+     */
+    public void onePhaseCommitVersion(GridCacheVersion onePhaseCommitVer) {
+        this.onePhaseCommitVer = onePhaseCommitVer;
+    }
+
+    /**
+     * @return Commit version to commit transaction with right after prepare, {@code null}
+     *      if near node will send separate finish request.
+     */
+    @Nullable public GridCacheVersion onePhaseCommitVersion() {
+        return onePhaseCommitVer;
+    }
+
+    /**
+     * Checks whether transaction should be committed right after prepare. Partitions that
+     * are no longer owned by this node make near node remap some of the keys to other nodes,
+     * so in this case transaction falls back to regular two-phase commit.
+     *
+     * @return {@code True} if transaction should be committed right after prepare.
+     */
+    public boolean onePhaseCommit() {
+        return onePhaseCommitVer != null && F.isEmpty(invalidPartitions());
+    }
+
     /** {@inheritDoc} */
     @Override public boolean syncCommit() {
         return syncCommit;
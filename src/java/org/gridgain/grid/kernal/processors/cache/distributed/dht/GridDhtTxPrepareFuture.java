@@ -350,7 +350,8 @@ public final class GridDhtTxPrepareFuture<K, V> extends GridCompoundIdentityFutu
 
         if (replied.compareAndSet(false, true)) {
             try {
-                if (!tx.nearNodeId().equals(cctx.nodeId())) {
+                // For one-phase commit, reply is sent once transaction is committed.
+                if (!tx.nearNodeId().equals(cctx.nodeId()) && (this.err.get() != null || !tx.onePhaseCommit())) {
                     // Send reply back to originating near node.
                     GridDistributedBaseMessage<K, V> res = new GridNearTxPrepareResponse<K, V>(tx.nearXidVersion(),
                         tx.nearFutureId(), tx.nearMiniId(), tx.xidVersion(), tx.invalidPartitions(), this.err.get());
@@ -13,6 +13,7 @@ import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -31,6 +32,10 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
     @GridToStringInclude
     private Set<Integer> parts;
 
+    /** Update counters starting from which partitions should be supplied with delta. */
+    @GridToStringInclude
+    private Map<Integer, Long> updCntrs;
+
     /** Topic. */
     private String topic;
 
@@ -55,6 +60,7 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
     GridDhtPartitionDemandMessage(GridDhtPartitionDemandMessage<K, V> copy) {
         updateSeq = copy.updateSeq;
         parts = copy.parts;
+        updCntrs = copy.updCntrs;
         topic = copy.topic;
         timeout = copy.timeout;
         workerId = copy.workerId;
@@ -82,6 +88,26 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         parts.add(p);
     }
 
+    /**
+     * @param p Partition.
+     * @param cntr Update counter of partition on supplying node, starting from which
+     *      partition should be supplied with delta.
+     */
+    void updateCounter(int p, long cntr) {
+        if (updCntrs == null)
+            updCntrs = new HashMap<Integer, Long>();
+
+        updCntrs.put(p, cntr);
+    }
+
+    /**
+     * @param p Partition.
+     * @return Update counter starting from which partition should be supplied with delta,
+     *      or {@code null} if partition should be fully supplied.
+     */
+    @Nullable Long updateCounter(int p) {
+        return updCntrs == null ? null : updCntrs.get(p);
+    }
 
     /**
      * @return Partition.
@@ -152,6 +178,7 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         out.writeLong(timeout);
 
         U.writeCollection(out, parts);
+        U.writeIntKeyMap(out, updCntrs);
         U.writeString(out, topic);
     }
 
@@ -164,6 +191,7 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         timeout = in.readLong();
 
         parts = U.readSet(in);
+        updCntrs = U.readIntKeyMap(in);
         topic = U.readString(in);
 
         assert !F.isEmpty(parts);
@@ -516,10 +516,12 @@ public class GridDhtPartitionDemandPool<K, V> {
          * @param pick Node picked for preloading.
          * @param p Partition.
          * @param entry Preloaded entry.
+         * @param retained {@code True} if partition keeps entries it had before it was taken back
+         *      by local node, in which case such entries are overwritten with newer values.
          * @return {@code False} if partition has become invalid during preloading.
          * @throws GridInterruptedException If interrupted.
          */
-        private boolean preloadEntry(GridNode pick, int p, GridCacheEntryInfo<K, V> entry)
+        private boolean preloadEntry(GridNode pick, int p, GridCacheEntryInfo<K, V> entry, boolean retained)
             throws GridException, GridInterruptedException {
             try {
                 GridCacheEntryEx<K, V> cached = null;
@@ -530,7 +532,30 @@ public class GridDhtPartitionDemandPool<K, V> {
                     if (log.isDebugEnabled())
                         log.debug("Preloading key [key=" + entry.key() + ", part=" + p + ", node=" + pick.id() + ']');
 
-                    if (cached.initialValue(
+                    if (retained) {
+                        if (cached.preloadValue(
+                            entry.value(),
+                            entry.valueBytes(),
+                            entry.version(),
+                            entry.ttl(),
+                            entry.expireTime(),
+                            entry.metrics())) {
+                            if (cached.obsolete())
+                                // Entry has been removed on supplying node.
+                                cctx.dht().removeIfObsolete(entry.key());
+                            else
+                                cctx.evicts().touch(cached);
+                        }
+                        else if (log.isDebugEnabled())
+                            log.debug("Preloading entry is not newer than entry in cache (will ignore) [key=" +
+                                cached.key() + ", part=" + p + ']');
+                    }
+                    else if (entry.value() == null && entry.valueBytes() == null) {
+                        if (log.isDebugEnabled())
+                            log.debug("Ignoring removed entry for partition without retained data [key=" +
+                                entry.key() + ", part=" + p + ']');
+                    }
+                    else if (cached.initialValue(
                         entry.value(),
                         entry.valueBytes(),
                         entry.version(),
@@ -707,6 +732,22 @@ public class GridDhtPartitionDemandPool<K, V> {
                             break;
                         }
 
+                        // Request next batches before preloading this one, so that supplier
+                        // prepares and sends them while this batch is being preloaded.
+                        if (supply.ack()) {
+                            d = new GridDhtPartitionDemandMessage<K, V>(d);
+
+                            d.timeout(timeout);
+
+                            if (log.isDebugEnabled())
+                                log.debug("Sending demand message for next batches [node=" + node.id() +
+                                    ", demand=" + d + ']');
+
+                            cctx.io().send(node, d);
+
+                            watch.step("PARTITION_DEMAND_SENT");
+                        }
+
                         // Preload.
                         for (Map.Entry<Integer, Collection<GridCacheEntryInfo<K, V>>> e : supply.infos().entrySet()) {
                             int p = e.getKey();
@@ -739,7 +780,9 @@ public class GridDhtPartitionDemandPool<K, V> {
                                                     continue;
                                                 }
 
-                                                if (!preloadEntry(node, p, entry)) {
+                                                part.onPreloaded(entry.key());
+
+                                                if (!preloadEntry(node, p, entry, part.retained())) {
                                                     invalidParts.add(p);
 
                                                     if (log.isDebugEnabled())
@@ -758,6 +801,8 @@ public class GridDhtPartitionDemandPool<K, V> {
                                         if (last) {
                                             remaining.remove(p);
 
+                                            part.onPreloadFinished(supply.delta().contains(p));
+
                                             top.own(part);
 
                                             if (log.isDebugEnabled())
@@ -799,12 +844,6 @@ public class GridDhtPartitionDemandPool<K, V> {
 
                         if (remaining.isEmpty())
                             break; // While.
-
-                        if (s.supply().ack()) {
-                            retry = true;
-
-                            break;
-                        }
                     }
                 }
                 while (retry && !isCancelled() && !topologyChanged());
@@ -889,10 +928,10 @@ public class GridDhtPartitionDemandPool<K, V> {
                                 if (topologyChanged() || isCancelled())
                                     break; // For.
 
-                                GridDhtPartitionDemandMessage<K, V> d = assigns.remove(node);
+                                GridDhtPartitionDemandMessage<K, V> d = assigns.poll(node);
 
-                                // If another thread is already processing this message,
-                                // move to the next node.
+                                // If other threads are already processing all demands
+                                // for this node, move to the next node.
                                 if (d == null)
                                     continue; // For.
 
@@ -932,7 +971,7 @@ public class GridDhtPartitionDemandPool<K, V> {
 
                                 exchWorker.addFuture(dummyExchange(true, exchFut.discoveryEvent()));
                             }
-                            else
+                            else if (!assigns.pending())
                                 break; // While.
                         }
                     }
@@ -958,9 +997,10 @@ public class GridDhtPartitionDemandPool<K, V> {
     }
 
     /**
-     * Partition to node assignments.
+     * Partition to node assignments. Partitions demanded from every node are split
+     * into several demands, so that they are preloaded by demand workers in parallel.
      */
-    private class Assignments extends ConcurrentHashMap<GridNode, GridDhtPartitionDemandMessage<K, V>> {
+    private class Assignments extends ConcurrentHashMap<GridNode, Queue<GridDhtPartitionDemandMessage<K, V>>> {
         /** Exchange future. */
         @GridToStringExclude
         private final GridDhtPartitionsExchangeFuture<K, V> exchFut;
@@ -994,6 +1034,58 @@ public class GridDhtPartitionDemandPool<K, V> {
             return topVer;
         }
 
+        /**
+         * Splits partitions of given demand between demand workers.
+         *
+         * @param node Node to demand partitions from.
+         * @param d Demand for all partitions to preload from the node.
+         */
+        void add(GridNode node, GridDhtPartitionDemandMessage<K, V> d) {
+            int cnt = Math.min(poolSize, d.partitions().size());
+
+            List<GridDhtPartitionDemandMessage<K, V>> split = new ArrayList<GridDhtPartitionDemandMessage<K, V>>(cnt);
+
+            for (int i = 0; i < cnt; i++)
+                split.add(new GridDhtPartitionDemandMessage<K, V>(d.updateSequence()));
+
+            int i = 0;
+
+            for (Integer p : d.partitions()) {
+                GridDhtPartitionDemandMessage<K, V> s = split.get(i++ % cnt);
+
+                s.addPartition(p);
+
+                Long cntr = d.updateCounter(p);
+
+                if (cntr != null)
+                    s.updateCounter(p, cntr);
+            }
+
+            put(node, new ConcurrentLinkedQueue<GridDhtPartitionDemandMessage<K, V>>(split));
+        }
+
+        /**
+         * @param node Node.
+         * @return Next demand for given node or {@code null} if all demands
+         *      for this node are already taken by demand workers.
+         */
+        @Nullable GridDhtPartitionDemandMessage<K, V> poll(GridNode node) {
+            Queue<GridDhtPartitionDemandMessage<K, V>> q = get(node);
+
+            return q == null ? null : q.poll();
+        }
+
+        /**
+         * @return {@code True} if there are demands not yet taken by demand workers.
+         */
+        boolean pending() {
+            for (Queue<GridDhtPartitionDemandMessage<K, V>> q : values())
+                if (!q.isEmpty())
+                    return true;
+
+            return false;
+        }
+
         /** {@inheritDoc} */
         @Override public String toString() {
             return S.toString(Assignments.class, this, "exchId", exchFut.exchangeId(), "super", super.toString());
@@ -1154,6 +1246,9 @@ public class GridDhtPartitionDemandPool<K, V> {
 
             Collection<GridRichNode> allNodes = CU.allNodes(cctx, assigns.topologyVersion());
 
+            Map<GridNode, GridDhtPartitionDemandMessage<K, V>> demands =
+                new LinkedHashMap<GridNode, GridDhtPartitionDemandMessage<K, V>>();
+
             for (int p = 0; p < partCnt && !isCancelled() && futQ.isEmpty(); p++) {
                 // If partition belongs to local node.
                 if (cctx.belongs(p, loc, allNodes)) {
@@ -1172,6 +1267,9 @@ public class GridDhtPartitionDemandPool<K, V> {
                     Collection<GridNode> picked = pickedOwners(p, allNodes);
 
                     if (picked.isEmpty()) {
+                        // Keep whatever data partition has, as there is nothing to preload it from.
+                        part.onPreloadFinished(true);
+
                         top.own(part);
 
                         if (log.isDebugEnabled())
@@ -1180,17 +1278,25 @@ public class GridDhtPartitionDemandPool<K, V> {
                     else {
                         GridNode n = F.first(picked);
 
-                        GridDhtPartitionDemandMessage<K, V> msg = assigns.get(n);
+                        GridDhtPartitionDemandMessage<K, V> msg = demands.get(n);
 
                         if (msg == null)
-                            msg = F.addIfAbsent(assigns, n,
-                                new GridDhtPartitionDemandMessage<K, V>(top.updateSequence()));
+                            demands.put(n, msg = new GridDhtPartitionDemandMessage<K, V>(top.updateSequence()));
 
                         msg.addPartition(p);
+
+                        Long cntr = part.ownerCounter(n.id());
+
+                        // Partition still has data it had when supplier was at this counter.
+                        if (cntr != null)
+                            msg.updateCounter(p, cntr);
                     }
                 }
             }
 
+            for (Map.Entry<GridNode, GridDhtPartitionDemandMessage<K, V>> e : demands.entrySet())
+                assigns.add(e.getKey(), e.getValue());
+
             return assigns;
         }
     }
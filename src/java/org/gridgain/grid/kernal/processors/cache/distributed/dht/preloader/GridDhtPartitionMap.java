@@ -29,6 +29,9 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
     /** Update sequence number. */
     private long updateSeq;
 
+    /** Update counters of owned partitions. */
+    private Map<Integer, Long> updCntrs;
+
     /**
      * @param nodeId Node ID.
      * @param updateSeq Update sequence number.
@@ -60,6 +63,9 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
             if (!onlyActive || state.active())
                 put(e.getKey(), state);
         }
+
+        if (m instanceof GridDhtPartitionMap)
+            updCntrs = ((GridDhtPartitionMap)m).updCntrs;
     }
 
     /**
@@ -97,6 +103,24 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
         return old;
     }
 
+    /**
+     * @param p Partition.
+     * @param cntr Update counter of partition on node.
+     */
+    public void updateCounter(int p, long cntr) {
+        if (updCntrs == null)
+            updCntrs = new HashMap<Integer, Long>();
+
+        updCntrs.put(p, cntr);
+    }
+
+    /**
+     * @return Update counters of partitions owned by node.
+     */
+    public Map<Integer, Long> updateCounters() {
+        return updCntrs == null ? Collections.<Integer, Long>emptyMap() : updCntrs;
+    }
+
     /** {@inheritDoc} */
     @Override public int compareTo(GridDhtPartitionMap o) {
         assert nodeId.equals(o.nodeId);
@@ -111,6 +135,8 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
         out.writeLong(updateSeq);
 
         U.writeMap(out, this);
+
+        U.writeIntKeyMap(out, updCntrs);
     }
 
     /** {@inheritDoc} */
@@ -120,6 +146,8 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
         updateSeq = in.readLong();
 
         putAll(U.<Integer, GridDhtPartitionState>readMap(in));
+
+        updCntrs = U.readIntKeyMap(in);
     }
 
     /** {@inheritDoc} */
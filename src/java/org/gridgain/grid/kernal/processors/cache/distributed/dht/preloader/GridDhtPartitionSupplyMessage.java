@@ -41,6 +41,10 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
     @GridToStringInclude
     private Set<Integer> missed;
 
+    /** Fully sent partitions which were supplied with delta. */
+    @GridToStringInclude
+    private Set<Integer> delta;
+
     /** Entries. */
     private Map<Integer, Collection<GridCacheEntryInfo<K, V>>> infos =
         new HashMap<Integer, Collection<GridCacheEntryInfo<K,V>>>();
@@ -152,6 +156,28 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
         return missed == null ? Collections.<Integer>emptySet() : missed;
     }
 
+    /**
+     * Marks fully sent partition as supplied with delta.
+     *
+     * @param p Partition.
+     */
+    void delta(int p) {
+        assert last != null && last.contains(p);
+
+        if (delta == null)
+            delta = new HashSet<Integer>();
+
+        if (delta.add(p))
+            msgSize += 4;
+    }
+
+    /**
+     * @return Fully sent partitions which were supplied with delta.
+     */
+    Set<Integer> delta() {
+        return delta == null ? Collections.<Integer>emptySet() : delta;
+    }
+
     /**
      * @return Entries.
      */
@@ -221,6 +247,7 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
 
         U.writeIntCollection(out, last);
         U.writeIntCollection(out, missed);
+        U.writeIntCollection(out, delta);
 
         U.writeIntKeyMap(out, infoBytes);
     }
@@ -235,6 +262,7 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
 
         last = U.readIntSet(in);
         missed = U.readIntSet(in);
+        delta = U.readIntSet(in);
 
         infoBytes = U.readIntKeyMap(in);
 
@@ -10,6 +10,7 @@
 package org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader;
 
 import org.gridgain.grid.*;
+import org.gridgain.grid.events.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.kernal.processors.cache.distributed.dht.*;
 import org.gridgain.grid.lang.*;
@@ -19,16 +20,26 @@ import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.stopwatch.*;
 import org.gridgain.grid.util.worker.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.*;
 
+import static java.util.concurrent.TimeUnit.*;
+import static org.gridgain.grid.GridEventType.*;
 import static org.gridgain.grid.kernal.processors.cache.distributed.dht.GridDhtPartitionState.*;
 
 /**
  * Thread pool for supplying partitions to demanding nodes.
+ * <p>
+ * Supplier sends up to {@link org.gridgain.grid.cache.GridCacheConfiguration#getPreloadBatchesPrefetchCount()}
+ * batches to every demand worker without waiting. Last batch of such window is marked for
+ * acknowledgement, and supply position is saved until demander acknowledges the window with
+ * next demand, so supply resumes in the middle of partition and supply threads are never
+ * blocked waiting for demanders. Total throughput of all supply threads is limited by
+ * {@link org.gridgain.grid.cache.GridCacheConfiguration#getPreloadMaxThroughput()}.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
@@ -52,6 +63,16 @@ public class GridDhtPartitionSupplyPool<K, V> {
     /** */
     private final LinkedBlockingDeque<DemandMessage<K, V>> queue = new LinkedBlockingDeque<DemandMessage<K, V>>();
 
+    /** Supply contexts waiting for demanders to acknowledge sent batches. */
+    private final ConcurrentMap<T2<UUID, Integer>, SupplyContext> scMap =
+        new ConcurrentHashMap<T2<UUID, Integer>, SupplyContext>();
+
+    /** Time when next batch may be sent without exceeding maximum throughput. */
+    private long throttleTime;
+
+    /** Throttle mutex. */
+    private final Object throttleMux = new Object();
+
     /**
      * @param cctx Cache context.
      * @param busyLock Shutdown lock.
@@ -77,6 +98,14 @@ public class GridDhtPartitionSupplyPool<K, V> {
                 processDemandMessage(id, m);
             }
         });
+
+        cctx.events().addListener(new GridLocalEventListener() {
+            @Override public void onEvent(GridEvent evt) {
+                assert evt.type() == EVT_NODE_LEFT || evt.type() == EVT_NODE_FAILED;
+
+                releaseContexts(((GridDiscoveryEvent)evt).eventNodeId());
+            }
+        }, EVT_NODE_LEFT, EVT_NODE_FAILED);
     }
 
     /**
@@ -93,6 +122,8 @@ public class GridDhtPartitionSupplyPool<K, V> {
     void stop() {
         U.cancel(workers);
         U.join(workers, log);
+
+        releaseContexts(null);
     }
 
     /**
@@ -174,13 +205,114 @@ public class GridDhtPartitionSupplyPool<K, V> {
 
     /**
      * @param deque Deque to poll from.
+     * @param time Time to wait.
      * @return Polled item.
      * @throws InterruptedException If interrupted.
      */
-    private <T> T take(LinkedBlockingDeque<T> deque) throws InterruptedException {
+    @Nullable private <T> T poll(LinkedBlockingDeque<T> deque, long time) throws InterruptedException {
         beforeWait();
 
-        return deque.take();
+        return deque.poll(time, MILLISECONDS);
+    }
+
+    /**
+     * Gets saved supply context for demand, or creates new one if demand is not an
+     * acknowledgement of previously sent batches.
+     *
+     * @param nodeId Demanding node ID.
+     * @param d Demand message.
+     * @return Supply context.
+     */
+    private SupplyContext supplyContext(UUID nodeId, GridDhtPartitionDemandMessage<K, V> d) {
+        SupplyContext sctx = scMap.remove(new T2<UUID, Integer>(nodeId, d.workerId()));
+
+        if (sctx != null) {
+            if (sctx.topic.equals(d.topic()))
+                return sctx;
+
+            // Demander gave up on previous demand and started over.
+            sctx.release();
+        }
+
+        return new SupplyContext(d);
+    }
+
+    /**
+     * @param nodeId Demanding node ID.
+     * @param d Demand message.
+     * @param sctx Supply context to resume on next demand from the same demand worker.
+     */
+    private void saveContext(UUID nodeId, GridDhtPartitionDemandMessage<K, V> d, SupplyContext sctx) {
+        sctx.expireTime = System.currentTimeMillis() + d.timeout();
+
+        SupplyContext old = scMap.put(new T2<UUID, Integer>(nodeId, d.workerId()), sctx);
+
+        if (old != null)
+            old.release();
+    }
+
+    /**
+     * Releases supply contexts for given node.
+     *
+     * @param nodeId Demanding node ID, {@code null} to release all contexts.
+     */
+    private void releaseContexts(@Nullable UUID nodeId) {
+        for (Iterator<Map.Entry<T2<UUID, Integer>, SupplyContext>> it = scMap.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<T2<UUID, Integer>, SupplyContext> e = it.next();
+
+            if (nodeId == null || nodeId.equals(e.getKey().get1())) {
+                it.remove();
+
+                e.getValue().release();
+            }
+        }
+    }
+
+    /**
+     * Releases supply contexts demanders did not come back for in time.
+     */
+    private void releaseExpiredContexts() {
+        long now = System.currentTimeMillis();
+
+        for (Iterator<SupplyContext> it = scMap.values().iterator(); it.hasNext();) {
+            SupplyContext sctx = it.next();
+
+            if (sctx.expireTime < now && scMap.values().remove(sctx)) {
+                if (log.isDebugEnabled())
+                    log.debug("Releasing expired supply context [topic=" + sctx.topic + ']');
+
+                sctx.release();
+            }
+        }
+    }
+
+    /**
+     * Waits until batch of given size can be sent without exceeding configured
+     * maximum preload throughput. Throughput is shared by all supply workers.
+     *
+     * @param size Batch size in bytes.
+     * @throws GridInterruptedException If interrupted.
+     */
+    private void throttle(int size) throws GridInterruptedException {
+        long maxThroughput = cctx.config().getPreloadMaxThroughput();
+
+        if (maxThroughput <= 0)
+            return;
+
+        long delay;
+
+        synchronized (throttleMux) {
+            long now = System.currentTimeMillis();
+
+            long start = Math.max(now, throttleTime);
+
+            throttleTime = start + size * 1000L / maxThroughput;
+
+            delay = start - now;
+        }
+
+        if (delay > 0)
+            U.sleep(delay);
     }
 
     /**
@@ -207,7 +339,13 @@ public class GridDhtPartitionSupplyPool<K, V> {
             while (!isCancelled()) {
                 watch.step("DEMAND_WAIT");
 
-                DemandMessage<K, V> msg = take(queue);
+                DemandMessage<K, V> msg = poll(queue, cctx.gridConfig().getNetworkTimeout());
+
+                // Release partitions reserved for demanders that did not come back in time.
+                releaseExpiredContexts();
+
+                if (msg == null)
+                    continue;
 
                 watch.step("DEMAND_RECEIVED");
 
@@ -222,85 +360,147 @@ public class GridDhtPartitionSupplyPool<K, V> {
 
                 GridDhtPartitionDemandMessage<K, V> d = msg.message();
 
-                GridDhtPartitionSupplyMessage<K, V> s = new GridDhtPartitionSupplyMessage<K, V>(d.workerId(),
-                    d.updateSequence());
+                SupplyContext sctx = supplyContext(msg.senderId(), d);
 
                 try {
-                    boolean ack = false;
+                    supply(node, d, sctx);
+                }
+                catch (GridInterruptedException e) {
+                    sctx.release();
+
+                    throw e;
+                }
+                catch (GridException e) {
+                    sctx.release();
 
-                    for (Integer part : d.partitions()) {
-                        GridDhtLocalPartition<K, V> loc = top.localPartition(part, -1, false);
+                    log.error("Failed to send partition supply message to node: " + node.id(), e);
+                }
+            }
+        }
 
-                        if (loc == null || loc.state() != OWNING || !loc.reserve()) {
-                            // Reply with partition of "-1" to let sender know that
-                            // this node is no longer an owner.
-                            s.missed(part);
+        /**
+         * Supplies partitions until all of them are sent or until demander has to
+         * acknowledge received batches. In the latter case supply context is saved
+         * and supply is resumed from the same place once next demand is received.
+         *
+         * @param node Demanding node.
+         * @param d Demand message.
+         * @param sctx Supply context.
+         * @throws GridException If failed.
+         */
+        private void supply(GridRichNode node, GridDhtPartitionDemandMessage<K, V> d, SupplyContext sctx)
+            throws GridException {
+            GridDhtPartitionSupplyMessage<K, V> s = new GridDhtPartitionSupplyMessage<K, V>(d.workerId(),
+                d.updateSequence());
 
-                            if (log.isDebugEnabled())
-                                log.debug("Requested partition is not owned by local node [part=" + part +
-                                    ", demander=" + msg.senderId() + ']');
+            int batches = 0;
 
-                            continue;
-                        }
+            while (true) {
+                if (sctx.loc == null) {
+                    if (!sctx.parts.hasNext())
+                        break;
+
+                    int part = sctx.parts.next();
+
+                    GridDhtLocalPartition<K, V> loc = top.localPartition(part, -1, false);
+
+                    if (loc == null || loc.state() != OWNING || !loc.reserve()) {
+                        // Reply with partition of "-1" to let sender know that
+                        // this node is no longer an owner.
+                        s.missed(part);
 
-                        try {
-                            for (GridCacheEntryEx<K, V> e : loc.entries()) {
-                                if (!cctx.belongs(part, node)) {
-                                    // Demander no longer needs this partition, so we send '-1' partition and move on.
-                                    s.missed(part);
+                        if (log.isDebugEnabled())
+                            log.debug("Requested partition is not owned by local node [part=" + part +
+                                ", demander=" + node.id() + ']');
 
-                                    watch.step("SUPPLY_INVALID_SENT");
+                        continue;
+                    }
+
+                    if (!cctx.belongs(part, node)) {
+                        loc.release();
+
+                        s.missed(part);
 
-                                    if (log.isDebugEnabled())
-                                        log.debug("Demanding node does not need requested partition [part=" + part +
-                                            ", nodeId=" + msg.senderId() + ']');
+                        if (log.isDebugEnabled())
+                            log.debug("Demanding node does not need requested partition [part=" + part +
+                                ", nodeId=" + node.id() + ']');
+
+                        continue;
+                    }
 
-                                    continue;
-                                }
+                    sctx.partition(loc, d.updateCounter(part));
 
-                                if (s.messageSize() >= cctx.config().getPreloadBatchSize()) {
-                                    ack = true;
+                    if (log.isDebugEnabled())
+                        log.debug("Supplying partition [part=" + part + ", delta=" + sctx.delta +
+                            ", demander=" + node.id() + ']');
+                }
 
-                                    if (!reply(node, d, s))
-                                        // Demander left grid.
-                                        break;
+                int part = sctx.loc.id();
 
-                                    watch.step("SUPPLY_SENT");
+                boolean missed = false;
 
-                                    s = new GridDhtPartitionSupplyMessage<K, V>(d.workerId(), d.updateSequence());
-                                }
+                while (sctx.hasNext()) {
+                    if (s.messageSize() >= cctx.config().getPreloadBatchSize()) {
+                        if (++batches == cctx.config().getPreloadBatchesPrefetchCount()) {
+                            // Wait for demander to acknowledge sent batches.
+                            s.markAck();
 
-                                GridCacheEntryInfo<K, V> info = e.info();
+                            saveContext(node.id(), d, sctx);
 
-                                if (info != null && info.value() != null)
-                                    s.addEntry(part, info, cctx);
-                            }
+                            reply(node, d, s);
 
-                            // Mark as last supply message.
-                            s.last(part);
+                            watch.step("SUPPLY_ACK_SENT");
 
-                            if (ack) {
-                                s.markAck();
+                            return;
+                        }
 
-                                break; // Partition for loop.
-                            }
+                        if (!reply(node, d, s)) {
+                            // Demander left grid.
+                            sctx.release();
 
-                            watch.step("SUPPLY_LAST_SENT");
+                            return;
                         }
-                        finally {
-                            loc.release();
+
+                        watch.step("SUPPLY_SENT");
+
+                        s = new GridDhtPartitionSupplyMessage<K, V>(d.workerId(), d.updateSequence());
+
+                        if (!cctx.belongs(part, node)) {
+                            // Demander no longer needs this partition, so we send '-1' partition and move on.
+                            s.missed(part);
+
+                            missed = true;
+
+                            watch.step("SUPPLY_INVALID_SENT");
+
+                            if (log.isDebugEnabled())
+                                log.debug("Demanding node does not need requested partition [part=" + part +
+                                    ", nodeId=" + node.id() + ']');
+
+                            break;
                         }
                     }
 
-                    reply(node, d, s);
-                }
-                catch (GridInterruptedException e) {
-                    throw e;
+                    GridCacheEntryInfo<K, V> info = sctx.next();
+
+                    if (info != null)
+                        s.addEntry(part, info, cctx);
                 }
-                catch (GridException e) {
-                    log.error("Failed to send partition supply message to node: " + node.id(), e);
+
+                // Mark as last supply message.
+                if (!missed) {
+                    s.last(part);
+
+                    if (sctx.delta)
+                        s.delta(part);
                 }
+
+                sctx.release();
+
+                watch.step("SUPPLY_LAST_SENT");
             }
+
+            reply(node, d, s);
         }
 
         /**
@@ -312,6 +512,8 @@ public class GridDhtPartitionSupplyPool<K, V> {
          */
         private boolean reply(GridNode n, GridDhtPartitionDemandMessage<K, V> d, GridDhtPartitionSupplyMessage<K, V> s)
             throws GridException {
+            throttle(s.messageSize());
+
             try {
                 if (log.isDebugEnabled())
                     log.debug("Replying to partition demand [node=" + n.id() + ", demand=" + d + ", supply=" + s + ']');
@@ -329,6 +531,155 @@ public class GridDhtPartitionSupplyPool<K, V> {
         }
     }
 
+    /**
+     * State of partition supply to one demand worker, saved between demands.
+     */
+    private class SupplyContext {
+        /** Demand topic. */
+        private final String topic;
+
+        /** Partitions left to supply. */
+        private final Iterator<Integer> parts;
+
+        /** Partition being supplied, reserved until it is fully sent. */
+        private GridDhtLocalPartition<K, V> loc;
+
+        /** Entries of partition being supplied that are left to send. */
+        private Iterator<GridDhtCacheEntry<K, V>> entries;
+
+        /** Swapped entries of partition being supplied, read once all in-memory entries are sent. */
+        private Iterator<GridCacheEntryInfo<K, V>> swapEntries;
+
+        /** Keys updated since demanded counter that are left to send, if partition is supplied with delta. */
+        private Iterator<Map.Entry<K, GridCacheVersion>> updates;
+
+        /** Flag indicating that partition being supplied is supplied with delta. */
+        private boolean delta;
+
+        /** Time after which context is released if demander does not come back. */
+        private long expireTime;
+
+        /**
+         * @param d Demand message.
+         */
+        private SupplyContext(GridDhtPartitionDemandMessage<K, V> d) {
+            topic = d.topic();
+            parts = new ArrayList<Integer>(d.partitions()).iterator();
+        }
+
+        /**
+         * Starts supplying given partition. Partition is supplied with delta if demander
+         * passed update counter and all updates since that counter are still kept in
+         * partition history, otherwise all partition entries are supplied.
+         *
+         * @param loc Reserved partition to supply.
+         * @param cntr Update counter demander has partition data for, {@code null} if none.
+         */
+        void partition(GridDhtLocalPartition<K, V> loc, @Nullable Long cntr) {
+            assert this.loc == null;
+
+            this.loc = loc;
+
+            Map<K, GridCacheVersion> upd = cntr != null ? loc.updatesSince(cntr) : null;
+
+            if (upd != null) {
+                updates = upd.entrySet().iterator();
+
+                delta = true;
+            }
+            else
+                entries = loc.entries().iterator();
+        }
+
+        /**
+         * @return {@code True} if there are more entries to send for partition being supplied.
+         * @throws GridException If failed to read swap.
+         */
+        boolean hasNext() throws GridException {
+            if (delta)
+                return updates.hasNext();
+
+            if (entries.hasNext())
+                return true;
+
+            // Swap is read after memory, so entries swapped out while
+            // in-memory entries were being sent are not missed.
+            if (swapEntries == null)
+                swapEntries = cctx.swap().iterator(loc.id());
+
+            return swapEntries.hasNext();
+        }
+
+        /**
+         * Gets next entry to send. For delta, entries removed since demanded counter
+         * are sent without value.
+         *
+         * @return Entry to send, or {@code null} if entry should be skipped.
+         * @throws GridException If failed to read swap.
+         */
+        @Nullable GridCacheEntryInfo<K, V> next() throws GridException {
+            if (!delta) {
+                if (swapEntries == null) {
+                    GridCacheEntryInfo<K, V> info = entries.next().info();
+
+                    return info != null && info.value() != null ? info : null;
+                }
+
+                GridCacheEntryInfo<K, V> info = swapEntries.next();
+
+                // Entry that is back in memory has either been sent already or will be preloaded.
+                return cctx.dht().peekEx(info.key()) == null ? info : null;
+            }
+
+            Map.Entry<K, GridCacheVersion> upd = updates.next();
+
+            GridCacheEntryEx<K, V> cached = cctx.dht().peekEx(upd.getKey());
+
+            GridCacheEntryInfo<K, V> info = cached != null ? cached.info() : null;
+
+            if (info == null) {
+                GridCacheSwapEntry<V> swapped = cctx.swap().read(upd.getKey());
+
+                if (swapped != null && swapped.value() != null) {
+                    info = new GridCacheEntryInfo<K, V>();
+
+                    info.key(upd.getKey());
+                    info.value(swapped.value());
+                    info.valueBytes(swapped.valueBytes());
+                    info.version(swapped.version());
+                    info.ttl(swapped.ttl());
+                    info.expireTime(swapped.expireTime());
+                    info.metrics(swapped.metrics());
+                }
+            }
+
+            if (info == null) {
+                // Entry has been removed, so send its key and version of removal.
+                info = new GridCacheEntryInfo<K, V>();
+
+                info.key(upd.getKey());
+                info.version(upd.getValue());
+            }
+
+            return info;
+        }
+
+        /**
+         * Releases partition being supplied.
+         */
+        void release() {
+            if (loc != null) {
+                loc.release();
+
+                loc = null;
+                entries = null;
+                swapEntries = null;
+                updates = null;
+                delta = false;
+            }
+        }
+    }
+
     /**
      * Demand message wrapper.
      */
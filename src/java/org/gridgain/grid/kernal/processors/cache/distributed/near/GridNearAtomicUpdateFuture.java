@@ -0,0 +1,310 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.near;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader.*;
+import org.gridgain.grid.kernal.processors.timeout.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.future.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Future for single-key update in {@link org.gridgain.grid.cache.GridCacheAtomicityMode#ATOMIC} cache.
+ * Sends update to primary node for the key and remaps it if primary node changes before
+ * update is applied. Remaps requested by primary node are deferred until pending partition
+ * exchange completes and are bounded by {@link #MAX_REMAP_CNT}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public final class GridNearAtomicUpdateFuture<K, V> extends GridFutureAdapter<GridCacheReturn<V>>
+    implements GridCacheFuture<GridCacheReturn<V>> {
+    /** Logger reference. */
+    private static final AtomicReference<GridLogger> logRef = new AtomicReference<GridLogger>();
+
+    /** Maximum number of remaps requested by primary nodes before update fails. */
+    private static final int MAX_REMAP_CNT = 16;
+
+    /** Base delay before remap if there is no pending partition exchange to wait for. */
+    private static final long REMAP_DELAY = 50;
+
+    /** Context. */
+    private GridCacheContext<K, V> cctx;
+
+    /** Future ID. */
+    private GridUuid futId;
+
+    /** Future version. */
+    private GridCacheVersion futVer;
+
+    /** Key. */
+    private K key;
+
+    /** Value, {@code null} for remove. */
+    private V val;
+
+    /** Return value flag. */
+    private boolean retval;
+
+    /** Filter. */
+    private GridPredicate<? super GridCacheEntry<K, V>>[] filter;
+
+    /** Current primary node. */
+    @GridToStringExclude
+    private AtomicReference<GridNode> primary = new AtomicReference<GridNode>();
+
+    /** Logger. */
+    private GridLogger log;
+
+    /** Trackable flag. */
+    private boolean trackable = true;
+
+    /** Number of remaps requested by primary nodes. */
+    private final AtomicInteger remapCnt = new AtomicInteger();
+
+    /**
+     * Empty constructor required for {@link Externalizable}.
+     */
+    public GridNearAtomicUpdateFuture() {
+        // No-op.
+    }
+
+    /**
+     * @param cctx Context.
+     * @param key Key.
+     * @param val Value, {@code null} for remove.
+     * @param retval Return value flag.
+     * @param filter Filter.
+     */
+    public GridNearAtomicUpdateFuture(GridCacheContext<K, V> cctx, K key, @Nullable V val, boolean retval,
+        @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
+        super(cctx.kernalContext());
+
+        assert key != null;
+
+        this.cctx = cctx;
+        this.key = key;
+        this.val = val;
+        this.retval = retval;
+        this.filter = filter;
+
+        futId = GridUuid.randomUuid();
+
+        futVer = cctx.versions().next();
+
+        log = U.logger(ctx, logRef, GridNearAtomicUpdateFuture.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridUuid futureId() {
+        return futId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheVersion version() {
+        return futVer;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<? extends GridNode> nodes() {
+        GridNode node = primary.get();
+
+        return node == null ? Collections.<GridNode>emptyList() : Collections.singletonList(node);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean trackable() {
+        return trackable;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void markNotTrackable() {
+        trackable = false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean onNodeLeft(UUID nodeId) {
+        GridNode node = primary.get();
+
+        if (node != null && node.id().equals(nodeId)) {
+            if (log.isDebugEnabled())
+                log.debug("Primary node left grid, will remap atomic update [nodeId=" + nodeId + ", key=" + key + ']');
+
+            remap(node);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Maps update to primary node and sends it.
+     */
+    void map() {
+        GridNode node = CU.primaryNode(cctx, key);
+
+        primary.set(node);
+
+        final GridNearAtomicUpdateRequest<K, V> req = new GridNearAtomicUpdateRequest<K, V>(futId, futVer, key,
+            val, retval, filter);
+
+        if (node.id().equals(cctx.nodeId())) {
+            cctx.near().dht().updateAtomic(cctx.nodeId(), req).listenAsync(
+                new CI1<GridFuture<GridNearAtomicUpdateResponse<K, V>>>() {
+                    @Override public void apply(GridFuture<GridNearAtomicUpdateResponse<K, V>> f) {
+                        try {
+                            onResult(cctx.nodeId(), f.get());
+                        }
+                        catch (GridException e) {
+                            onDone(e);
+                        }
+                    }
+                });
+        }
+        else {
+            try {
+                cctx.io().send(node, req);
+            }
+            catch (GridTopologyException ignored) {
+                if (log.isDebugEnabled())
+                    log.debug("Primary node left grid before atomic update was sent (will remap): " + node.id());
+
+                remap(node);
+            }
+            catch (GridException e) {
+                onDone(e);
+            }
+        }
+    }
+
+    /**
+     * @param node Node to which update was mapped.
+     */
+    private void remap(GridNode node) {
+        if (!isDone() && primary.compareAndSet(node, null))
+            map();
+    }
+
+    /**
+     * Remaps update once pending partition exchange completes, or after a short delay
+     * if there is nothing to wait for, so that primary node requesting remap over and
+     * over again does not cause a busy loop.
+     *
+     * @param node Node to which update was mapped.
+     */
+    private void deferRemap(final GridNode node) {
+        int cnt = remapCnt.incrementAndGet();
+
+        if (cnt > MAX_REMAP_CNT) {
+            onDone(new GridTopologyException("Failed to update key in ATOMIC cache since primary node " +
+                "kept requesting remap [key=" + key + ", remapCnt=" + MAX_REMAP_CNT + ']'));
+
+            return;
+        }
+
+        GridCachePreloader<K, V> preldr = cctx.near().dht().preloader();
+
+        if (preldr instanceof GridDhtPreloader) {
+            // Exchange futures are ordered by topology version, latest first.
+            for (GridFuture<?> exchFut : ((GridDhtPreloader<K, V>)preldr).exchangeFutures()) {
+                if (!exchFut.isDone()) {
+                    exchFut.listenAsync(new CI1<GridFuture<?>>() {
+                        @Override public void apply(GridFuture<?> f) {
+                            remap(node);
+                        }
+                    });
+
+                    return;
+                }
+
+                break;
+            }
+        }
+
+        final long endTime = System.currentTimeMillis() + REMAP_DELAY * cnt;
+
+        cctx.time().addTimeoutObject(new GridTimeoutObject() {
+            /** Timeout ID. */
+            private final GridUuid id = GridUuid.randomUuid();
+
+            /** {@inheritDoc} */
+            @Override public GridUuid timeoutId() {
+                return id;
+            }
+
+            /** {@inheritDoc} */
+            @Override public long endTime() {
+                return endTime;
+            }
+
+            /** {@inheritDoc} */
+            @Override public void onTimeout() {
+                remap(node);
+            }
+        });
+    }
+
+    /**
+     * @param nodeId Primary node ID.
+     * @param res Update response.
+     */
+    void onResult(UUID nodeId, GridNearAtomicUpdateResponse<K, V> res) {
+        GridNode node = primary.get();
+
+        if (node == null || !node.id().equals(nodeId)) {
+            if (log.isDebugEnabled())
+                log.debug("Ignoring atomic update response from node which is not primary [nodeId=" + nodeId +
+                    ", res=" + res + ']');
+
+            return;
+        }
+
+        if (res.remap()) {
+            if (log.isDebugEnabled())
+                log.debug("Primary node requested atomic update remap [nodeId=" + nodeId + ", key=" + key + ']');
+
+            deferRemap(node);
+        }
+        else if (res.error() != null)
+            onDone(res.error());
+        else
+            onDone(new GridCacheReturn<V>(res.oldValue(), res.success()));
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean onDone(GridCacheReturn<V> res, Throwable err) {
+        if (super.onDone(res, err)) {
+            // Don't forget to clean up.
+            cctx.mvcc().removeFuture(this);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridNearAtomicUpdateFuture.class, this, super.toString());
+    }
+}
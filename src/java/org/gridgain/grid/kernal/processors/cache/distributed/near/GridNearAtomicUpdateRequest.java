@@ -0,0 +1,216 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.near;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+
+/**
+ * Atomic update request sent from originating node to primary node.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridNearAtomicUpdateRequest<K, V> extends GridCacheMessage<K, V>
+    implements GridCacheDeployable, GridCacheVersionable {
+    /** Future ID. */
+    private GridUuid futId;
+
+    /** Future version. */
+    private GridCacheVersion futVer;
+
+    /** Key. */
+    @GridToStringInclude
+    private K key;
+
+    /** Key bytes. */
+    private byte[] keyBytes;
+
+    /** Value, {@code null} for remove. */
+    @GridToStringInclude
+    private V val;
+
+    /** Value bytes. */
+    private byte[] valBytes;
+
+    /** Return value flag. */
+    private boolean retval;
+
+    /** Filter. */
+    private GridPredicate<? super GridCacheEntry<K, V>>[] filter;
+
+    /** Filter bytes. */
+    private byte[][] filterBytes;
+
+    /**
+     * Empty constructor required for {@link Externalizable}.
+     */
+    public GridNearAtomicUpdateRequest() {
+        // No-op.
+    }
+
+    /**
+     * @param futId Future ID.
+     * @param futVer Future version.
+     * @param key Key.
+     * @param val Value, {@code null} for remove.
+     * @param retval Return value flag.
+     * @param filter Filter.
+     */
+    public GridNearAtomicUpdateRequest(GridUuid futId, GridCacheVersion futVer, K key, @Nullable V val,
+        boolean retval, @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
+        assert futId != null;
+        assert futVer != null;
+        assert key != null;
+
+        this.futId = futId;
+        this.futVer = futVer;
+        this.key = key;
+        this.val = val;
+        this.retval = retval;
+        this.filter = filter;
+    }
+
+    /**
+     * @return Future ID.
+     */
+    public GridUuid futureId() {
+        return futId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheVersion version() {
+        return futVer;
+    }
+
+    /**
+     * @return Key.
+     */
+    public K key() {
+        return key;
+    }
+
+    /**
+     * @return Key bytes.
+     */
+    public byte[] keyBytes() {
+        return keyBytes;
+    }
+
+    /**
+     * @return Value, {@code null} for remove.
+     */
+    @Nullable public V value() {
+        return val;
+    }
+
+    /**
+     * @return Value bytes.
+     */
+    @Nullable public byte[] valueBytes() {
+        return valBytes;
+    }
+
+    /**
+     * @return Return value flag.
+     */
+    public boolean returnValue() {
+        return retval;
+    }
+
+    /**
+     * @return Filter.
+     */
+    @Nullable public GridPredicate<? super GridCacheEntry<K, V>>[] filter() {
+        return filter;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        prepareObject(key, ctx);
+        prepareObject(val, ctx);
+
+        if (keyBytes == null)
+            keyBytes = CU.marshal(ctx, key).getEntireArray();
+
+        if (valBytes == null && val != null)
+            valBytes = CU.marshal(ctx, val).getEntireArray();
+
+        if (filterBytes == null)
+            filterBytes = marshalFilter(filter, ctx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        if (key == null)
+            key = U.<K>unmarshal(ctx.marshaller(), new GridByteArrayList(keyBytes), ldr);
+
+        if (val == null && valBytes != null)
+            val = U.<V>unmarshal(ctx.marshaller(), new GridByteArrayList(valBytes), ldr);
+
+        if (filter == null)
+            filter = unmarshalFilter(filterBytes, ctx, ldr);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        assert futId != null;
+        assert futVer != null;
+
+        U.writeGridUuid(out, futId);
+
+        CU.writeVersion(out, futVer);
+
+        U.writeByteArray(out, keyBytes);
+        U.writeByteArray(out, valBytes);
+
+        out.writeBoolean(retval);
+
+        out.writeObject(filterBytes);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        futId = U.readGridUuid(in);
+
+        futVer = CU.readVersion(in);
+
+        keyBytes = U.readByteArray(in);
+        valBytes = U.readByteArray(in);
+
+        retval = in.readBoolean();
+
+        filterBytes = (byte[][])in.readObject();
+
+        assert futId != null;
+        assert futVer != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridNearAtomicUpdateRequest.class, this);
+    }
+}
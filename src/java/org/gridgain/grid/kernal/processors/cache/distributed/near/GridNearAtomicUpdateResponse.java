@@ -0,0 +1,198 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.near;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+
+/**
+ * Atomic update response sent from primary node to originating node.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridNearAtomicUpdateResponse<K, V> extends GridCacheMessage<K, V>
+    implements GridCacheDeployable, GridCacheVersionable {
+    /** Future ID. */
+    private GridUuid futId;
+
+    /** Future version. */
+    private GridCacheVersion futVer;
+
+    /** Success flag. */
+    private boolean success;
+
+    /** Old value. */
+    @GridToStringInclude
+    private V oldVal;
+
+    /** Old value bytes. */
+    private byte[] oldValBytes;
+
+    /** Flag indicating that request should be remapped to new primary node. */
+    private boolean remap;
+
+    /** Error. */
+    private Throwable err;
+
+    /**
+     * Empty constructor required for {@link Externalizable}.
+     */
+    public GridNearAtomicUpdateResponse() {
+        // No-op.
+    }
+
+    /**
+     * @param futId Future ID.
+     * @param futVer Future version.
+     */
+    public GridNearAtomicUpdateResponse(GridUuid futId, GridCacheVersion futVer) {
+        assert futId != null;
+        assert futVer != null;
+
+        this.futId = futId;
+        this.futVer = futVer;
+    }
+
+    /**
+     * @return Future ID.
+     */
+    public GridUuid futureId() {
+        return futId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheVersion version() {
+        return futVer;
+    }
+
+    /**
+     * @return Success flag.
+     */
+    public boolean success() {
+        return success;
+    }
+
+    /**
+     * @param success Success flag.
+     */
+    public void success(boolean success) {
+        this.success = success;
+    }
+
+    /**
+     * @return Old value.
+     */
+    @Nullable public V oldValue() {
+        return oldVal;
+    }
+
+    /**
+     * @param oldVal Old value.
+     */
+    public void oldValue(@Nullable V oldVal) {
+        this.oldVal = oldVal;
+    }
+
+    /**
+     * @return {@code True} if request should be remapped to new primary node.
+     */
+    public boolean remap() {
+        return remap;
+    }
+
+    /**
+     * @param remap Remap flag.
+     */
+    public void remap(boolean remap) {
+        this.remap = remap;
+    }
+
+    /**
+     * @return Error.
+     */
+    @Nullable public Throwable error() {
+        return err;
+    }
+
+    /**
+     * @param err Error.
+     */
+    public void error(Throwable err) {
+        this.err = err;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        prepareObject(oldVal, ctx);
+
+        if (oldValBytes == null && oldVal != null)
+            oldValBytes = CU.marshal(ctx, oldVal).getEntireArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        if (oldVal == null && oldValBytes != null)
+            oldVal = U.<V>unmarshal(ctx.marshaller(), new GridByteArrayList(oldValBytes), ldr);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        assert futId != null;
+        assert futVer != null;
+
+        U.writeGridUuid(out, futId);
+
+        CU.writeVersion(out, futVer);
+
+        out.writeBoolean(success);
+        out.writeBoolean(remap);
+
+        U.writeByteArray(out, oldValBytes);
+
+        out.writeObject(err);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        futId = U.readGridUuid(in);
+
+        futVer = CU.readVersion(in);
+
+        success = in.readBoolean();
+        remap = in.readBoolean();
+
+        oldValBytes = U.readByteArray(in);
+
+        err = (Throwable)in.readObject();
+
+        assert futId != null;
+        assert futVer != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridNearAtomicUpdateResponse.class, this);
+    }
+}
@@ -115,6 +115,15 @@ public class GridNearCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                 processLockResponse(nodeId, res);
             }
         });
+
+        if (ctx.isAtomic()) {
+            ctx.io().addHandler(GridNearAtomicUpdateResponse.class,
+                new CI2<UUID, GridNearAtomicUpdateResponse<K, V>>() {
+                    @Override public void apply(UUID nodeId, GridNearAtomicUpdateResponse<K, V> res) {
+                        processAtomicUpdateResponse(nodeId, res);
+                    }
+                });
+        }
     }
 
     /**
@@ -738,6 +747,37 @@ public class GridNearCache<K, V> extends GridDistributedCacheAdapter<K, V> {
             fut.onResult(nodeId, res);
     }
 
+    /**
+     * @param nodeId Node ID.
+     * @param res Response.
+     */
+    private void processAtomicUpdateResponse(UUID nodeId, GridNearAtomicUpdateResponse<K, V> res) {
+        GridNearAtomicUpdateFuture<K, V> fut = (GridNearAtomicUpdateFuture<K, V>)ctx.mvcc().
+            <GridCacheReturn<V>>future(res.version().id(), res.futureId());
+
+        if (fut == null) {
+            if (log.isDebugEnabled())
+                log.debug("Failed to find future for atomic update response [sender=" + nodeId + ", res=" + res +
+                    ']');
+
+            return;
+        }
+
+        fut.onResult(nodeId, res);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected GridFuture<GridCacheReturn<V>> updateAtomicAsync(K key, @Nullable V val, boolean retval,
+        @Nullable GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
+        GridNearAtomicUpdateFuture<K, V> fut = new GridNearAtomicUpdateFuture<K, V>(ctx, key, val, retval, filter);
+
+        ctx.mvcc().addFuture(fut);
+
+        fut.map();
+
+        return fut;
+    }
+
     /** {@inheritDoc} */
     @Override public GridCacheTxLocalAdapter<K, V> newTx(boolean implicit, boolean implicitSingle,
         GridCacheTxConcurrency concurrency, GridCacheTxIsolation isolation, long timeout, boolean invalidate,
@@ -38,6 +38,9 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
     /** DHT version which caused the last update. */
     private GridCacheVersion dhtVer;
 
+    /** DHT version of value loaded by get, reset once value is updated in any other way. */
+    private GridCacheVersion readDhtVer;
+
     /**
      * @param ctx Cache context.
      * @param key Cache key.
@@ -159,6 +162,8 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
                 this.ver = ver;
                 this.dhtVer = dhtVer;
 
+                readDhtVer = null;
+
                 return true;
             }
         }
@@ -202,6 +207,10 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
                         this.expireTime = expireTime;
                         this.ttl = ttl;
                         this.primaryNodeId = primaryNodeId;
+
+                        readDhtVer = null;
+
+                        scheduleExpiration(expireTime);
                     }
                 }
             }
@@ -246,6 +255,38 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
         }
     }
 
+    /**
+     * Gets value of this entry together with DHT version it corresponds to, so that primary
+     * node can be asked to return value only if it has changed. Unlike {@link #versionedValue()},
+     * this also includes values loaded by get operations.
+     *
+     * @return Tuple with DHT version and value of this entry or {@code null} if there is no value
+     *      or its DHT version is unknown.
+     * @throws GridCacheEntryRemovedException If entry has been removed.
+     */
+    @Nullable public GridTuple3<GridCacheVersion, V, byte[]> readVersionedValue() throws GridCacheEntryRemovedException {
+        lock();
+
+        try {
+            checkObsolete();
+
+            GridCacheVersion ver = dhtVer != null ? dhtVer : readDhtVer;
+
+            return ver == null || (val == null && valBytes == null) ? null : F.t(ver, val, valBytes);
+        }
+        finally {
+            unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void update(@Nullable V val, @Nullable byte[] valBytes, long expireTime, long ttl,
+        GridCacheVersion ver, GridCacheMetricsAdapter metrics) {
+        super.update(val, valBytes, expireTime, ttl, ver, metrics);
+
+        readDhtVer = null;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isNew() throws GridCacheEntryRemovedException {
         assert isHeldByCurrentThread();
@@ -318,6 +359,7 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
      * @param val New value.
      * @param valBytes Value bytes.
      * @param ver Version to use.
+     * @param dhtVer DHT version of loaded value.
      * @param ttl Time to live.
      * @param expireTime Expiration time.
      * @param evt Event flag.
@@ -327,8 +369,8 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
      */
     @SuppressWarnings({"RedundantTypeArguments"})
     public boolean loadedValue(@Nullable GridCacheTx tx, UUID primaryNodeId, V val, byte[] valBytes,
-        GridCacheVersion ver, long ttl, long expireTime, boolean evt) throws GridException,
-        GridCacheEntryRemovedException {
+        GridCacheVersion ver, @Nullable GridCacheVersion dhtVer, long ttl, long expireTime, boolean evt)
+        throws GridException, GridCacheEntryRemovedException {
         if (valBytes != null && val == null && isNewLocked())
             val = U.<V>unmarshal(cctx.marshaller(), new GridByteArrayList(valBytes), cctx.deploy().globalLoader());
 
@@ -351,6 +393,8 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
                     // Version does not change for load ops.
                     update(val, valBytes, expireTime, ttl, ver, metrics);
 
+                    readDhtVer = dhtVer;
+
                     updateIndex(val);
 
                     return true;
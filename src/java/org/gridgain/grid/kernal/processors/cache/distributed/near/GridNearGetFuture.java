@@ -259,33 +259,93 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
                                 return Collections.emptyMap();
                             }
 
-                            return loadEntries(n.id(), mappedKeys.keySet(), infos);
+                            return loadEntries(n.id(), mappedKeys.keySet(), infos, null);
                         }
                     })
                 );
             }
             else {
-                MiniFuture fut = new MiniFuture(n, mappedKeys);
+                int batchSize = cctx.config().getGetBatchSize();
 
-                GridCacheMessage<K, V> req = new GridNearGetRequest<K, V>(futId, fut.futureId(), ver, mappedKeys,
-                    reload, topVer, filters);
+                if (mappedKeys.size() <= batchSize)
+                    mapRemote(n, mappedKeys, topVer);
+                else {
+                    // Split large key sets, so that remote node processes batches in
+                    // parallel and results are loaded as soon as every batch arrives.
+                    LinkedHashMap<K, Boolean> batch = null;
 
-                add(fut); // Append new future.
+                    for (Map.Entry<K, Boolean> e : mappedKeys.entrySet()) {
+                        if (batch == null)
+                            batch = new LinkedHashMap<K, Boolean>(batchSize, 1f);
 
-                try {
-                    cctx.io().send(n, req);
-                }
-                catch (GridTopologyException e) {
-                    fut.onResult(e);
-                }
-                catch (GridException e) {
-                    // Fail the whole thing.
-                    fut.onResult(e);
+                        batch.put(e.getKey(), e.getValue());
+
+                        if (batch.size() == batchSize) {
+                            if (!mapRemote(n, batch, topVer))
+                                break;
+
+                            batch = null;
+                        }
+                    }
+
+                    if (batch != null)
+                        mapRemote(n, batch, topVer);
                 }
             }
         }
     }
 
+    /**
+     * Sends get request for given keys to remote node.
+     *
+     * @param n Remote node.
+     * @param mappedKeys Keys mapped to remote node with flags indicating whether reader should be added.
+     * @param topVer Topology version.
+     * @return {@code False} if this future got completed, so no more requests should be sent.
+     */
+    private boolean mapRemote(GridRichNode n, LinkedHashMap<K, Boolean> mappedKeys, long topVer) {
+        if (isDone())
+            return false;
+
+        // Values held in near cache do not have to be sent back if they have not changed.
+        Map<K, GridTuple3<GridCacheVersion, V, byte[]>> nearVals = reload ? null :
+            nearValues(mappedKeys.keySet());
+
+        GridCacheVersion[] dhtVers = null;
+
+        if (nearVals != null) {
+            dhtVers = new GridCacheVersion[mappedKeys.size()];
+
+            int i = 0;
+
+            for (K key : mappedKeys.keySet()) {
+                GridTuple3<GridCacheVersion, V, byte[]> t = nearVals.get(key);
+
+                dhtVers[i++] = t != null ? t.get1() : null;
+            }
+        }
+
+        MiniFuture fut = new MiniFuture(n, mappedKeys, nearVals);
+
+        GridCacheMessage<K, V> req = new GridNearGetRequest<K, V>(futId, fut.futureId(), ver, mappedKeys,
+            reload, topVer, filters, dhtVers);
+
+        add(fut); // Append new future.
+
+        try {
+            cctx.io().send(n, req);
+        }
+        catch (GridTopologyException e) {
+            fut.onResult(e);
+        }
+        catch (GridException e) {
+            // Fail the whole thing.
+            fut.onResult(e);
+        }
+
+        return !isDone();
+    }
+
     /**
      * @param mappings Mappings.
      * @param key Key to map.
@@ -376,6 +436,38 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
         }
     }
 
+    /**
+     * @param keys Keys.
+     * @return Values held in near cache for given keys together with their DHT versions,
+     *      or {@code null} if there are none.
+     */
+    @Nullable private Map<K, GridTuple3<GridCacheVersion, V, byte[]>> nearValues(Collection<K> keys) {
+        Map<K, GridTuple3<GridCacheVersion, V, byte[]>> vals = null;
+
+        for (K key : keys) {
+            GridNearCacheEntry<K, V> entry = cache().peekExx(key);
+
+            if (entry == null)
+                continue;
+
+            try {
+                GridTuple3<GridCacheVersion, V, byte[]> t = entry.readVersionedValue();
+
+                if (t != null) {
+                    if (vals == null)
+                        vals = new HashMap<K, GridTuple3<GridCacheVersion, V, byte[]>>(keys.size(), 1.0f);
+
+                    vals.put(key, t);
+                }
+            }
+            catch (GridCacheEntryRemovedException ignored) {
+                // No value to validate.
+            }
+        }
+
+        return vals;
+    }
+
     /**
      * @return Near cache.
      */
@@ -394,9 +486,12 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
      * @param nodeId Node id.
      * @param keys Keys.
      * @param infos Entry infos.
+     * @param nearVals Values held in near cache that were sent for validation.
      * @return Result map.
      */
-    private Map<K, V> loadEntries(UUID nodeId, Collection<K> keys, Collection<GridCacheEntryInfo<K, V>> infos) {
+    @SuppressWarnings({"RedundantTypeArguments"})
+    private Map<K, V> loadEntries(UUID nodeId, Collection<K> keys, Collection<GridCacheEntryInfo<K, V>> infos,
+        @Nullable Map<K, GridTuple3<GridCacheVersion, V, byte[]>> nearVals) {
         boolean empty = F.isEmpty(keys);
 
         Map<K, V> map = empty ? Collections.<K, V>emptyMap() : new GridLeanMap<K, V>(keys.size());
@@ -405,6 +500,29 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
             GridCacheVersion ver = F.isEmpty(infos) ? null : cctx.versions().next();
 
             for (GridCacheEntryInfo<K, V> info : infos) {
+                if (nearVals != null && info.value() == null && info.valueBytes() == null) {
+                    GridTuple3<GridCacheVersion, V, byte[]> t = nearVals.get(info.key());
+
+                    // Primary node skipped value, since it has not changed.
+                    if (t != null && t.get1().equals(info.version())) {
+                        V val = t.get2();
+
+                        try {
+                            if (val == null)
+                                val = U.<V>unmarshal(cctx.marshaller(), new GridByteArrayList(t.get3()),
+                                    cctx.deploy().globalLoader());
+                        }
+                        catch (GridException e) {
+                            onDone(e);
+
+                            return Collections.emptyMap();
+                        }
+
+                        info.value(val);
+                        info.valueBytes(t.get3());
+                    }
+                }
+
                 // Entries available locally in DHT should not loaded into near cache for reading.
                 if (!ctx.localNodeId().equals(nodeId)) {
                     while (true) {
@@ -412,8 +530,8 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
                             GridNearCacheEntry<K, V> entry = cache().entryExx(info.key());
 
                             // Load entry into cache.
-                            entry.loadedValue(tx, nodeId, info.value(), info.valueBytes(), ver, info.ttl(),
-                                info.expireTime(), true);
+                            entry.loadedValue(tx, nodeId, info.value(), info.valueBytes(), ver, info.version(),
+                                info.ttl(), info.expireTime(), true);
 
                             break;
                         }
@@ -452,6 +570,10 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
         @GridToStringInclude
         private LinkedHashMap<K, Boolean> keys;
 
+        /** Values held in near cache that were sent for validation. */
+        @GridToStringExclude
+        private Map<K, GridTuple3<GridCacheVersion, V, byte[]>> nearVals;
+
         /**
          * Empty constructor required for {@link Externalizable}.
          */
@@ -462,12 +584,15 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
         /**
          * @param node Node.
          * @param keys Keys.
+         * @param nearVals Values held in near cache that were sent for validation.
          */
-        MiniFuture(GridRichNode node, LinkedHashMap<K, Boolean> keys) {
+        MiniFuture(GridRichNode node, LinkedHashMap<K, Boolean> keys,
+            @Nullable Map<K, GridTuple3<GridCacheVersion, V, byte[]>> nearVals) {
             super(cctx.kernalContext());
 
             this.node = node;
             this.keys = keys;
+            this.nearVals = nearVals;
         }
 
         /**
@@ -531,7 +656,7 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
                 }), F.t(node, keys));
             }
 
-            onDone(loadEntries(node.id(), keys.keySet(), res.entries()));
+            onDone(loadEntries(node.id(), keys.keySet(), res.entries(), nearVals));
         }
 
         /** {@inheritDoc} */
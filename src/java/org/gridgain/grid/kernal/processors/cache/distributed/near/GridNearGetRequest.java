@@ -17,6 +17,7 @@ import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -58,6 +59,9 @@ public class GridNearGetRequest<K, V> extends GridCacheMessage<K, V>
     /** Filters. */
     private GridPredicate<? super GridCacheEntry<K, V>>[] filter;
 
+    /** DHT versions of values held in near cache, in the same order as keys. */
+    private GridCacheVersion[] dhtVers;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -73,9 +77,12 @@ public class GridNearGetRequest<K, V> extends GridCacheMessage<K, V>
      * @param reload Reload flag.
      * @param topVer Topology version.
      * @param filter Filter.
+     * @param dhtVers DHT versions of values held in near cache, in the same order as keys,
+     *      {@code null} if there are none.
      */
     public GridNearGetRequest(GridUuid futId, GridUuid miniId, GridCacheVersion ver, LinkedHashMap<K, Boolean> keys,
-        boolean reload, long topVer, GridPredicate<? super GridCacheEntry<K, V>>[] filter) {
+        boolean reload, long topVer, GridPredicate<? super GridCacheEntry<K, V>>[] filter,
+        @Nullable GridCacheVersion[] dhtVers) {
         assert futId != null;
         assert miniId != null;
         assert ver != null;
@@ -88,6 +95,7 @@ public class GridNearGetRequest<K, V> extends GridCacheMessage<K, V>
         this.reload = reload;
         this.topVer = topVer;
         this.filter = filter;
+        this.dhtVers = dhtVers;
     }
 
     /**
@@ -137,6 +145,17 @@ public class GridNearGetRequest<K, V> extends GridCacheMessage<K, V>
         return filter;
     }
 
+    /**
+     * Gets DHT version of value held in near cache for key at given index. If version
+     * matches version of primary entry, value does not have to be sent back.
+     *
+     * @param idx Index of the key.
+     * @return DHT version or {@code null} if near cache does not hold value for the key.
+     */
+    @Nullable public GridCacheVersion dhtVersion(int idx) {
+        return dhtVers == null ? null : dhtVers[idx];
+    }
+
     /**
      * @param ctx Cache context.
      * @throws GridException If failed.
@@ -188,6 +207,8 @@ public class GridNearGetRequest<K, V> extends GridCacheMessage<K, V>
         U.writeMap(out, keyBytes);
 
         CU.writeVersion(out, ver);
+
+        U.writeArray(out, dhtVers);
     }
 
     /** {@inheritDoc} */
@@ -207,6 +228,8 @@ public class GridNearGetRequest<K, V> extends GridCacheMessage<K, V>
 
         ver = CU.readVersion(in);
 
+        dhtVers = U.readArray(in, CU.versionArrayFactory());
+
         assert futId != null;
         assert miniId != null;
         assert ver != null;
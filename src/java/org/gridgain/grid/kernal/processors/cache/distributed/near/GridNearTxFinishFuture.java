@@ -273,8 +273,13 @@ public final class GridNearTxFinishFuture<K, V> extends GridCompoundIdentityFutu
     @SuppressWarnings({"unchecked"})
     private void finish(Iterable<GridDistributedTxMapping<K, V>> mappings) {
         // Create mini futures.
-        for (GridDistributedTxMapping<K, V> m : mappings)
+        for (GridDistributedTxMapping<K, V> m : mappings) {
+            // Primary node committed transaction together with prepare.
+            if (commit && m.committed())
+                continue;
+
             finish(m);
+        }
     }
 
     /**
@@ -56,6 +56,9 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
     private ConcurrentMap<UUID, GridDistributedTxMapping<K, V>> mappings =
         new ConcurrentHashMap<UUID, GridDistributedTxMapping<K, V>>(16, 0.75f, 1);
 
+    /** Flag indicating that prepare was started by commit, so it may be combined with commit. */
+    private volatile boolean commitOnPrepare;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -206,6 +209,14 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
                 ", tx=" + this + ']');
     }
 
+    /**
+     * @return {@code True} if prepare was initiated by commit rather than called explicitly,
+     *      so primary node may commit transaction together with prepare.
+     */
+    boolean commitOnPrepare() {
+        return commitOnPrepare;
+    }
+
     /**
      * @param mappings Mappings.
      */
@@ -536,6 +547,9 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         if (log.isDebugEnabled())
             log.debug("Committing near local tx: " + this);
 
+        // Has no effect if prepare was already called explicitly.
+        commitOnPrepare = true;
+
         prepareAsync();
 
         GridNearTxFinishFuture<K, V> fut = commitFut.get();
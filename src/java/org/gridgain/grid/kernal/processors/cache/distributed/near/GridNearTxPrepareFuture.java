@@ -349,6 +349,9 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
                 tx.optimistic() && tx.serializable() ? m.reads() : null, m.writes(), tx.syncCommit(),
                 tx.syncRollback());
 
+            if (onePhaseCommit(m))
+                req.onePhaseCommit(tx.commitVersion());
+
             // If this is the primary node for the keys.
             if (n.isLocal()) {
                 // Make sure not to provide Near entries to DHT cache.
@@ -427,6 +430,19 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
         }
     }
 
+    /**
+     * Checks whether transaction can be committed on mapped node together with prepare. This is
+     * possible if commit was requested and all keys are mapped to a single remote primary node,
+     * so separate finish request would only add another round-trip.
+     *
+     * @param m Mapping.
+     * @return {@code True} if primary node should commit transaction right after prepare.
+     */
+    private boolean onePhaseCommit(GridDistributedTxMapping<K, V> m) {
+        return tx.commitOnPrepare() && !tx.ec() && !m.explicitLock() && !m.node().isLocal() &&
+            tx.mappings().size() == 1;
+    }
+
     /**
      * @param entry Transaction entry.
      * @param mappings Mappings.
@@ -623,6 +639,13 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
                         tx.orderCompleted(m, res.committedVersions(), res.rolledbackVersions());
                     }
 
+                    if (res.committed()) {
+                        // No finish request will be sent to primary node.
+                        m.markCommitted();
+
+                        cctx.cache().metrics0().onTxOnePhaseCommit();
+                    }
+
                     // Finish this mini future.
                     onDone(tx);
                 }
@@ -14,6 +14,7 @@ import org.gridgain.grid.kernal.processors.cache.distributed.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -40,6 +41,9 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
     /** Topology version. */
     private long topVer;
 
+    /** Commit version for one-phase commit, {@code null} if transaction is committed in two phases. */
+    private GridCacheVersion onePhaseCommitVer;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -111,6 +115,33 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
         return topVer;
     }
 
+    /**
+     * Requests primary node to commit transaction right after successful prepare. Used
+     * when all transaction keys are mapped to the recipient, so no separate finish request
+     * will be sent.
+     *
+     * @param commitVer Commit version.
+     */
+    void onePhaseCommit(GridCacheVersion commitVer) {
+        assert commitVer != null;
+
+        onePhaseCommitVer = commitVer;
+    }
+
+    /**
+     * @return {@code True} if transaction should be committed right after successful prepare.
+     */
+    public boolean onePhaseCommit() {
+        return onePhaseCommitVer != null;
+    }
+
+    /**
+     * @return Commit version for one-phase commit, {@code null} for regular two-phase commit.
+     */
+    @Nullable public GridCacheVersion onePhaseCommitVersion() {
+        return onePhaseCommitVer;
+    }
+
     /**
      * @param ctx Cache context.
      */
@@ -150,6 +181,8 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
         out.writeLong(topVer);
         out.writeBoolean(syncCommit);
         out.writeBoolean(syncRollback);
+
+        CU.writeVersion(out, onePhaseCommitVer);
     }
 
     /** {@inheritDoc} */
@@ -165,6 +198,8 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
         topVer = in.readLong();
         syncCommit = in.readBoolean();
         syncRollback = in.readBoolean();
+
+        onePhaseCommitVer = CU.readVersion(in);
     }
 
     /** {@inheritDoc} */
@@ -38,6 +38,9 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
     @GridToStringInclude
     private Collection<Integer> invalidParts;
 
+    /** Flag indicating that transaction was committed on primary node in one phase. */
+    private boolean committed;
+
     /**
      * Empty constructor required by {@link Externalizable}.
      */
@@ -95,6 +98,21 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
         return invalidParts;
     }
 
+    /**
+     * @return {@code True} if transaction was committed on primary node right after
+     *      prepare, so no finish request should be sent to it.
+     */
+    public boolean committed() {
+        return committed;
+    }
+
+    /**
+     * @param committed {@code True} if transaction was committed on primary node right after prepare.
+     */
+    public void committed(boolean committed) {
+        this.committed = committed;
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
@@ -109,6 +127,8 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
         CU.writeVersion(out, dhtVer);
 
         U.writeIntCollection(out, invalidParts);
+
+        out.writeBoolean(committed);
     }
 
     /** {@inheritDoc} */
@@ -123,6 +143,8 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
 
         invalidParts = U.readIntSet(in);
 
+        committed = in.readBoolean();
+
         assert futId != null;
         assert miniId != null;
         assert dhtVer != null;
@@ -469,15 +469,13 @@ public class GridClosureProcessor extends GridProcessorAdapter {
 
             ctx.task().setThreadContext(TC_SUBGRID, nodes);
 
+            GridClosure2X<GridJobResult, List<GridJobResult>, GridJobResultPolicy> res =
+                ctx.task().getThreadContext(TC_RESULT);
+
             return ctx.task().execute(
-                new T3<R1, R2>(
-                    mode,
-                    jobs,
-                    rdc,
-                    nodes,
-                    (GridClosure2X<GridJobResult, List<GridJobResult>, GridJobResultPolicy>)ctx.task().
-                        getThreadContext(TC_RESULT)
-                ),
+                rdc instanceof GridUnorderedReducer ?
+                    new T3Incremental<R1, R2>(mode, jobs, rdc, nodes, res) :
+                    new T3<R1, R2>(mode, jobs, rdc, nodes, res),
                 null, 0, null
             );
         }
@@ -546,6 +544,45 @@ public class GridClosureProcessor extends GridProcessorAdapter {
         }
     }
 
+    /**
+     * Version of {@link T3} task for reducers implementing {@link GridUnorderedReducer}
+     * which collects job results as they arrive.
+     */
+    private static class T3Incremental<R1, R2> extends T3<R1, R2> implements GridTaskIncrementalReducer {
+        /** */
+        private GridReducer<R1, R2> rdc;
+
+        /**
+         *
+         * @param mode Call mode.
+         * @param jobs Collection of jobs.
+         * @param rdc Reducer.
+         * @param nodes Collection of nodes.
+         * @param res Ad-hoc {@link GridTask#result(GridJobResult, List)} method implementation.
+         */
+        private T3Incremental(
+            GridClosureCallMode mode,
+            Collection<? extends Callable<R1>> jobs,
+            GridReducer<R1, R2> rdc,
+            Collection<? extends GridNode> nodes,
+            GridClosure2X<GridJobResult, List<GridJobResult>, GridJobResultPolicy> res) {
+            super(mode, jobs, rdc, nodes, res);
+
+            this.rdc = rdc;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean collect(GridJobResult res) {
+            return rdc.collect(res.<R1>getData());
+        }
+
+        /** {@inheritDoc} */
+        @Override public R2 reduce(List<GridJobResult> res) {
+            // Results have already been collected as they arrived.
+            return rdc.apply();
+        }
+    }
+
     /**
      * @param mapper Mapper.
      * @param jobs Closures to execute.
@@ -788,7 +825,12 @@ public class GridClosureProcessor extends GridProcessorAdapter {
 
             ctx.task().setThreadContext(TC_SUBGRID, nodes);
 
-            return ctx.task().execute(new T6<R1, R2, C>(mapper, jobs, rdc, nodes, ctx), null, 0, null);
+            return ctx.task().execute(
+                rdc instanceof GridUnorderedReducer ?
+                    new T6Incremental<R1, R2, C>(mapper, jobs, rdc, nodes, ctx) :
+                    new T6<R1, R2, C>(mapper, jobs, rdc, nodes, ctx),
+                null, 0, null
+            );
         }
         finally {
             leaveBusy();
@@ -868,6 +910,46 @@ public class GridClosureProcessor extends GridProcessorAdapter {
         }
     }
 
+    /**
+     * Version of {@link T6} task for reducers implementing {@link GridUnorderedReducer}
+     * which collects job results as they arrive.
+     */
+    private static class T6Incremental<R1, R2, C extends Callable<R1>> extends T6<R1, R2, C>
+        implements GridTaskIncrementalReducer {
+        /** */
+        private GridReducer<R1, R2> rdc;
+
+        /**
+         *
+         * @param mapper Mapper.
+         * @param jobs Collection of jobs.
+         * @param rdc Reducer.
+         * @param nodes Collection of nodes.
+         * @param ctx Kernal context.
+         */
+        private T6Incremental(
+            GridMapper<C, GridRichNode> mapper,
+            Collection<C> jobs,
+            GridReducer<R1, R2> rdc,
+            Collection<? extends GridNode> nodes,
+            GridKernalContext ctx) {
+            super(mapper, jobs, rdc, nodes, ctx);
+
+            this.rdc = rdc;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean collect(GridJobResult res) {
+            return rdc.collect(res.<R1>getData());
+        }
+
+        /** {@inheritDoc} */
+        @Override public R2 reduce(List<GridJobResult> res) {
+            // Results have already been collected as they arrived.
+            return rdc.apply();
+        }
+    }
+
     /**
      *
      * @param mode Distribution mode.
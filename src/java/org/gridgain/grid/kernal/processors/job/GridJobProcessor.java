@@ -18,11 +18,16 @@ import org.gridgain.grid.kernal.managers.deployment.*;
 import org.gridgain.grid.kernal.managers.discovery.*;
 import org.gridgain.grid.kernal.processors.*;
 import org.gridgain.grid.kernal.processors.jobmetrics.*;
+import org.gridgain.grid.kernal.processors.timeout.*;
+import org.gridgain.grid.lang.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.marshaller.*;
 import org.gridgain.grid.spi.collision.*;
+import org.gridgain.grid.spi.collision.priorityqueue.*;
+import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.*;
 import org.jetbrains.annotations.*;
 
 import java.io.*;
@@ -31,6 +36,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 import static org.gridgain.grid.GridEventType.*;
+import static org.gridgain.grid.GridSystemProperties.*;
 import static org.gridgain.grid.kernal.GridTopic.*;
 import static org.gridgain.grid.kernal.managers.communication.GridIoPolicy.*;
 
@@ -45,20 +51,29 @@ public class GridJobProcessor extends GridProcessorAdapter {
     /** */
     private static final int CANCEL_REQS_NUM = 1024;
 
+    /** Time window during which responses of batched jobs are coalesced. */
+    private static final long RESP_BATCH_WINDOW = Long.getLong(GG_JOB_RESPONSE_BATCH_WINDOW, 10);
+
+    /** Maximum number of job responses coalesced into one message. */
+    private static final int RESP_BATCH_MAX_SIZE = 512;
+
     /** */
     private final GridMarshaller marsh;
 
-    /** */
-    private final Map<GridUuid, GridJobWorker> activeJobs = new LinkedHashMap<GridUuid, GridJobWorker>(1024);
+    /** Active jobs in activation order. */
+    private final GridConcurrentLinkedHashMap<GridUuid, GridJobWorker> activeJobs =
+        new GridConcurrentLinkedHashMap<GridUuid, GridJobWorker>(1024);
 
-    /** */
-    private final Map<GridUuid, GridJobWorker> passiveJobs = new LinkedHashMap<GridUuid, GridJobWorker>(1024);
+    /** Passive jobs in arrival order. */
+    private final GridConcurrentLinkedHashMap<GridUuid, GridJobWorker> passiveJobs =
+        new GridConcurrentLinkedHashMap<GridUuid, GridJobWorker>(1024);
 
     /** */
-    private final Map<GridUuid, GridJobWorker> cancelledJobs = new LinkedHashMap<GridUuid, GridJobWorker>(1024);
+    private final ConcurrentMap<GridUuid, GridJobWorker> cancelledJobs =
+        new ConcurrentHashMap<GridUuid, GridJobWorker>(1024);
 
     /** */
-    private final Collection<GridUuid> cancelReqs = new GridBoundedLinkedHashSet<GridUuid>(CANCEL_REQS_NUM);
+    private final Collection<GridUuid> cancelReqs = new GridBoundedConcurrentLinkedHashSet<GridUuid>(CANCEL_REQS_NUM);
 
     /** */
     private final GridJobEventListener evtLsnr;
@@ -75,8 +90,11 @@ public class GridJobProcessor extends GridProcessorAdapter {
     /** */
     private final GridCollisionExternalListener colLsnr;
 
-    /** */
-    private int callCnt;
+    /** Busy lock, blocked on kernal stop. */
+    private final GridBusyLock busyLock = new GridBusyLock();
+
+    /** Job responses being coalesced, per task session. */
+    private final ConcurrentMap<GridUuid, ResponseBatch> respBatches = new ConcurrentHashMap<GridUuid, ResponseBatch>();
 
     /** Needed for statistics. */
     private final AtomicInteger finishedJobsCnt = new AtomicInteger(0);
@@ -84,20 +102,24 @@ public class GridJobProcessor extends GridProcessorAdapter {
     /** Total job execution time (unaccounted for in metrics). */
     private final AtomicLong finishedJobsTime = new AtomicLong(0);
 
-    /** */
-    private final AtomicReference<CollisionSnapshot> lastSnapshot = new AtomicReference<CollisionSnapshot>(null);
-
     /**
      * This flag is used a guard to prevent a new collision resolution when
-     * there were no changes since last one.
+     * there were no changes since last one. It is reset on every change of
+     * job registries.
      */
-    private boolean collisionsHandled;
+    private final AtomicBoolean collisionsHandled = new AtomicBoolean();
 
-    /** */
-    private boolean stopping;
+    /**
+     * Flag indicating that some thread is resolving collisions. Only one thread
+     * resolves collisions at a time, concurrent changes are picked up by it.
+     */
+    private final AtomicBoolean handlingCollisions = new AtomicBoolean();
 
-    /** */
-    private final Object mux = new Object();
+    /** Work-stealing executor for activated jobs, {@code null} if configured executor service is used. */
+    private GridWorkStealingExecutor stealingExec;
+
+    /** Priority collision SPI, if configured, to get priorities of jobs for work-stealing executor. */
+    private GridPriorityQueueCollisionSpiMBean prioritySpi;
 
     /**
      * @param ctx Kernal context.
@@ -123,6 +145,17 @@ public class GridJobProcessor extends GridProcessorAdapter {
         ioMgr.addMessageListener(TOPIC_CANCEL, cancelLsnr);
         ioMgr.addMessageListener(TOPIC_JOB, jobExecLsnr);
 
+        if ("true".equalsIgnoreCase(System.getProperty(GG_JOB_WORK_STEALING_EXECUTOR))) {
+            stealingExec = new GridWorkStealingExecutor(ctx.gridName(), Runtime.getRuntime().availableProcessors());
+
+            if (ctx.config().getCollisionSpi() instanceof GridPriorityQueueCollisionSpiMBean)
+                prioritySpi = (GridPriorityQueueCollisionSpiMBean)ctx.config().getCollisionSpi();
+
+            if (log.isDebugEnabled())
+                log.debug("Jobs will be executed by work-stealing executor [threadCnt=" +
+                    stealingExec.threadCount() + ']');
+        }
+
         if (log.isDebugEnabled())
             log.debug("Job processor started.");
     }
@@ -149,35 +182,19 @@ public class GridJobProcessor extends GridProcessorAdapter {
         List<GridJobWorker> jobsToCancel;
         List<GridJobWorker> jobsToReject;
 
-        synchronized (mux) {
-            jobsToReject = new ArrayList<GridJobWorker>();
+        jobsToReject = new ArrayList<GridJobWorker>();
 
-            for (Iterator<GridJobWorker> iter = passiveJobs.values().iterator(); iter.hasNext();) {
-                GridJobWorker job = iter.next();
+        for (GridJobWorker job : passiveJobs.values())
+            if (discoMgr.node(job.getTaskNodeId()) == null && passiveJobs.remove(job.getJobId(), job))
+                jobsToReject.add(job);
 
-                if (discoMgr.node(job.getTaskNodeId()) == null) {
-                    iter.remove();
+        jobsToCancel = new ArrayList<GridJobWorker>();
 
-                    jobsToReject.add(job);
-                }
-            }
-
-            jobsToCancel = new ArrayList<GridJobWorker>();
-
-            for (Iterator<GridJobWorker> iter = activeJobs.values().iterator(); iter.hasNext();) {
-                GridJobWorker job = iter.next();
-
-                if (discoMgr.node(job.getTaskNodeId()) == null) {
-                    iter.remove();
-
-                    cancelledJobs.put(job.getJobId(), job);
+        for (GridJobWorker job : activeJobs.values())
+            if (discoMgr.node(job.getTaskNodeId()) == null && cancelActive(job))
+                jobsToCancel.add(job);
 
-                    jobsToCancel.add(job);
-                }
-            }
-
-            collisionsHandled = false;
-        }
+        collisionsHandled.set(false);
 
         // Passive jobs.
         for (GridJobWorker job : jobsToReject) {
@@ -199,13 +216,22 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
     /** {@inheritDoc} */
     @Override public void stop(boolean cancel, boolean wait) {
-        // Clear collections.
-        synchronized (mux) {
-            activeJobs.clear();
-            cancelledJobs.clear();
-            cancelReqs.clear();
+        if (stealingExec != null) {
+            try {
+                stealingExec.shutdown();
+            }
+            catch (InterruptedException ignored) {
+                U.warn(log, "Interrupted while waiting for work-stealing executor to stop.");
+
+                Thread.currentThread().interrupt();
+            }
         }
 
+        // Clear collections.
+        activeJobs.clear();
+        cancelledJobs.clear();
+        cancelReqs.clear();
+
         if (log.isDebugEnabled())
             log.debug("Job processor stopped.");
     }
@@ -225,42 +251,17 @@ public class GridJobProcessor extends GridProcessorAdapter {
         List<GridJobWorker> jobsToCancel;
         List<GridJobWorker> jobsToJoin;
 
-        synchronized (mux) {
-            // Set stopping flag first.
-            stopping = true;
-
-            // Wait for all listener callbacks to complete.
-            while (true) {
-                assert callCnt >= 0;
-
-                // This condition is taken out of the loop to avoid
-                // potentially wrong optimization by the compiler of
-                // moving field access out of the loop causing this loop
-                // to never exit.
-                if (callCnt == 0)
-                    break;
+        // Wait for all listener callbacks to complete and prevent new ones.
+        busyLock.block();
 
-                if (log.isDebugEnabled())
-                    log.debug("Waiting for job calls to finish: " + callCnt);
-
-                try {
-                    // Release mux.
-                    mux.wait(5000);
-                }
-                catch (InterruptedException e) {
-                    U.error(log, "Got interrupted while stopping (shutdown is incomplete)", e);
-                }
-            }
-
-            jobsToReject = new ArrayList<GridJobWorker>(passiveJobs.values());
+        jobsToReject = new ArrayList<GridJobWorker>(passiveJobs.values());
 
-            passiveJobs.clear();
+        passiveJobs.clear();
 
-            jobsToCancel = new ArrayList<GridJobWorker>(activeJobs.values());
-            jobsToJoin = new ArrayList<GridJobWorker>(cancelledJobs.values());
+        jobsToCancel = new ArrayList<GridJobWorker>(activeJobs.values());
+        jobsToJoin = new ArrayList<GridJobWorker>(cancelledJobs.values());
 
-            jobsToJoin.addAll(jobsToCancel);
-        }
+        jobsToJoin.addAll(jobsToCancel);
 
         // Rejected jobs.
         for (GridJobWorker job : jobsToReject)
@@ -276,6 +277,10 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
         U.join(jobsToJoin, log);
 
+        // Send all coalesced responses of finished jobs.
+        for (ResponseBatch batch : respBatches.values())
+            batch.flush();
+
         // Ignore topology changes.
         ctx.event().removeLocalEventListener(discoLsnr);
 
@@ -293,9 +298,26 @@ public class GridJobProcessor extends GridProcessorAdapter {
     public GridJobWorker activeJob(GridUuid jobId) {
         assert jobId != null;
 
-        synchronized (mux) {
-            return activeJobs.get(jobId);
-        }
+        return activeJobs.get(jobId);
+    }
+
+    /**
+     * Moves active job to cancelled jobs. Job is first added to cancelled jobs, so
+     * it is never missing from both registries and is removed from cancelled jobs
+     * by {@link GridJobEventListener#onJobFinished(GridJobWorker)} if it finishes concurrently.
+     *
+     * @param job Active job.
+     * @return {@code True} if job was active and has been moved to cancelled jobs.
+     */
+    private boolean cancelActive(GridJobWorker job) {
+        cancelledJobs.put(job.getJobId(), job);
+
+        if (activeJobs.remove(job.getJobId(), job))
+            return true;
+
+        cancelledJobs.remove(job.getJobId(), job);
+
+        return false;
     }
 
     /**
@@ -337,6 +359,53 @@ public class GridJobProcessor extends GridProcessorAdapter {
             ctx.resource().onUndeployed(dep);
     }
 
+    /**
+     * Processes execution request of a job passed by reference from task on local node.
+     * Request is processed synchronously in the calling thread, and job is then executed
+     * the same way as jobs received from remote nodes.
+     *
+     * @param req Job execution request.
+     */
+    public void processLocalJobExecuteRequest(GridJobExecuteRequest req) {
+        assert req.isLocalJob();
+
+        jobExecLsnr.onMessage(ctx.localNodeId(), req);
+    }
+
+    /**
+     * Adds response of a job received in a batch request to responses of other jobs of the
+     * same task, which are sent together in one message once coalescing window expires or
+     * enough responses have been collected.
+     *
+     * @param taskNode Task node.
+     * @param res Job response.
+     * @return {@code False} if response coalescing is disabled and response should be sent
+     *      immediately.
+     */
+    boolean coalesceResponse(GridNode taskNode, GridJobExecuteResponse res) {
+        if (RESP_BATCH_WINDOW <= 0)
+            return false;
+
+        while (true) {
+            ResponseBatch batch = respBatches.get(res.getSessionId());
+
+            if (batch == null) {
+                ResponseBatch old = respBatches.putIfAbsent(res.getSessionId(),
+                    batch = new ResponseBatch(taskNode, res.getSessionId()));
+
+                if (old != null)
+                    batch = old;
+                else
+                    ctx.timeout().addTimeoutObject(batch);
+            }
+
+            if (batch.add(res))
+                return true;
+
+            // Batch has just been sent, retry with a new one.
+        }
+    }
+
     /**
      * @param ses Session.
      * @param attrs Attributes.
@@ -407,97 +476,102 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 res.getException());
     }
 
-    /** */
+    /**
+     * Resolves collisions if job registries changed since last resolution. If another
+     * thread is resolving collisions at the moment, it will pick up the changes, so
+     * this method returns immediately.
+     */
     private void handleCollisions() {
-        CollisionSnapshot snapshot;
+        while (!collisionsHandled.get()) {
+            if (!handlingCollisions.compareAndSet(false, true)) {
+                ctx.jobMetric().onCollisionCoalesced();
 
-        synchronized (mux) {
-            // Don't do anything if collisions were handled by another thread.
-            if (collisionsHandled)
                 return;
-
-            snapshot = new CollisionSnapshot();
-
-            // Create collection of active contexts. Note that we don't
-            // care about cancelled jobs that are still running.
-            for (GridJobWorker job : activeJobs.values()) {
-                if (job.held())
-                    snapshot.addHeld(job);
-                else
-                    snapshot.addActive(job);
             }
 
-            // Create collection of passive contexts.
-            for (GridJobWorker job : passiveJobs.values())
-                snapshot.addPassive(job);
+            try {
+                if (collisionsHandled.compareAndSet(false, true)) {
+                    long start = System.nanoTime();
 
-            // Even though lastSnapshot is atomic, we still set
-            // it inside of synchronized block because we want
-            // to maintain proper order of snapshots.
-            lastSnapshot.set(snapshot);
+                    new CollisionRound().onCollision();
 
-            // Mark collisions as handled to make sure that none will
-            // happen if job topology did not change.
-            collisionsHandled = true;
+                    ctx.jobMetric().onCollisionResolved(System.nanoTime() - start);
+                }
+            }
+            finally {
+                handlingCollisions.set(false);
+            }
         }
+    }
 
-        // Outside of synchronization handle whichever snapshot was added last
-        if ((snapshot = lastSnapshot.getAndSet(null)) != null)
-            snapshot.onCollision();
+    /**
+     * Executes activated job.
+     *
+     * @param job Job worker.
+     * @throws RejectedExecutionException If job could not be accepted for execution.
+     */
+    private void execute(GridJobWorker job) {
+        if (stealingExec != null)
+            stealingExec.execute(job, prioritySpi == null ? 0 : priority(job));
+        else
+            ctx.config().getExecutorService().execute(job);
     }
 
     /**
-     * Decrements call counter.
+     * Gets job priority the same way as {@link GridPriorityQueueCollisionSpi} does.
+     *
+     * @param job Job worker.
+     * @return Job priority.
      */
-    private void decrementCallCount() {
-        synchronized (mux) {
-            callCnt--;
+    private int priority(GridJobWorker job) {
+        assert prioritySpi != null;
 
-            if (callCnt == 0)
-                mux.notifyAll();
-        }
+        Object p = job.getJobContext().getAttribute(prioritySpi.getJobPriorityAttributeKey());
+
+        if (!(p instanceof Integer))
+            p = job.getSession().getAttribute(prioritySpi.getPriorityAttributeKey());
+
+        return p instanceof Integer ? (Integer)p : prioritySpi.getDefaultPriority();
+    }
+
+    /**
+     * Gets work-stealing executor. Its per-worker statistics are published by
+     * {@link GridJobMetricsProcessor}.
+     *
+     * @return Work-stealing executor or {@code null} if jobs are executed by configured executor service.
+     */
+    @Nullable public GridWorkStealingExecutor workStealingExecutor() {
+        return stealingExec;
     }
 
     /** {@inheritDoc} */
     @Override public void printMemoryStats() {
-        int activeJobsSize;
-        int passiveJobsSize;
-        int cancelledJobsSize;
-
-        synchronized (mux) {
-            activeJobsSize = activeJobs.size();
-            passiveJobsSize = passiveJobs.size();
-            cancelledJobsSize = cancelledJobs.size();
-        }
-
         X.println(">>>");
         X.println(">>> Job processor memory stats [grid=" + ctx.gridName() + ']');
-        X.println(">>>   activeJobsSize: " + activeJobsSize);
-        X.println(">>>   passiveJobsSize: " + passiveJobsSize);
-        X.println(">>>   cancelledJobsSize: " + cancelledJobsSize);
+        X.println(">>>   activeJobsSize: " + activeJobs.sizex());
+        X.println(">>>   passiveJobsSize: " + passiveJobs.sizex());
+        X.println(">>>   cancelledJobsSize: " + cancelledJobs.size());
         X.println(">>>   cancelReqsSize: " + cancelReqs.size());
     }
 
-    /** */
-    private class CollisionSnapshot {
-        /** */
-        private Collection<GridCollisionJobContext> passiveCtxs;
+    /**
+     * Single collision resolution. Collision SPI is given read-only views of job
+     * registries rather than their copies, and only jobs activated or cancelled by
+     * SPI are processed afterwards.
+     */
+    private class CollisionRound {
+        /** Passive jobs activated by collision SPI. */
+        private Collection<CollisionJobContext> activated;
 
-        /** */
-        private Collection<GridCollisionJobContext> activeCtxs;
+        /** Passive jobs rejected by collision SPI. */
+        private Collection<CollisionJobContext> rejected;
 
-        /** Held contexts. */
-        private Collection<GridCollisionJobContext> heldCtxs;
+        /** Active jobs cancelled by collision SPI. */
+        private Collection<CollisionJobContext> cancelled;
 
         /** */
         private int startedCtr;
 
-        /** */
-        private int activeCtr;
-
-        /** */
-        private int passiveCtr;
-
         /** */
         private int cancelCtr;
 
@@ -507,48 +581,35 @@ public class GridJobProcessor extends GridProcessorAdapter {
         /** */
         private long totalWaitTime;
 
-        /** */
-        private CollisionJobContext oldestPassive;
-
-        /** */
-        private CollisionJobContext oldestActive;
-
-        /**
-         * @param job Passive job.
-         */
-        void addPassive(GridJobWorker job) {
-            if (passiveCtxs == null)
-                passiveCtxs = new LinkedList<GridCollisionJobContext>();
-
-            passiveCtxs.add(new CollisionJobContext(job, true));
-        }
-
         /**
-         * @param job Active job.
+         * @param passive {@code True} for passive jobs.
+         * @param held {@code True} for held jobs, ignored for passive jobs.
+         * @return View of jobs as collision contexts.
          */
-        void addActive(GridJobWorker job) {
-            if (activeCtxs == null)
-                activeCtxs = new LinkedList<GridCollisionJobContext>();
-
-            activeCtxs.add(new CollisionJobContext(job, false));
-        }
+        private Collection<GridCollisionJobContext> view(final boolean passive, final boolean held) {
+            GridClosure<GridJobWorker, GridCollisionJobContext> trans =
+                new C1<GridJobWorker, GridCollisionJobContext>() {
+                    @Override public GridCollisionJobContext apply(GridJobWorker job) {
+                        return new CollisionJobContext(job, passive);
+                    }
+                };
 
-        /**
-         * @param job Held job.
-         */
-        void addHeld(GridJobWorker job) {
-            if (heldCtxs == null)
-                heldCtxs = new LinkedList<GridCollisionJobContext>();
+            if (passive)
+                return F.viewReadOnly(passiveJobs.values(), trans);
 
-            heldCtxs.add(new CollisionJobContext(job, false));
+            return F.viewReadOnly(activeJobs.values(), trans, new P1<GridJobWorker>() {
+                @Override public boolean apply(GridJobWorker job) {
+                    return job.held() == held;
+                }
+            });
         }
 
         /**
          * @param c Collection of job contexts, possibly {@code null}.
          * @return Non-null collection.
          */
-        private Collection<GridCollisionJobContext> mask(@Nullable Collection<GridCollisionJobContext> c) {
-            return c == null ? Collections.<GridCollisionJobContext>emptyList() : c;
+        private Collection<CollisionJobContext> mask(@Nullable Collection<CollisionJobContext> c) {
+            return c == null ? Collections.<CollisionJobContext>emptyList() : c;
         }
 
         /**
@@ -556,90 +617,77 @@ public class GridJobProcessor extends GridProcessorAdapter {
          */
         void onCollision() {
             // Invoke collision SPI.
-            ctx.collision().onCollision(mask(passiveCtxs), mask(activeCtxs), mask(heldCtxs));
+            ctx.collision().onCollision(view(true, false), view(false, false), view(false, true));
 
-            // Process waiting list.
-            for (GridCollisionJobContext c : mask(passiveCtxs)) {
-                CollisionJobContext jobCtx = (CollisionJobContext)c;
+            // Process rejected jobs.
+            for (CollisionJobContext jobCtx : mask(rejected)) {
+                rejectJob(jobCtx.getJobWorker());
 
-                if (jobCtx.isCancelled()) {
-                    rejectJob(jobCtx.getJobWorker());
+                rejectCtr++;
+            }
 
-                    rejectCtr++;
-                }
-                else {
-                    if (jobCtx.isActivated()) {
-                        totalWaitTime += jobCtx.getJobWorker().getQueuedTime();
+            // Process activated jobs.
+            for (CollisionJobContext jobCtx : mask(activated)) {
+                totalWaitTime += jobCtx.getJobWorker().getQueuedTime();
 
-                        try {
-                            // Execute in a different thread.
-                            ctx.config().getExecutorService().execute(jobCtx.getJobWorker());
+                try {
+                    // Execute in a different thread.
+                    execute(jobCtx.getJobWorker());
 
-                            startedCtr++;
+                    startedCtr++;
+                }
+                catch (RejectedExecutionException e) {
+                    activeJobs.remove(jobCtx.getJobWorker().getJobId());
 
-                            activeCtr++;
-                        }
-                        catch (RejectedExecutionException e) {
-                            synchronized (mux) {
-                                activeJobs.remove(jobCtx.getJobWorker().getJobId());
-                            }
+                    GridException e2 = new GridExecutionRejectedException(
+                        "Job was cancelled before execution [jobSes=" + jobCtx.getJobWorker().getSession() +
+                            ", job=" + jobCtx.getJobWorker().getJob() + ']', e);
 
-                            GridException e2 = new GridExecutionRejectedException(
-                                "Job was cancelled before execution [jobSes=" + jobCtx.getJobWorker().getSession() +
-                                    ", job=" + jobCtx.getJobWorker().getJob() + ']', e);
+                    finishJob(jobCtx.getJobWorker(), null, e2, true);
+                }
+            }
 
-                            finishJob(jobCtx.getJobWorker(), null, e2, true);
-                        }
-                    }
-                    // Job remains on passive list.
-                    else {
-                        passiveCtr++;
-                    }
+            // Process cancelled jobs.
+            for (CollisionJobContext jobCtx : mask(cancelled)) {
+                boolean isCancelled = jobCtx.getJobWorker().isCancelled();
 
-                    // Since jobs are ordered, first job is the oldest passive job.
-                    if (oldestPassive == null)
-                        oldestPassive = jobCtx;
-                }
+                // We do apply cancel as many times as user cancel job.
+                cancelJob(jobCtx.getJobWorker(), false);
+
+                // But we don't increment number of cancelled jobs if it
+                // was already cancelled.
+                if (!isCancelled)
+                    cancelCtr++;
             }
 
-            // Process active list.
-            for (GridCollisionJobContext c : mask(activeCtxs)) {
-                CollisionJobContext ctx = (CollisionJobContext)c;
+            updateCollisionMetrics();
+        }
 
-                if (ctx.isCancelled()) {
-                    boolean isCancelled = ctx.getJobWorker().isCancelled();
+        /** */
+        private void updateCollisionMetrics() {
+            int activeCtr = 0;
 
-                    // We do apply cancel as many times as user cancel job.
-                    cancelJob(ctx.getJobWorker(), false);
+            GridJobWorker oldestActive = null;
 
-                    // But we don't increment number of cancelled jobs if it
-                    // was already cancelled.
-                    if (!isCancelled)
-                        cancelCtr++;
-                }
-                // Job remains on active list.
-                else {
+            // Jobs are ordered, so first job is the oldest one.
+            for (GridJobWorker job : activeJobs.values()) {
+                if (!job.held()) {
                     if (oldestActive == null)
-                        oldestActive = ctx;
+                        oldestActive = job;
 
                     activeCtr++;
                 }
             }
 
-            updateCollisionMetrics();
-        }
-
-        /** */
-        private void updateCollisionMetrics() {
-            int curCancelled = cancelCtr;
+            GridJobWorker oldestPassive = F.first(passiveJobs.values());
 
             GridJobMetricsSnapshot m = new GridJobMetricsSnapshot();
 
             m.setActiveJobs(activeCtr);
-            m.setCancelJobs(curCancelled);
-            m.setMaximumExecutionTime(oldestActive == null ? 0 : oldestActive.getJobWorker().getExecuteTime());
-            m.setMaximumWaitTime(oldestPassive == null ? 0 : oldestPassive.getJobWorker().getQueuedTime());
-            m.setPassiveJobs(passiveCtr);
+            m.setCancelJobs(cancelCtr);
+            m.setMaximumExecutionTime(oldestActive == null ? 0 : oldestActive.getExecuteTime());
+            m.setMaximumWaitTime(oldestPassive == null ? 0 : oldestPassive.getQueuedTime());
+            m.setPassiveJobs(passiveJobs.sizex());
             m.setRejectJobs(rejectCtr);
             m.setWaitTime(totalWaitTime);
             m.setStartedJobs(startedCtr);
@@ -662,10 +710,10 @@ public class GridJobProcessor extends GridProcessorAdapter {
             private final boolean isPassive;
 
             /** */
-            private boolean isActivated;
+            private volatile boolean isActivated;
 
             /** */
-            private boolean isCancelled;
+            private volatile boolean isCancelled;
 
             /**
              * @param jobWorker Job Worker.
@@ -679,33 +727,54 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
             /** {@inheritDoc} */
             @Override public boolean activate() {
-                synchronized (mux) {
-                    if (passiveJobs.remove(getJobWorker().getJobId()) != null) {
-                        activeJobs.put(getJobWorker().getJobId(), getJobWorker());
+                GridJobWorker job = getJobWorker();
 
-                        isActivated = true;
-                    }
+                if (isPassive && passiveJobs.remove(job.getJobId(), job)) {
+                    activeJobs.put(job.getJobId(), job);
 
-                    return isActivated;
+                    isActivated = true;
+
+                    synchronized (CollisionRound.this) {
+                        if (activated == null)
+                            activated = new ArrayList<CollisionJobContext>();
+
+                        activated.add(this);
+                    }
                 }
+
+                return isActivated;
             }
 
             /** {@inheritDoc} */
             @Override public boolean cancel() {
-                synchronized (mux) {
-                    // If waiting job being rejected.
-                    if (isPassive) {
-                        isCancelled = passiveJobs.remove(getJobWorker().getJobId()) != null;
-                    }
-                    // If active job being cancelled.
-                    else if (activeJobs.remove(getJobWorker().getJobId()) != null) {
-                        cancelledJobs.put(getJobWorker().getJobId(), getJobWorker());
+                GridJobWorker job = getJobWorker();
 
+                // If waiting job being rejected.
+                if (isPassive) {
+                    if (passiveJobs.remove(job.getJobId(), job)) {
                         isCancelled = true;
+
+                        synchronized (CollisionRound.this) {
+                            if (rejected == null)
+                                rejected = new ArrayList<CollisionJobContext>();
+
+                            rejected.add(this);
+                        }
                     }
+                }
+                // If active job being cancelled.
+                else if (cancelActive(job)) {
+                    isCancelled = true;
+
+                    synchronized (CollisionRound.this) {
+                        if (cancelled == null)
+                            cancelled = new ArrayList<CollisionJobContext>();
 
-                    return isCancelled;
+                        cancelled.add(this);
+                    }
                 }
+
+                return isCancelled;
             }
 
             /**
@@ -714,9 +783,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
              * @return {@code True} if context was activated.
              */
             public boolean isActivated() {
-                synchronized (mux) {
-                    return isActivated;
-                }
+                return isActivated;
             }
 
             /**
@@ -725,9 +792,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
              * @return {@code True} if context was cancelled.
              */
             public boolean isCancelled() {
-                synchronized (mux) {
-                    return isCancelled;
-                }
+                return isCancelled;
             }
 
             /** {@inheritDoc} */
@@ -746,24 +811,20 @@ public class GridJobProcessor extends GridProcessorAdapter {
             if (log.isDebugEnabled())
                 log.debug("Received external collision event.");
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isInfoEnabled())
-                        log.info("Received external collision notification while stopping grid (will ignore).");
+            if (!busyLock.enterBusy()) {
+                if (log.isInfoEnabled())
+                    log.info("Received external collision notification while stopping grid (will ignore).");
 
-                    return;
-                }
-
-                collisionsHandled = false;
-
-                callCnt++;
+                return;
             }
 
             try {
+                collisionsHandled.set(false);
+
                 handleCollisions();
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
@@ -813,30 +874,29 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
             release(worker.getDeployment());
 
-            synchronized (mux) {
-                assert !passiveJobs.containsKey(worker.getJobId());
-
-                activeJobs.remove(worker.getJobId());
-                cancelledJobs.remove(worker.getJobId());
+            assert !passiveJobs.containsKey(worker.getJobId());
 
-                collisionsHandled = false;
+            activeJobs.remove(worker.getJobId());
+            cancelledJobs.remove(worker.getJobId());
 
-                callCnt++;
-            }
+            collisionsHandled.set(false);
 
-            try {
-                // Increment job execution counter. This counter gets
-                // reset once this job will be accounted for in metrics.
-                finishedJobsCnt.incrementAndGet();
+            // Increment job execution counter. This counter gets
+            // reset once this job will be accounted for in metrics.
+            finishedJobsCnt.incrementAndGet();
 
-                // Increment job execution time. This counter gets
-                // reset once this job will be accounted for in metrics.
-                finishedJobsTime.addAndGet(worker.getExecuteTime());
+            // Increment job execution time. This counter gets
+            // reset once this job will be accounted for in metrics.
+            finishedJobsTime.addAndGet(worker.getExecuteTime());
 
-                handleCollisions();
-            }
-            finally {
-                decrementCallCount();
+            // Jobs may still finish after kernal stop started.
+            if (busyLock.enterBusy()) {
+                try {
+                    handleCollisions();
+                }
+                finally {
+                    busyLock.leaveBusy();
+                }
             }
         }
     }
@@ -859,78 +919,47 @@ public class GridJobProcessor extends GridProcessorAdapter {
             Collection<GridJobWorker> jobsToCancel = new ArrayList<GridJobWorker>();
             Collection<GridJobWorker> jobsToReject = new ArrayList<GridJobWorker>();
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isDebugEnabled())
-                        log.debug("Received task cancellation request while stopping grid (will ignore): " + cancelMsg);
-
-                    return;
-                }
+            if (!busyLock.enterBusy()) {
+                if (log.isDebugEnabled())
+                    log.debug("Received task cancellation request while stopping grid (will ignore): " + cancelMsg);
 
-                callCnt++;
+                return;
+            }
 
-                // Put either job id or session id (they are unique).
+            try {
+                // Put either job id or session id (they are unique). Note that request is
+                // registered before jobs are looked up, so concurrently arriving job will see it.
                 if (cancelMsg.getJobId() != null)
                     cancelReqs.add(cancelMsg.getJobId());
                 else
                     cancelReqs.add(cancelMsg.getSessionId());
 
                 // Passive jobs.
-                for (Iterator<GridJobWorker> iter = passiveJobs.values().iterator(); iter.hasNext();) {
-                    GridJobWorker job = iter.next();
-
+                for (GridJobWorker job : passiveJobs.values()) {
                     if (job.getSession().getId().equals(cancelMsg.getSessionId())) {
                         // If job session ID is provided, then match it too.
-                        if (cancelMsg.getJobId() != null) {
-                            if (job.getJobId().equals(cancelMsg.getJobId())) {
-                                iter.remove();
-
-                                jobsToReject.add(job);
-
-                                collisionsHandled = false;
-                            }
-                        }
-                        else {
-                            iter.remove();
-
+                        if ((cancelMsg.getJobId() == null || job.getJobId().equals(cancelMsg.getJobId())) &&
+                            passiveJobs.remove(job.getJobId(), job)) {
                             jobsToReject.add(job);
 
-                            collisionsHandled = false;
+                            collisionsHandled.set(false);
                         }
                     }
                 }
 
                 // Active jobs.
-                for (Iterator<GridJobWorker> iter = activeJobs.values().iterator(); iter.hasNext();) {
-                    GridJobWorker job = iter.next();
-
+                for (GridJobWorker job : activeJobs.values()) {
                     if (job.getSession().getId().equals(cancelMsg.getSessionId())) {
                         // If job session ID is provided, then match it too.
-                        if (cancelMsg.getJobId() != null) {
-                            if (job.getJobId().equals(cancelMsg.getJobId())) {
-                                iter.remove();
-
-                                cancelledJobs.put(job.getJobId(), job);
-
-                                jobsToCancel.add(job);
-
-                                collisionsHandled = false;
-                            }
-                        }
-                        else {
-                            iter.remove();
-
-                            cancelledJobs.put(job.getJobId(), job);
-
+                        if ((cancelMsg.getJobId() == null || job.getJobId().equals(cancelMsg.getJobId())) &&
+                            cancelActive(job)) {
                             jobsToCancel.add(job);
 
-                            collisionsHandled = false;
+                            collisionsHandled.set(false);
                         }
                     }
                 }
-            }
 
-            try {
                 for (GridJobWorker job : jobsToReject)
                     rejectJob(job);
 
@@ -940,7 +969,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 handleCollisions();
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
@@ -957,6 +986,14 @@ public class GridJobProcessor extends GridProcessorAdapter {
             assert nodeId != null;
             assert msg != null;
 
+            if (msg instanceof GridJobExecuteBatchRequest) {
+                // Jobs of a batch share task data, but otherwise are processed independently.
+                for (GridJobExecuteRequest req : ((GridJobExecuteBatchRequest)msg).requests())
+                    onMessage(nodeId, req);
+
+                return;
+            }
+
             if (!ctx.discovery().alive(nodeId)) {
                 U.warn(log, "Received job request message from unknown node (ignoring) " +
                     "[msg=" + msg + ", nodeId=" + nodeId + ']');
@@ -967,15 +1004,11 @@ public class GridJobProcessor extends GridProcessorAdapter {
             if (log.isDebugEnabled())
                 log.debug("Received job request message [msg=" + msg + ", nodeId=" + nodeId + ']');
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isInfoEnabled())
-                        log.info("Received job execution request while stopping this node (will ignore): " + msg);
-
-                    return;
-                }
+            if (!busyLock.enterBusy()) {
+                if (log.isInfoEnabled())
+                    log.info("Received job execution request while stopping this node (will ignore): " + msg);
 
-                callCnt++;
+                return;
             }
 
             try {
@@ -1029,7 +1062,8 @@ public class GridJobProcessor extends GridProcessorAdapter {
                             req.getStartTaskTime(),
                             endTime,
                             siblings,
-                            (Map<Object, Object>)U.unmarshal(marsh, req.getSessionAttributes(), dep.classLoader())
+                            req.isLocalJob() ? req.getLocalSessionAttributes() :
+                                (Map<Object, Object>)U.unmarshal(marsh, req.getSessionAttributes(), dep.classLoader())
                         );
 
                         taskSes.setCheckpointSpi(req.getCheckpointSpi());
@@ -1038,8 +1072,9 @@ public class GridJobProcessor extends GridProcessorAdapter {
                         jobSes = new GridJobSessionImpl(ctx, taskSes, req.getJobId());
 
                         jobCtx = new GridJobContextImpl(ctx, req.getJobId(),
-                            (Map<? extends Serializable, ? extends Serializable>)U.unmarshal(
-                                marsh, req.getJobAttributes(), dep.classLoader()));
+                            (Map<? extends Serializable, ? extends Serializable>)(req.isLocalJob() ?
+                                req.getLocalJobAttributes() :
+                                U.unmarshal(marsh, req.getJobAttributes(), dep.classLoader())));
                     }
                     catch (GridException e) {
                         GridException ex = new GridException("Failed to deserialize task  attributes [taskName=" +
@@ -1062,47 +1097,54 @@ public class GridJobProcessor extends GridProcessorAdapter {
                         jobSes,
                         jobCtx,
                         req.getJobBytes(),
+                        req.getLocalJob(),
+                        req.isBatched(),
                         req.getTaskNodeId(),
                         evtLsnr);
 
                     jobCtx.job(job);
 
                     if (job.initialize(dep, dep.deployedClass(req.getTaskClassName()))) {
-                        synchronized (mux) {
-                            // Check if job or task has already been canceled.
-                            if (cancelReqs.contains(req.getJobId()) ||
-                                cancelReqs.contains(req.getSessionId())) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Received execution request for the cancelled job (will ignore) " +
-                                        "[srcNode=" + req.getTaskNodeId() + ", jobId=" + req.getJobId() +
-                                        ", sesId=" + req.getSessionId() + ']');
-                                }
-
-                                return;
-                            }
-                            else if (passiveJobs.containsKey(job.getJobId()) ||
-                                activeJobs.containsKey(job.getJobId()) ||
-                                cancelledJobs.containsKey(job.getJobId())) {
-                                U.error(log, "Received computation request with duplicate job ID " +
-                                    "(could be network malfunction, source node may hang if task timeout was not set) " +
-                                    "[srcNode=" + req.getTaskNodeId() +
-                                    ", jobId=" + req.getJobId() +
-                                    ", sesId=" + req.getSessionId() +
-                                    ", locNodeId=" + ctx.localNodeId() +
-                                    ", isActive=" + activeJobs.containsKey(job.getJobId()) +
-                                    ", isPassive=" + passiveJobs.containsKey(job.getJobId()) +
-                                    ", isCancelled=" + cancelledJobs.containsKey(job.getJobId()) +
-                                    ']');
-
-                                return;
+                        // Check if job or task has already been canceled.
+                        if (isCancelRequested(req)) {
+                            if (log.isDebugEnabled()) {
+                                log.debug("Received execution request for the cancelled job (will ignore) " +
+                                    "[srcNode=" + req.getTaskNodeId() + ", jobId=" + req.getJobId() +
+                                    ", sesId=" + req.getSessionId() + ']');
                             }
-                            else {
-                                passiveJobs.put(job.getJobId(), job);
 
-                                collisionsHandled = false;
+                            return;
+                        }
+                        else if (activeJobs.containsKey(job.getJobId()) ||
+                            cancelledJobs.containsKey(job.getJobId()) ||
+                            passiveJobs.putIfAbsent(job.getJobId(), job) != null) {
+                            U.error(log, "Received computation request with duplicate job ID " +
+                                "(could be network malfunction, source node may hang if task timeout was not set) " +
+                                "[srcNode=" + req.getTaskNodeId() +
+                                ", jobId=" + req.getJobId() +
+                                ", sesId=" + req.getSessionId() +
+                                ", locNodeId=" + ctx.localNodeId() +
+                                ", isActive=" + activeJobs.containsKey(job.getJobId()) +
+                                ", isPassive=" + passiveJobs.containsKey(job.getJobId()) +
+                                ", isCancelled=" + cancelledJobs.containsKey(job.getJobId()) +
+                                ']');
+
+                            return;
+                        }
+
+                        // Cancel request could arrive while job was being registered.
+                        if (isCancelRequested(req) && passiveJobs.remove(job.getJobId(), job)) {
+                            if (log.isDebugEnabled()) {
+                                log.debug("Received execution request for the cancelled job (will ignore) " +
+                                    "[srcNode=" + req.getTaskNodeId() + ", jobId=" + req.getJobId() +
+                                    ", sesId=" + req.getSessionId() + ']');
                             }
+
+                            return;
                         }
 
+                        collisionsHandled.set(false);
+
                         handleCollisions();
                     }
                 }
@@ -1119,10 +1161,18 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 }
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
 
+        /**
+         * @param req Job execution request.
+         * @return {@code True} if job or its task has been cancelled.
+         */
+        private boolean isCancelRequested(GridJobExecuteRequest req) {
+            return cancelReqs.contains(req.getJobId()) || cancelReqs.contains(req.getSessionId());
+        }
+
         /**
          * Handles errors that happened prior to job creation.
          *
@@ -1225,6 +1275,108 @@ public class GridJobProcessor extends GridProcessorAdapter {
         }
     }
 
+    /**
+     * Responses of jobs of the same task coalesced into one message.
+     */
+    private class ResponseBatch implements GridTimeoutObject {
+        /** Timeout ID. */
+        private final GridUuid timeoutId = GridUuid.randomUuid();
+
+        /** Time when batch is sent. */
+        private final long endTime = System.currentTimeMillis() + RESP_BATCH_WINDOW;
+
+        /** Task node. */
+        private final GridNode taskNode;
+
+        /** Task session ID. */
+        private final GridUuid sesId;
+
+        /** Coalesced responses. */
+        private Collection<GridJobExecuteResponse> resps = new ArrayList<GridJobExecuteResponse>();
+
+        /**
+         * @param taskNode Task node.
+         * @param sesId Task session ID.
+         */
+        ResponseBatch(GridNode taskNode, GridUuid sesId) {
+            this.taskNode = taskNode;
+            this.sesId = sesId;
+        }
+
+        /**
+         * @param res Job response.
+         * @return {@code False} if batch has already been sent.
+         */
+        boolean add(GridJobExecuteResponse res) {
+            boolean full;
+
+            synchronized (this) {
+                if (resps == null)
+                    return false;
+
+                resps.add(res);
+
+                full = resps.size() >= RESP_BATCH_MAX_SIZE;
+            }
+
+            if (full) {
+                ctx.timeout().removeTimeoutObject(this);
+
+                flush();
+            }
+
+            return true;
+        }
+
+        /**
+         * Sends all coalesced responses.
+         */
+        void flush() {
+            Collection<GridJobExecuteResponse> resps;
+
+            synchronized (this) {
+                resps = this.resps;
+
+                if (resps == null)
+                    return;
+
+                this.resps = null;
+            }
+
+            respBatches.remove(sesId, this);
+
+            try {
+                ctx.io().send(taskNode, TOPIC_TASK.name(sesId), new GridJobExecuteBatchResponse(sesId, resps),
+                    SYSTEM_POOL);
+            }
+            catch (GridException e) {
+                // The only option here is to log, as we must assume that resending will fail too.
+                if (ctx.discovery().node(taskNode.id()) == null)
+                    // Avoid stack trace for left nodes.
+                    U.error(log, "Failed to reply to sender node because it left grid [nodeId=" + taskNode.id() +
+                        ", taskSesId=" + sesId + ", jobsCnt=" + resps.size() + ']');
+                else
+                    U.error(log, "Error sending coalesced job replies [nodeId=" + taskNode.id() +
+                        ", taskSesId=" + sesId + ", jobsCnt=" + resps.size() + ']', e);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public GridUuid timeoutId() {
+            return timeoutId;
+        }
+
+        /** {@inheritDoc} */
+        @Override public long endTime() {
+            return endTime;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onTimeout() {
+            flush();
+        }
+    }
+
     /** */
     private class JobSessionListener implements GridMessageListener {
         @SuppressWarnings({"SynchronizationOnLocalVariableOrMethodParameter"})
@@ -1237,15 +1389,11 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
             GridTaskSessionRequest req = (GridTaskSessionRequest)msg;
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isInfoEnabled())
-                        log.info("Received job session request while stopping grid (will ignore): " + req);
+            if (!busyLock.enterBusy()) {
+                if (log.isInfoEnabled())
+                    log.info("Received job session request while stopping grid (will ignore): " + req);
 
-                    return;
-                }
-
-                callCnt++;
+                return;
             }
 
             try {
@@ -1279,7 +1427,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 U.error(log, "Failed to deserialize session attributes.", e);
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
@@ -1295,7 +1443,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
          * Counter used to determine whether all nodes updated metrics or not.
          * This counter is reset every time collisions are handled.
          */
-        private int metricsUpdateCntr;
+        private final AtomicInteger metricsUpdateCntr = new AtomicInteger();
 
         @SuppressWarnings({"ThrowableInstanceNeverThrown"})
         @Override public void onEvent(GridEvent evt) {
@@ -1306,51 +1454,32 @@ public class GridJobProcessor extends GridProcessorAdapter {
             Collection<GridJobWorker> jobsToReject = new ArrayList<GridJobWorker>();
             Collection<GridJobWorker> jobsToCancel = new ArrayList<GridJobWorker>();
 
-            synchronized (mux) {
-                callCnt++;
+            if (!busyLock.enterBusy()) {
+                if (log.isDebugEnabled())
+                    log.debug("Received discovery event while stopping (will ignore): " + evt);
+
+                return;
             }
 
             try {
                 switch (evt.type()) {
                     case EVT_NODE_LEFT:
                     case EVT_NODE_FAILED: {
-                        synchronized (mux) {
-                            if (stopping) {
-                                if (log.isDebugEnabled())
-                                    log.debug("Received discovery event while stopping (will ignore): " + evt);
-
-                                return;
-                            }
-
-                            for (Iterator<GridJobWorker> iter = passiveJobs.values().iterator();
-                                 iter.hasNext();) {
-                                GridJobWorker job = iter.next();
-
-                                if (job.getTaskNodeId().equals(nodeId)) {
-                                    // Remove from passive jobs.
-                                    iter.remove();
-
-                                    jobsToReject.add(job);
+                        for (GridJobWorker job : passiveJobs.values()) {
+                            // Remove from passive jobs.
+                            if (job.getTaskNodeId().equals(nodeId) && passiveJobs.remove(job.getJobId(), job)) {
+                                jobsToReject.add(job);
 
-                                    collisionsHandled = false;
-                                }
+                                collisionsHandled.set(false);
                             }
+                        }
 
-                            for (Iterator<GridJobWorker> iter = activeJobs.values().iterator();
-                                 iter.hasNext();) {
-                                GridJobWorker job = iter.next();
-
-                                if (job.getTaskNodeId().equals(nodeId) && !job.isFinishing()) {
-                                    // Remove from active jobs.
-                                    iter.remove();
-
-                                    // Add to cancelled jobs.
-                                    cancelledJobs.put(job.getJobId(), job);
-
-                                    jobsToCancel.add(job);
+                        for (GridJobWorker job : activeJobs.values()) {
+                            // Move from active to cancelled jobs.
+                            if (job.getTaskNodeId().equals(nodeId) && !job.isFinishing() && cancelActive(job)) {
+                                jobsToCancel.add(job);
 
-                                    collisionsHandled = false;
-                                }
+                                collisionsHandled.set(false);
                             }
                         }
 
@@ -1381,14 +1510,12 @@ public class GridJobProcessor extends GridProcessorAdapter {
                         // Update metrics for all nodes.
                         int gridSize = ctx.discovery().allNodes().size();
 
-                        synchronized (mux) {
-                            // Check for less-than-equal rather than just equal
-                            // in guard against topology changes.
-                            if (gridSize <= ++metricsUpdateCntr) {
-                                collisionsHandled = false;
+                        // Check for less-than-equal rather than just equal
+                        // in guard against topology changes.
+                        if (gridSize <= metricsUpdateCntr.incrementAndGet()) {
+                            collisionsHandled.set(false);
 
-                                metricsUpdateCntr = 0;
-                            }
+                            metricsUpdateCntr.set(0);
                         }
 
                         handleCollisions();
@@ -1406,7 +1533,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 }
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
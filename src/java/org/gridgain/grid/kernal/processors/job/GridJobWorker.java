@@ -70,6 +70,12 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
     /** */
     private GridByteArrayList jobBytes;
 
+    /** Job passed by reference from task on local node. */
+    private final GridJob locJob;
+
+    /** Flag indicating that job was received in a batch request. */
+    private final boolean batched;
+
     /** Task originating node ID. */
     private final UUID taskNodeId;
 
@@ -124,7 +130,9 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
      * @param createTime Create time.
      * @param ses Grid task session.
      * @param jobCtx Job context.
-     * @param jobBytes Grid job bytes.
+     * @param jobBytes Grid job bytes, {@code null} if job is passed by reference.
+     * @param locJob Job passed by reference from task on local node, {@code null} if job is serialized.
+     * @param batched {@code True} if job was received in a batch request.
      * @param taskNodeId Grid task node ID.
      * @param evtLsnr Job event listener.
      */
@@ -134,7 +142,9 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
         long createTime,
         GridJobSessionImpl ses,
         GridJobContextImpl jobCtx,
-        GridByteArrayList jobBytes,
+        @Nullable GridByteArrayList jobBytes,
+        @Nullable GridJob locJob,
+        boolean batched,
         UUID taskNodeId,
         GridJobEventListener evtLsnr) {
         super(ctx.gridName(), "grid-job-worker", ctx.log());
@@ -146,6 +156,7 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
         assert taskNodeId != null;
         assert evtLsnr != null;
         assert dep != null;
+        assert jobBytes != null || locJob != null;
 
         this.ctx = ctx;
         this.createTime = createTime;
@@ -154,6 +165,8 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
         this.ses = ses;
         this.jobCtx = jobCtx;
         this.jobBytes = jobBytes;
+        this.locJob = locJob;
+        this.batched = batched;
         this.taskNodeId = taskNodeId;
 
         log = U.logger(ctx, logRef, this);
@@ -368,7 +381,7 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
         GridException ex = null;
 
         try {
-            GridJob execJob = U.unmarshal(marshaller, jobBytes, dep.classLoader());
+            GridJob execJob = locJob != null ? locJob : U.<GridJob>unmarshal(marshaller, jobBytes, dep.classLoader());
 
             // Inject resources.
             ctx.resource().inject(dep, taskCls, execJob, ses, jobCtx);
@@ -629,33 +642,57 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
                                 evts.add(F.t(EVT_JOB_FINISHED, /*no message for success. */(String)null));
                             }
 
-                            Serializable jobRes = new GridJobExecuteResponse(
-                                ctx.localNodeId(),
-                                ses.getId(),
-                                ses.getJobId(),
-                                U.marshal(marshaller, ex),
-                                U.marshal(marshaller,res),
-                                U.marshal(marshaller, jobCtx.getAttributes()),
-                                isCancelled());
+                            if (locJob != null) {
+                                GridJobExecuteResponse jobRes = new GridJobExecuteResponse(
+                                    ctx.localNodeId(),
+                                    ses.getId(),
+                                    ses.getJobId(),
+                                    null,
+                                    null,
+                                    null,
+                                    isCancelled());
 
-                            // Job response topic.
-                            String topic = TOPIC_TASK.name(ses.getJobId(), locNodeId);
+                                jobRes.setLocalResult(res, ex, jobCtx.getAttributes());
 
-                            long timeout = ses.getEndTime() - System.currentTimeMillis();
-
-                            if (timeout <= 0) {
-                                // Ignore the actual timeout and send response anyway.
-                                timeout = 1;
+                                // Pass result by reference to task on local node.
+                                ctx.task().processLocalJobMessage(jobRes);
+                            }
+                            else {
+                                GridJobExecuteResponse jobRes = new GridJobExecuteResponse(
+                                    ctx.localNodeId(),
+                                    ses.getId(),
+                                    ses.getJobId(),
+                                    U.marshal(marshaller, ex),
+                                    U.marshal(marshaller,res),
+                                    U.marshal(marshaller, jobCtx.getAttributes()),
+                                    isCancelled());
+
+                                // Response may be coalesced with responses of other jobs of the same
+                                // task, unless it must be ordered after session attributes.
+                                boolean coalesced = batched && !ses.attributesSent() &&
+                                    ctx.job().coalesceResponse(senderNode, jobRes);
+
+                                if (!coalesced) {
+                                    // Job response topic.
+                                    String topic = TOPIC_TASK.name(ses.getJobId(), locNodeId);
+
+                                    long timeout = ses.getEndTime() - System.currentTimeMillis();
+
+                                    if (timeout <= 0) {
+                                        // Ignore the actual timeout and send response anyway.
+                                        timeout = 1;
+                                    }
+
+                                    // Send response to designated job topic.
+                                    ctx.io().sendOrderedMessage(
+                                        senderNode,
+                                        topic,
+                                        ctx.io().getNextMessageId(topic, senderNode.id()),
+                                        jobRes,
+                                        SYSTEM_POOL,
+                                        timeout);
+                                }
                             }
-
-                            // Send response to designated job topic.
-                            ctx.io().sendOrderedMessage(
-                                senderNode,
-                                topic,
-                                ctx.io().getNextMessageId(topic, senderNode.id()),
-                                jobRes,
-                                SYSTEM_POOL,
-                                timeout);
 
                             // Callback.
                             ctx.resource().invokeAnnotated(dep, job.get(), GridJobAfterExecute.class);
@@ -13,6 +13,7 @@ import org.gridgain.grid.*;
 import org.gridgain.grid.kernal.*;
 import org.gridgain.grid.kernal.processors.*;
 import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
 import org.jetbrains.annotations.*;
 
@@ -110,6 +111,33 @@ public class GridJobMetricsProcessor extends GridProcessorAdapter {
     /** */
     private MetricCounters cntrs = new MetricCounters();
 
+    /** Number of collision resolutions performed by job processor. */
+    private final AtomicLong collisionResolutions = new AtomicLong();
+
+    /** Number of collision resolutions coalesced into a concurrently running one. */
+    private final AtomicLong collisionsCoalesced = new AtomicLong();
+
+    /** Total time spent resolving collisions in nanoseconds. */
+    private final AtomicLong collisionTime = new AtomicLong();
+
+    /** Number of jobs sent by tasks of this node to local node. */
+    private final AtomicLong locJobsSent = new AtomicLong();
+
+    /** Number of jobs passed by reference by tasks of this node to local node. */
+    private final AtomicLong locJobsByRef = new AtomicLong();
+
+    /** Number of jobs sent by tasks of this node to remote nodes. */
+    private final AtomicLong rmtJobsSent = new AtomicLong();
+
+    /** Number of job results held by tasks of this node until reduce. */
+    private final AtomicLong heldTaskRes = new AtomicLong();
+
+    /** Marshalled size of job results held by tasks of this node until reduce. */
+    private final AtomicLong heldTaskResSize = new AtomicLong();
+
+    /** Number of job results collected incrementally by tasks of this node. */
+    private final AtomicLong collectedTaskRes = new AtomicLong();
+
     /**
      * @param ctx Grid kernal context.
      */
@@ -205,6 +233,186 @@ public class GridJobMetricsProcessor extends GridProcessorAdapter {
         }
     }
 
+    /**
+     * Callback invoked by job processor once collisions are resolved.
+     *
+     * @param nanos Time spent resolving collisions in nanoseconds.
+     */
+    public void onCollisionResolved(long nanos) {
+        collisionResolutions.incrementAndGet();
+        collisionTime.addAndGet(nanos);
+    }
+
+    /**
+     * Callback invoked by job processor when collision resolution was skipped
+     * because another thread was resolving collisions at the same time.
+     */
+    public void onCollisionCoalesced() {
+        collisionsCoalesced.incrementAndGet();
+    }
+
+    /**
+     * Callback invoked by task worker when job is sent for execution.
+     *
+     * @param loc {@code True} if job is sent to local node.
+     * @param byRef {@code True} if job is passed by reference without marshalling.
+     */
+    public void onTaskJobSent(boolean loc, boolean byRef) {
+        if (loc) {
+            locJobsSent.incrementAndGet();
+
+            if (byRef)
+                locJobsByRef.incrementAndGet();
+        }
+        else
+            rmtJobsSent.incrementAndGet();
+    }
+
+    /**
+     * Gets number of jobs sent by tasks of this node to local node.
+     *
+     * @return Number of local jobs.
+     */
+    public long getLocalJobsSent() {
+        return locJobsSent.get();
+    }
+
+    /**
+     * Gets number of jobs passed by reference by tasks of this node to local node,
+     * without marshalling of jobs, attributes and results.
+     *
+     * @return Number of local jobs passed by reference.
+     */
+    public long getLocalJobsByReference() {
+        return locJobsByRef.get();
+    }
+
+    /**
+     * Gets number of jobs sent by tasks of this node to remote nodes.
+     *
+     * @return Number of remote jobs.
+     */
+    public long getRemoteJobsSent() {
+        return rmtJobsSent.get();
+    }
+
+    /**
+     * Callback invoked by task worker when job results are retained in memory until
+     * reduce, or released when task finishes.
+     *
+     * @param cnt Number of results, negative if results are released.
+     * @param size Marshalled size of results, negative if results are released.
+     */
+    public void onTaskResultsHeld(int cnt, long size) {
+        heldTaskRes.addAndGet(cnt);
+        heldTaskResSize.addAndGet(size);
+    }
+
+    /**
+     * Callback invoked by task worker when job result is collected by
+     * {@link GridTaskIncrementalReducer} and discarded.
+     */
+    public void onTaskResultCollected() {
+        collectedTaskRes.incrementAndGet();
+    }
+
+    /**
+     * Gets number of job results currently held in memory by tasks of this node
+     * until reduce.
+     *
+     * @return Number of held job results.
+     */
+    public long getHeldTaskResults() {
+        return heldTaskRes.get();
+    }
+
+    /**
+     * Gets marshalled size in bytes of job results currently held in memory by tasks
+     * of this node until reduce. Results of local jobs passed by reference are not
+     * included.
+     *
+     * @return Size of held job results.
+     */
+    public long getHeldTaskResultsSize() {
+        return heldTaskResSize.get();
+    }
+
+    /**
+     * Gets number of job results collected incrementally by tasks of this node
+     * instead of being held until reduce.
+     *
+     * @return Number of incrementally collected job results.
+     */
+    public long getCollectedTaskResults() {
+        return collectedTaskRes.get();
+    }
+
+    /**
+     * Gets number of collision resolutions performed by job processor.
+     *
+     * @return Number of collision resolutions.
+     */
+    public long getCollisionResolutions() {
+        return collisionResolutions.get();
+    }
+
+    /**
+     * Gets number of collision resolution requests that were coalesced into a
+     * concurrently running resolution. High values indicate contention on job
+     * registries.
+     *
+     * @return Number of coalesced collision resolutions.
+     */
+    public long getCollisionsCoalesced() {
+        return collisionsCoalesced.get();
+    }
+
+    /**
+     * Gets total time spent resolving collisions.
+     *
+     * @return Total collision resolution time in nanoseconds.
+     */
+    public long getCollisionTime() {
+        return collisionTime.get();
+    }
+
+    /**
+     * Gets number of jobs currently queued for every worker of work-stealing executor.
+     *
+     * @return Queue depths indexed by worker, empty if jobs are executed by configured
+     *      executor service.
+     */
+    public int[] getStealingQueueSizes() {
+        GridWorkStealingExecutor exec = ctx.job().workStealingExecutor();
+
+        return exec != null ? exec.queueSizes() : new int[0];
+    }
+
+    /**
+     * Gets number of jobs stolen by every worker of work-stealing executor from queues
+     * of other workers.
+     *
+     * @return Steal counts indexed by worker, empty if jobs are executed by configured
+     *      executor service.
+     */
+    public long[] getStealCounts() {
+        GridWorkStealingExecutor exec = ctx.job().workStealingExecutor();
+
+        return exec != null ? exec.stealCounts() : new long[0];
+    }
+
+    /**
+     * Gets number of jobs executed by every worker of work-stealing executor.
+     *
+     * @return Executed job counts indexed by worker, empty if jobs are executed by
+     *      configured executor service.
+     */
+    public long[] getStealingExecutedCounts() {
+        GridWorkStealingExecutor exec = ctx.job().workStealingExecutor();
+
+        return exec != null ? exec.executedCounts() : new long[0];
+    }
+
     /**
      * @param set Set to add to.
      * @param metrics Metrics to add.
@@ -240,6 +448,18 @@ public class GridJobMetricsProcessor extends GridProcessorAdapter {
         X.println(">>>  execTimeMaxSetSize: " + execTimeMaxSet.size());
         X.println(">>>  waitTimeMaxSetSize: " + waitTimeMaxSet.size());
         X.println(">>>  queueSize: " + queue.size());
+        X.println(">>>  collisionResolutions: " + collisionResolutions.get());
+        X.println(">>>  collisionsCoalesced: " + collisionsCoalesced.get());
+        X.println(">>>  collisionTime: " + collisionTime.get());
+        X.println(">>>  stealingQueueSizes: " + Arrays.toString(getStealingQueueSizes()));
+        X.println(">>>  stealCounts: " + Arrays.toString(getStealCounts()));
+        X.println(">>>  stealingExecutedCounts: " + Arrays.toString(getStealingExecutedCounts()));
+        X.println(">>>  locJobsSent: " + locJobsSent.get());
+        X.println(">>>  locJobsByRef: " + locJobsByRef.get());
+        X.println(">>>  rmtJobsSent: " + rmtJobsSent.get());
+        X.println(">>>  heldTaskRes: " + heldTaskRes.get());
+        X.println(">>>  heldTaskResSize: " + heldTaskResSize.get());
+        X.println(">>>  collectedTaskRes: " + collectedTaskRes.get());
     }
 
     /**
@@ -56,6 +56,9 @@ public class GridTaskProcessor extends GridProcessorAdapter {
     /** */
     private final GridLocalEventListener discoLsnr;
 
+    /** Listener for messages of jobs executed on local node. */
+    private final GridMessageListener locJobMsgLsnr = new JobMessageListener();
+
     /** */
     private final ThreadLocal<Map<GridTaskThreadContextKey, Object>> thCtx =
         new ThreadLocal<Map<GridTaskThreadContextKey, Object>>();
@@ -861,6 +864,16 @@ public class GridTaskProcessor extends GridProcessorAdapter {
             throw ex;
     }
 
+    /**
+     * Processes message sent to task on local node by job executed on local node, bypassing
+     * communication SPI. Message is processed synchronously in the calling thread.
+     *
+     * @param msg Job execution response.
+     */
+    public void processLocalJobMessage(GridTaskMessage msg) {
+        locJobMsgLsnr.onMessage(ctx.localNodeId(), msg);
+    }
+
     /** {@inheritDoc} */
     @Override public void printMemoryStats() {
         int tasksSize;
@@ -888,6 +901,9 @@ public class GridTaskProcessor extends GridProcessorAdapter {
             ctx.timeout().addTimeoutObject(worker);
 
             ctx.checkpoint().onSessionStart(worker.getSession());
+
+            // Listen to coalesced responses of jobs of this task.
+            ctx.io().addMessageListener(TOPIC_TASK.name(worker.getTaskSessionId()), msgLsnr);
         }
 
         /** {@inheritDoc} */
@@ -947,6 +963,8 @@ public class GridTaskProcessor extends GridProcessorAdapter {
             release(worker.getDeployment());
 
             // Unregister job message listener from all job topics.
+            ctx.io().removeMessageListener(TOPIC_TASK.name(worker.getTaskSessionId()), msgLsnr);
+
             try {
                 for (GridJobSibling sibling : worker.getSession().getJobSiblings()) {
                     GridJobSiblingImpl s = (GridJobSiblingImpl)sibling;
@@ -999,6 +1017,10 @@ public class GridTaskProcessor extends GridProcessorAdapter {
             try {
                 if (msg instanceof GridJobExecuteResponse)
                     processJobExecuteResponse(nodeId, (GridJobExecuteResponse)msg, task);
+                else if (msg instanceof GridJobExecuteBatchResponse) {
+                    for (GridJobExecuteResponse res : ((GridJobExecuteBatchResponse)msg).responses())
+                        processJobExecuteResponse(nodeId, res, task);
+                }
                 else if (msg instanceof GridTaskSessionRequest)
                     processTaskSessionRequest(nodeId, (GridTaskSessionRequest)msg, task);
                 else
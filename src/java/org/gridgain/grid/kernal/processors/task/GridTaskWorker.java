@@ -114,6 +114,12 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
     /** */
     private boolean lockRespProc = true;
 
+    /** Number of job results held in memory until reduce. */
+    private int heldResCnt;
+
+    /** Marshalled size of job results held in memory until reduce. */
+    private long heldResSize;
+
     /** Continuous mapper. */
     private final GridTaskContinuousMapper mapper = new GridTaskContinuousMapper() {
         /** {@inheritDoc} */
@@ -472,17 +478,35 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
         // Set mapped flag.
         fut.onMapped();
 
-        // Send out all remote mappedJobs.
+        // Group jobs by node, so that jobs mapped to the same remote node are sent in one batch.
+        Map<UUID, List<GridJobResultImpl>> batches = new LinkedHashMap<UUID, List<GridJobResultImpl>>();
+
         for (GridJobResultImpl res : jobResList) {
-            evtLsnr.onJobSend(this, res.getSibling());
+            List<GridJobResultImpl> batch = batches.get(res.getNode().id());
+
+            if (batch == null)
+                batches.put(res.getNode().id(), batch = new ArrayList<GridJobResultImpl>());
+
+            batch.add(res);
+        }
+
+        // Send out all remote mappedJobs.
+        for (List<GridJobResultImpl> batch : batches.values()) {
+            for (GridJobResultImpl res : batch)
+                evtLsnr.onJobSend(this, res.getSibling());
 
             try {
-                sendRequest(res);
+                if (batch.size() > 1 && !batch.get(0).getNode().id().equals(ctx.localNodeId()))
+                    sendBatchRequest(batch);
+                else
+                    for (GridJobResultImpl res : batch)
+                        sendRequest(res);
             }
             finally {
-                // Open job for processing results.
+                // Open jobs for processing results.
                 synchronized (mux) {
-                    res.setOccupied(false);
+                    for (GridJobResultImpl res : batch)
+                        res.setOccupied(false);
                 }
             }
         }
@@ -598,9 +622,16 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
                 jobRes.setOccupied(true);
             }
 
+            // Marshalled size of job result, local results are passed by reference.
+            long resSize = 0;
+
             if (res.getFakeException() != null) {
                 jobRes.onResponse(null, res.getFakeException(), null, false);
             }
+            else if (res.isLocalResult()) {
+                jobRes.onResponse(res.getLocalJobResult(), res.getLocalException(), res.getLocalJobAttributes(),
+                    res.isCancelled());
+            }
             else {
                 ClassLoader clsLdr = dep.classLoader();
 
@@ -612,6 +643,9 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
                         U.unmarshal(marshaller, res.getJobAttributes(), clsLdr),
                         res.isCancelled()
                     );
+
+                    if (res.getJobResult() != null)
+                        resSize = res.getJobResult().getSize();
                 }
                 catch (GridException e) {
                     U.error(log, "Error deserializing job response: " + res, e);
@@ -637,6 +671,19 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
                 return;
             }
 
+            // Accumulate result right away if task reduces results incrementally.
+            if (policy != GridJobResultPolicy.FAILOVER && getTask() instanceof GridTaskIncrementalReducer) {
+                Boolean collectMore = collect(jobRes);
+
+                if (collectMore == null)
+                    return;
+
+                if (!collectMore)
+                    policy = GridJobResultPolicy.REDUCE;
+
+                jobRes.clearData();
+            }
+
             // If instructed not to cache results, then set the result to null.
             if (dep.annotation(taskCls, GridTaskNoResultCache.class) != null) {
                 jobRes.clearData();
@@ -688,6 +735,13 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
                         break;
                     }
                 }
+
+                if (policy != GridJobResultPolicy.FAILOVER && jobRes.getData() != null) {
+                    heldResCnt++;
+                    heldResSize += resSize;
+
+                    ctx.jobMetric().onTaskResultsHeld(1, resSize);
+                }
             }
 
             // Outside of synchronization.
@@ -780,6 +834,50 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
         });
     }
 
+    /**
+     * Passes job result to task that reduces results incrementally.
+     *
+     * @param jobRes Job result.
+     * @return {@code True} to continue collecting results, {@code false} to reduce,
+     *      {@code null} if collecting failed and task was finished.
+     */
+    @SuppressWarnings({"CatchGenericClass"})
+    @Nullable private Boolean collect(final GridJobResult jobRes) {
+        assert !Thread.holdsLock(mux);
+
+        return U.wrapThreadLoader(dep.classLoader(), new CO<Boolean>() {
+            @Nullable @Override public Boolean apply() {
+                try {
+                    boolean collectMore = ((GridTaskIncrementalReducer)getTask()).collect(jobRes);
+
+                    ctx.jobMetric().onTaskResultCollected();
+
+                    return collectMore;
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to collect job result incrementally (will fail the whole task): " + jobRes, e);
+
+                    finishTask(null, e);
+
+                    return null;
+                }
+                catch (Throwable e) {
+                    String errMsg = "Failed to collect job result incrementally due to undeclared user exception " +
+                        "(will fail the whole task): " + jobRes;
+
+                    log.error(errMsg, e);
+
+                    @SuppressWarnings({"ThrowableInstanceNeverThrown"})
+                    Throwable tmp = new GridUserUndeclaredException(errMsg, e);
+
+                    finishTask(null, tmp);
+
+                    return null;
+                }
+            }
+        });
+    }
+
     /**
      * @param results Job results.
      */
@@ -983,6 +1081,11 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
                 long timeout = ses.getEndTime() - System.currentTimeMillis();
 
                 if (timeout > 0) {
+                    boolean locNode = node.id().equals(ctx.localNodeId());
+
+                    // Pass local jobs by reference unless task relies on copy semantics.
+                    boolean byRef = locNode && dep.annotation(taskCls, GridTaskMarshalLocalJobs.class) == null;
+
                     req = new GridJobExecuteRequest(
                         ses.getId(),
                         res.getJobContext().getJobId(),
@@ -990,24 +1093,36 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
                         ses.getUserVersion(),
                         ses.getSequenceNumber(),
                         ses.getTaskClassName(),
-                        U.marshal(marshaller, res.getJob()),
+                        byRef ? null : U.marshal(marshaller, res.getJob()),
                         ses.getStartTime(),
                         timeout,
                         ctx.config().getNodeId(),
                         ses.getJobSiblings(),
-                        U.marshal(marshaller, ses.getAttributes()),
-                        U.marshal(marshaller, res.getJobContext().getAttributes()),
+                        byRef ? null : U.marshal(marshaller, ses.getAttributes()),
+                        byRef ? null : U.marshal(marshaller, res.getJobContext().getAttributes()),
                         ses.getCheckpointSpi(),
                         dep.classLoaderId(),
                         dep.deployMode(),
                         continuous,
                         dep.participants());
 
-                    if (log.isDebugEnabled())
-                        log.debug("Sending grid job request [req=" + req + ", node=" + node + ']');
+                    ctx.jobMetric().onTaskJobSent(locNode, byRef);
+
+                    if (byRef) {
+                        req.localJob(res.<GridJob>getJob(), ses.getAttributes(), res.getJobContext().getAttributes());
 
-                    // Send job execution request.
-                    ctx.io().send(node, TOPIC_JOB, req, PUBLIC_POOL);
+                        if (log.isDebugEnabled())
+                            log.debug("Passing grid job request to local node by reference: " + req);
+
+                        ctx.job().processLocalJobExecuteRequest(req);
+                    }
+                    else {
+                        if (log.isDebugEnabled())
+                            log.debug("Sending grid job request [req=" + req + ", node=" + node + ']');
+
+                        // Send job execution request.
+                        ctx.io().send(node, TOPIC_JOB, req, PUBLIC_POOL);
+                    }
 
                     ctx.resource().invokeAnnotated(dep, res.<GridJob>getJob(), GridJobAfterSend.class);
                 }
@@ -1034,6 +1149,93 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
         }
     }
 
+    /**
+     * Sends jobs mapped to the same remote node in one request. Task data, such as session
+     * attributes and siblings, is marshalled and sent only once for all jobs.
+     *
+     * @param batch Job results for jobs mapped to the same remote node.
+     */
+    private void sendBatchRequest(List<GridJobResultImpl> batch) {
+        assert batch.size() > 1;
+
+        GridNode node = batch.get(0).getNode();
+
+        long timeout = ses.getEndTime() - System.currentTimeMillis();
+
+        // Let single job requests handle node failures and timeouts.
+        if (ctx.discovery().node(node.id()) == null || timeout <= 0) {
+            for (GridJobResultImpl res : batch)
+                sendRequest(res);
+
+            return;
+        }
+
+        GridJobExecuteBatchRequest req = null;
+
+        try {
+            GridByteArrayList sesAttrs = U.marshal(marshaller, ses.getAttributes());
+
+            Collection<GridJobSibling> siblings = ses.getJobSiblings();
+
+            List<GridJobExecuteRequest> reqs = new ArrayList<GridJobExecuteRequest>(batch.size());
+
+            for (GridJobResultImpl res : batch)
+                reqs.add(new GridJobExecuteRequest(
+                    ses.getId(),
+                    res.getJobContext().getJobId(),
+                    ses.getTaskName(),
+                    ses.getUserVersion(),
+                    ses.getSequenceNumber(),
+                    ses.getTaskClassName(),
+                    U.marshal(marshaller, res.getJob()),
+                    ses.getStartTime(),
+                    timeout,
+                    ctx.config().getNodeId(),
+                    siblings,
+                    sesAttrs,
+                    U.marshal(marshaller, res.getJobContext().getAttributes()),
+                    ses.getCheckpointSpi(),
+                    dep.classLoaderId(),
+                    dep.deployMode(),
+                    continuous,
+                    dep.participants()));
+
+            req = new GridJobExecuteBatchRequest(reqs);
+
+            if (log.isDebugEnabled())
+                log.debug("Sending grid job batch request [req=" + req + ", node=" + node + ']');
+
+            // Send job execution request.
+            ctx.io().send(node, TOPIC_JOB, req, PUBLIC_POOL);
+
+            for (GridJobResultImpl res : batch) {
+                ctx.jobMetric().onTaskJobSent(false, false);
+
+                ctx.resource().invokeAnnotated(dep, res.<GridJob>getJob(), GridJobAfterSend.class);
+            }
+        }
+        catch (GridException e) {
+            // Avoid stack trace if node has left grid.
+            if (isDeadNode(node.id()))
+                U.warn(log, "Failed to send job batch request because remote node left grid (will attempt " +
+                    "fail-over to another node) [node=" + node + ", taskName=" + ses.getTaskName() +
+                    ", taskSesId=" + ses.getId() + ", jobsCnt=" + batch.size() + ']');
+            else
+                U.error(log, "Failed to send job batch request: " + req, e);
+
+            for (GridJobResultImpl res : batch) {
+                GridJobExecuteResponse fakeRes = new GridJobExecuteResponse(node.id(), ses.getId(),
+                    res.getJobContext().getJobId(), null, null, null, false);
+
+                //noinspection ThrowableInstanceNeverThrown
+                fakeRes.setFakeException(new GridTopologyException("Failed to send job due to node failure: " +
+                    node, e));
+
+                onResponse(fakeRes);
+            }
+        }
+    }
+
     /**
      * @param nodeId Node ID.
      */
@@ -1186,6 +1388,9 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
      */
     @SuppressWarnings({"deprecation"})
     void finishTask(@Nullable R res, @Nullable Throwable e) {
+        int cnt;
+        long size;
+
         // Avoid finishing a job more than once from
         // different threads.
         synchronized (mux) {
@@ -1193,8 +1398,18 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
                 return;
 
             state = State.FINISHING;
+
+            cnt = heldResCnt;
+            size = heldResSize;
+
+            heldResCnt = 0;
+            heldResSize = 0;
         }
 
+        // Release held job results.
+        if (cnt > 0)
+            ctx.jobMetric().onTaskResultsHeld(-cnt, -size);
+
         if (e == null)
             recordTaskEvent(EVT_TASK_FINISHED, "Task finished.");
         else
@@ -20,6 +20,11 @@ import org.gridgain.grid.typedef.*;
  * (or closed over) their free variables that are bound to the closure scope at execution. Since
  * Java 6 doesn't provide a language construct for first-class function the closures are implemented
  * as abstract classes.
+ * <p>
+ * When reducer is passed into {@code forkjoin(..)} methods of grid projection, job results
+ * are passed into {@link #collect(Object)} method after all jobs finish, in the order jobs
+ * were mapped. Reducers which do not depend on that order may implement
+ * {@link GridUnorderedReducer} to collect job results one by one as they arrive instead.
  * <h2 class="header">Thread Safety</h2>
  * Note that this interface does not impose or assume any specific thread-safety by its
  * implementations. Each implementation can elect what type of thread-safety it provides,
@@ -0,0 +1,27 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.lang;
+
+/**
+ * Marker interface for {@link GridReducer} implementations whose result does not depend
+ * on the order of collected values, e.g. sum or count.
+ * <p>
+ * By default {@code forkjoin(..)} methods of grid projection keep all job results in memory
+ * until all jobs finish and pass them into {@link GridReducer#collect(Object)} method in
+ * the order jobs were mapped. When reducer implements this interface, job results are passed
+ * into {@link GridReducer#collect(Object)} method one by one in the order they arrive and are
+ * discarded right after that (see {@link org.gridgain.grid.GridTaskIncrementalReducer}).
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public interface GridUnorderedReducer {
+    // Marker interface.
+}
@@ -0,0 +1,45 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.lang.utils;
+
+import org.gridgain.grid.typedef.*;
+
+/**
+ * Concurrent set with predictable iteration order that automatically manages
+ * its maximum size. Iteration order is the order in which elements were inserted
+ * into the set (<i>insertion-order</i>). Once set exceeds its maximum size, eldest
+ * elements are removed, the same way as {@link GridBoundedLinkedHashSet} does.
+ * <p>
+ * Note that due to concurrent nature of this set, it may grow slightly
+ * larger than its maximum allowed size, but in this case it will quickly
+ * readjust back to allowed size.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridBoundedConcurrentLinkedHashSet<E> extends GridSetWrapper<E> {
+    /**
+     * Creates a new, empty set with specified maximum size.
+     *
+     * @param max Upper bound of this set.
+     */
+    public GridBoundedConcurrentLinkedHashSet(final int max) {
+        super(new GridConcurrentLinkedHashMap<E, Object>(GridConcurrentLinkedHashMap.DFLT_INIT_CAP,
+            GridConcurrentLinkedHashMap.DFLT_LOAD_FACTOR, GridConcurrentLinkedHashMap.DFLT_CONCUR_LVL, false,
+            new P2<GridConcurrentLinkedHashMap<E, Object>, GridConcurrentLinkedHashMap.HashEntry<E, Object>>() {
+                @Override public boolean apply(GridConcurrentLinkedHashMap<E, Object> map,
+                    GridConcurrentLinkedHashMap.HashEntry<E, Object> e) {
+                    return map.sizex() > max;
+                }
+            }));
+
+        assert max > 0;
+    }
+}
@@ -0,0 +1,512 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.marshaller.optimized;
+
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.util.*;
+
+import static org.gridgain.grid.marshaller.optimized.GridOptimizedFieldOutput.*;
+
+/**
+ * Input for compiled field mode of {@link GridOptimizedMarshaller}. Reads streams
+ * written by {@link GridOptimizedFieldOutput}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridOptimizedFieldInput implements DataInput {
+    /** Class loader. */
+    private final ClassLoader clsLdr;
+
+    /** User preregistered class names. */
+    private final Map<Integer, String> id2name;
+
+    /** Buffer. */
+    private final byte[] buf;
+
+    /** Position in buffer. */
+    private int pos;
+
+    /** Classes read from this stream. */
+    private List<Class<?>> classes;
+
+    /**
+     * @param buf Stream content without header.
+     * @param clsLdr Class loader.
+     * @param id2name User preregistered class names.
+     */
+    GridOptimizedFieldInput(byte[] buf, ClassLoader clsLdr, Map<Integer, String> id2name) {
+        assert buf != null;
+        assert clsLdr != null;
+        assert id2name != null;
+
+        this.buf = buf;
+        this.clsLdr = clsLdr;
+        this.id2name = id2name;
+    }
+
+    /**
+     * Reads stream content from given input stream. Stream header magic byte
+     * must have already been read.
+     *
+     * @param in Input stream.
+     * @param clsLdr Class loader.
+     * @param id2name User preregistered class names.
+     * @return Input.
+     * @throws IOException If failed.
+     */
+    static GridOptimizedFieldInput read(InputStream in, ClassLoader clsLdr, Map<Integer, String> id2name)
+        throws IOException {
+        DataInputStream din = new DataInputStream(in);
+
+        byte[] buf = new byte[din.readInt()];
+
+        din.readFully(buf);
+
+        return new GridOptimizedFieldInput(buf, clsLdr, id2name);
+    }
+
+    /**
+     * Reads object.
+     *
+     * @return Object.
+     * @throws IOException If failed.
+     * @throws ClassNotFoundException If class of object or any of its fields could not be found.
+     */
+    @SuppressWarnings({"unchecked"})
+    @Nullable Object readObject() throws IOException, ClassNotFoundException {
+        byte tag = readByte();
+
+        switch (tag) {
+            case NULL:
+                return null;
+
+            case OBJ: {
+                Class<?> cls = readClassRef();
+
+                GridOptimizedFieldLayout layout = GridOptimizedFieldLayout.layout(cls);
+
+                if (!layout.compiled())
+                    throw new IOException("Class field layout can not be compiled (is same class version " +
+                        "deployed on all nodes?): " + cls);
+
+                Object obj = layout.newInstance();
+
+                layout.readFields(this, obj);
+
+                return obj;
+            }
+
+            case STR:
+                return readString();
+
+            case BYTE:
+                return readByte();
+
+            case SHORT:
+                return readShort();
+
+            case INT:
+                return readInt();
+
+            case LONG:
+                return readLong();
+
+            case FLOAT:
+                return readFloat();
+
+            case DOUBLE:
+                return readDouble();
+
+            case BOOLEAN:
+                return readBoolean();
+
+            case CHAR:
+                return readChar();
+
+            case BYTE_ARR: {
+                byte[] arr = new byte[readInt()];
+
+                readFully(arr);
+
+                return arr;
+            }
+
+            case SHORT_ARR: {
+                short[] arr = new short[readInt()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readShort();
+
+                return arr;
+            }
+
+            case INT_ARR: {
+                int[] arr = new int[readInt()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readInt();
+
+                return arr;
+            }
+
+            case LONG_ARR: {
+                long[] arr = new long[readInt()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readLong();
+
+                return arr;
+            }
+
+            case FLOAT_ARR: {
+                float[] arr = new float[readInt()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readFloat();
+
+                return arr;
+            }
+
+            case DOUBLE_ARR: {
+                double[] arr = new double[readInt()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readDouble();
+
+                return arr;
+            }
+
+            case BOOLEAN_ARR: {
+                boolean[] arr = new boolean[readInt()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readBoolean();
+
+                return arr;
+            }
+
+            case CHAR_ARR: {
+                char[] arr = new char[readInt()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readChar();
+
+                return arr;
+            }
+
+            case OBJ_ARR: {
+                Class<?> compCls = readClassRef();
+
+                Object[] arr = (Object[])Array.newInstance(compCls, readInt());
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = readObject();
+
+                return arr;
+            }
+
+            case ENUM: {
+                Class<?> enumCls = readClassRef();
+
+                int ord = readInt();
+
+                Object[] vals = enumCls.getEnumConstants();
+
+                if (vals == null || ord < 0 || ord >= vals.length)
+                    throw new IOException("Failed to resolve enum constant [cls=" + enumCls + ", ordinal=" + ord + ']');
+
+                return vals[ord];
+            }
+
+            case DATE:
+                return new Date(readLong());
+
+            case UUID:
+                return new java.util.UUID(readLong(), readLong());
+
+            case ARRAY_LIST: {
+                int size = readInt();
+
+                return readCollection(new ArrayList<Object>(size), size);
+            }
+
+            case LINKED_LIST:
+                return readCollection(new LinkedList<Object>(), readInt());
+
+            case HASH_SET: {
+                int size = readInt();
+
+                return readCollection(new HashSet<Object>(capacity(size)), size);
+            }
+
+            case LINKED_HASH_SET: {
+                int size = readInt();
+
+                return readCollection(new LinkedHashSet<Object>(capacity(size)), size);
+            }
+
+            case HASH_MAP: {
+                int size = readInt();
+
+                return readMap(new HashMap<Object, Object>(capacity(size)), size);
+            }
+
+            case LINKED_HASH_MAP: {
+                int size = readInt();
+
+                return readMap(new LinkedHashMap<Object, Object>(capacity(size)), size);
+            }
+
+            case SERIALIZED:
+                return readSerialized();
+
+            default:
+                throw new IOException("Unexpected compiled field stream tag: " + tag);
+        }
+    }
+
+    /**
+     * @param size Number of elements.
+     * @return Initial capacity of hash based collection.
+     */
+    private static int capacity(int size) {
+        return Math.max(size * 4 / 3 + 1, 16);
+    }
+
+    /**
+     * @param col Collection to fill.
+     * @param size Number of elements.
+     * @return Collection.
+     * @throws IOException If failed.
+     * @throws ClassNotFoundException If class of any element could not be found.
+     */
+    private Collection<Object> readCollection(Collection<Object> col, int size)
+        throws IOException, ClassNotFoundException {
+        for (int i = 0; i < size; i++)
+            col.add(readObject());
+
+        return col;
+    }
+
+    /**
+     * @param map Map to fill.
+     * @param size Number of entries.
+     * @return Map.
+     * @throws IOException If failed.
+     * @throws ClassNotFoundException If class of any key or value could not be found.
+     */
+    private Map<Object, Object> readMap(Map<Object, Object> map, int size) throws IOException, ClassNotFoundException {
+        for (int i = 0; i < size; i++) {
+            Object key = readObject();
+
+            map.put(key, readObject());
+        }
+
+        return map;
+    }
+
+    /**
+     * Reads object written with standard optimized streams.
+     *
+     * @return Object.
+     * @throws IOException If failed.
+     * @throws ClassNotFoundException If class could not be found.
+     */
+    private Object readSerialized() throws IOException, ClassNotFoundException {
+        int len = readInt();
+
+        GridOptimizedObjectInput objIn = new GridOptimizedObjectInput(new ByteArrayInputStream(buf, pos, len),
+            clsLdr, id2name);
+
+        Object obj = objIn.readObject();
+
+        objIn.delayedRead();
+
+        pos += len;
+
+        return obj;
+    }
+
+    /**
+     * Reads class, or its index if class has already been read from this stream.
+     *
+     * @return Class.
+     * @throws IOException If failed.
+     * @throws ClassNotFoundException If class could not be found.
+     */
+    private Class<?> readClassRef() throws IOException, ClassNotFoundException {
+        if (classes == null)
+            classes = new ArrayList<Class<?>>();
+
+        int id = readInt();
+
+        if (id >= 0) {
+            if (id >= classes.size())
+                throw new IOException("Invalid class reference in compiled field stream: " + id);
+
+            return classes.get(id);
+        }
+
+        Class<?> cls = GridOptimizedClassResolver.readClass(this, clsLdr, id2name);
+
+        classes.add(cls);
+
+        return cls;
+    }
+
+    /**
+     * Reads string written by {@link GridOptimizedFieldOutput}.
+     *
+     * @return String.
+     * @throws IOException If failed.
+     */
+    private String readString() throws IOException {
+        int len = readInt();
+
+        char[] chars = new char[len];
+
+        for (int i = 0; i < len; i++) {
+            check(1);
+
+            int b = buf[pos++] & 0xFF;
+
+            if (b < 0x80)
+                chars[i] = (char)b;
+            else if ((b & 0xE0) == 0xC0) {
+                check(1);
+
+                chars[i] = (char)(((b & 0x1F) << 6) | (buf[pos++] & 0x3F));
+            }
+            else {
+                check(2);
+
+                chars[i] = (char)(((b & 0x0F) << 12) | ((buf[pos++] & 0x3F) << 6) | (buf[pos++] & 0x3F));
+            }
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Checks that buffer has enough bytes remaining.
+     *
+     * @param cnt Number of bytes to be read.
+     * @throws EOFException If buffer does not have enough bytes.
+     */
+    private void check(int cnt) throws EOFException {
+        if (pos + cnt > buf.length)
+            throw new EOFException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readFully(byte[] b, int off, int len) throws IOException {
+        check(len);
+
+        System.arraycopy(buf, pos, b, off, len);
+
+        pos += len;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int skipBytes(int n) {
+        int skip = Math.min(n, buf.length - pos);
+
+        pos += skip;
+
+        return skip;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public byte readByte() throws IOException {
+        check(1);
+
+        return buf[pos++];
+    }
+
+    /** {@inheritDoc} */
+    @Override public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    /** {@inheritDoc} */
+    @Override public short readShort() throws IOException {
+        check(2);
+
+        short v = (short)(((buf[pos] & 0xFF) << 8) | (buf[pos + 1] & 0xFF));
+
+        pos += 2;
+
+        return v;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    /** {@inheritDoc} */
+    @Override public char readChar() throws IOException {
+        return (char)readShort();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int readInt() throws IOException {
+        check(4);
+
+        int v = ((buf[pos] & 0xFF) << 24) | ((buf[pos + 1] & 0xFF) << 16) | ((buf[pos + 2] & 0xFF) << 8) |
+            (buf[pos + 3] & 0xFF);
+
+        pos += 4;
+
+        return v;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long readLong() throws IOException {
+        long hi = readInt();
+        long lo = readInt();
+
+        return (hi << 32) | (lo & 0xFFFFFFFFL);
+    }
+
+    /** {@inheritDoc} */
+    @Override public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    /** {@inheritDoc} */
+    @Override public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /** {@inheritDoc} */
+    @Override public String readLine() {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String readUTF() throws IOException {
+        return readString();
+    }
+}
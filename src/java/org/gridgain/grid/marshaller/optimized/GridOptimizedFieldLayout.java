@@ -0,0 +1,342 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.marshaller.optimized;
+
+import com.sun.grizzly.util.*;
+import org.gridgain.grid.util.*;
+import sun.misc.*;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.gridgain.grid.marshaller.optimized.GridOptimizedUtils.*;
+
+/**
+ * Field layout of a class used by compiled field mode of {@link GridOptimizedMarshaller}.
+ * Layout is built once per class and consists of {@link Unsafe} offsets and types of all
+ * non-static non-transient fields in the same order as returned by
+ * {@link GridOptimizedUtils#getFieldsForSerialization(Class)}.
+ * <p>
+ * Classes that define custom serialization logic ({@link Externalizable}, {@code writeObject},
+ * {@code readObject}, {@code writeReplace} or {@code readResolve} methods) can not be
+ * represented by a layout and are always serialized with standard optimized streams.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridOptimizedFieldLayout {
+    /** Unsafe. */
+    private static final Unsafe UNSAFE = GridUnsafe.unsafe();
+
+    /** */
+    private static final byte BYTE = 1;
+
+    /** */
+    private static final byte SHORT = 2;
+
+    /** */
+    private static final byte INT = 3;
+
+    /** */
+    private static final byte LONG = 4;
+
+    /** */
+    private static final byte FLOAT = 5;
+
+    /** */
+    private static final byte DOUBLE = 6;
+
+    /** */
+    private static final byte BOOLEAN = 7;
+
+    /** */
+    private static final byte CHAR = 8;
+
+    /** */
+    private static final byte OBJECT = 9;
+
+    /** Layout for classes that can not be compiled. */
+    private static final GridOptimizedFieldLayout NOT_COMPILED = new GridOptimizedFieldLayout(null, null, null);
+
+    /** Layouts cache. */
+    private static final ConcurrentMap<Class, GridOptimizedFieldLayout> layouts =
+        new ConcurrentWeakHashMap<Class, GridOptimizedFieldLayout>();
+
+    /** Class. */
+    private final Class<?> cls;
+
+    /** Field offsets. */
+    private final long[] offs;
+
+    /** Field types. */
+    private final byte[] types;
+
+    /**
+     * @param cls Class.
+     * @param offs Field offsets.
+     * @param types Field types.
+     */
+    private GridOptimizedFieldLayout(Class<?> cls, long[] offs, byte[] types) {
+        this.cls = cls;
+        this.offs = offs;
+        this.types = types;
+    }
+
+    /**
+     * Gets layout for given class, building it on first request.
+     *
+     * @param cls Class.
+     * @return Layout.
+     */
+    static GridOptimizedFieldLayout layout(Class<?> cls) {
+        GridOptimizedFieldLayout layout = layouts.get(cls);
+
+        if (layout == null) {
+            GridOptimizedFieldLayout old = layouts.putIfAbsent(cls, layout = build(cls));
+
+            if (old != null)
+                layout = old;
+        }
+
+        return layout;
+    }
+
+    /**
+     * @param cls Class.
+     * @return Layout.
+     */
+    private static GridOptimizedFieldLayout build(Class<?> cls) {
+        if (cls.isArray() || cls.isInterface() || Modifier.isAbstract(cls.getModifiers()) ||
+            Externalizable.class.isAssignableFrom(cls) || Proxy.isProxyClass(cls))
+            return NOT_COMPILED;
+
+        try {
+            for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass())
+                if (hasSerializationMethods(c))
+                    return NOT_COMPILED;
+
+            List<Field> fields = getFieldsForSerialization(cls);
+
+            long[] offs = new long[fields.size()];
+            byte[] types = new byte[fields.size()];
+
+            for (int i = 0; i < offs.length; i++) {
+                Field f = fields.get(i);
+
+                offs[i] = UNSAFE.objectFieldOffset(f);
+                types[i] = type(f.getType());
+            }
+
+            return new GridOptimizedFieldLayout(cls, offs, types);
+        }
+        catch (RuntimeException ignored) {
+            // Fields are not accessible, use standard serialization.
+            return NOT_COMPILED;
+        }
+    }
+
+    /**
+     * @param c Class.
+     * @return {@code True} if class declares any of custom serialization methods.
+     */
+    private static boolean hasSerializationMethods(Class<?> c) {
+        for (Method m : c.getDeclaredMethods()) {
+            if (Modifier.isStatic(m.getModifiers()))
+                continue;
+
+            String name = m.getName();
+
+            if ("writeObject".equals(name) || "readObject".equals(name) || "readObjectNoData".equals(name) ||
+                "writeReplace".equals(name) || "readResolve".equals(name))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param cls Field class.
+     * @return Field type.
+     */
+    private static byte type(Class<?> cls) {
+        if (cls == byte.class)
+            return BYTE;
+
+        if (cls == short.class)
+            return SHORT;
+
+        if (cls == int.class)
+            return INT;
+
+        if (cls == long.class)
+            return LONG;
+
+        if (cls == float.class)
+            return FLOAT;
+
+        if (cls == double.class)
+            return DOUBLE;
+
+        if (cls == boolean.class)
+            return BOOLEAN;
+
+        if (cls == char.class)
+            return CHAR;
+
+        return OBJECT;
+    }
+
+    /**
+     * @return {@code True} if class could be compiled into a layout.
+     */
+    boolean compiled() {
+        return cls != null;
+    }
+
+    /**
+     * Creates new instance of layout class without calling any constructors.
+     *
+     * @return New instance.
+     * @throws IOException If failed.
+     */
+    Object newInstance() throws IOException {
+        assert compiled();
+
+        try {
+            return UNSAFE.allocateInstance(cls);
+        }
+        catch (InstantiationException e) {
+            throw new IOException("Failed to create new instance for class: " + cls, e);
+        }
+    }
+
+    /**
+     * Writes all fields of given object.
+     *
+     * @param out Output.
+     * @param obj Object.
+     * @throws IOException If failed.
+     */
+    void writeFields(GridOptimizedFieldOutput out, Object obj) throws IOException {
+        assert compiled();
+
+        for (int i = 0; i < offs.length; i++) {
+            long off = offs[i];
+
+            switch (types[i]) {
+                case BYTE:
+                    out.writeByte(UNSAFE.getByte(obj, off));
+
+                    break;
+
+                case SHORT:
+                    out.writeShort(UNSAFE.getShort(obj, off));
+
+                    break;
+
+                case INT:
+                    out.writeInt(UNSAFE.getInt(obj, off));
+
+                    break;
+
+                case LONG:
+                    out.writeLong(UNSAFE.getLong(obj, off));
+
+                    break;
+
+                case FLOAT:
+                    out.writeFloat(UNSAFE.getFloat(obj, off));
+
+                    break;
+
+                case DOUBLE:
+                    out.writeDouble(UNSAFE.getDouble(obj, off));
+
+                    break;
+
+                case BOOLEAN:
+                    out.writeBoolean(UNSAFE.getBoolean(obj, off));
+
+                    break;
+
+                case CHAR:
+                    out.writeChar(UNSAFE.getChar(obj, off));
+
+                    break;
+
+                default:
+                    out.writeObject(UNSAFE.getObject(obj, off));
+            }
+        }
+    }
+
+    /**
+     * Reads all fields of given object.
+     *
+     * @param in Input.
+     * @param obj Object.
+     * @throws IOException If failed.
+     * @throws ClassNotFoundException If class of any field value could not be found.
+     */
+    void readFields(GridOptimizedFieldInput in, Object obj) throws IOException, ClassNotFoundException {
+        assert compiled();
+
+        for (int i = 0; i < offs.length; i++) {
+            long off = offs[i];
+
+            switch (types[i]) {
+                case BYTE:
+                    UNSAFE.putByte(obj, off, in.readByte());
+
+                    break;
+
+                case SHORT:
+                    UNSAFE.putShort(obj, off, in.readShort());
+
+                    break;
+
+                case INT:
+                    UNSAFE.putInt(obj, off, in.readInt());
+
+                    break;
+
+                case LONG:
+                    UNSAFE.putLong(obj, off, in.readLong());
+
+                    break;
+
+                case FLOAT:
+                    UNSAFE.putFloat(obj, off, in.readFloat());
+
+                    break;
+
+                case DOUBLE:
+                    UNSAFE.putDouble(obj, off, in.readDouble());
+
+                    break;
+
+                case BOOLEAN:
+                    UNSAFE.putBoolean(obj, off, in.readBoolean());
+
+                    break;
+
+                case CHAR:
+                    UNSAFE.putChar(obj, off, in.readChar());
+
+                    break;
+
+                default:
+                    UNSAFE.putObject(obj, off, in.readObject());
+            }
+        }
+    }
+}
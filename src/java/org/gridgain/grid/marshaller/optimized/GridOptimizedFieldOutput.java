@@ -0,0 +1,618 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.marshaller.optimized;
+
+import org.gridgain.grid.marshaller.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Output for compiled field mode of {@link GridOptimizedMarshaller}. Primitives are written
+ * directly into a growable byte array and objects are written field by field according to
+ * {@link GridOptimizedFieldLayout} of their class, without any per-object class descriptors.
+ * Each class is written only once per stream and referenced by index afterwards.
+ * <p>
+ * Unlike object streams, this output does not track shared references: an object referenced
+ * several times is written several times. Cyclic or too deep object graphs can not be written
+ * and cause {@link UnsupportedGraphException}, in which case marshaller falls back to standard
+ * optimized streams.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridOptimizedFieldOutput implements DataOutput {
+    /**
+     * Stream header. Never equal to the first byte of object stream
+     * written by {@link GridOptimizedObjectOutput}.
+     */
+    static final byte MAGIC = (byte)0x47;
+
+    /** Size of stream header (magic byte followed by payload length). */
+    static final int HEADER_SIZE = 5;
+
+    /** Maximum depth of object graph. */
+    static final int MAX_DEPTH = 256;
+
+    /** */
+    static final byte NULL = 0;
+
+    /** */
+    static final byte OBJ = 1;
+
+    /** */
+    static final byte STR = 2;
+
+    /** */
+    static final byte BYTE = 3;
+
+    /** */
+    static final byte SHORT = 4;
+
+    /** */
+    static final byte INT = 5;
+
+    /** */
+    static final byte LONG = 6;
+
+    /** */
+    static final byte FLOAT = 7;
+
+    /** */
+    static final byte DOUBLE = 8;
+
+    /** */
+    static final byte BOOLEAN = 9;
+
+    /** */
+    static final byte CHAR = 10;
+
+    /** */
+    static final byte BYTE_ARR = 11;
+
+    /** */
+    static final byte SHORT_ARR = 12;
+
+    /** */
+    static final byte INT_ARR = 13;
+
+    /** */
+    static final byte LONG_ARR = 14;
+
+    /** */
+    static final byte FLOAT_ARR = 15;
+
+    /** */
+    static final byte DOUBLE_ARR = 16;
+
+    /** */
+    static final byte BOOLEAN_ARR = 17;
+
+    /** */
+    static final byte CHAR_ARR = 18;
+
+    /** */
+    static final byte OBJ_ARR = 19;
+
+    /** */
+    static final byte ENUM = 20;
+
+    /** */
+    static final byte DATE = 21;
+
+    /** */
+    static final byte UUID = 22;
+
+    /** */
+    static final byte ARRAY_LIST = 23;
+
+    /** */
+    static final byte LINKED_LIST = 24;
+
+    /** */
+    static final byte HASH_MAP = 25;
+
+    /** */
+    static final byte LINKED_HASH_MAP = 26;
+
+    /** */
+    static final byte HASH_SET = 27;
+
+    /** */
+    static final byte LINKED_HASH_SET = 28;
+
+    /** Object written with standard optimized streams. */
+    static final byte SERIALIZED = 29;
+
+    /** Whether or not to require an object to be serializable in order to be written. */
+    private final boolean requireSer;
+
+    /** User preregistered class names. */
+    private final Map<String, Integer> name2id;
+
+    /** Buffer. */
+    private byte[] buf;
+
+    /** Position in buffer. */
+    private int pos = HEADER_SIZE;
+
+    /** Indexes of classes written to this stream. */
+    private Map<Class, Integer> clsIds;
+
+    /** Objects currently being written, used to detect cycles. */
+    private final Object[] stack = new Object[MAX_DEPTH];
+
+    /** Current depth. */
+    private int depth;
+
+    /**
+     * @param requireSer Whether or not to require an object to be serializable in order to be written.
+     * @param name2id User preregistered class names.
+     */
+    GridOptimizedFieldOutput(boolean requireSer, Map<String, Integer> name2id) {
+        assert name2id != null;
+
+        this.requireSer = requireSer;
+        this.name2id = name2id;
+
+        buf = new byte[U.DFLT_BUFFER_SIZE];
+    }
+
+    /**
+     * Writes header and stream content to given output stream.
+     *
+     * @param out Output stream.
+     * @throws IOException If failed.
+     */
+    void writeTo(OutputStream out) throws IOException {
+        buf[0] = MAGIC;
+
+        U.intToBytes(pos - HEADER_SIZE, buf, 1);
+
+        out.write(buf, 0, pos);
+    }
+
+    /**
+     * Writes object.
+     *
+     * @param obj Object to write.
+     * @throws IOException If failed.
+     */
+    void writeObject(@Nullable Object obj) throws IOException {
+        if (obj == null) {
+            writeByte(NULL);
+
+            return;
+        }
+
+        Class<?> cls = obj.getClass();
+
+        if (GridMarshallerExclusions.isExcluded(cls)) {
+            writeByte(NULL);
+
+            return;
+        }
+
+        if (writeImmutable(obj, cls))
+            return;
+
+        push(obj);
+
+        try {
+            // Primitive arrays have already been written as immutable values.
+            if (cls.isArray()) {
+                Object[] arr = (Object[])obj;
+
+                writeByte(OBJ_ARR);
+                writeClassRef(cls.getComponentType());
+                writeInt(arr.length);
+
+                for (Object o : arr)
+                    writeObject(o);
+            }
+            else if (cls == ArrayList.class || cls == LinkedList.class) {
+                writeByte(cls == ArrayList.class ? ARRAY_LIST : LINKED_LIST);
+
+                writeCollection((Collection<?>)obj);
+            }
+            else if (cls == HashSet.class || cls == LinkedHashSet.class) {
+                writeByte(cls == HashSet.class ? HASH_SET : LINKED_HASH_SET);
+
+                writeCollection((Collection<?>)obj);
+            }
+            else if (cls == HashMap.class || cls == LinkedHashMap.class) {
+                Map<?, ?> map = (Map<?, ?>)obj;
+
+                writeByte(cls == HashMap.class ? HASH_MAP : LINKED_HASH_MAP);
+                writeInt(map.size());
+
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    writeObject(e.getKey());
+                    writeObject(e.getValue());
+                }
+            }
+            else {
+                GridOptimizedFieldLayout layout = GridOptimizedFieldLayout.layout(cls);
+
+                if (layout.compiled()) {
+                    if (requireSer && !(obj instanceof Serializable))
+                        throw new NotSerializableException(cls.getName());
+
+                    writeByte(OBJ);
+                    writeClassRef(cls);
+
+                    layout.writeFields(this, obj);
+                }
+                else
+                    writeSerialized(obj);
+            }
+        }
+        finally {
+            depth--;
+        }
+    }
+
+    /**
+     * Writes object that can not reference other objects.
+     *
+     * @param obj Object.
+     * @param cls Object class.
+     * @return {@code True} if object was written.
+     * @throws IOException If failed.
+     */
+    private boolean writeImmutable(Object obj, Class<?> cls) throws IOException {
+        if (cls == String.class) {
+            writeByte(STR);
+            writeString((String)obj);
+        }
+        else if (cls == Integer.class) {
+            writeByte(INT);
+            writeInt((Integer)obj);
+        }
+        else if (cls == Long.class) {
+            writeByte(LONG);
+            writeLong((Long)obj);
+        }
+        else if (cls == Double.class) {
+            writeByte(DOUBLE);
+            writeDouble((Double)obj);
+        }
+        else if (cls == Boolean.class) {
+            writeByte(BOOLEAN);
+            writeBoolean((Boolean)obj);
+        }
+        else if (cls == Float.class) {
+            writeByte(FLOAT);
+            writeFloat((Float)obj);
+        }
+        else if (cls == Short.class) {
+            writeByte(SHORT);
+            writeShort((Short)obj);
+        }
+        else if (cls == Byte.class) {
+            writeByte(BYTE);
+            writeByte((Byte)obj);
+        }
+        else if (cls == Character.class) {
+            writeByte(CHAR);
+            writeChar((Character)obj);
+        }
+        else if (cls == byte[].class) {
+            byte[] arr = (byte[])obj;
+
+            writeByte(BYTE_ARR);
+            writeInt(arr.length);
+            write(arr);
+        }
+        else if (cls == int[].class) {
+            int[] arr = (int[])obj;
+
+            writeByte(INT_ARR);
+            writeInt(arr.length);
+
+            for (int v : arr)
+                writeInt(v);
+        }
+        else if (cls == long[].class) {
+            long[] arr = (long[])obj;
+
+            writeByte(LONG_ARR);
+            writeInt(arr.length);
+
+            for (long v : arr)
+                writeLong(v);
+        }
+        else if (cls == double[].class) {
+            double[] arr = (double[])obj;
+
+            writeByte(DOUBLE_ARR);
+            writeInt(arr.length);
+
+            for (double v : arr)
+                writeDouble(v);
+        }
+        else if (cls == float[].class) {
+            float[] arr = (float[])obj;
+
+            writeByte(FLOAT_ARR);
+            writeInt(arr.length);
+
+            for (float v : arr)
+                writeFloat(v);
+        }
+        else if (cls == short[].class) {
+            short[] arr = (short[])obj;
+
+            writeByte(SHORT_ARR);
+            writeInt(arr.length);
+
+            for (short v : arr)
+                writeShort(v);
+        }
+        else if (cls == char[].class) {
+            char[] arr = (char[])obj;
+
+            writeByte(CHAR_ARR);
+            writeInt(arr.length);
+
+            for (char v : arr)
+                writeChar(v);
+        }
+        else if (cls == boolean[].class) {
+            boolean[] arr = (boolean[])obj;
+
+            writeByte(BOOLEAN_ARR);
+            writeInt(arr.length);
+
+            for (boolean v : arr)
+                writeBoolean(v);
+        }
+        else if (obj instanceof Enum) {
+            writeByte(ENUM);
+            writeClassRef(((Enum)obj).getDeclaringClass());
+            writeInt(((Enum)obj).ordinal());
+        }
+        else if (cls == Date.class) {
+            writeByte(DATE);
+            writeLong(((Date)obj).getTime());
+        }
+        else if (cls == java.util.UUID.class) {
+            java.util.UUID uuid = (java.util.UUID)obj;
+
+            writeByte(UUID);
+            writeLong(uuid.getMostSignificantBits());
+            writeLong(uuid.getLeastSignificantBits());
+        }
+        else
+            return false;
+
+        return true;
+    }
+
+    /**
+     * Pushes object to the stack of objects being written.
+     *
+     * @param obj Object.
+     * @throws UnsupportedGraphException If object is already being written or graph is too deep.
+     */
+    private void push(Object obj) throws UnsupportedGraphException {
+        if (depth == MAX_DEPTH)
+            throw new UnsupportedGraphException("Object graph is too deep.");
+
+        for (int i = 0; i < depth; i++)
+            if (stack[i] == obj)
+                throw new UnsupportedGraphException("Object graph has cycles.");
+
+        stack[depth++] = obj;
+    }
+
+    /**
+     * @param col Collection.
+     * @throws IOException If failed.
+     */
+    private void writeCollection(Collection<?> col) throws IOException {
+        writeInt(col.size());
+
+        for (Object o : col)
+            writeObject(o);
+    }
+
+    /**
+     * Writes object with standard optimized streams.
+     *
+     * @param obj Object.
+     * @throws IOException If failed.
+     */
+    private void writeSerialized(Object obj) throws IOException {
+        GridByteArrayOutputStream bytes = new GridByteArrayOutputStream(U.DFLT_BUFFER_SIZE);
+
+        GridOptimizedObjectOutput objOut = new GridOptimizedObjectOutput(bytes, requireSer, name2id);
+
+        objOut.writeObject(obj);
+
+        objOut.delayedWrite();
+
+        objOut.flush();
+
+        writeByte(SERIALIZED);
+        writeInt(bytes.size());
+        write(bytes.getInternalArray(), 0, bytes.size());
+    }
+
+    /**
+     * Writes class, or its index if class has already been written to this stream.
+     *
+     * @param cls Class.
+     * @throws IOException If failed.
+     */
+    private void writeClassRef(Class<?> cls) throws IOException {
+        if (clsIds == null)
+            clsIds = new HashMap<Class, Integer>();
+
+        Integer id = clsIds.get(cls);
+
+        if (id != null)
+            writeInt(id);
+        else {
+            writeInt(-1);
+
+            GridOptimizedClassResolver.writeClass(this, cls, name2id);
+
+            clsIds.put(cls, clsIds.size());
+        }
+    }
+
+    /**
+     * Writes string as number of chars followed by UTF-8 bytes.
+     *
+     * @param s String.
+     */
+    private void writeString(String s) {
+        int len = s.length();
+
+        writeInt(len);
+
+        ensure(len * 3);
+
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+
+            if (c < 0x80)
+                buf[pos++] = (byte)c;
+            else if (c < 0x800) {
+                buf[pos++] = (byte)(0xC0 | (c >> 6));
+                buf[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+            else {
+                buf[pos++] = (byte)(0xE0 | (c >> 12));
+                buf[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Ensures buffer has enough space for given number of bytes.
+     *
+     * @param cnt Number of bytes to be written.
+     */
+    private void ensure(int cnt) {
+        if (pos + cnt > buf.length)
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + cnt));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(int b) {
+        writeByte(b);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(byte[] b, int off, int len) {
+        ensure(len);
+
+        System.arraycopy(b, off, buf, pos, len);
+
+        pos += len;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeBoolean(boolean v) {
+        writeByte(v ? 1 : 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeByte(int v) {
+        ensure(1);
+
+        buf[pos++] = (byte)v;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeShort(int v) {
+        ensure(2);
+
+        buf[pos++] = (byte)(v >>> 8);
+        buf[pos++] = (byte)v;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeChar(int v) {
+        writeShort(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeInt(int v) {
+        ensure(4);
+
+        buf[pos++] = (byte)(v >>> 24);
+        buf[pos++] = (byte)(v >>> 16);
+        buf[pos++] = (byte)(v >>> 8);
+        buf[pos++] = (byte)v;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeLong(long v) {
+        writeInt((int)(v >>> 32));
+        writeInt((int)v);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeFloat(float v) {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeDouble(double v) {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeBytes(String s) {
+        int len = s.length();
+
+        ensure(len);
+
+        for (int i = 0; i < len; i++)
+            buf[pos++] = (byte)s.charAt(i);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeChars(String s) {
+        int len = s.length();
+
+        for (int i = 0; i < len; i++)
+            writeChar(s.charAt(i));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeUTF(String s) {
+        writeString(s);
+    }
+
+    /**
+     * Thrown if object graph can not be written in compiled field mode.
+     */
+    static class UnsupportedGraphException extends IOException {
+        /**
+         * @param msg Message.
+         */
+        UnsupportedGraphException(String msg) {
+            super(msg);
+        }
+    }
+}
@@ -21,6 +21,13 @@ import java.util.*;
  * {@code GridOptimizedMarshaller} is the default marshaler and will be used if no other
  * marshaller was explicitly configured.
  * <p>
+ * If {@link #setCompiledFieldLayouts(boolean)} is enabled, objects are written field by field
+ * according to per-class layouts compiled on first use, without per-object class descriptors
+ * and reference tracking. Classes with custom serialization logic are still written with
+ * standard optimized streams, and object graphs with cycles are written entirely in standard
+ * format. Unmarshalling detects format automatically, so nodes with and without this mode
+ * enabled can communicate with each other.
+ * <p>
  * <h1 class="header">Configuration</h1>
  * <h2 class="header">Mandatory</h2>
  * This marshaller has no mandatory configuration parameters.
@@ -87,6 +94,9 @@ public class GridOptimizedMarshaller implements GridMarshaller {
     /** Whether or not to require an object to be serializable in order to be marshalled. */
     private boolean requireSer;
 
+    /** Whether or not to use compiled field layouts. */
+    private boolean compiledLayouts;
+
     /** */
     private final Map<String, Integer> name2id = new HashMap<String, Integer>();
 
@@ -220,10 +230,47 @@ public class GridOptimizedMarshaller implements GridMarshaller {
         this.requireSer = requireSer;
     }
 
+    /**
+     * @return Whether compiled field layouts are used.
+     */
+    public boolean isCompiledFieldLayouts() {
+        return compiledLayouts;
+    }
+
+    /**
+     * Sets flag to use compiled field layouts. If {@code true}, objects are written field by field
+     * according to per-class layouts, which is considerably faster and produces smaller output for
+     * plain data objects, but does not preserve shared references within object graph (object
+     * referenced several times is unmarshalled as several copies). Default is {@code false}.
+     *
+     * @param compiledLayouts Flag to use compiled field layouts.
+     */
+    public void setCompiledFieldLayouts(boolean compiledLayouts) {
+        this.compiledLayouts = compiledLayouts;
+    }
+
     /** {@inheritDoc} */
     @Override public void marshal(@Nullable Object obj, OutputStream out) throws GridException {
         assert out != null;
 
+        if (compiledLayouts) {
+            try {
+                GridOptimizedFieldOutput fieldOut = new GridOptimizedFieldOutput(requireSer, name2id);
+
+                fieldOut.writeObject(obj);
+
+                fieldOut.writeTo(out);
+
+                return;
+            }
+            catch (GridOptimizedFieldOutput.UnsupportedGraphException ignored) {
+                // Fall back to standard optimized streams.
+            }
+            catch (IOException e) {
+                throw new GridException("Failed to serialize object: " + obj, e);
+            }
+        }
+
         try {
             GridOptimizedObjectOutput objOut = new GridOptimizedObjectOutput(out, requireSer, name2id);
 
@@ -247,6 +294,27 @@ public class GridOptimizedMarshaller implements GridMarshaller {
             clsLdr = dfltClsLdr;
 
         try {
+            if (in.markSupported()) {
+                in.mark(1);
+
+                if (in.read() == GridOptimizedFieldOutput.MAGIC)
+                    return (T)GridOptimizedFieldInput.read(in, clsLdr, id2name).readObject();
+
+                in.reset();
+            }
+            else {
+                int b = in.read();
+
+                if (b == GridOptimizedFieldOutput.MAGIC)
+                    return (T)GridOptimizedFieldInput.read(in, clsLdr, id2name).readObject();
+
+                if (b == -1)
+                    throw new EOFException();
+
+                // Push back first byte of the stream.
+                in = new SequenceInputStream(new ByteArrayInputStream(new byte[] {(byte)b}), in);
+            }
+
             GridOptimizedObjectInput objIn = new GridOptimizedObjectInput(in, clsLdr, id2name);
 
             T obj = (T)objIn.readObject();
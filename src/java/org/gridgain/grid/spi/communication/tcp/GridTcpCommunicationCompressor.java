@@ -0,0 +1,240 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.spi.communication.tcp;
+
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.nio.*;
+
+import java.lang.management.*;
+import java.nio.*;
+import java.util.concurrent.atomic.*;
+import java.util.zip.*;
+
+/**
+ * Per-frame compressor for {@link GridTcpCommunicationSpi}. Compressed frame body consists
+ * of uncompressed body size followed by deflated body bytes, and the frame is marked by
+ * {@link GridNioClient#COMPRESSED_FLAG} bit in message length header.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridTcpCommunicationCompressor {
+    /** Size of uncompressed body size prefix. */
+    private static final int SIZE_PREFIX = 4;
+
+    /** Threading MBean. */
+    private static final ThreadMXBean threadMx = U.getThreadMx();
+
+    /** Compression level. */
+    private final int level;
+
+    /** Deflaters. */
+    private final ThreadLocal<Deflater> deflaters = new ThreadLocal<Deflater>() {
+        @Override protected Deflater initialValue() {
+            return new Deflater(level);
+        }
+    };
+
+    /** Inflaters. */
+    private final ThreadLocal<Inflater> inflaters = new ThreadLocal<Inflater>() {
+        @Override protected Inflater initialValue() {
+            return new Inflater();
+        }
+    };
+
+    /**
+     * @param level Compression level.
+     */
+    GridTcpCommunicationCompressor(int level) {
+        this.level = level;
+    }
+
+    /**
+     * Compresses frame.
+     *
+     * @param frame Uncompressed frame.
+     * @param metrics Metrics to update.
+     * @return Compressed frame or {@code null} if compressed frame would not be smaller.
+     */
+    ByteBuffer compress(ByteBuffer frame, Metrics metrics) {
+        assert frame.hasArray();
+
+        long start = cpuTime();
+
+        byte[] src = frame.array();
+
+        int off = frame.arrayOffset() + frame.position() + GridNioClient.HEADER_SIZE;
+        int len = frame.remaining() - GridNioClient.HEADER_SIZE;
+
+        int hdrSize = GridNioClient.HEADER_SIZE + SIZE_PREFIX;
+
+        // Compressed frame is only useful if it is smaller than original.
+        byte[] dst = new byte[hdrSize + len];
+
+        Deflater deflater = deflaters.get();
+
+        deflater.reset();
+
+        deflater.setInput(src, off, len);
+
+        deflater.finish();
+
+        int size = hdrSize;
+
+        while (!deflater.finished() && size < dst.length)
+            size += deflater.deflate(dst, size, dst.length - size);
+
+        boolean success = deflater.finished() && size < frame.remaining();
+
+        if (success) {
+            U.intToBytes((size - GridNioClient.HEADER_SIZE) | GridNioClient.COMPRESSED_FLAG, dst, 0);
+            U.intToBytes(len, dst, GridNioClient.HEADER_SIZE);
+        }
+
+        metrics.onCompressed(len, success ? size - hdrSize : len, cpuTime() - start);
+
+        return success ? ByteBuffer.wrap(dst, 0, size) : null;
+    }
+
+    /**
+     * Decompresses frame body.
+     *
+     * @param body Compressed frame body.
+     * @return Decompressed body.
+     * @throws DataFormatException If body is corrupted.
+     */
+    ByteBuffer decompress(ByteBuffer body) throws DataFormatException {
+        int len = body.getInt();
+
+        // Inflater does not accept buffers, so compressed bytes are copied, which is
+        // still cheaper than copying uncompressed message.
+        byte[] src = new byte[body.remaining()];
+
+        body.get(src);
+
+        byte[] dst = new byte[len];
+
+        Inflater inflater = inflaters.get();
+
+        inflater.reset();
+
+        inflater.setInput(src);
+
+        int size = 0;
+
+        while (size < len) {
+            int cnt = inflater.inflate(dst, size, len - size);
+
+            if (cnt == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                throw new DataFormatException("Unexpected end of compressed message [expected=" + len +
+                    ", actual=" + size + ']');
+
+            size += cnt;
+        }
+
+        return ByteBuffer.wrap(dst);
+    }
+
+    /**
+     * @return Current thread CPU time if supported, or wall clock time otherwise, in nanoseconds.
+     */
+    static long cpuTime() {
+        return threadMx.isCurrentThreadCpuTimeSupported() ? threadMx.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Compression metrics of a connection to one remote node.
+     */
+    static class Metrics {
+        /** Number of compressed frames. */
+        private final AtomicLong frames = new AtomicLong();
+
+        /** Number of bytes before compression. */
+        private final AtomicLong rawBytes = new AtomicLong();
+
+        /** Number of bytes after compression. */
+        private final AtomicLong compressedBytes = new AtomicLong();
+
+        /** CPU time spent on compression. */
+        private final AtomicLong compressTime = new AtomicLong();
+
+        /** CPU time spent on decompression. */
+        private final AtomicLong decompressTime = new AtomicLong();
+
+        /**
+         * @param raw Uncompressed size.
+         * @param compressed Compressed size (equal to uncompressed size if frame was sent uncompressed).
+         * @param time CPU time spent.
+         */
+        void onCompressed(int raw, int compressed, long time) {
+            frames.incrementAndGet();
+
+            rawBytes.addAndGet(raw);
+            compressedBytes.addAndGet(compressed);
+            compressTime.addAndGet(time);
+        }
+
+        /**
+         * @param time CPU time spent.
+         */
+        void onDecompressed(long time) {
+            decompressTime.addAndGet(time);
+        }
+
+        /**
+         * @return Number of frames compression was attempted for.
+         */
+        long frames() {
+            return frames.get();
+        }
+
+        /**
+         * @return Number of bytes before compression.
+         */
+        long rawBytes() {
+            return rawBytes.get();
+        }
+
+        /**
+         * @return Number of bytes after compression.
+         */
+        long compressedBytes() {
+            return compressedBytes.get();
+        }
+
+        /**
+         * @return Ratio of uncompressed to compressed bytes, or {@code 1} if nothing was compressed.
+         */
+        double ratio() {
+            long compressed = compressedBytes.get();
+
+            return compressed == 0 ? 1 : (double)rawBytes.get() / compressed;
+        }
+
+        /**
+         * @return CPU time spent on compression in nanoseconds.
+         */
+        long compressTime() {
+            return compressTime.get();
+        }
+
+        /**
+         * @return CPU time spent on decompression in nanoseconds.
+         */
+        long decompressTime() {
+            return decompressTime.get();
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Metrics.class, this, "ratio", ratio());
+        }
+    }
+}
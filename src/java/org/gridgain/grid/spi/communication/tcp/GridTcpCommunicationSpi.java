@@ -22,6 +22,7 @@ import java.nio.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
+import java.util.zip.*;
 
 import static org.gridgain.grid.GridEventType.*;
 
@@ -50,6 +51,18 @@ import static org.gridgain.grid.GridEventType.*;
  * as maximum open clients. Use {@link #setMaxOpenClients(int)} configuration parameter
  * to configure maximum count of open clients per remote node.
  * <p>
+ * Messages are sent asynchronously. Each message is put into the outbound queue of the
+ * connection and is later written to the socket by one of NIO writer threads, which
+ * coalesces all queued messages into a single gathering write. If outbound queue of
+ * the connection reaches {@link #setSendQueueLimit(int)} messages, sending thread
+ * will wait until the queue is drained.
+ * <p>
+ * Messages may optionally be compressed (see {@link #setCompressionEnabled(boolean)}). Only
+ * messages larger than {@link #setCompressionThreshold(int)} bytes are compressed, and only
+ * when remote node has compression enabled as well, which is advertised through
+ * {@link #ATTR_COMPRESSION} node attribute. This way nodes with and without compression
+ * can coexist in the same grid.
+ * <p>
  * <h1 class="header">Configuration</h1>
  * <h2 class="header">Mandatory</h2>
  * This SPI has no mandatory configuration parameters.
@@ -65,6 +78,11 @@ import static org.gridgain.grid.GridEventType.*;
  * <li>Direct or heap buffer allocation (see {@link #setDirectBuffer(boolean)})</li>
  * <li>Count of selectors and selector threads for NIO server (see {@link #setSelectorsCount(int)})</li>
  * <li>Maximum count of open clients per remote node (see {@link #setMaxOpenClients(int)})</li>
+ * <li>Outbound queue limit per connection (see {@link #setSendQueueLimit(int)})</li>
+ * <li>Maximum count of messages coalesced into one write (see {@link #setSendGatherCount(int)})</li>
+ * <li>Message compression (see {@link #setCompressionEnabled(boolean)})</li>
+ * <li>Message compression threshold (see {@link #setCompressionThreshold(int)})</li>
+ * <li>Message compression level (see {@link #setCompressionLevel(int)})</li>
  * </ul>
  * <h2 class="header">Java Example</h2>
  * GridTcpCommunicationSpi is used by default and should be explicitly configured
@@ -126,6 +144,12 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     /** Node attribute that is mapped to node's external ports numbers (value is <tt>comm.tcp.ext-ports</tt>). */
     public static final String ATTR_EXT_PORTS = "comm.tcp.ext-ports";
 
+    /**
+     * Node attribute that is mapped to flag indicating whether node accepts
+     * compressed messages (value is <tt>comm.tcp.compression</tt>).
+     */
+    public static final String ATTR_COMPRESSION = "comm.tcp.compression";
+
     /** Default port which node sets listener to (value is <tt>47100</tt>). */
     public static final int DFLT_PORT = 47100;
 
@@ -141,6 +165,18 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     /** Default count of selectors for tcp server equals to the count of processors in system. */
     public static final int DFLT_SELECTORS_CNT = Runtime.getRuntime().availableProcessors();
 
+    /** Default outbound queue limit per connection (value is <tt>1024</tt>). */
+    public static final int DFLT_SEND_QUEUE_LIMIT = 1024;
+
+    /** Default maximum count of messages coalesced into one write (value is <tt>128</tt>). */
+    public static final int DFLT_SEND_GATHER_CNT = GridNioWriter.DFLT_MAX_GATHER_CNT;
+
+    /** Default size in bytes above which messages are compressed (value is <tt>1024</tt>). */
+    public static final int DFLT_COMPRESSION_THRESHOLD = 1024;
+
+    /** Default compression level (value is {@link Deflater#BEST_SPEED}). */
+    public static final int DFLT_COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
     /**
      * Default local port range (value is <tt>100</tt>).
      * See {@link #setLocalPortRange(int)} for details.
@@ -187,6 +223,34 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     /** NIO server. */
     private GridNioServer nioSrvr;
 
+    /** Compression flag. */
+    private boolean compressEnabled;
+
+    /** Size in bytes above which messages are compressed. */
+    private int compressThreshold = DFLT_COMPRESSION_THRESHOLD;
+
+    /** Compression level. */
+    private int compressLevel = DFLT_COMPRESSION_LEVEL;
+
+    /** Compressor. */
+    private GridTcpCommunicationCompressor compressor;
+
+    /** Compression metrics per remote node. */
+    private final ConcurrentMap<UUID, GridTcpCommunicationCompressor.Metrics> compressMetrics =
+        GridConcurrentFactory.newMap();
+
+    /** Pool of buffers received messages are read into. */
+    private GridNioBufferPool rcvBufPool;
+
+    /** NIO writer. */
+    private GridNioWriter nioWriter;
+
+    /** Outbound queue limit per connection. */
+    private int sendQueueLimit = DFLT_SEND_QUEUE_LIMIT;
+
+    /** Maximum count of messages coalesced into one write. */
+    private int sendGatherCnt = DFLT_SEND_GATHER_CNT;
+
     /** Number of threads responsible for handling messages. */
     private int msgThreads = DFLT_MSG_THREADS;
 
@@ -374,7 +438,8 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     /**
      * Sets flag to allocate direct or heap buffer in SPI.
      * If value is {@code true}, then SPI will use {@link ByteBuffer#allocateDirect(int)} call.
-     * Otherwise, SPI will use {@link ByteBuffer#allocate(int)} call.
+     * Otherwise, SPI will use {@link ByteBuffer#allocate(int)} call. This flag also applies
+     * to pooled buffers received messages are read into.
      * <p>
      * If not provided, default value is {@code true}.
      *
@@ -424,6 +489,195 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         return selectorsCnt;
     }
 
+    /**
+     * Sets maximum count of messages waiting in outbound queue of one connection.
+     * When this limit is reached, sending thread will wait until queued messages are
+     * written to the socket.
+     * <p/>
+     * If not provided, default value is {@link #DFLT_SEND_QUEUE_LIMIT}.
+     *
+     * @param sendQueueLimit Outbound queue limit per connection.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setSendQueueLimit(int sendQueueLimit) {
+        this.sendQueueLimit = sendQueueLimit;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getSendQueueLimit() {
+        return sendQueueLimit;
+    }
+
+    /**
+     * Sets maximum count of queued messages which are coalesced into one
+     * gathering write to the socket.
+     * <p/>
+     * If not provided, default value is {@link #DFLT_SEND_GATHER_CNT}.
+     *
+     * @param sendGatherCnt Maximum count of messages coalesced into one write.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setSendGatherCount(int sendGatherCnt) {
+        this.sendGatherCnt = sendGatherCnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getSendGatherCount() {
+        return sendGatherCnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getOutboundMessagesQueueSize() {
+        int size = 0;
+
+        for (GridNioClientPool pool : clients.values())
+            size += pool.queueSize();
+
+        return size;
+    }
+
+    /**
+     * Enables compression of messages sent to remote nodes which have compression
+     * enabled as well. Note that this node will receive compressed messages only
+     * if this flag is set.
+     * <p>
+     * If not provided, default value is {@code false}.
+     *
+     * @param compressEnabled Compression flag.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setCompressionEnabled(boolean compressEnabled) {
+        this.compressEnabled = compressEnabled;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isCompressionEnabled() {
+        return compressEnabled;
+    }
+
+    /**
+     * Sets message size in bytes starting from which messages are compressed.
+     * Smaller messages are always sent as is.
+     * <p>
+     * If not provided, default value is {@link #DFLT_COMPRESSION_THRESHOLD}.
+     *
+     * @param compressThreshold Compression threshold.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setCompressionThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCompressionThreshold() {
+        return compressThreshold;
+    }
+
+    /**
+     * Sets compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+     * <p>
+     * If not provided, default value is {@link #DFLT_COMPRESSION_LEVEL}.
+     *
+     * @param compressLevel Compression level.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setCompressionLevel(int compressLevel) {
+        this.compressLevel = compressLevel;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCompressionLevel() {
+        return compressLevel;
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getCompressionRatio() {
+        long raw = 0;
+        long compressed = 0;
+
+        for (GridTcpCommunicationCompressor.Metrics m : compressMetrics.values()) {
+            raw += m.rawBytes();
+            compressed += m.compressedBytes();
+        }
+
+        return compressed == 0 ? 1 : (double)raw / compressed;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getCompressionTime() {
+        long time = 0;
+
+        for (GridTcpCommunicationCompressor.Metrics m : compressMetrics.values())
+            time += m.compressTime();
+
+        return TimeUnit.NANOSECONDS.toMillis(time);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getDecompressionTime() {
+        long time = 0;
+
+        for (GridTcpCommunicationCompressor.Metrics m : compressMetrics.values())
+            time += m.decompressTime();
+
+        return TimeUnit.NANOSECONDS.toMillis(time);
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getNodeCompressionRatio(String nodeId) {
+        GridTcpCommunicationCompressor.Metrics m = compressMetrics.get(UUID.fromString(nodeId));
+
+        return m == null ? 1 : m.ratio();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getNodeCompressionTime(String nodeId) {
+        GridTcpCommunicationCompressor.Metrics m = compressMetrics.get(UUID.fromString(nodeId));
+
+        return m == null ? 0 : TimeUnit.NANOSECONDS.toMillis(m.compressTime() + m.decompressTime());
+    }
+
+    /**
+     * Gets compression metrics for given remote node, creating them if needed.
+     *
+     * @param nodeId Remote node ID.
+     * @return Compression metrics.
+     */
+    private GridTcpCommunicationCompressor.Metrics compressMetrics(UUID nodeId) {
+        GridTcpCommunicationCompressor.Metrics m = compressMetrics.get(nodeId);
+
+        if (m == null) {
+            GridTcpCommunicationCompressor.Metrics old = compressMetrics.putIfAbsent(nodeId,
+                m = new GridTcpCommunicationCompressor.Metrics());
+
+            if (old != null)
+                m = old;
+        }
+
+        return m;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getReceiveBufferPoolHits() {
+        GridNioBufferPool pool = rcvBufPool;
+
+        return pool == null ? 0 : pool.hits();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getReceiveBufferPoolMisses() {
+        GridNioBufferPool pool = rcvBufPool;
+
+        return pool == null ? 0 : pool.misses();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getReceiveBufferPoolAllocatedBytes() {
+        GridNioBufferPool pool = rcvBufPool;
+
+        return pool == null ? 0 : pool.allocatedBytes();
+    }
+
     /** {@inheritDoc} */
     @Override public void setListener(GridMessageListener lsnr) {
         this.lsnr = lsnr;
@@ -511,6 +765,11 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         assertParameter(localPort <= 0xffff, "localPort < 0xffff");
         assertParameter(localPortRange >= 0, "localPortRange >= 0");
         assertParameter(msgThreads > 0, "msgThreads > 0");
+        assertParameter(compressThreshold >= 0, "compressThreshold >= 0");
+        assertParameter(compressLevel >= Deflater.BEST_SPEED && compressLevel <= Deflater.BEST_COMPRESSION,
+            "compressLevel >= 1 && compressLevel <= 9");
+
+        compressor = new GridTcpCommunicationCompressor(compressLevel);
 
         nioExec = new ThreadPoolExecutor(msgThreads, msgThreads, Long.MAX_VALUE, TimeUnit.MILLISECONDS,
             new LinkedBlockingQueue<Runnable>(), new GridSpiThreadFactory(gridName, "grid-nio-msg-handler", log));
@@ -547,7 +806,8 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         return F.asMap(
             createSpiAttributeName(ATTR_ADDR), localHost,
             createSpiAttributeName(ATTR_PORT), boundTcpPort,
-            createSpiAttributeName(ATTR_EXT_PORTS), extPorts);
+            createSpiAttributeName(ATTR_EXT_PORTS), extPorts,
+            createSpiAttributeName(ATTR_COMPRESSION), compressEnabled);
     }
 
     /** {@inheritDoc} */
@@ -558,6 +818,8 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         startStopwatch();
 
         assertParameter(idleConnTimeout > 0, "idleConnTimeout > 0");
+        assertParameter(sendQueueLimit > 0, "sendQueueLimit > 0");
+        assertParameter(sendGatherCnt > 0, "sendGatherCnt > 0");
 
         // Ack parameters.
         if (log.isDebugEnabled()) {
@@ -567,10 +829,24 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
             log.debug(configInfo("localPortRange", localPortRange));
             log.debug(configInfo("idleConnTimeout", idleConnTimeout));
             log.debug(configInfo("directBuf", directBuf));
+            log.debug(configInfo("sendQueueLimit", sendQueueLimit));
+            log.debug(configInfo("sendGatherCnt", sendGatherCnt));
+            log.debug(configInfo("compressEnabled", compressEnabled));
+            log.debug(configInfo("compressThreshold", compressThreshold));
+            log.debug(configInfo("compressLevel", compressLevel));
         }
 
         registerMBean(gridName, this, GridTcpCommunicationSpiMBean.class);
 
+        try {
+            nioWriter = new GridNioWriter(log, selectorsCnt, sendGatherCnt, gridName);
+        }
+        catch (GridException e) {
+            throw new GridSpiException("Failed to initialize NIO writer.", e);
+        }
+
+        nioWriter.start();
+
         nioSrvr.start();
 
         idleClientWorker = new IdleClientWorker();
@@ -605,17 +881,35 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
             private final ClassLoader clsLdr = getClass().getClassLoader();
 
             /** {@inheritDoc} */
-            @Override public void onMessage(byte[] data) {
+            @Override public void onMessage(ByteBuffer data, boolean compressed) {
                 try {
-                    GridTcpCommunicationMessage msg = U.unmarshal(marsh,
-                        new GridByteArrayList(data, data.length), clsLdr);
+                    int size = data.remaining();
+
+                    long time = 0;
+
+                    if (compressed) {
+                        long start = GridTcpCommunicationCompressor.cpuTime();
+
+                        data = compressor.decompress(data);
+
+                        time = GridTcpCommunicationCompressor.cpuTime() - start;
+                    }
+
+                    // Unmarshal straight from pooled buffer without copying it.
+                    GridTcpCommunicationMessage msg = U.unmarshal(marsh, new GridByteBufferInputStream(data), clsLdr);
 
                     rcvdMsgsCnt.incrementAndGet();
 
-                    rcvdBytesCnt.addAndGet(data.length);
+                    rcvdBytesCnt.addAndGet(size);
+
+                    if (compressed)
+                        compressMetrics(msg.getNodeId()).onDecompressed(time);
 
                     notifyListener(msg);
                 }
+                catch (DataFormatException e) {
+                    U.error(log, "Failed to decompress TCP message.", e);
+                }
                 catch (GridException e) {
                     U.error(log, "Failed to deserialize TCP message.", e);
                 }
@@ -624,13 +918,15 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
 
         GridNioServer srvr = null;
 
+        rcvBufPool = new GridNioBufferPool(directBuf);
+
         // If bound TPC port was not set yet, then find first
         // available port.
         if (boundTcpPort < 0)
             for (int port = localPort; port < maxPort; port++)
                 try {
                     srvr = new GridNioServer(localHost, port, lsnr, log, nioExec, selectorsCnt, gridName,
-                        directBuf, false);
+                        directBuf, false, rcvBufPool);
 
                     boundTcpPort = port;
 
@@ -677,8 +973,13 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         for (GridNioClientPool pool : clients.values())
             pool.forceClose();
 
+        // Stop NIO writer.
+        if (nioWriter != null)
+            nioWriter.stop();
+
         // Clear resources.
         nioSrvr = null;
+        nioWriter = null;
         idleClientWorker = null;
 
         boundTcpPort = -1;
@@ -714,6 +1015,8 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
 
             clients.remove(nodeId, pool);
         }
+
+        compressMetrics.remove(nodeId);
     }
 
     /** {@inheritDoc} */
@@ -784,13 +1087,23 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
             try {
                 client = reserveClient(node);
 
-                GridByteArrayList buf = U.marshal(marsh, new GridTcpCommunicationMessage(nodeId, msg));
+                ByteBuffer frame = marshalFrame(msg);
 
-                client.sendMessage(buf.getInternalArray(), buf.getSize());
+                if (compressEnabled && frame.remaining() - GridNioClient.HEADER_SIZE >= compressThreshold &&
+                    Boolean.TRUE.equals(node.<Boolean>attribute(createSpiAttributeName(ATTR_COMPRESSION)))) {
+                    ByteBuffer compressed = compressor.compress(frame, compressMetrics(node.id()));
+
+                    if (compressed != null)
+                        frame = compressed;
+                }
+
+                int size = frame.remaining();
+
+                client.sendMessage(frame);
 
                 sentMsgsCnt.incrementAndGet();
 
-                sentBytesCnt.addAndGet(buf.getSize());
+                sentBytesCnt.addAndGet(size);
             }
             catch (GridException e) {
                 throw new GridSpiException("Failed to send message to remote node: " + node, e);
@@ -801,6 +1114,33 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         }
     }
 
+    /**
+     * Marshals message into a frame that can be passed to {@link GridNioClient} directly:
+     * space for message length header is reserved in the same array, so message bytes
+     * are never copied.
+     *
+     * @param msg Message to marshal.
+     * @return Frame buffer.
+     * @throws GridException If marshalling failed.
+     */
+    private ByteBuffer marshalFrame(Serializable msg) throws GridException {
+        GridByteArrayOutputStream out = new GridByteArrayOutputStream(U.DFLT_BUFFER_SIZE);
+
+        // Reserve space for message length header.
+        for (int i = 0; i < GridNioClient.HEADER_SIZE; i++)
+            out.write(0);
+
+        marsh.marshal(new GridTcpCommunicationMessage(nodeId, msg), out);
+
+        byte[] arr = out.getInternalArray();
+
+        int size = out.size();
+
+        U.intToBytes(size - GridNioClient.HEADER_SIZE, arr, 0);
+
+        return ByteBuffer.wrap(arr, 0, size);
+    }
+
     /**
      * Returns existing or just created client to node.
      *
@@ -918,7 +1258,8 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         for (String addr : addrs) {
             for (Integer port : ports) {
                 try {
-                    client = new GridNioClient(InetAddress.getByName(addr), port, localHost, connTimeout);
+                    client = new GridNioClient(InetAddress.getByName(addr), port, localHost, connTimeout, nioWriter,
+                        sendQueueLimit);
 
                     conn = true;
 
@@ -1061,6 +1402,9 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
 
                     if (client == null || client.reserve())
                         break;
+
+                    // Client was closed due to write failure, forget about it.
+                    onClientClosed(client);
                 }
 
                 // Create new client if there is no clients available.
@@ -1129,16 +1473,37 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
                     if (client.close() || client.closed()) {
                         it.remove();
 
-                        openClients.remove(client);
-
-                        int cnt = clientsCnt.decrementAndGetOpenClients();
-
-                        assert cnt >= 0 : "Open client count become negative";
+                        onClientClosed(client);
                     }
                 }
             }
         }
 
+        /**
+         * Removes closed client from the set of open clients.
+         *
+         * @param client Closed client.
+         */
+        private void onClientClosed(GridNioClient client) {
+            if (openClients.remove(client)) {
+                int cnt = clientsCnt.decrementAndGetOpenClients();
+
+                assert cnt >= 0 : "Open client count become negative";
+            }
+        }
+
+        /**
+         * @return Total count of messages waiting in outbound queues of open clients.
+         */
+        private int queueSize() {
+            int size = 0;
+
+            for (GridNioClient client : openClients)
+                size += client.getQueueSize();
+
+            return size;
+        }
+
         /**
          * Moves this pool to a closed state and closes all open clients.
          */
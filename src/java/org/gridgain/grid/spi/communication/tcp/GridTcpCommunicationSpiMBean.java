@@ -148,6 +148,30 @@ public interface GridTcpCommunicationSpiMBean extends GridSpiManagementMBean {
     @GridMBeanDescription("Count of selectors used in TCP server.")
     public int getSelectorsCount();
 
+    /**
+     * Gets maximum count of messages waiting in outbound queue of one connection.
+     *
+     * @return Outbound queue limit per connection.
+     */
+    @GridMBeanDescription("Outbound queue limit per connection.")
+    public int getSendQueueLimit();
+
+    /**
+     * Gets maximum count of queued messages coalesced into one write.
+     *
+     * @return Maximum count of messages coalesced into one write.
+     */
+    @GridMBeanDescription("Maximum count of messages coalesced into one write.")
+    public int getSendGatherCount();
+
+    /**
+     * Gets total count of messages waiting in outbound queues of all connections.
+     *
+     * @return Outbound messages queue size.
+     */
+    @GridMBeanDescription("Outbound messages queue size.")
+    public int getOutboundMessagesQueueSize();
+
     /**
      * Gets number of threads used for handling NIO messages.
      *
@@ -188,6 +212,110 @@ public interface GridTcpCommunicationSpiMBean extends GridSpiManagementMBean {
     @GridMBeanDescription("Received bytes count.")
     public long getReceivedBytesCount();
 
+    /**
+     * Gets flag indicating whether message compression is enabled.
+     *
+     * @return Compression flag.
+     */
+    @GridMBeanDescription("Whether message compression is enabled.")
+    public boolean isCompressionEnabled();
+
+    /**
+     * Gets message size in bytes starting from which messages are compressed.
+     *
+     * @return Compression threshold.
+     */
+    @GridMBeanDescription("Message size in bytes starting from which messages are compressed.")
+    public int getCompressionThreshold();
+
+    /**
+     * Gets compression level.
+     *
+     * @return Compression level.
+     */
+    @GridMBeanDescription("Compression level.")
+    public int getCompressionLevel();
+
+    /**
+     * Gets ratio of uncompressed to compressed size of all messages compression was applied to.
+     * Messages which did not shrink after compression are counted with ratio of {@code 1}.
+     *
+     * @return Compression ratio.
+     */
+    @GridMBeanDescription("Ratio of uncompressed to compressed size of sent messages.")
+    public double getCompressionRatio();
+
+    /**
+     * Gets total CPU time in milliseconds spent on compression of sent messages.
+     *
+     * @return Compression CPU time.
+     */
+    @GridMBeanDescription("Total CPU time in milliseconds spent on compression of sent messages.")
+    public long getCompressionTime();
+
+    /**
+     * Gets total CPU time in milliseconds spent on decompression of received messages.
+     *
+     * @return Decompression CPU time.
+     */
+    @GridMBeanDescription("Total CPU time in milliseconds spent on decompression of received messages.")
+    public long getDecompressionTime();
+
+    /**
+     * Gets compression ratio of messages sent to given remote node.
+     *
+     * @param nodeId Remote node ID.
+     * @return Compression ratio.
+     */
+    @GridMBeanDescription("Compression ratio of messages sent to given remote node.")
+    @GridMBeanParametersNames(
+        "nodeId"
+    )
+    @GridMBeanParametersDescriptions(
+        "Remote node ID."
+    )
+    public double getNodeCompressionRatio(String nodeId);
+
+    /**
+     * Gets CPU time in milliseconds spent on compression and decompression of messages
+     * exchanged with given remote node.
+     *
+     * @param nodeId Remote node ID.
+     * @return Compression CPU time.
+     */
+    @GridMBeanDescription("CPU time in milliseconds spent on compression of messages exchanged with given node.")
+    @GridMBeanParametersNames(
+        "nodeId"
+    )
+    @GridMBeanParametersDescriptions(
+        "Remote node ID."
+    )
+    public long getNodeCompressionTime(String nodeId);
+
+    /**
+     * Gets number of received messages which were read into a buffer taken from the pool.
+     *
+     * @return Receive buffer pool hits.
+     */
+    @GridMBeanDescription("Receive buffer pool hits.")
+    public long getReceiveBufferPoolHits();
+
+    /**
+     * Gets number of received messages which required a new buffer to be allocated.
+     *
+     * @return Receive buffer pool misses.
+     */
+    @GridMBeanDescription("Receive buffer pool misses.")
+    public long getReceiveBufferPoolMisses();
+
+    /**
+     * Gets total number of bytes allocated by receive buffer pool.
+     *
+     * @return Bytes allocated by receive buffer pool.
+     */
+    @GridMBeanDescription("Bytes allocated by receive buffer pool.")
+    public long getReceiveBufferPoolAllocatedBytes();
+
     /**
      * Gets port resolver for ports mapping determination.
      *
@@ -11,12 +11,9 @@ package org.gridgain.grid.spi.loadbalancing.adaptive;
 
 import org.gridgain.grid.*;
 import org.gridgain.grid.events.*;
-import org.gridgain.grid.lang.*;
-import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.logger.*;
 import org.gridgain.grid.resources.*;
 import org.gridgain.grid.spi.*;
-import org.gridgain.grid.spi.discovery.*;
 import org.gridgain.grid.spi.loadbalancing.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
@@ -24,7 +21,6 @@ import org.jetbrains.annotations.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
-import java.util.concurrent.locks.*;
 
 import static org.gridgain.grid.GridEventType.*;
 
@@ -233,24 +229,28 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
     /** Random number generator. */
     private static final Random RAND = new Random();
 
+    /** Maximum number of cached weighted topologies, cache is cleared once it is exceeded. */
+    private static final int MAX_CACHED_TOPS = 64;
+
     /** Grid logger. */
     @GridLoggerResource private GridLogger log;
 
     /** */
     private GridAdaptiveLoadProbe probe = new GridAdaptiveCpuLoadProbe();
 
-    /** Local event listener to listen to task completion events. */
+    /** Local event listener to listen to discovery events. */
     private GridLocalEventListener evtLsnr;
 
-    /** Task topologies. First pair value indicates whether or not jobs have been mapped. */
-    private ConcurrentMap<GridUuid, GridTuple2<Boolean, WeightedTopology>> taskTops =
-        new ConcurrentHashMap<GridUuid, GridTuple2<Boolean, WeightedTopology>>();
-
-    /** */
-    private final Map<UUID, AtomicInteger> nodeJobs = new HashMap<UUID, AtomicInteger>();
+    /**
+     * Weighted topologies keyed by set of node IDs, so that node order in task topology does
+     * not matter. Topologies are rebuilt when node metrics are updated or once as many jobs
+     * as there are nodes have been sent since last build, and are dropped when nodes join or leave.
+     */
+    private final ConcurrentMap<Set<UUID>, WeightedTopology> cachedTops =
+        new ConcurrentHashMap<Set<UUID>, WeightedTopology>();
 
-    /** */
-    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    /** Number of jobs sent to nodes since their last metrics update. */
+    private final ConcurrentMap<UUID, AtomicInteger> nodeJobs = new ConcurrentHashMap<UUID, AtomicInteger>();
 
     /** {@inheritDoc} */
     @Override public String getLoadProbeFormatted() {
@@ -291,14 +291,9 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
 
     /** {@inheritDoc} */
     @Override public void spiStop() throws GridSpiException {
-        rwLock.writeLock().lock();
+        nodeJobs.clear();
 
-        try {
-            nodeJobs.clear();
-        }
-        finally {
-            rwLock.writeLock().unlock();
-        }
+        cachedTops.clear();
 
         unregisterMBean();
 
@@ -314,98 +309,46 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
 
         getSpiContext().addLocalEventListener(evtLsnr = new GridLocalEventListener() {
             @Override public void onEvent(GridEvent evt) {
-                switch (evt.type()) {
-                    case EVT_TASK_FINISHED:
-                    case EVT_TASK_FAILED: {
-                        GridTaskEvent taskEvt = (GridTaskEvent)evt;
+                GridDiscoveryEvent discoEvt = (GridDiscoveryEvent)evt;
 
-                        taskTops.remove(taskEvt.taskSessionId());
+                switch (evt.type()) {
+                    case EVT_NODE_JOINED: {
+                        nodeJobs.put(discoEvt.eventNodeId(), new AtomicInteger(0));
 
-                        if (log.isDebugEnabled()) {
-                            log.debug("Removed task topology from topology cache for session: " +
-                            taskEvt.taskSessionId());
-                        }
+                        cachedTops.clear();
 
                         break;
                     }
 
-                    case EVT_JOB_MAPPED: {
-                        // We should keep topology and use cache in GridTask#map() method to
-                        // avoid O(n*n/2) complexity, after that we can drop caches.
-                        // Here we set mapped property and later cache will be ignored
-                        GridJobEvent jobEvt = (GridJobEvent)evt;
+                    case EVT_NODE_LEFT:
+                    case EVT_NODE_FAILED: {
+                        nodeJobs.remove(discoEvt.eventNodeId());
 
-                        GridTuple2<Boolean, WeightedTopology> weightedTop = taskTops.get(jobEvt.taskSessionId());
-
-                        if (weightedTop != null) {
-                            weightedTop.set1(true);
-                        }
-
-                        if (log.isDebugEnabled()) {
-                            log.debug("Job has been mapped. Ignore cache for session: " + jobEvt.taskSessionId());
-                        }
+                        cachedTops.clear();
 
                         break;
                     }
 
-                    case EVT_NODE_METRICS_UPDATED:
-                    case EVT_NODE_FAILED:
-                    case EVT_NODE_JOINED:
-                    case EVT_NODE_LEFT: {
-                        GridDiscoveryEvent discoEvt = (GridDiscoveryEvent)evt;
-
-                        rwLock.writeLock().lock();
+                    case EVT_NODE_METRICS_UPDATED: {
+                        // Reset counter.
+                        nodeJobs.put(discoEvt.eventNodeId(), new AtomicInteger(0));
 
-                        try {
-                            switch (evt.type()) {
-                                case EVT_NODE_JOINED: {
-                                    nodeJobs.put(discoEvt.eventNodeId(), new AtomicInteger(0));
+                        refreshCachedTopologies(discoEvt.eventNodeId());
 
-                                    break;
-                                }
-
-                                case EVT_NODE_LEFT:
-                                case EVT_NODE_FAILED: {
-                                    nodeJobs.remove(discoEvt.eventNodeId());
-
-                                    break;
-                                }
-
-                                case EVT_NODE_METRICS_UPDATED: {
-                                    // Reset counter.
-                                    nodeJobs.put(discoEvt.eventNodeId(), new AtomicInteger(0));
-
-                                    break;
-                                }
-                            }
-                        }
-                        finally {
-                            rwLock.writeLock().unlock();
-                        }
+                        break;
                     }
-
                 }
             }
         },
             EVT_NODE_METRICS_UPDATED,
             EVT_NODE_FAILED,
             EVT_NODE_JOINED,
-            EVT_NODE_LEFT,
-            EVT_TASK_FINISHED,
-            EVT_TASK_FAILED,
-            EVT_JOB_MAPPED
+            EVT_NODE_LEFT
         );
 
         // Put all known nodes.
-        rwLock.writeLock().lock();
-
-        try {
-            for (GridNode node : getSpiContext().nodes()) {
-                nodeJobs.put(node.id(), new AtomicInteger(0));
-            }
-        }
-        finally {
-            rwLock.writeLock().unlock();
+        for (GridNode node : getSpiContext().nodes()) {
+            nodeJobs.put(node.id(), new AtomicInteger(0));
         }
     }
 
@@ -427,47 +370,93 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
         A.notNull(top, "top");
         A.notNull(job, "job");
 
-        GridTuple2<Boolean, WeightedTopology> weightedTop = taskTops.get(ses.getId());
+        Set<UUID> key = new HashSet<UUID>(top.size() * 2);
 
-        // Create new cached topology if there is no one. Do not
-        // use cached topology after task has been mapped.
-        if (weightedTop == null) {
-            // Called from GridTask#map(). Put new topology and false as not mapped yet.
-            taskTops.put(ses.getId(), weightedTop = F.t(false, new WeightedTopology(top)));
+        for (GridNode node : top) {
+            key.add(node.id());
         }
-        // We have topology - check if task has been mapped.
-        else if (weightedTop.get1()) {
-            // Do not use cache after GridTask#map().
-            return new WeightedTopology(top).pickWeightedNode();
+
+        WeightedTopology weightedTop = cachedTops.get(key);
+
+        // Rebuild topology if loads have to account for jobs sent since it was built.
+        if (weightedTop == null || weightedTop.stale()) {
+            WeightedTopology old = weightedTop;
+
+            weightedTop = new WeightedTopology(top);
+
+            if (old == null) {
+                if (cachedTops.size() >= MAX_CACHED_TOPS) {
+                    cachedTops.clear();
+                }
+
+                cachedTops.putIfAbsent(key, weightedTop);
+            }
+            else {
+                cachedTops.replace(key, old, weightedTop);
+            }
         }
 
-        return weightedTop.get2().pickWeightedNode();
+        return weightedTop.pickWeightedNode();
     }
 
     /**
-     * Calculates node load based on set probe.
+     * Rebuilds cached weighted topologies after metrics of one of their nodes have been updated,
+     * so that node selection does not have to do it. Called from discovery event notification
+     * thread.
      *
-     * @param top List of all nodes.
-     * @param node Node to get load for.
-     * @return Node load.
-     * @throws GridException If returned load is negative.
+     * @param nodeId ID of node which metrics have been updated.
      */
-    @SuppressWarnings({"TooBroadScope"})
-    private double getLoad(Collection<GridNode> top, GridNode node) throws GridException {
-        assert !F.isEmpty(top);
+    private void refreshCachedTopologies(UUID nodeId) {
+        for (Map.Entry<Set<UUID>, WeightedTopology> e : cachedTops.entrySet()) {
+            if (!e.getKey().contains(nodeId)) {
+                continue;
+            }
 
-        int jobsSentSinceLastUpdate = 0;
+            WeightedTopology weightedTop = e.getValue();
 
-        rwLock.readLock().lock();
+            List<GridNode> top = new ArrayList<GridNode>(weightedTop.nodes.length);
 
-        try {
-            AtomicInteger cnt = nodeJobs.get(node.id());
+            for (GridNode node : weightedTop.nodes) {
+                GridNode n = getSpiContext().node(node.id());
 
-            jobsSentSinceLastUpdate = cnt == null ? 0 : cnt.get();
-        }
-        finally {
-            rwLock.readLock().unlock();
+                // Node has left, topology will be rebuilt on next call.
+                if (n == null) {
+                    top = null;
+
+                    break;
+                }
+
+                top.add(n);
+            }
+
+            if (top == null) {
+                cachedTops.remove(e.getKey(), weightedTop);
+
+                continue;
+            }
+
+            try {
+                cachedTops.replace(e.getKey(), weightedTop, new WeightedTopology(top));
+            }
+            catch (GridException ex) {
+                U.error(log, "Failed to refresh weighted topology (will rebuild it on next call).", ex);
+
+                cachedTops.remove(e.getKey(), weightedTop);
+            }
         }
+    }
+
+    /**
+     * Calculates node load based on set probe.
+     *
+     * @param node Node to get load for.
+     * @return Node load.
+     * @throws GridException If returned load is negative.
+     */
+    private double getLoad(GridNode node) throws GridException {
+        AtomicInteger cnt = nodeJobs.get(node.id());
+
+        int jobsSentSinceLastUpdate = cnt == null ? 0 : cnt.get();
 
         double load = probe.getLoad(node, jobsSentSinceLastUpdate);
 
@@ -479,14 +468,21 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
     }
 
     /**
-     * Holder for weighted topology.
+     * Immutable holder for weighted topology. Nodes are picked by binary search of random
+     * value in array of cumulative weights.
      *
      * @author 2012 Copyright (C) GridGain Systems
      * @version 3.6.0c.13012012
      */
     private class WeightedTopology {
-        /** Topology sorted by weight. */
-        private final SortedMap<Double, GridNode> circle = new TreeMap<Double, GridNode>();
+        /** Topology nodes. */
+        private final GridNode[] nodes;
+
+        /** Cumulative weights of nodes in range from 0 to 1. */
+        private final double[] weights;
+
+        /** Number of nodes picked from this topology. */
+        private final AtomicInteger picks = new AtomicInteger();
 
         /**
          * @param top Task topology.
@@ -495,17 +491,19 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
         WeightedTopology(List<GridNode> top) throws GridException {
             assert !F.isEmpty(top);
 
+            nodes = top.toArray(new GridNode[top.size()]);
+
             double totalLoad = 0;
 
             // We need to cache loads here to avoid calls later as load might be
             // changed between the calls.
-            double[] nums = new double[top.size()];
+            double[] nums = new double[nodes.length];
 
             int zeroCnt = 0;
 
             // Compute loads.
-            for (int i = 0; i < top.size(); i++) {
-                double load = getLoad(top, top.get(i));
+            for (int i = 0; i < nodes.length; i++) {
+                double load = getLoad(nodes[i]);
 
                 nums[i] = load;
 
@@ -520,7 +518,7 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
             if (zeroCnt > 0) {
                 double newTotal = totalLoad;
 
-                int nonZeroCnt = top.size() - zeroCnt;
+                int nonZeroCnt = nodes.length - zeroCnt;
 
                 for (int i = 0; i < nums.length; i++) {
                     double load = nums[i];
@@ -557,6 +555,8 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
                 totalWeight += weight;
             }
 
+            weights = new double[nums.length];
+
             double weight = 0;
 
             // Enforce range from 0 to 1.
@@ -565,11 +565,21 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
 
                 assert weight < 2 : "Invalid weight: " + weight;
 
-                // Complexity of this put is O(logN).
-                circle.put(weight, top.get(i));
+                weights[i] = weight;
             }
         }
 
+        /**
+         * Weights are calculated with numbers of jobs sent to nodes at build time, so topology
+         * has to be rebuilt once it has been used to send a job to every node on average.
+         * This keeps rebuild cost amortized to a single load probe per job.
+         *
+         * @return {@code True} if topology should be rebuilt.
+         */
+        boolean stale() {
+            return picks.get() >= nodes.length;
+        }
+
         /**
          * Gets weighted node in random fashion.
          *
@@ -578,21 +588,29 @@ public class GridAdaptiveLoadBalancingSpi extends GridSpiAdapter implements Grid
         GridNode pickWeightedNode() {
             double weight = RAND.nextDouble();
 
-            SortedMap<Double, GridNode> pick = circle.tailMap(weight);
-
-            GridNode node = pick.get(pick.firstKey());
+            // Find first node with cumulative weight not less than random value.
+            int low = 0;
+            int high = weights.length - 1;
 
-            rwLock.readLock().lock();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
 
-            try {
-                AtomicInteger cnt = nodeJobs.get(node.id());
-
-                if (cnt != null) {
-                    cnt.incrementAndGet();
+                if (weights[mid] < weight) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
                 }
             }
-            finally {
-                rwLock.readLock().unlock();
+
+            GridNode node = nodes[low];
+
+            picks.incrementAndGet();
+
+            AtomicInteger cnt = nodeJobs.get(node.id());
+
+            if (cnt != null) {
+                cnt.incrementAndGet();
             }
 
             return node;
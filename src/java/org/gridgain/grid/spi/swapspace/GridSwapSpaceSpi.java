@@ -166,4 +166,19 @@ public interface GridSwapSpaceSpi extends GridSpi, GridSpiJsonConfigurable {
      * @throws GridSpiException If failed.
      */
     @Nullable Collection<Integer> partitions(@Nullable String spaceName) throws GridSpiException;
+
+    /**
+     * Gets iterator over raw key and value bytes of all entries of given partition
+     * stored in the passed in space. Implementations should read partition data in
+     * bulk rather than looking up entries key by key, and should hold as few entries
+     * in memory as possible, since partition may be much larger than available heap.
+     * Entries that can not be read are skipped.
+     *
+     * @param spaceName Space name.
+     * @param part Partition ID.
+     * @return Iterator over marshalled keys and values or {@code null} if space is unknown.
+     * @throws GridSpiException If failed.
+     */
+    @Nullable Iterator<Map.Entry<byte[], byte[]>> rawIterator(@Nullable String spaceName, int part)
+        throws GridSpiException;
 }
@@ -24,6 +24,7 @@ import org.gridgain.grid.util.tostring.*;
 import org.jetbrains.annotations.*;
 
 import java.io.*;
+import java.nio.*;
 import java.nio.channels.*;
 import java.util.*;
 import java.util.concurrent.*;
@@ -42,6 +43,12 @@ import static org.gridgain.grid.GridEventType.*;
  * {@link #setRootFolderPath(String)}. Spaces (and their directory structure) are seamlessly
  * initialized on first store to space. Name reserved for default (or {@code null}) space
  * is represented by {@link #DFLT_SPACE_NAME}.
+ * <p>
+ * Within space folder, entries of every partition are kept in a separate folder (see
+ * {@link #PART_FOLDER_PREFIX}), under which they are distributed among nested sub-folders
+ * (see {@link #setSubFoldersCount(int)} and {@link #setNestedPathLength(int)}). Partition
+ * folders and their sub-folders are created on first store to partition, so entries of one
+ * partition can be iterated without listing folders of other partitions.
  * <h1 class="header">Configuration</h1>
  * <h2 class="header">Mandatory</h2>
  * This SPI has no mandatory configuration parameters.
@@ -141,6 +148,9 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
     /** Separator for partition ID. */
     public static final String PART_ID_SEPARATOR = "_";
 
+    /** Prefix of partition folder name, followed by partition ID. */
+    public static final String PART_FOLDER_PREFIX = "part";
+
     /**
      * Default directory path for swap files location. Grid name, node ID and
      * index (only if necessary) will be appended to this path using dashes as
@@ -1335,6 +1345,14 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
         return space == null ? null : space.partitions();
     }
 
+    /** {@inheritDoc} */
+    @Nullable @Override public Iterator<Map.Entry<byte[], byte[]>> rawIterator(@Nullable String spaceName, int part)
+        throws GridSpiException {
+        Space space = space(spaceName, false);
+
+        return space == null ? null : space.iterator(part);
+    }
+
     /** {@inheritDoc} */
     @Override public long count(@Nullable String spaceName) throws GridSpiException {
         Space space = space(spaceName, false);
@@ -1790,10 +1808,8 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
                         if (log.isDebugEnabled())
                             log.debug("Started exploring space folder recursively to initialize persisted data.");
 
-                        walk(spaceFolder, 0);
+                        walk();
                     }
-                    else if (nestedPathLen > 0)
-                        createNestedFolders(spaceFolder, 0);
 
                     initFlag = true;
 
@@ -1820,44 +1836,68 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
         }
 
         /**
-         * @param f File to recursively walk through.
-         * @param nestLevel Nesting level.
+         * Walks partition folders of persisted space to initialize counters.
+         *
          * @throws GridSpiException If failed.
          */
-        private void walk(File f, int nestLevel) throws GridSpiException {
-            assert f != null;
+        private void walk() throws GridSpiException {
+            File[] children = spaceFolder.listFiles();
 
-            if (nestLevel < nestedPathLen) {
-                // Only folders expected here.
-                BitSet folders = new BitSet(subFoldersCnt);
+            if (children == null)
+                throw new GridSpiException("Failed to list persisted space folder [space=" + name +
+                    ", folder=" + spaceFolder.getAbsolutePath() + ']');
+
+            for (File f : children) {
+                String fileName = f.getName();
 
-                File[] children = f.listFiles();
+                if (IDX_FOLDER.equals(fileName))
+                    continue;
 
-                if (children == null)
-                    throw new GridSpiException("Failed to initialize persisted space " +
-                        "(sub-folders count is not as expected) [space=" + name +
-                        "curFolder=" + f.getAbsolutePath() +
-                        ", cnt=" + children.length + ", expected=" + subFoldersCnt + ']');
+                if (!f.isDirectory() || !fileName.startsWith(PART_FOLDER_PREFIX))
+                    throw new GridSpiException("Failed to initialize persisted space (partition folder expected, " +
+                        "space may have been persisted in older layout) [space=" + name +
+                        ", f=" + f.getAbsolutePath() + ']');
 
-                int expCnt = nestLevel == 0 ? children.length - 1 : children.length;
+                int part;
 
-                if (expCnt != subFoldersCnt) {
-                    throw new GridSpiException("Failed to initialize persisted space " +
-                        "(sub-folders count is not as expected) [space=" + name +
-                        "curFolder=" + f.getAbsolutePath() +
-                        ", cnt=" + children.length + ", subFoldersCnt=" + subFoldersCnt + ']');
+                try {
+                    part = Integer.parseInt(fileName.substring(PART_FOLDER_PREFIX.length()));
+                }
+                catch (NumberFormatException ignored) {
+                    throw new GridSpiException("Failed to parse partition ID from persisted folder " +
+                        "[space=" + name + ", f=" + f.getAbsolutePath() + ']');
                 }
 
-                for (File f0: children) {
-                    if (IDX_FOLDER.equals(f0.getName()) && nestLevel == 0)
-                        continue;
+                if (part < 0)
+                    throw new GridSpiException("Failed to parse partition ID from persisted folder " +
+                        "[space=" + name + ", parsed=" + part + ", f=" + f.getAbsolutePath() + ']');
 
+                walk(f, part, 0);
+            }
+        }
+
+        /**
+         * @param f Folder to recursively walk through.
+         * @param part Partition ID of folder.
+         * @param nestLevel Nesting level.
+         * @throws GridSpiException If failed.
+         */
+        private void walk(File f, int part, int nestLevel) throws GridSpiException {
+            assert f != null;
+
+            File[] children = f.listFiles();
+
+            if (children == null)
+                throw new GridSpiException("Failed to list persisted space folder [space=" + name +
+                    ", folder=" + f.getAbsolutePath() + ']');
+
+            if (nestLevel < nestedPathLen) {
+                // Only folders expected here, some of them may not have been created yet.
+                for (File f0 : children) {
                     try {
                         int idx = Integer.parseInt(f0.getName());
 
-                        if (0 <= idx && idx < subFoldersCnt)
-                            folders.set(idx);
-                        else {
+                        if (!f0.isDirectory() || idx < 0 || idx >= subFoldersCnt) {
                             throw new GridSpiException("Failed to initialize persisted space " +
                                 "(sub-folder index is out of range) [space=" + name +
                                 ", subFolder=" + f0.getAbsolutePath() +
@@ -1870,47 +1910,26 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
                             ", subFolder=" + f0.getAbsolutePath() + ']');
                     }
 
-                    walk(f0, nestLevel + 1);
-                }
-
-                int miss = folders.nextClearBit(0);
-
-                if (0 < miss && miss < subFoldersCnt) {
-                    throw new GridSpiException("Failed to initialize persisted space " +
-                        "(missing sub-folder) [space=" + name + ", folder=" + f.getAbsolutePath() +
-                        ", missSubFolder=" + miss + ']');
+                    walk(f0, part, nestLevel + 1);
                 }
             }
             else {
-                // Only files expected here.
-                for (File f0: f.listFiles()) {
-                    if (!f0.isFile())
-                        throw new GridSpiException("Failed to initialize persisted space " +
-                            "(file expected) [space=" + name + ", f=" + f.getAbsolutePath() + ']');
+                // Only files of folder partition expected here.
+                String prefix = part + PART_ID_SEPARATOR;
 
-                    String name = f0.getName();
+                boolean found = false;
 
-                    int sepIdx = name.indexOf(PART_ID_SEPARATOR);
-
-                    if (sepIdx > 0) {
-                        try {
-                            int part = Integer.parseInt(name.substring(0, sepIdx));
+                for (File f0 : children) {
+                    if (!f0.isFile())
+                        throw new GridSpiException("Failed to initialize persisted space " +
+                            "(file expected) [space=" + name + ", f=" + f0.getAbsolutePath() + ']');
 
-                            if (part < 0)
-                                throw new GridSpiException("Failed to parse partition ID from persisted file " +
-                                    "[space=" + name + ", parsed=" + part + ", f=" + f0.getAbsolutePath() + ']');
+                    if (!f0.getName().startsWith(prefix))
+                        throw new GridSpiException("Failed to initialize persisted space (file does not belong " +
+                            "to folder partition) [space=" + name + ", part=" + part +
+                            ", f=" + f0.getAbsolutePath() + ']');
 
-                            if (part < Integer.MAX_VALUE)
-                                parts.add(part);
-                        }
-                        catch (NumberFormatException ignored) {
-                            throw new GridSpiException("Failed to parse partition ID from persisted file " +
-                                "[space=" + name + ", f=" + f0.getAbsolutePath() + ']');
-                        }
-                    }
-                    else
-                        throw new GridSpiException("Failed to parse partition ID from persisted file " +
-                            "[space=" + name + ", f=" + f0.getAbsolutePath() + ']');
+                    found = true;
 
                     cnt.incrementAndGet();
                     totalCnt.incrementAndGet();
@@ -1920,30 +1939,9 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
                     size.addAndGet(len);
                     totalSize.addAndGet(len);
                 }
-            }
-        }
 
-        /**
-         * @param f Folder.
-         * @param nestLevel Current nest level.
-         * @throws GridSpiException If failed.
-         */
-        private void createNestedFolders(File f, int nestLevel) throws GridSpiException {
-            assert f != null;
-            assert nestLevel < nestedPathLen;
-
-            int nextLevel = nestLevel + 1;
-
-            boolean goDown = nextLevel < nestedPathLen;
-
-            for (int i = 0; i < subFoldersCnt; i++) {
-                File nested = new File(f, String.valueOf(i));
-
-                if (!U.mkdirs(nested))
-                    throw new GridSpiException("Failed to create nested folder: " + nested);
-
-                if (goDown)
-                    createNestedFolders(nested, nextLevel);
+                if (found && part < Integer.MAX_VALUE)
+                    parts.add(part);
             }
         }
 
@@ -2079,6 +2077,282 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
             }
         }
 
+        /**
+         * Creates iterator over entries of given partition stored in this space.
+         *
+         * @param part Partition ID.
+         * @return Iterator or {@code null} if SPI is stopping.
+         * @throws GridSpiException If failed.
+         */
+        @Nullable Iterator<Map.Entry<byte[], byte[]>> iterator(int part) throws GridSpiException {
+            if (!busyLock.enterBusy())
+                return null;
+
+            try {
+                init(false);
+            }
+            finally {
+                busyLock.leaveBusy();
+            }
+
+            return new PartitionIterator(part);
+        }
+
+        /**
+         * Reads entry file sequentially from start to end.
+         *
+         * @param f File.
+         * @return Key and value bytes or {@code null} if file has been removed concurrently
+         *      or is corrupted.
+         */
+        @Nullable private GridTuple2<byte[], byte[]> readFile(File f) {
+            DataInputStream in = null;
+
+            try {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+
+                // Skip file size.
+                in.readLong();
+
+                byte[] keyBytes = readBytes(in);
+
+                if (keyBytes == null) {
+                    U.warn(log, "File is corrupted (failed to read key): " + f.getAbsolutePath());
+
+                    return null;
+                }
+
+                byte[] valBytes = readBytes(in);
+
+                if (valBytes == null) {
+                    U.warn(log, "File is corrupted (failed to read value): " + f.getAbsolutePath());
+
+                    return null;
+                }
+
+                return F.t(keyBytes, valBytes);
+            }
+            catch (FileNotFoundException ignored) {
+                // File has been removed concurrently.
+                return null;
+            }
+            catch (IOException e) {
+                U.warn(log, "Failed to read swap file (will skip): " + f.getAbsolutePath() + ", err=" +
+                    e.getMessage());
+
+                return null;
+            }
+            finally {
+                U.close(in, log);
+            }
+        }
+
+        /**
+         * @param in Input.
+         * @return Bytes framed with leading and trailing length or {@code null} if frame is corrupted.
+         * @throws IOException If failed.
+         */
+        @Nullable private byte[] readBytes(DataInput in) throws IOException {
+            int len = in.readInt();
+
+            if (len < 0)
+                return null;
+
+            byte[] bytes = new byte[len];
+
+            in.readFully(bytes);
+
+            return in.readInt() == len ? bytes : null;
+        }
+
+        /**
+         * Iterator over entries of one partition. Values buffered in task queue and not yet
+         * written to disk are returned first, then files are discovered lazily folder by folder
+         * under partition folder only, and each file is read sequentially, so no per-key lookup
+         * or collision probing is involved and only one entry is held in memory at a time.
+         */
+        private class PartitionIterator implements Iterator<Map.Entry<byte[], byte[]>> {
+            /** Partition ID. */
+            private final int part;
+
+            /** File name prefix for partition. */
+            private final String prefix;
+
+            /** Buffered entries not yet written to disk. */
+            private final Iterator<GridTuple2<byte[], byte[]>> buffered;
+
+            /** Keys of buffered entries, files for these keys hold stale values. */
+            private final Collection<ByteBuffer> bufferedKeys = new HashSet<ByteBuffer>();
+
+            /** Folders to explore. */
+            private final Deque<File> folders = new ArrayDeque<File>();
+
+            /** Partition files of current folder. */
+            private final Deque<File> files = new ArrayDeque<File>();
+
+            /** Next entry. */
+            private GridTuple2<byte[], byte[]> next;
+
+            /**
+             * @param part Partition ID.
+             */
+            private PartitionIterator(int part) {
+                this.part = part;
+
+                prefix = part + PART_ID_SEPARATOR;
+
+                Collection<GridTuple2<byte[], byte[]>> col = new LinkedList<GridTuple2<byte[], byte[]>>();
+
+                for (Iterator<StoreSwapEntryTask> it = taskQueue.storeTasksIterator(); it.hasNext();) {
+                    SwapEntry e = it.next().entry();
+
+                    SpaceKey k = e.spaceKey();
+
+                    if (!F.eq(name, k.space()) || k.swapKey().partition() != part || e.value() == null)
+                        continue;
+
+                    byte[] keyBytes = k.swapKey().keyBytes();
+
+                    try {
+                        if (keyBytes == null)
+                            keyBytes = U.marshal(marsh, k.swapKey().key()).getArray();
+                    }
+                    catch (GridException ex) {
+                        U.warn(log, "Failed to marshal buffered swap key (will skip): " + k + ", err=" +
+                            ex.getMessage());
+
+                        continue;
+                    }
+
+                    if (bufferedKeys.add(ByteBuffer.wrap(keyBytes)))
+                        col.add(F.t(keyBytes, e.value()));
+                }
+
+                buffered = col.iterator();
+
+                folders.push(new File(spaceFolder, PART_FOLDER_PREFIX + part));
+
+                advance();
+            }
+
+            /**
+             * Moves to next entry.
+             */
+            private void advance() {
+                next = null;
+
+                if (buffered.hasNext()) {
+                    next = buffered.next();
+
+                    return;
+                }
+
+                while (next == null) {
+                    File f = nextFile();
+
+                    if (f == null)
+                        return;
+
+                    if (!busyLock.enterBusy()) {
+                        folders.clear();
+                        files.clear();
+
+                        return;
+                    }
+
+                    try {
+                        String fileName = f.getName();
+
+                        int hash;
+
+                        try {
+                            int end = fileName.indexOf(COLLISION_IDX_SEPARATOR, prefix.length());
+
+                            hash = Integer.parseInt(fileName.substring(prefix.length(),
+                                end > 0 ? end : fileName.length()));
+                        }
+                        catch (NumberFormatException ignored) {
+                            U.warn(log, "Failed to parse hash from swap file name (will skip): " +
+                                f.getAbsolutePath());
+
+                            continue;
+                        }
+
+                        ReadWriteLock lock = lock(hash);
+
+                        lock.readLock().lock();
+
+                        try {
+                            next = readFile(f);
+                        }
+                        finally {
+                            lock.readLock().unlock();
+                        }
+
+                        if (next != null && (next.get2().length == 0 ||
+                            bufferedKeys.contains(ByteBuffer.wrap(next.get1()))))
+                            next = null;
+                    }
+                    finally {
+                        busyLock.leaveBusy();
+                    }
+                }
+            }
+
+            /**
+             * @return Next partition file or {@code null} if there are no more files.
+             */
+            @Nullable private File nextFile() {
+                while (files.isEmpty()) {
+                    File folder = folders.poll();
+
+                    if (folder == null)
+                        return null;
+
+                    File[] children = folder.listFiles();
+
+                    if (children == null)
+                        continue;
+
+                    for (File f : children) {
+                        if (f.isDirectory())
+                            folders.push(f);
+                        else if (f.getName().startsWith(prefix))
+                            files.add(f);
+                    }
+                }
+
+                return files.poll();
+            }
+
+            /** {@inheritDoc} */
+            @Override public boolean hasNext() {
+                return next != null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public Map.Entry<byte[], byte[]> next() {
+                if (next == null)
+                    throw new NoSuchElementException();
+
+                Map.Entry<byte[], byte[]> e = next;
+
+                advance();
+
+                return e;
+            }
+
+            /** {@inheritDoc} */
+            @Override public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            /** {@inheritDoc} */
+            @Override public String toString() {
+                return S.toString(PartitionIterator.class, this, "space", name);
+            }
+        }
+
         /**
          * @param addSize Size in bytes.
          * @param addCnt Count.
@@ -3314,6 +3588,17 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
                     }
                 }
                 catch (FileNotFoundException ignored) {
+                    File folder = file.getParentFile();
+
+                    // Partition folders are created on first write to partition.
+                    if (write && !folder.exists()) {
+                        if (!U.mkdirs(folder))
+                            throw new GridSpiException("Failed to create swap folder [space=" + k.space() +
+                                ", folder=" + folder.getAbsolutePath() + ']');
+
+                        continue;
+                    }
+
                     // File does not exist.
                     return new EntryFile(k, filePath);
                 }
@@ -4549,6 +4834,8 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
             if (canonicalPath == null) {
                 SB sb = new SB();
 
+                sb.a(PART_FOLDER_PREFIX).a(key.partition()).a(File.separator);
+
                 int idx = Math.abs(key.hashCode());
 
                 // TODO: propose better distribution.
@@ -0,0 +1,362 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.thread;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Executor with a separate task queue per worker thread. Idle workers steal tasks from
+ * queues of busy workers, so there is no single shared queue that all submitting
+ * and executing threads contend on.
+ * <p>
+ * Tasks are distributed between workers in round-robin fashion, tasks submitted from
+ * a worker thread are put into the queue of that worker. Every queue is ordered by task
+ * priority (higher priority first) and then by submission order. Workers first take tasks
+ * from their own queue, and steal the highest priority task of another worker only
+ * when own queue is empty.
+ * <p>
+ * Executor is intended for short non-blocking tasks and is usually sized to the number
+ * of available processors.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridWorkStealingExecutor implements Executor {
+    /** Workers. */
+    private final Worker[] workers;
+
+    /** Idle workers. */
+    private final Queue<Worker> idle = new ConcurrentLinkedQueue<Worker>();
+
+    /** Round-robin counter for tasks submitted from non-worker threads. */
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    /** Sequence for ordering tasks of the same priority. */
+    private final AtomicLong seq = new AtomicLong();
+
+    /** Stopped flag. */
+    private volatile boolean stopped;
+
+    /**
+     * Creates executor and starts worker threads.
+     *
+     * @param gridName Grid name.
+     * @param threadCnt Number of worker threads.
+     */
+    public GridWorkStealingExecutor(String gridName, int threadCnt) {
+        assert threadCnt > 0;
+
+        workers = new Worker[threadCnt];
+
+        for (int i = 0; i < threadCnt; i++)
+            workers[i] = new Worker(gridName, i);
+
+        for (Worker w : workers)
+            w.start();
+    }
+
+    /**
+     * Executes task with default priority {@code 0}.
+     *
+     * @param r Task.
+     * @throws RejectedExecutionException If executor has been shut down.
+     */
+    @Override public void execute(Runnable r) {
+        execute(r, 0);
+    }
+
+    /**
+     * Executes task with given priority.
+     *
+     * @param r Task.
+     * @param priority Task priority, tasks with higher priority are executed first.
+     * @throws RejectedExecutionException If executor has been shut down.
+     */
+    public void execute(Runnable r, int priority) {
+        assert r != null;
+
+        if (stopped)
+            throw new RejectedExecutionException("Executor has been shut down.");
+
+        Thread t = Thread.currentThread();
+
+        Worker w = t instanceof Worker && ((Worker)t).owner() == this ? (Worker)t :
+            workers[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+
+        w.push(new Task(r, priority, seq.getAndIncrement()));
+
+        // Wake up target worker if it is idle, otherwise let any idle worker steal the task.
+        if (w != t && !w.wakeUp())
+            wakeUpIdle();
+    }
+
+    /**
+     * Wakes up one of idle workers, if any.
+     */
+    private void wakeUpIdle() {
+        for (Worker w; (w = idle.poll()) != null; )
+            if (w.wakeUp())
+                return;
+    }
+
+    /**
+     * Steals task from queue of another worker.
+     *
+     * @param thief Worker that steals.
+     * @return Stolen task or {@code null} if all queues are empty.
+     */
+    private Task steal(Worker thief) {
+        for (int i = 1; i < workers.length; i++) {
+            Task task = workers[(thief.idx + i) % workers.length].poll();
+
+            if (task != null)
+                return task;
+        }
+
+        return null;
+    }
+
+    /**
+     * @return Number of worker threads.
+     */
+    public int threadCount() {
+        return workers.length;
+    }
+
+    /**
+     * Gets number of tasks currently queued for every worker.
+     *
+     * @return Queue depths indexed by worker.
+     */
+    public int[] queueSizes() {
+        int[] sizes = new int[workers.length];
+
+        for (int i = 0; i < workers.length; i++)
+            sizes[i] = workers[i].size();
+
+        return sizes;
+    }
+
+    /**
+     * Gets number of tasks stolen by every worker from queues of other workers.
+     *
+     * @return Steal counts indexed by worker.
+     */
+    public long[] stealCounts() {
+        long[] cnts = new long[workers.length];
+
+        for (int i = 0; i < workers.length; i++)
+            cnts[i] = workers[i].steals.get();
+
+        return cnts;
+    }
+
+    /**
+     * Gets number of tasks executed by every worker.
+     *
+     * @return Executed task counts indexed by worker.
+     */
+    public long[] executedCounts() {
+        long[] cnts = new long[workers.length];
+
+        for (int i = 0; i < workers.length; i++)
+            cnts[i] = workers[i].executed.get();
+
+        return cnts;
+    }
+
+    /**
+     * Stops accepting new tasks and waits for workers to execute already queued
+     * tasks and stop.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void shutdown() throws InterruptedException {
+        stopped = true;
+
+        for (Worker w : workers)
+            LockSupport.unpark(w);
+
+        for (Worker w : workers)
+            w.join();
+    }
+
+    /**
+     * Queued task.
+     */
+    private static class Task implements Comparable<Task> {
+        /** */
+        private final Runnable r;
+
+        /** */
+        private final int priority;
+
+        /** */
+        private final long seq;
+
+        /**
+         * @param r Runnable.
+         * @param priority Priority.
+         * @param seq Submission sequence number.
+         */
+        private Task(Runnable r, int priority, long seq) {
+            this.r = r;
+            this.priority = priority;
+            this.seq = seq;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int compareTo(Task o) {
+            if (priority != o.priority)
+                return priority > o.priority ? -1 : 1;
+
+            return seq < o.seq ? -1 : seq > o.seq ? 1 : 0;
+        }
+    }
+
+    /**
+     * Worker thread with its own task queue.
+     */
+    private class Worker extends GridThread {
+        /** Worker index. */
+        private final int idx;
+
+        /** Task queue, guarded by itself. */
+        private final PriorityQueue<Task> queue = new PriorityQueue<Task>();
+
+        /** Flag indicating that worker is registered as idle. */
+        private final AtomicBoolean parked = new AtomicBoolean();
+
+        /** Number of tasks stolen from other workers. */
+        private final AtomicLong steals = new AtomicLong();
+
+        /** Number of executed tasks. */
+        private final AtomicLong executed = new AtomicLong();
+
+        /**
+         * @param gridName Grid name.
+         * @param idx Worker index.
+         */
+        private Worker(String gridName, int idx) {
+            super(gridName, "work-stealing-worker-" + idx, null);
+
+            this.idx = idx;
+
+            setDaemon(true);
+        }
+
+        /**
+         * @return Executor this worker belongs to.
+         */
+        private GridWorkStealingExecutor owner() {
+            return GridWorkStealingExecutor.this;
+        }
+
+        /**
+         * @param task Task.
+         */
+        private void push(Task task) {
+            synchronized (queue) {
+                queue.offer(task);
+            }
+        }
+
+        /**
+         * @return Highest priority task or {@code null} if queue is empty.
+         */
+        private Task poll() {
+            synchronized (queue) {
+                return queue.poll();
+            }
+        }
+
+        /**
+         * @return Queue size.
+         */
+        private int size() {
+            synchronized (queue) {
+                return queue.size();
+            }
+        }
+
+        /**
+         * Wakes up this worker if it is idle.
+         *
+         * @return {@code True} if worker was idle.
+         */
+        private boolean wakeUp() {
+            if (parked.compareAndSet(true, false)) {
+                idle.remove(this);
+
+                LockSupport.unpark(this);
+
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * @return Task from own queue, or stolen from another worker.
+         */
+        private Task next() {
+            Task task = poll();
+
+            if (task == null) {
+                task = steal(this);
+
+                if (task != null)
+                    steals.incrementAndGet();
+            }
+
+            return task;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            while (true) {
+                Task task = next();
+
+                if (task == null) {
+                    if (stopped)
+                        return;
+
+                    if (parked.compareAndSet(false, true))
+                        idle.offer(this);
+
+                    // Check queues again, as task could be submitted before worker became idle.
+                    task = next();
+
+                    if (task == null) {
+                        LockSupport.park(this);
+
+                        continue;
+                    }
+
+                    if (parked.compareAndSet(true, false))
+                        idle.remove(this);
+                }
+
+                try {
+                    task.r.run();
+                }
+                catch (Throwable e) {
+                    getUncaughtExceptionHandler().uncaughtException(this, e);
+                }
+                finally {
+                    executed.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ * This class defines input stream backed by byte buffer. Reading from
+ * this stream advances position of the underlying buffer.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridByteBufferInputStream extends InputStream {
+    /** Buffer. */
+    private final ByteBuffer buf;
+
+    /**
+     * @param buf Byte buffer.
+     */
+    public GridByteBufferInputStream(ByteBuffer buf) {
+        assert buf != null;
+
+        this.buf = buf;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read() {
+        return buf.hasRemaining() ? buf.get() & 0xff : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(byte[] b, int off, int len) {
+        if (len == 0)
+            return 0;
+
+        int remaining = buf.remaining();
+
+        if (remaining == 0)
+            return -1;
+
+        if (len > remaining)
+            len = remaining;
+
+        buf.get(b, off, len);
+
+        return len;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long skip(long n) {
+        if (n <= 0)
+            return 0;
+
+        int skip = (int)Math.min(n, buf.remaining());
+
+        buf.position(buf.position() + skip);
+
+        return skip;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int available() {
+        return buf.remaining();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean markSupported() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void mark(int readLimit) {
+        buf.mark();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void reset() throws IOException {
+        try {
+            buf.reset();
+        }
+        catch (InvalidMarkException e) {
+            throw new IOException("Stream has not been marked.", e);
+        }
+    }
+}
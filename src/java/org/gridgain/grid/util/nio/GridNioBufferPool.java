@@ -0,0 +1,211 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util.nio;
+
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.nio.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Pool of byte buffers organized in power-of-two size classes. Buffer returned by
+ * {@link #acquire(int)} has capacity of the smallest size class that fits requested
+ * size and limit set to requested size. Buffers larger than the largest size class are
+ * allocated on every request and are not pooled.
+ * <p>
+ * Pool is thread-safe, buffers may be acquired and released from different threads.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridNioBufferPool {
+    /** Default minimum buffer size (value is <tt>1K</tt>). */
+    public static final int DFLT_MIN_BUF_SIZE = 1 << 10;
+
+    /** Default maximum pooled buffer size (value is <tt>4M</tt>). */
+    public static final int DFLT_MAX_BUF_SIZE = 4 << 20;
+
+    /** Default maximum number of cached buffers per size class (value is <tt>64</tt>). */
+    public static final int DFLT_MAX_CACHED_PER_CLS = 64;
+
+    /** Direct buffer flag. */
+    private final boolean direct;
+
+    /** Binary logarithm of minimum buffer size. */
+    private final int minShift;
+
+    /** Maximum pooled buffer size. */
+    private final int maxBufSize;
+
+    /** Maximum number of cached buffers per size class. */
+    private final int maxCachedPerCls;
+
+    /** Cached buffers per size class. */
+    private final GridConcurrentLinkedDeque<ByteBuffer>[] classes;
+
+    /** Number of cached buffers per size class. */
+    private final AtomicInteger[] cached;
+
+    /** Number of requests served from the pool. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Number of requests that required allocation. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Total number of bytes allocated by this pool. */
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * Creates pool with default size classes.
+     *
+     * @param direct If {@code true}, direct buffers will be allocated.
+     */
+    public GridNioBufferPool(boolean direct) {
+        this(direct, DFLT_MIN_BUF_SIZE, DFLT_MAX_BUF_SIZE, DFLT_MAX_CACHED_PER_CLS);
+    }
+
+    /**
+     * @param direct If {@code true}, direct buffers will be allocated.
+     * @param minBufSize Minimum buffer size, must be power of two.
+     * @param maxBufSize Maximum pooled buffer size, must be power of two.
+     * @param maxCachedPerCls Maximum number of cached buffers per size class.
+     */
+    @SuppressWarnings({"unchecked"})
+    public GridNioBufferPool(boolean direct, int minBufSize, int maxBufSize, int maxCachedPerCls) {
+        assert minBufSize > 0 && Integer.bitCount(minBufSize) == 1;
+        assert maxBufSize >= minBufSize && Integer.bitCount(maxBufSize) == 1;
+        assert maxCachedPerCls >= 0;
+
+        this.direct = direct;
+        this.maxBufSize = maxBufSize;
+        this.maxCachedPerCls = maxCachedPerCls;
+
+        minShift = Integer.numberOfTrailingZeros(minBufSize);
+
+        int clsCnt = Integer.numberOfTrailingZeros(maxBufSize) - minShift + 1;
+
+        classes = new GridConcurrentLinkedDeque[clsCnt];
+        cached = new AtomicInteger[clsCnt];
+
+        for (int i = 0; i < clsCnt; i++) {
+            classes[i] = new GridConcurrentLinkedDeque<ByteBuffer>();
+            cached[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Gets buffer with capacity of at least given size. Position of returned buffer
+     * is {@code 0} and limit is equal to {@code size}.
+     *
+     * @param size Required size.
+     * @return Buffer.
+     */
+    public ByteBuffer acquire(int size) {
+        assert size >= 0;
+
+        ByteBuffer buf = null;
+
+        if (size <= maxBufSize) {
+            int cls = sizeClass(size);
+
+            buf = classes[cls].poll();
+
+            if (buf != null) {
+                cached[cls].decrementAndGet();
+
+                hits.incrementAndGet();
+            }
+            else
+                buf = allocate(1 << (cls + minShift));
+        }
+        else
+            buf = allocate(size);
+
+        buf.clear();
+        buf.limit(size);
+
+        return buf;
+    }
+
+    /**
+     * Returns buffer to the pool. Buffers that were not acquired from this pool
+     * or exceed maximum pooled size are silently dropped.
+     *
+     * @param buf Buffer to release.
+     */
+    public void release(ByteBuffer buf) {
+        assert buf != null;
+
+        int cap = buf.capacity();
+
+        if (cap > maxBufSize || buf.isDirect() != direct || buf.isReadOnly() || Integer.bitCount(cap) != 1)
+            return;
+
+        int cls = Integer.numberOfTrailingZeros(cap) - minShift;
+
+        if (cls < 0)
+            return;
+
+        if (cached[cls].incrementAndGet() <= maxCachedPerCls)
+            classes[cls].offer(buf);
+        else
+            cached[cls].decrementAndGet();
+    }
+
+    /**
+     * @param size Buffer size.
+     * @return Index of the smallest size class that fits given size.
+     */
+    private int sizeClass(int size) {
+        if (size <= (1 << minShift))
+            return 0;
+
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - minShift;
+    }
+
+    /**
+     * @param cap Capacity.
+     * @return Newly allocated buffer.
+     */
+    private ByteBuffer allocate(int cap) {
+        misses.incrementAndGet();
+
+        allocated.addAndGet(cap);
+
+        return direct ? ByteBuffer.allocateDirect(cap) : ByteBuffer.allocate(cap);
+    }
+
+    /**
+     * @return Number of requests served from the pool.
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of requests that required allocation.
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Total number of bytes allocated by this pool.
+     */
+    public long allocatedBytes() {
+        return allocated.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridNioBufferPool.class, this, "hits", hits(), "misses", misses());
+    }
+}
@@ -10,21 +10,70 @@
 package org.gridgain.grid.util.nio;
 
 import org.gridgain.grid.*;
+import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.typedef.internal.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.*;
+import java.nio.channels.*;
 import java.util.concurrent.atomic.*;
 
 /**
  * Grid client for NIO server.
+ * <p>
+ * Client does not write to the socket in the calling thread. Instead, every message
+ * is put into the outbound queue of this client and {@link #sendMessage(ByteBuffer)}
+ * returns immediately. Queued messages are flushed by {@link GridNioWriter} selector
+ * thread, which coalesces all messages queued so far into one gathering write.
+ * If outbound queue reaches its limit, sending thread will wait until the queue
+ * is drained below the limit.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
  */
 public class GridNioClient {
-    /** Socket. */
-    private final Socket sock = new Socket();
+    /** Size of message length header. */
+    public static final int HEADER_SIZE = 4;
+
+    /**
+     * Bit of message length header indicating that message body is compressed. This bit
+     * is never set by nodes that do not support compression, as message length is always positive.
+     */
+    public static final int COMPRESSED_FLAG = 0x80000000;
+
+    /** Socket channel. */
+    private final SocketChannel ch;
+
+    /** Writer this client is registered with. */
+    private final GridNioWriter writer;
+
+    /** Index of writer worker this client is bound to. */
+    private final int worker;
+
+    /** Outbound queue. */
+    private final GridConcurrentLinkedDeque<ByteBuffer> queue = new GridConcurrentLinkedDeque<ByteBuffer>();
+
+    /** Outbound queue size. */
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    /** Maximum outbound queue size. */
+    private final int queueLimit;
+
+    /** Flag indicating that this client has been scheduled for flush with writer. */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** Number of threads waiting for outbound queue to drain. */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /** Back-pressure mutex. */
+    private final Object mux = new Object();
+
+    /** Selection key, accessed only from writer thread. */
+    private SelectionKey key;
+
+    /** Write error, if any. */
+    private volatile IOException err;
 
     /** Time when this client was last used. */
     private volatile long lastUsed = System.currentTimeMillis();
@@ -32,36 +81,44 @@ public class GridNioClient {
     /** Reservations. */
     private final AtomicInteger reserves = new AtomicInteger();
 
-    /**
-     * @param addr Address.
-     * @param port Port.
-     * @param localHost Local address.
-     * @throws GridException If failed.
-     */
-    public GridNioClient(InetAddress addr, int port, InetAddress localHost) throws GridException {
-        this(addr, port, localHost, 0);
-    }
-
     /**
      * @param addr Address.
      * @param port Port.
      * @param localHost Local address.
      * @param connTimeout Connect timeout.
+     * @param writer Writer to flush outbound queue.
+     * @param queueLimit Maximum number of messages in outbound queue.
      * @throws GridException If failed.
      */
-    public GridNioClient(InetAddress addr, int port, InetAddress localHost, int connTimeout) throws GridException {
+    public GridNioClient(InetAddress addr, int port, InetAddress localHost, int connTimeout, GridNioWriter writer,
+        int queueLimit) throws GridException {
         assert addr != null;
         assert port > 0 && port < 0xffff;
         assert localHost != null;
         assert connTimeout >= 0;
+        assert writer != null;
+        assert queueLimit > 0;
+
+        this.writer = writer;
+        this.queueLimit = queueLimit;
+
+        worker = writer.nextWorker();
 
         boolean success = false;
 
+        SocketChannel ch = null;
+
         try {
+            ch = SocketChannel.open();
+
+            Socket sock = ch.socket();
+
             sock.bind(new InetSocketAddress(localHost, 0));
 
             sock.connect(new InetSocketAddress(addr, port), connTimeout);
 
+            ch.configureBlocking(false);
+
             success = true;
         }
         catch (IOException e) {
@@ -70,18 +127,21 @@ public class GridNioClient {
         }
         finally {
             if (!success)
-                U.closeQuiet(sock);
+                U.closeQuiet(ch);
         }
+
+        this.ch = ch;
     }
 
     /**
      * @return {@code True} if client has been closed by this call,
-     *      {@code false} if failed to close client (due to concurrent reservation or concurrent close).
+     *      {@code false} if failed to close client (due to concurrent reservation,
+     *      concurrent close or non-empty outbound queue).
      */
     public boolean close() {
-        if (reserves.compareAndSet(0, -1)) {
+        if (queueSize.get() == 0 && reserves.compareAndSet(0, -1)) {
             // Future reservation is not possible.
-            U.closeQuiet(sock);
+            close0();
 
             return true;
         }
@@ -90,13 +150,30 @@ public class GridNioClient {
     }
 
     /**
-     * Forces client close.
+     * Forces client close. All messages that are still in outbound queue are discarded.
      */
     public void forceClose() {
         // Future reservation is not possible.
         reserves.set(-1);
 
-        U.closeQuiet(sock);
+        close0();
+    }
+
+    /**
+     * Closes channel and releases all waiting senders.
+     */
+    private void close0() {
+        U.closeQuiet(ch);
+
+        queue.clear();
+
+        queueSize.set(0);
+
+        if (waiters.get() > 0) {
+            synchronized (mux) {
+                mux.notifyAll();
+            }
+        }
     }
 
     /**
@@ -153,31 +230,208 @@ public class GridNioClient {
     }
 
     /**
+     * Gets number of messages waiting in outbound queue.
+     *
+     * @return Outbound queue size.
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    /**
+     * Frames and enqueues given data. Note that data array is copied into
+     * a new buffer, use {@link #sendMessage(ByteBuffer)} to avoid copying.
+     *
      * @param data Data to send.
      * @param len Size of data in bytes.
      * @throws GridException If failed.
      */
-    public synchronized void sendMessage(byte[] data, int len) throws GridException {
+    public void sendMessage(byte[] data, int len) throws GridException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + len);
+
+        buf.putInt(len);
+        buf.put(data, 0, len);
+
+        buf.flip();
+
+        sendMessage(buf);
+    }
+
+    /**
+     * Enqueues complete frame (message length header followed by message body) for sending.
+     * The buffer is owned by this client after this call and must not be modified by caller.
+     * <p>
+     * This method does not wait for the frame to be written to the socket, but it
+     * will block if outbound queue limit has been reached.
+     *
+     * @param frame Frame to send.
+     * @throws GridException If client was closed or previous write has failed.
+     */
+    public void sendMessage(ByteBuffer frame) throws GridException {
+        assert frame != null;
+        assert frame.remaining() > HEADER_SIZE;
+
+        checkState();
+
+        lastUsed = System.currentTimeMillis();
+
+        if (queueSize.get() >= queueLimit)
+            awaitQueue();
+
+        queueSize.incrementAndGet();
+
+        queue.offer(frame);
+
+        if (flushScheduled.compareAndSet(false, true))
+            writer.flush(this);
+    }
+
+    /**
+     * Waits until outbound queue is drained below the limit.
+     *
+     * @throws GridException If interrupted or client was closed while waiting.
+     */
+    private void awaitQueue() throws GridException {
+        waiters.incrementAndGet();
+
+        try {
+            synchronized (mux) {
+                while (queueSize.get() >= queueLimit) {
+                    checkState();
+
+                    // Wait with timeout to protect from missed notifications.
+                    mux.wait(100);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new GridInterruptedException("Interrupted while waiting for outbound queue to drain: " + this, e);
+        }
+        finally {
+            waiters.decrementAndGet();
+        }
+
+        checkState();
+    }
+
+    /**
+     * @throws GridException If client was closed or previous write has failed.
+     */
+    private void checkState() throws GridException {
+        IOException err = this.err;
+
+        if (err != null)
+            throw new GridException("Failed to send message to remote node: " + remoteAddress(), err);
+
         if (reserves.get() == -1)
             throw new GridException("Client was closed: " + this);
+    }
 
-        lastUsed = System.currentTimeMillis();
+    /**
+     * @return Remote address or {@code null} if channel is not connected.
+     */
+    private SocketAddress remoteAddress() {
+        return ch.socket().getRemoteSocketAddress();
+    }
 
+    /**
+     * @return Socket channel.
+     */
+    SocketChannel channel() {
+        return ch;
+    }
+
+    /**
+     * @return Index of writer worker this client is bound to.
+     */
+    int worker() {
+        return worker;
+    }
+
+    /**
+     * @return Selection key or {@code null} if client has not been registered with selector yet.
+     */
+    SelectionKey key() {
+        return key;
+    }
+
+    /**
+     * @param key Selection key.
+     */
+    void key(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Writes queued frames to the socket using gathering writes. Called from writer thread only.
+     *
+     * @param bufs Array to gather queued buffers into.
+     * @return {@code True} if outbound queue was fully drained, {@code false} if socket
+     *      can not accept more data at the moment.
+     * @throws IOException If write failed.
+     */
+    boolean flush(ByteBuffer[] bufs) throws IOException {
         try {
-            OutputStream out = sock.getOutputStream();
+            while (true) {
+                int cnt = 0;
 
-            // We assume that this call does not return until the message
-            // is fully sent.
-            out.write(U.intToBytes(len));
-            out.write(data, 0, len);
+                for (ByteBuffer buf : queue) {
+                    bufs[cnt++] = buf;
+
+                    if (cnt == bufs.length)
+                        break;
+                }
+
+                if (cnt == 0) {
+                    flushScheduled.set(false);
+
+                    // Check for messages enqueued concurrently with the reset above.
+                    if (queue.isEmpty() || !flushScheduled.compareAndSet(false, true))
+                        return true;
+
+                    continue;
+                }
+
+                ch.write(bufs, 0, cnt);
+
+                int done = 0;
+
+                while (done < cnt && !bufs[done].hasRemaining())
+                    done++;
+
+                for (int i = 0; i < cnt; i++)
+                    bufs[i] = null;
+
+                if (done > 0) {
+                    for (int i = 0; i < done; i++)
+                        queue.poll();
+
+                    queueSize.addAndGet(-done);
+
+                    if (waiters.get() > 0) {
+                        synchronized (mux) {
+                            mux.notifyAll();
+                        }
+                    }
+                }
+
+                if (done < cnt)
+                    return false;
+            }
         }
         catch (IOException e) {
-            throw new GridException("Failed to send message to remote node: " + sock.getRemoteSocketAddress(), e);
+            err = e;
+
+            forceClose();
+
+            throw e;
         }
     }
 
     /** {@inheritDoc} */
     @Override public String toString() {
-        return S.toString(GridNioClient.class, this);
+        return S.toString(GridNioClient.class, this, "rmtAddr", remoteAddress());
     }
 }
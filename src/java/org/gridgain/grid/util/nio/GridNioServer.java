@@ -62,6 +62,9 @@ public class GridNioServer {
     /** Flag indicating if this server should use direct buffers. */
     private boolean directBuf;
 
+    /** Pool of buffers messages are read into. */
+    private final GridNioBufferPool bufPool;
+
     /** Address, to which this server is bound. */
     private InetAddress addr;
 
@@ -85,22 +88,26 @@ public class GridNioServer {
      * @param gridName Grid name.
      * @param directBuf Direct buffer flag.
      * @param syncNotification {@code true} if listener should be notified within NIO thread.
+     * @param bufPool Pool of buffers messages are read into.
      * @throws GridException If failed.
      */
     public GridNioServer(InetAddress addr, int port, GridNioServerListener listener, GridLogger log, Executor exec,
-        int selectorCnt, String gridName, boolean directBuf, boolean syncNotification) throws GridException {
+        int selectorCnt, String gridName, boolean directBuf, boolean syncNotification, GridNioBufferPool bufPool)
+        throws GridException {
         assert addr != null;
         assert port > 0 && port < 0xffff;
         assert listener != null;
         assert log != null;
         assert exec != null;
         assert selectorCnt > 0;
+        assert bufPool != null;
 
         this.listener = listener;
         this.log = log;
         this.gridName = gridName;
         this.directBuf = directBuf;
         this.syncNotification = syncNotification;
+        this.bufPool = bufPool;
 
         workerPool = new GridWorkerPool(exec, log);
 
@@ -292,7 +299,7 @@ public class GridNioServer {
 
                     while ((sockCh = registrationRequests.poll()) != null) {
                         try {
-                            sockCh.register(selector, SelectionKey.OP_READ, new GridNioServerBuffer());
+                            sockCh.register(selector, SelectionKey.OP_READ, new GridNioServerBuffer(bufPool));
                         }
                         catch (ClosedChannelException e) {
                             log().warning("Client connection was unexpectedly closed: " + sockCh.socket()
@@ -319,7 +326,7 @@ public class GridNioServer {
 
                     // Close all channels registered with selector.
                     for (SelectionKey key : selector.keys())
-                        U.close(key.channel(), log);
+                        close(key);
 
                     if (log.isDebugEnabled())
                         log.debug("Closing NIO selector.");
@@ -329,6 +336,60 @@ public class GridNioServer {
             }
         }
 
+        /**
+         * Closes key and returns buffer of partially read message, if any, to the pool.
+         *
+         * @param key Key to close.
+         */
+        private void close(SelectionKey key) {
+            GridNioServerBuffer nioBuf = (GridNioServerBuffer)key.attachment();
+
+            U.close(key, log);
+
+            if (nioBuf != null)
+                nioBuf.release();
+        }
+
+        /**
+         * Notifies listener of fully read message and returns message buffer to the pool
+         * once listener is done with it.
+         *
+         * @param nioBuf Buffer with fully read message.
+         * @param rmtAddr Remote address.
+         * @throws GridException If executor has thrown an exception.
+         */
+        private void onMessage(GridNioServerBuffer nioBuf, SocketAddress rmtAddr) throws GridException {
+            if (log.isDebugEnabled())
+                log.debug("Read full message from client socket: " + rmtAddr);
+
+            final boolean compressed = nioBuf.isCompressed();
+
+            final ByteBuffer msg = nioBuf.message();
+
+            if (syncNotification)
+                notifyListener(msg, compressed);
+            else {
+                workerPool.execute(new GridWorker(gridName, "grid-nio-worker", log) {
+                    @Override protected void body() {
+                        notifyListener(msg, compressed);
+                    }
+                });
+            }
+        }
+
+        /**
+         * @param msg Message buffer.
+         * @param compressed Compressed flag.
+         */
+        private void notifyListener(ByteBuffer msg, boolean compressed) {
+            try {
+                listener.onMessage(msg.asReadOnlyBuffer(), compressed);
+            }
+            finally {
+                bufPool.release(msg);
+            }
+        }
+
         /**
          * Processes keys selected by a selector.
          *
@@ -351,7 +412,31 @@ public class GridNioServer {
 
                     SocketAddress rmtAddr = sockCh.socket().getRemoteSocketAddress();
 
+                    GridNioServerBuffer nioBuf = (GridNioServerBuffer)key.attachment();
+
                     try {
+                        // Large message is in progress, read straight into message buffer.
+                        ByteBuffer body = nioBuf.pendingBody(readBuf.capacity());
+
+                        if (body != null) {
+                            int cnt = sockCh.read(body);
+
+                            if (log.isDebugEnabled())
+                                log.debug("Read bytes from client socket into message buffer [cnt=" + cnt +
+                                    ", rmtAddr=" + rmtAddr + ']');
+
+                            if (cnt == -1) {
+                                if (log.isDebugEnabled())
+                                    log.debug("Remote client closed connection: " + rmtAddr);
+
+                                close(key);
+                            }
+                            else if (nioBuf.isFilled())
+                                onMessage(nioBuf, rmtAddr);
+
+                            continue;
+                        }
+
                         // Reset buffer to read bytes up to its capacity.
                         readBuf.clear();
 
@@ -366,7 +451,7 @@ public class GridNioServer {
                             if (log.isDebugEnabled())
                                 log.debug("Remote client closed connection: " + rmtAddr);
 
-                            U.close(key, log);
+                            close(key);
 
                             continue;
                         }
@@ -377,32 +462,15 @@ public class GridNioServer {
                         // resets position to 0.
                         readBuf.flip();
 
-                        GridNioServerBuffer nioBuf = (GridNioServerBuffer)key.attachment();
-
                         // We have size let's test if we have object
                         while (readBuf.remaining() > 0) {
                             // Always write into the buffer.
                             nioBuf.read(readBuf);
 
-                            if (nioBuf.isFilled()) {
-                                if (log.isDebugEnabled())
-                                    log.debug("Read full message from client socket: " + rmtAddr);
-
-                                // Copy array so we can keep reading into the same buffer.
-                                final byte[] data = nioBuf.getMessageBytes().getArray();
-
-                                nioBuf.reset();
-
-                                if (syncNotification)
-                                    listener.onMessage(data);
-                                else {
-                                    workerPool.execute(new GridWorker(gridName, "grid-nio-worker", log) {
-                                        @Override protected void body() {
-                                            listener.onMessage(data);
-                                        }
-                                    });
-                                }
-                            }
+                            // Message buffer is handed over to listener,
+                            // so we can keep reading into a new one.
+                            if (nioBuf.isFilled())
+                                onMessage(nioBuf, rmtAddr);
                         }
                     }
                     catch (ClosedByInterruptException e) {
@@ -413,7 +481,7 @@ public class GridNioServer {
                         if (!closed) {
                             U.error(log, "Failed to read data from client: " + rmtAddr, e);
 
-                            U.close(key, log);
+                            close(key);
                         }
                     }
                 }
@@ -9,27 +9,59 @@
 
 package org.gridgain.grid.util.nio;
 
-import org.gridgain.grid.lang.utils.*;
 import java.nio.*;
 
 /**
- * NIO server buffer.
+ * NIO server buffer. Message body is assembled in a buffer taken from
+ * {@link GridNioBufferPool}, so no intermediate arrays are allocated per message.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
  */
 class GridNioServerBuffer {
-    /** Preallocate 8K. */
-    private GridByteArrayList msgBytes = new GridByteArrayList(1024 << 3);
+    /** Buffer pool. */
+    private final GridNioBufferPool pool;
+
+    /** Message length header. */
+    private final ByteBuffer hdr = ByteBuffer.allocate(4);
+
+    /** Message body, {@code null} until header is read. */
+    private ByteBuffer body;
 
     /** */
     private int msgSize = -1;
 
+    /** Compressed flag of current message. */
+    private boolean compressed;
+
+    /**
+     * @param pool Buffer pool.
+     */
+    GridNioServerBuffer(GridNioBufferPool pool) {
+        assert pool != null;
+
+        this.pool = pool;
+    }
+
     /** */
     void reset() {
-        msgBytes.reset();
+        hdr.clear();
+
+        body = null;
 
         msgSize = -1;
+
+        compressed = false;
+    }
+
+    /**
+     * Returns body buffer to the pool. Called when connection is closed.
+     */
+    void release() {
+        if (body != null)
+            pool.release(body);
+
+        reset();
     }
 
     /**
@@ -40,56 +72,89 @@ class GridNioServerBuffer {
     int getMessageSize() { return msgSize; }
 
     /**
-     * Gets message bytes read so far.
+     * Checks whether current message has {@link GridNioClient#COMPRESSED_FLAG} set in its header.
+     *
+     * @return Flag indicating whether message body is compressed.
+     */
+    boolean isCompressed() { return compressed; }
+
+    /**
+     * Checks whether the message is fully read.
      *
-     * @return Message bytes read so far.
+     * @return Flag indicating whether message is fully read or not.
      */
-    GridByteArrayList getMessageBytes() { return msgSize < 0 ? null : msgBytes; }
+    boolean isFilled() { return body != null && !body.hasRemaining(); }
 
     /**
-     * Checks whether the byte array is filled.
+     * Gets fully read message and resets this buffer, so next message can be read.
+     * Ownership of returned buffer passes to the caller, which should return it
+     * to the pool once message is processed.
      *
-     * @return Flag indicating whether byte array is filled or not.
+     * @return Message buffer with position set to {@code 0} and limit set to message size.
      */
-    boolean isFilled() { return msgSize > 0 && msgBytes.getSize() == msgSize; }
+    ByteBuffer message() {
+        assert isFilled();
+
+        ByteBuffer msg = body;
+
+        msg.flip();
+
+        reset();
+
+        return msg;
+    }
+
+    /**
+     * Gets body buffer if message is in progress and at least {@code threshold}
+     * bytes are still missing. Such messages can be read from channel straight into
+     * the body buffer, bypassing intermediate read buffer.
+     *
+     * @param threshold Minimum number of missing bytes.
+     * @return Body buffer or {@code null}.
+     */
+    ByteBuffer pendingBody(int threshold) {
+        return body != null && body.remaining() >= threshold ? body : null;
+    }
 
     /**
      * @param buf Buffer.
      */
     void read(ByteBuffer buf) {
         if (msgSize < 0) {
-            int remaining = buf.remaining();
-
-            if (remaining > 0) {
-                int missing = 4 - msgBytes.getSize();
+            while (buf.hasRemaining() && hdr.hasRemaining())
+                hdr.put(buf.get());
 
-                msgBytes.add(buf, missing < remaining ? missing : remaining);
+            if (!hdr.hasRemaining()) {
+                int len = hdr.getInt(0);
 
-                assert msgBytes.getSize() <= 4;
+                compressed = (len & GridNioClient.COMPRESSED_FLAG) != 0;
 
-                if (msgBytes.getSize() == 4) {
-                    msgSize = msgBytes.getInt(0);
+                msgSize = len & ~GridNioClient.COMPRESSED_FLAG;
 
-                    assert msgSize > 0;
+                assert msgSize > 0;
 
-                    msgBytes.reset();
-
-                    // Allocate required size.
-                    msgBytes.allocate(msgSize);
-                }
+                // Acquire buffer of required size.
+                body = pool.acquire(msgSize);
             }
         }
 
         int remaining = buf.remaining();
 
-        // If there are more bytes in buffer.
-        if (remaining > 0) {
-            int missing = msgSize - msgBytes.getSize();
+        // If there are more bytes in buffer, read only up to message size.
+        if (remaining > 0 && body != null && body.hasRemaining()) {
+            int missing = body.remaining();
+
+            if (missing < remaining) {
+                int lim = buf.limit();
+
+                buf.limit(buf.position() + missing);
+
+                body.put(buf);
 
-            // Read only up to message size.
-            if (missing > 0) {
-                msgBytes.add(buf, missing < remaining ? missing : remaining);
+                buf.limit(lim);
             }
+            else
+                body.put(buf);
         }
     }
 }
@@ -9,6 +9,7 @@
 
 package org.gridgain.grid.util.nio;
 
+import java.nio.*;
 import java.util.*;
 
 /**
@@ -19,7 +20,13 @@ import java.util.*;
  */
 public interface GridNioServerListener extends EventListener {
     /**
-     * @param data Data.
+     * Notifies listener of a new message. Passed buffer is a read-only view of the
+     * pooled buffer message was read into and is valid only until this method returns,
+     * listener must not keep a reference to it.
+     *
+     * @param data Read-only message buffer with position set to {@code 0} and
+     *      limit set to message size.
+     * @param compressed Whether message body is compressed (see {@link GridNioClient#COMPRESSED_FLAG}).
      */
-    public void onMessage(byte[] data);
+    public void onMessage(ByteBuffer data, boolean compressed);
 }
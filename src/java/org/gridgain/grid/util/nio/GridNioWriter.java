@@ -0,0 +1,298 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util.nio;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.thread.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.worker.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.channels.spi.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Selector-based writer for {@link GridNioClient} outbound queues. There can be several
+ * selectors and several writing threads, each client is bound to one of them in
+ * round-robin fashion on creation.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridNioWriter {
+    /** Time, which writer will wait before retry operation. */
+    private static final long ERR_WAIT_TIME = 2000;
+
+    /** Default maximum number of buffers coalesced into one gathering write. */
+    public static final int DFLT_MAX_GATHER_CNT = 128;
+
+    /** Write worker threads. */
+    private final GridThread[] writeThreads;
+
+    /** Write workers. */
+    private final GridNioWriteWorker[] writeWorkers;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Maximum number of buffers coalesced into one gathering write. */
+    private final int maxGatherCnt;
+
+    /** Closed flag. */
+    private volatile boolean closed;
+
+    /** Index to select which thread will serve next client. Using round-robin balancing. */
+    private final AtomicInteger balanceIdx = new AtomicInteger();
+
+    /**
+     * @param log Log.
+     * @param selectorCnt Count of selectors and writing threads.
+     * @param maxGatherCnt Maximum number of buffers coalesced into one gathering write.
+     * @param gridName Grid name.
+     * @throws GridException If failed.
+     */
+    public GridNioWriter(GridLogger log, int selectorCnt, int maxGatherCnt, String gridName) throws GridException {
+        assert log != null;
+        assert selectorCnt > 0;
+        assert maxGatherCnt > 0;
+
+        this.log = log;
+        this.maxGatherCnt = maxGatherCnt;
+
+        writeWorkers = new GridNioWriteWorker[selectorCnt];
+        writeThreads = new GridThread[selectorCnt];
+
+        for (int i = 0; i < writeWorkers.length; i++) {
+            writeWorkers[i] = new GridNioWriteWorker(gridName, "nio-writer-" + i, log, createSelector());
+
+            writeThreads[i] = new GridThread(writeWorkers[i]);
+        }
+    }
+
+    /**
+     * Starts all writing threads.
+     */
+    public void start() {
+        for (GridThread thread : writeThreads)
+            thread.start();
+    }
+
+    /**
+     * Closes all threads.
+     */
+    public void stop() {
+        if (!closed) {
+            closed = true;
+
+            for (GridThread thread : writeThreads)
+                thread.interrupt();
+
+            U.joinThreads(Arrays.asList(writeThreads), log);
+        }
+    }
+
+    /**
+     * @return New selector.
+     * @throws GridException If selector could not be created.
+     */
+    private Selector createSelector() throws GridException {
+        try {
+            return SelectorProvider.provider().openSelector();
+        }
+        catch (IOException e) {
+            throw new GridException("Failed to initialize NIO selector.", e);
+        }
+    }
+
+    /**
+     * Selects worker which will serve next client. Workers are selected according
+     * to a round-robin algorithm.
+     *
+     * @return Index of the worker.
+     */
+    int nextWorker() {
+        return (balanceIdx.getAndIncrement() & Integer.MAX_VALUE) % writeWorkers.length;
+    }
+
+    /**
+     * Schedules flush of client outbound queue.
+     *
+     * @param client Client to flush.
+     */
+    void flush(GridNioClient client) {
+        writeWorkers[client.worker()].offer(client);
+    }
+
+    /**
+     * Thread performing only write operations to the channels.
+     */
+    private class GridNioWriteWorker extends GridWorker {
+        /** Flush requests for this worker. */
+        private final GridConcurrentLinkedDeque<GridNioClient> flushRequests =
+            new GridConcurrentLinkedDeque<GridNioClient>();
+
+        /** Buffers for gathering write. */
+        private final ByteBuffer[] bufs = new ByteBuffer[maxGatherCnt];
+
+        /** Selector to select write events. */
+        private Selector selector;
+
+        /**
+         * @param gridName Grid name.
+         * @param name Worker name.
+         * @param log Logger.
+         * @param selector Write selector.
+         */
+        protected GridNioWriteWorker(String gridName, String name, GridLogger log, Selector selector) {
+            super(gridName, name, log);
+
+            this.selector = selector;
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void body() throws InterruptedException, GridInterruptedException {
+            boolean reset = false;
+
+            while (!closed) {
+                try {
+                    if (reset)
+                        selector = createSelector();
+
+                    write();
+                }
+                catch (GridException e) {
+                    if (!Thread.currentThread().isInterrupted()) {
+                        U.error(log, "Failed to write data to remote connection (will wait for " +
+                            ERR_WAIT_TIME + "ms).", e);
+
+                        U.sleep(ERR_WAIT_TIME);
+
+                        reset = true;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds client to the flush queue and wakes up writing thread.
+         *
+         * @param client Client to be flushed by this thread.
+         */
+        private void offer(GridNioClient client) {
+            flushRequests.offer(client);
+
+            selector.wakeup();
+        }
+
+        /**
+         * Processes write events and flush requests.
+         *
+         * @throws GridException If IOException occurred.
+         */
+        private void write() throws GridException {
+            try {
+                while (!closed && selector.isOpen()) {
+                    // Wake up every 2 seconds to check if closed.
+                    if (selector.select(2000) > 0)
+                        // Walk through the ready keys collection and process network events.
+                        processSelectedKeys(selector.selectedKeys());
+
+                    GridNioClient client;
+
+                    while ((client = flushRequests.poll()) != null) {
+                        if (!client.channel().isOpen())
+                            continue;
+
+                        if (!flush(client)) {
+                            SelectionKey key = client.key();
+
+                            try {
+                                // Key may belong to previous selector if this one was reset.
+                                if (key == null || key.selector() != selector)
+                                    client.key(client.channel().register(selector, SelectionKey.OP_WRITE, client));
+                                else
+                                    key.interestOps(SelectionKey.OP_WRITE);
+                            }
+                            catch (ClosedChannelException e) {
+                                if (log.isDebugEnabled())
+                                    log.debug("Client connection was closed before flush: " + client);
+                            }
+                        }
+                    }
+                }
+            }
+            // Ignore this exception as thread interruption is equal to 'close' call.
+            catch (ClosedByInterruptException e) {
+                if (log.isDebugEnabled())
+                    log.debug("Closing selector due to thread interruption: " + e.getMessage());
+            }
+            catch (ClosedSelectorException e) {
+                throw new GridException("Selector got closed while active.", e);
+            }
+            catch (IOException e) {
+                throw new GridException("Failed to select events on selector.", e);
+            }
+            finally {
+                if (selector.isOpen()) {
+                    if (log.isDebugEnabled())
+                        log.debug("Closing NIO selector.");
+
+                    U.close(selector, log);
+                }
+            }
+        }
+
+        /**
+         * Processes keys selected by a selector.
+         *
+         * @param keys Selected keys.
+         */
+        private void processSelectedKeys(Set<SelectionKey> keys) {
+            for (Iterator<SelectionKey> iter = keys.iterator(); iter.hasNext();) {
+                SelectionKey key = iter.next();
+
+                iter.remove();
+
+                // Was key closed?
+                if (!key.isValid())
+                    continue;
+
+                if (key.isWritable()) {
+                    GridNioClient client = (GridNioClient)key.attachment();
+
+                    if (flush(client) && key.isValid())
+                        // Nothing more to write, stop watching for write readiness.
+                        key.interestOps(0);
+                }
+            }
+        }
+
+        /**
+         * @param client Client to flush.
+         * @return {@code True} if client outbound queue was fully drained or client was closed.
+         */
+        private boolean flush(GridNioClient client) {
+            try {
+                return client.flush(bufs);
+            }
+            catch (IOException e) {
+                if (!closed)
+                    U.error(log, "Failed to write data to remote connection: " + client, e);
+
+                return true;
+            }
+        }
+    }
+}
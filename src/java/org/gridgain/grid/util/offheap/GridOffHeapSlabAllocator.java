@@ -0,0 +1,435 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util.offheap;
+
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.*;
+import org.gridgain.grid.util.tostring.*;
+import sun.misc.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Slab allocator of memory outside of Java heap. Memory is reserved from operating system
+ * in slabs of fixed size, and every slab is carved into chunks of one size class while it
+ * is in use. Size classes are powers of two from {@link #MIN_CHUNK_SIZE} up to slab size,
+ * so fragmentation is bounded by half of a chunk. Freed chunks are linked into per-slab
+ * free list kept in the chunks themselves, and once all chunks of a slab are freed the slab
+ * is returned to the common pool and can be reused by any size class. Memory is never
+ * returned to operating system until allocator is destroyed.
+ * <p>
+ * Total amount of reserved memory never exceeds maximum given on creation. Once it is
+ * reached, {@link #allocate(int)} returns {@code 0} unless there is a free chunk of
+ * required size class or a free slab, and it is up to the caller to free some of the
+ * chunks or store data elsewhere.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridOffHeapSlabAllocator {
+    /** Unsafe. */
+    private static final Unsafe UNSAFE = GridUnsafe.unsafe();
+
+    /** Byte array base offset. */
+    private static final long BYTE_ARR_OFF = UNSAFE.arrayBaseOffset(byte[].class);
+
+    /** Minimum chunk size. */
+    public static final int MIN_CHUNK_SIZE = 64;
+
+    /** Default slab size. */
+    public static final int DFLT_SLAB_SIZE = 1024 * 1024;
+
+    /** Maximum amount of memory to reserve. */
+    private final long maxMem;
+
+    /** Slab size. */
+    private final int slabSize;
+
+    /** Size classes. */
+    @GridToStringExclude
+    private final SizeClass[] classes;
+
+    /** All reserved slabs by address, guarded by itself. */
+    @GridToStringExclude
+    private final NavigableMap<Long, Slab> slabs = new TreeMap<Long, Slab>();
+
+    /** Slabs not used by any size class, guarded by {@link #slabs}. */
+    @GridToStringExclude
+    private final Deque<Slab> freeSlabs = new ArrayDeque<Slab>();
+
+    /** Reserved memory. */
+    private final AtomicLong reserved = new AtomicLong();
+
+    /** Memory in allocated chunks. */
+    private final AtomicLong used = new AtomicLong();
+
+    /** Destroyed flag, guarded by {@link #slabs}. */
+    private boolean destroyed;
+
+    /**
+     * @param maxMem Maximum amount of memory to reserve.
+     * @param slabSize Slab size, power of two not less than {@link #MIN_CHUNK_SIZE}.
+     */
+    public GridOffHeapSlabAllocator(long maxMem, int slabSize) {
+        A.ensure(maxMem > 0, "maxMem > 0");
+        A.ensure(slabSize >= MIN_CHUNK_SIZE && Integer.bitCount(slabSize) == 1,
+            "slabSize >= MIN_CHUNK_SIZE && slabSize is power of two");
+
+        this.maxMem = maxMem;
+        this.slabSize = slabSize;
+
+        classes = new SizeClass[Integer.numberOfTrailingZeros(slabSize) -
+            Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE) + 1];
+
+        for (int i = 0; i < classes.length; i++)
+            classes[i] = new SizeClass(MIN_CHUNK_SIZE << i);
+    }
+
+    /**
+     * Gets size class of chunks that fit given number of bytes.
+     *
+     * @param size Number of bytes.
+     * @return Size class index, or {@code -1} if size is greater than slab size.
+     */
+    public int sizeClass(int size) {
+        assert size >= 0;
+
+        if (size > slabSize)
+            return -1;
+
+        if (size <= MIN_CHUNK_SIZE)
+            return 0;
+
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Allocates chunk that fits given number of bytes.
+     *
+     * @param size Number of bytes.
+     * @return Chunk address, or {@code 0} if memory limit has been reached or size
+     *      is greater than slab size.
+     */
+    public long allocate(int size) {
+        int cls = sizeClass(size);
+
+        if (cls < 0)
+            return 0;
+
+        SizeClass c = classes[cls];
+
+        long addr;
+
+        synchronized (slabs) {
+            if (destroyed)
+                return 0;
+
+            Slab slab = c.partial.isEmpty() ? null : c.partial.iterator().next();
+
+            if (slab == null) {
+                slab = freeSlabs.poll();
+
+                if (slab == null) {
+                    slab = reserveSlab();
+
+                    if (slab == null)
+                        return 0;
+                }
+
+                slab.cls = c;
+
+                c.partial.add(slab);
+            }
+
+            addr = slab.allocate();
+
+            if (slab.full())
+                c.partial.remove(slab);
+        }
+
+        used.addAndGet(c.chunkSize);
+
+        return addr;
+    }
+
+    /**
+     * Frees chunk previously allocated with {@link #allocate(int)}.
+     *
+     * @param addr Chunk address.
+     * @param size Number of bytes the chunk was allocated for.
+     */
+    public void free(long addr, int size) {
+        assert addr != 0;
+
+        int cls = sizeClass(size);
+
+        assert cls >= 0;
+
+        SizeClass c = classes[cls];
+
+        synchronized (slabs) {
+            if (destroyed)
+                return;
+
+            Map.Entry<Long, Slab> e = slabs.floorEntry(addr);
+
+            assert e != null : "Invalid chunk address: " + addr;
+
+            Slab slab = e.getValue();
+
+            assert slab.cls == c : "Invalid chunk size [addr=" + addr + ", size=" + size + ']';
+
+            boolean wasFull = slab.full();
+
+            slab.free(addr);
+
+            if (slab.empty()) {
+                // Let any size class reuse this slab.
+                c.partial.remove(slab);
+
+                slab.reset();
+
+                freeSlabs.push(slab);
+            }
+            else if (wasFull)
+                c.partial.add(slab);
+        }
+
+        used.addAndGet(-c.chunkSize);
+    }
+
+    /**
+     * Must be called while holding {@link #slabs} monitor.
+     *
+     * @return New slab, or {@code null} if memory limit has been reached.
+     */
+    private Slab reserveSlab() {
+        if (reserved.get() + slabSize > maxMem)
+            return null;
+
+        reserved.addAndGet(slabSize);
+
+        Slab slab = new Slab(UNSAFE.allocateMemory(slabSize));
+
+        slabs.put(slab.addr, slab);
+
+        return slab;
+    }
+
+    /**
+     * Copies bytes from array into off-heap memory.
+     *
+     * @param addr Destination address.
+     * @param arr Source array.
+     * @param off Offset in array.
+     * @param len Number of bytes to copy.
+     */
+    public static void write(long addr, byte[] arr, int off, int len) {
+        UNSAFE.copyMemory(arr, BYTE_ARR_OFF + off, null, addr, len);
+    }
+
+    /**
+     * Copies bytes from off-heap memory into new array.
+     *
+     * @param addr Source address.
+     * @param len Number of bytes to copy.
+     * @return Array with copied bytes.
+     */
+    public static byte[] read(long addr, int len) {
+        byte[] arr = new byte[len];
+
+        UNSAFE.copyMemory(null, addr, arr, BYTE_ARR_OFF, len);
+
+        return arr;
+    }
+
+    /**
+     * @param addr Address.
+     * @param val Value to write.
+     */
+    public static void writeInt(long addr, int val) {
+        UNSAFE.putInt(addr, val);
+    }
+
+    /**
+     * @param addr Address.
+     * @return Read value.
+     */
+    public static int readInt(long addr) {
+        return UNSAFE.getInt(addr);
+    }
+
+    /**
+     * @return Maximum amount of memory this allocator can reserve.
+     */
+    public long maxMemory() {
+        return maxMem;
+    }
+
+    /**
+     * @return Amount of memory reserved from operating system.
+     */
+    public long reservedSize() {
+        return reserved.get();
+    }
+
+    /**
+     * @return Amount of memory in allocated chunks.
+     */
+    public long usedSize() {
+        return used.get();
+    }
+
+    /**
+     * @return Number of reserved slabs not used by any size class.
+     */
+    public int freeSlabs() {
+        synchronized (slabs) {
+            return freeSlabs.size();
+        }
+    }
+
+    /**
+     * Releases all reserved memory. All chunk addresses become invalid and
+     * no memory can be allocated afterwards.
+     */
+    public void destroy() {
+        synchronized (slabs) {
+            if (destroyed)
+                return;
+
+            destroyed = true;
+
+            for (Long slab : slabs.keySet())
+                UNSAFE.freeMemory(slab);
+
+            slabs.clear();
+
+            freeSlabs.clear();
+
+            for (SizeClass c : classes)
+                c.partial.clear();
+        }
+
+        used.set(0);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridOffHeapSlabAllocator.class, this, "reserved", reserved.get(), "used", used.get());
+    }
+
+    /**
+     * Chunks of one size.
+     */
+    private static class SizeClass {
+        /** Chunk size. */
+        private final int chunkSize;
+
+        /** Slabs of this size class that have free chunks. */
+        private final Collection<Slab> partial = new LinkedHashSet<Slab>();
+
+        /**
+         * @param chunkSize Chunk size.
+         */
+        private SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Slab carved into chunks of current size class. Freed chunks are linked into a list
+     * by writing address of next free chunk into first bytes of every free chunk.
+     */
+    private class Slab {
+        /** Slab address. */
+        private final long addr;
+
+        /** Current size class, {@code null} if slab is free. */
+        private SizeClass cls;
+
+        /** Offset of first never allocated chunk. */
+        private int bumpOff;
+
+        /** Address of first free chunk, {@code 0} if there is none. */
+        private long freeHead;
+
+        /** Number of allocated chunks. */
+        private int usedCnt;
+
+        /**
+         * @param addr Slab address.
+         */
+        private Slab(long addr) {
+            this.addr = addr;
+        }
+
+        /**
+         * @return Chunk address.
+         */
+        private long allocate() {
+            assert !full();
+
+            long chunk;
+
+            if (freeHead != 0) {
+                chunk = freeHead;
+
+                freeHead = UNSAFE.getLong(chunk);
+            }
+            else {
+                chunk = addr + bumpOff;
+
+                bumpOff += cls.chunkSize;
+            }
+
+            usedCnt++;
+
+            return chunk;
+        }
+
+        /**
+         * @param chunk Chunk address.
+         */
+        private void free(long chunk) {
+            assert usedCnt > 0;
+
+            UNSAFE.putLong(chunk, freeHead);
+
+            freeHead = chunk;
+
+            usedCnt--;
+        }
+
+        /**
+         * @return {@code True} if all chunks are allocated.
+         */
+        private boolean full() {
+            return freeHead == 0 && bumpOff == slabSize;
+        }
+
+        /**
+         * @return {@code True} if no chunks are allocated.
+         */
+        private boolean empty() {
+            return usedCnt == 0;
+        }
+
+        /**
+         * Detaches slab from its size class.
+         */
+        private void reset() {
+            cls = null;
+            bumpOff = 0;
+            freeHead = 0;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.cache.store.jdbc;
+
+import junit.framework.*;
+import org.gridgain.grid.*;
+import org.gridgain.grid.logger.java.*;
+import org.gridgain.grid.marshaller.jdk.*;
+import org.gridgain.grid.typedef.*;
+
+import java.lang.reflect.*;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.logging.*;
+
+/**
+ * Tests {@link GridCacheJdbcBlobStore} batch operations against in-memory H2 database,
+ * both with update counts reported by driver and with driver which reports
+ * {@link Statement#SUCCESS_NO_INFO} for every batched statement.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheJdbcBlobStoreSelfTest extends TestCase {
+    /** Number of entries, spans several batches. */
+    private static final int ENTRY_CNT = 1200;
+
+    /** Batch size. */
+    private static final int BATCH_SIZE = 500;
+
+    /** Number of batches for {@link #ENTRY_CNT} entries. */
+    private static final int BATCH_CNT = (ENTRY_CNT + BATCH_SIZE - 1) / BATCH_SIZE;
+
+    /** URL prefix of driver hiding batch update counts. */
+    private static final String NO_INFO_URL = "jdbc:noinfo:";
+
+    /** Database counter, every test gets its own database. */
+    private static final AtomicInteger dbCnt = new AtomicInteger();
+
+    /** Driver hiding batch update counts. */
+    private NoInfoDriver drv;
+
+    /** Store. */
+    private GridCacheJdbcBlobStore<Integer, String> store;
+
+    /** {@inheritDoc} */
+    @Override protected void setUp() throws Exception {
+        drv = new NoInfoDriver();
+
+        DriverManager.registerDriver(drv);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void tearDown() throws Exception {
+        if (store != null)
+            store.stop();
+
+        DriverManager.deregisterDriver(drv);
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    public void testPutAll() throws Exception {
+        store = store(false);
+
+        checkPutAll();
+
+        assertEquals(0, drv.updates.get());
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    public void testPutAllWithoutUpdateCounts() throws Exception {
+        store = store(true);
+
+        checkPutAll();
+
+        // Existence of entries is checked with one select per batch, never per key.
+        assertEquals(0, drv.updates.get());
+        assertEquals(BATCH_CNT, drv.queries.get());
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    public void testRemoveAll() throws Exception {
+        store = store(false);
+
+        store.putAll(null, null, values(0, ENTRY_CNT, "a"));
+
+        store.removeAll(null, null, values(0, ENTRY_CNT / 2, "a").keySet());
+
+        Map<Integer, String> loaded = loadAll();
+
+        for (int i = 0; i < ENTRY_CNT; i++)
+            assertEquals("Invalid value for key: " + i, i < ENTRY_CNT / 2 ? null : "a" + i, loaded.get(i));
+    }
+
+    /**
+     * Puts half of entries, then puts all entries with other values, so that
+     * second put both updates and inserts in every batch.
+     *
+     * @throws Exception If failed.
+     */
+    private void checkPutAll() throws Exception {
+        Map<Integer, String> first = new HashMap<Integer, String>();
+
+        for (int i = 0; i < ENTRY_CNT; i += 2)
+            first.put(i, "a" + i);
+
+        store.putAll(null, null, first);
+
+        Map<Integer, String> loaded = loadAll();
+
+        for (int i = 0; i < ENTRY_CNT; i++)
+            assertEquals("Invalid value for key: " + i, i % 2 == 0 ? "a" + i : null, loaded.get(i));
+
+        drv.queries.set(0);
+
+        store.putAll(null, null, values(0, ENTRY_CNT, "b"));
+
+        loaded = loadAll();
+
+        for (int i = 0; i < ENTRY_CNT; i++)
+            assertEquals("Invalid value for key: " + i, "b" + i, loaded.get(i));
+
+        // Every key is stored exactly once.
+        assertEquals(ENTRY_CNT, rowCount());
+    }
+
+    /**
+     * @param from First key.
+     * @param to Last key, exclusive.
+     * @param prefix Value prefix.
+     * @return Entries.
+     */
+    private Map<Integer, String> values(int from, int to, String prefix) {
+        Map<Integer, String> m = new HashMap<Integer, String>();
+
+        for (int i = from; i < to; i++)
+            m.put(i, prefix + i);
+
+        return m;
+    }
+
+    /**
+     * @return All entries found in store, including {@code null} values for missing keys.
+     * @throws GridException If failed.
+     */
+    private Map<Integer, String> loadAll() throws GridException {
+        final Map<Integer, String> res = new HashMap<Integer, String>();
+
+        int before = drv.queries.get();
+
+        store.loadAll(null, null, values(0, ENTRY_CNT, "").keySet(), new CI2<Integer, String>() {
+            @Override public void apply(Integer key, String val) {
+                assertFalse("Duplicate key: " + key, res.containsKey(key));
+
+                res.put(key, val);
+            }
+        });
+
+        assertEquals(ENTRY_CNT, res.size());
+
+        drv.queries.set(before);
+
+        return res;
+    }
+
+    /**
+     * @return Number of rows in table.
+     * @throws SQLException If failed.
+     */
+    private int rowCount() throws SQLException {
+        Connection conn = DriverManager.getConnection(drv.h2Url);
+
+        try {
+            ResultSet rs = conn.createStatement().executeQuery("select count(*) from ENTRIES");
+
+            assertTrue(rs.next());
+
+            return rs.getInt(1);
+        }
+        finally {
+            conn.close();
+        }
+    }
+
+    /**
+     * @param noInfo {@code True} if driver should hide batch update counts.
+     * @return Store.
+     * @throws Exception If failed.
+     */
+    private GridCacheJdbcBlobStore<Integer, String> store(boolean noInfo) throws Exception {
+        drv.h2Url = "jdbc:h2:mem:jdbcBlobStoreTest" + dbCnt.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+
+        GridCacheJdbcBlobStore<Integer, String> store = new GridCacheJdbcBlobStore<Integer, String>();
+
+        store.setConnectionUrl(noInfo ? NO_INFO_URL + drv.h2Url : drv.h2Url);
+        store.setBatchSize(BATCH_SIZE);
+
+        inject(store, "log", new GridJavaLogger());
+        inject(store, "marsh", new GridJdkMarshaller());
+
+        return store;
+    }
+
+    /**
+     * @param target Target object.
+     * @param name Field name.
+     * @param val Value to inject.
+     * @throws Exception If failed.
+     */
+    private static void inject(Object target, String name, Object val) throws Exception {
+        Field f = target.getClass().getDeclaredField(name);
+
+        f.setAccessible(true);
+
+        f.set(target, val);
+    }
+
+    /**
+     * Driver delegating to H2 which reports {@link Statement#SUCCESS_NO_INFO} for every
+     * batched statement, the way some drivers (e.g. Oracle) do. Counts single-row updates
+     * and queries executed through it.
+     */
+    private static class NoInfoDriver implements Driver {
+        /** Underlying H2 URL. */
+        private volatile String h2Url;
+
+        /** Number of single statement updates. */
+        private final AtomicInteger updates = new AtomicInteger();
+
+        /** Number of queries. */
+        private final AtomicInteger queries = new AtomicInteger();
+
+        /** {@inheritDoc} */
+        @Override public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url))
+                return null;
+
+            final Connection conn = DriverManager.getConnection(url.substring(NO_INFO_URL.length()), info);
+
+            return (Connection)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Connection.class},
+                new InvocationHandler() {
+                    @Override public Object invoke(Object proxy, Method mtd, Object[] args) throws Throwable {
+                        Object res = delegate(conn, mtd, args);
+
+                        return res instanceof PreparedStatement ? statement((PreparedStatement)res) : res;
+                    }
+                });
+        }
+
+        /**
+         * @param stmt Statement.
+         * @return Statement hiding batch update counts.
+         */
+        private PreparedStatement statement(final PreparedStatement stmt) {
+            return (PreparedStatement)Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[] {PreparedStatement.class}, new InvocationHandler() {
+                    @Override public Object invoke(Object proxy, Method mtd, Object[] args) throws Throwable {
+                        if ("executeUpdate".equals(mtd.getName()))
+                            updates.incrementAndGet();
+                        else if ("executeQuery".equals(mtd.getName()))
+                            queries.incrementAndGet();
+
+                        Object res = delegate(stmt, mtd, args);
+
+                        if ("executeBatch".equals(mtd.getName()))
+                            Arrays.fill((int[])res, Statement.SUCCESS_NO_INFO);
+
+                        return res;
+                    }
+                });
+        }
+
+        /**
+         * @param target Target.
+         * @param mtd Method.
+         * @param args Arguments.
+         * @return Result.
+         * @throws Throwable If target method failed.
+         */
+        private static Object delegate(Object target, Method mtd, Object[] args) throws Throwable {
+            try {
+                return mtd.invoke(target, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean acceptsURL(String url) {
+            return url.startsWith(NO_INFO_URL);
+        }
+
+        /** {@inheritDoc} */
+        @Override public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        /** {@inheritDoc} */
+        @Override public int getMajorVersion() {
+            return 1;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int getMinorVersion() {
+            return 0;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean jdbcCompliant() {
+            return false;
+        }
+
+        /**
+         * @return Parent logger.
+         * @throws SQLFeatureNotSupportedException Always.
+         */
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}